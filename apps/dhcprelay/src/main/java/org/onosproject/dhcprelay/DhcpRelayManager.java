@@ -42,6 +42,7 @@ import org.onlab.packet.DHCP6;
 import org.onlab.packet.IPacket;
 import org.onlab.packet.IPv6;
 import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
 import org.onlab.packet.IPv4;
 import org.onlab.packet.Ip4Address;
 import org.onlab.packet.MacAddress;
@@ -497,6 +498,12 @@ public class DhcpRelayManager implements DhcpRelayService {
 
         @Override
         public void process(PacketContext context) {
+            EthernetView view = context.inPacket().view();
+            if (view != null && !isRelayed(view)) {
+                // not worth deserializing
+                return;
+            }
+
             // process the packet and get the payload
             Ethernet packet = context.inPacket().parsed();
             if (packet == null) {
@@ -539,6 +546,19 @@ public class DhcpRelayManager implements DhcpRelayService {
             }
         }
 
+        private boolean isRelayed(EthernetView view) {
+            if (view.etherType() == Ethernet.TYPE_ARP) {
+                return arpEnabled;
+            }
+            return view.ipProtocol() == IPv4.PROTOCOL_UDP &&
+                    (isDhcpPort(view.sourcePort()) || isDhcpPort(view.destinationPort()));
+        }
+
+        private boolean isDhcpPort(int port) {
+            return port == UDP.DHCP_SERVER_PORT || port == UDP.DHCP_CLIENT_PORT ||
+                    port == UDP.DHCP_V6_SERVER_PORT || port == UDP.DHCP_V6_CLIENT_PORT;
+        }
+
         /**
          * Processes the ARP Payload and initiates a reply to the client.
          *
@@ -17,9 +17,33 @@
 package org.onosproject.routeservice;
 
 import org.onosproject.event.EventListener;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
 
 /**
  * Listener for route events.
  */
 public interface RouteListener extends EventListener<RouteEvent> {
+
+    /**
+     * Reacts to a batch of route events, in the order they occurred.
+     * <p>
+     * Events that queue up while the listener is busy are delivered as a
+     * batch, for instance while a peer sends a full table. Listeners able to
+     * program their changes in bulk override this method; by default the
+     * events are handled one at a time, and an event that fails to be handled
+     * is logged without holding back the rest of the batch.
+     *
+     * @param events route events
+     */
+    default void events(List<RouteEvent> events) {
+        for (RouteEvent event : events) {
+            try {
+                event(event);
+            } catch (RuntimeException e) {
+                LoggerFactory.getLogger(getClass()).warn("Exception while handling {}", event, e);
+            }
+        }
+    }
 }
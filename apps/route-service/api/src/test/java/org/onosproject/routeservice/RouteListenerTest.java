@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.routeservice;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+import org.onlab.packet.MacAddress;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Unit tests for the default batch handling of route listeners.
+ */
+public class RouteListenerTest {
+
+    private static RouteEvent event(String prefix) {
+        Route route = new Route(Route.Source.STATIC, IpPrefix.valueOf(prefix), IpAddress.valueOf("192.168.1.1"));
+        return new RouteEvent(RouteEvent.Type.ROUTE_ADDED, new ResolvedRoute(route, MacAddress.NONE));
+    }
+
+    /**
+     * Tests that an event failing to be handled does not hold back the rest
+     * of the batch.
+     */
+    @Test
+    public void testFailingEvent() {
+        RouteEvent failing = event("10.0.1.0/24");
+        List<RouteEvent> handled = new ArrayList<>();
+        RouteListener listener = event -> {
+            if (event == failing) {
+                throw new IllegalStateException("failed");
+            }
+            handled.add(event);
+        };
+
+        RouteEvent first = event("10.0.0.0/24");
+        RouteEvent last = event("10.0.2.0/24");
+        listener.events(ImmutableList.of(first, failing, last));
+
+        assertEquals(ImmutableList.of(first, last), handled);
+    }
+}
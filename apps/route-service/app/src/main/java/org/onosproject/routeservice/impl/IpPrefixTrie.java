@@ -0,0 +1,310 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.routeservice.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Path-compressed binary trie of the IP prefixes of one address family,
+ * supporting longest prefix match.
+ * <p>
+ * Keys are held as two longs, an address occupying the most significant bits,
+ * so that walking the trie neither allocates nor compares strings. A node is
+ * only created where a prefix is stored or where two stored prefixes diverge,
+ * which bounds the number of nodes to twice the number of prefixes. Prefixes
+ * of at least {@value #STRIDE} bits are held in separate subtries indexed by
+ * their leading {@value #STRIDE} bits, which spares lookups the first levels
+ * of the walk, where most cache misses of a large table happen.
+ * <p>
+ * Nodes are immutable: an update copies the path from the root of a subtrie
+ * to the node it changes and then publishes the new root. Readers therefore
+ * never lock and always see a consistent subtrie. Updates must be serialized
+ * by the caller.
+ *
+ * @param <V> type of the values stored for the prefixes
+ */
+final class IpPrefixTrie<V> {
+
+    private static final int WORD_BITS = Long.SIZE;
+    private static final int STRIDE = 16;
+
+    // prefixes shorter than the stride
+    private volatile Node<V> root;
+    // prefixes at least as long as the stride, by leading bits
+    private final AtomicReferenceArray<Node<V>> subtries = new AtomicReferenceArray<>(1 << STRIDE);
+
+    // value replaced or removed by the update in progress
+    private V previous;
+
+    /**
+     * Returns the value stored for the given prefix.
+     *
+     * @param prefix IP prefix
+     * @return value, or null if the prefix is not stored
+     */
+    V get(IpPrefix prefix) {
+        byte[] octets = prefix.address().toOctets();
+        long high = word(octets, 0);
+        long low = word(octets, 1);
+        int length = prefix.prefixLength();
+        Node<V> node = length < STRIDE ? root : subtries.get(slot(high));
+        while (node != null && node.length <= length && node.matches(high, low)) {
+            if (node.length == length) {
+                return node.value;
+            }
+            node = node.child(high, low);
+        }
+        return null;
+    }
+
+    /**
+     * Stores a value for the given prefix.
+     *
+     * @param prefix IP prefix
+     * @param value  value to store
+     * @return value previously stored for the prefix, or null if there was none
+     */
+    V put(IpPrefix prefix, V value) {
+        byte[] octets = prefix.address().toOctets();
+        long high = word(octets, 0);
+        long low = word(octets, 1);
+        int length = prefix.prefixLength();
+        previous = null;
+        if (length < STRIDE) {
+            root = insert(root, high, low, length, value);
+        } else {
+            int slot = slot(high);
+            subtries.set(slot, insert(subtries.get(slot), high, low, length, value));
+        }
+        V replaced = previous;
+        previous = null;
+        return replaced;
+    }
+
+    /**
+     * Removes the value stored for the given prefix.
+     *
+     * @param prefix IP prefix
+     * @return removed value, or null if the prefix was not stored
+     */
+    V remove(IpPrefix prefix) {
+        byte[] octets = prefix.address().toOctets();
+        long high = word(octets, 0);
+        long low = word(octets, 1);
+        int length = prefix.prefixLength();
+        previous = null;
+        if (length < STRIDE) {
+            root = delete(root, high, low, length);
+        } else {
+            int slot = slot(high);
+            subtries.set(slot, delete(subtries.get(slot), high, low, length));
+        }
+        V removed = previous;
+        previous = null;
+        return removed;
+    }
+
+    /**
+     * Returns the value stored for the longest prefix containing the given address.
+     *
+     * @param ip IP address
+     * @return value of the longest matching prefix, or null if no prefix matches
+     */
+    V longestPrefixMatch(IpAddress ip) {
+        byte[] octets = ip.toOctets();
+        long high = word(octets, 0);
+        long low = word(octets, 1);
+        // any prefix of the subtrie is more specific than the short prefixes
+        V match = longestPrefixMatch(subtries.get(slot(high)), high, low);
+        return match != null ? match : longestPrefixMatch(root, high, low);
+    }
+
+    /**
+     * Returns the stored values, short prefixes first.
+     *
+     * @return snapshot of the values
+     */
+    List<V> values() {
+        ImmutableList.Builder<V> values = ImmutableList.builder();
+        addValues(root, values);
+        for (int slot = 0; slot < subtries.length(); slot++) {
+            addValues(subtries.get(slot), values);
+        }
+        return values.build();
+    }
+
+    private static <V> V longestPrefixMatch(Node<V> node, long high, long low) {
+        V match = null;
+        while (node != null && node.matches(high, low)) {
+            if (node.value != null) {
+                match = node.value;
+            }
+            node = node.child(high, low);
+        }
+        return match;
+    }
+
+    private static <V> void addValues(Node<V> node, ImmutableList.Builder<V> values) {
+        if (node == null) {
+            return;
+        }
+        Deque<Node<V>> pending = new ArrayDeque<>();
+        pending.push(node);
+        while (!pending.isEmpty()) {
+            Node<V> next = pending.pop();
+            if (next.value != null) {
+                values.add(next.value);
+            }
+            if (next.right != null) {
+                pending.push(next.right);
+            }
+            if (next.left != null) {
+                pending.push(next.left);
+            }
+        }
+    }
+
+    private Node<V> insert(Node<V> node, long high, long low, int length, V value) {
+        if (node == null) {
+            return new Node<>(high, low, length, value, null, null);
+        }
+        int common = commonLength(node.high, node.low, high, low, Math.min(node.length, length));
+        if (common == node.length) {
+            if (common == length) {
+                previous = node.value;
+                return new Node<>(node.high, node.low, length, value, node.left, node.right);
+            }
+            return bit(high, low, common)
+                    ? node.withChildren(node.left, insert(node.right, high, low, length, value))
+                    : node.withChildren(insert(node.left, high, low, length, value), node.right);
+        }
+        if (common == length) {
+            // the new prefix contains the node
+            return bit(node.high, node.low, common)
+                    ? new Node<>(high, low, length, value, null, node)
+                    : new Node<>(high, low, length, value, node, null);
+        }
+        Node<V> leaf = new Node<>(high, low, length, value, null, null);
+        long branchHigh = mask(high, common);
+        long branchLow = mask(low, common - WORD_BITS);
+        return bit(high, low, common)
+                ? new Node<>(branchHigh, branchLow, common, null, node, leaf)
+                : new Node<>(branchHigh, branchLow, common, null, leaf, node);
+    }
+
+    private Node<V> delete(Node<V> node, long high, long low, int length) {
+        if (node == null || node.length > length || !node.matches(high, low)) {
+            return node;
+        }
+        if (node.length == length) {
+            if (node.value == null) {
+                return node;
+            }
+            previous = node.value;
+            return compact(node, null, node.left, node.right);
+        }
+        if (bit(high, low, node.length)) {
+            Node<V> right = delete(node.right, high, low, length);
+            return right == node.right ? node : compact(node, node.value, node.left, right);
+        }
+        Node<V> left = delete(node.left, high, low, length);
+        return left == node.left ? node : compact(node, node.value, left, node.right);
+    }
+
+    // drops nodes that neither store a value nor branch
+    private static <V> Node<V> compact(Node<V> node, V value, Node<V> left, Node<V> right) {
+        if (value == null && (left == null || right == null)) {
+            return left == null ? right : left;
+        }
+        return new Node<>(node.high, node.low, node.length, value, left, right);
+    }
+
+    private static int slot(long high) {
+        return (int) (high >>> (WORD_BITS - STRIDE));
+    }
+
+    private static long word(byte[] octets, int index) {
+        long word = 0;
+        int offset = index * Long.BYTES;
+        for (int i = 0; i < Long.BYTES; i++) {
+            int octet = offset + i < octets.length ? octets[offset + i] & 0xff : 0;
+            word = (word << Byte.SIZE) | octet;
+        }
+        return word;
+    }
+
+    private static long mask(long word, int length) {
+        if (length <= 0) {
+            return 0;
+        }
+        return length >= WORD_BITS ? word : word & (-1L << (WORD_BITS - length));
+    }
+
+    private static boolean bit(long high, long low, int index) {
+        return index < WORD_BITS ? (high << index) < 0 : (low << (index - WORD_BITS)) < 0;
+    }
+
+    private static int commonLength(long high1, long low1, long high2, long low2, int limit) {
+        long diff = high1 ^ high2;
+        int common = diff != 0 ? Long.numberOfLeadingZeros(diff)
+                : WORD_BITS + Long.numberOfLeadingZeros(low1 ^ low2);
+        return Math.min(common, limit);
+    }
+
+    /**
+     * Immutable trie node holding a prefix and, unless it only branches, a value.
+     */
+    private static final class Node<V> {
+        private final long high;
+        private final long low;
+        private final int length;
+        private final V value;
+        private final Node<V> left;
+        private final Node<V> right;
+
+        private Node(long high, long low, int length, V value, Node<V> left, Node<V> right) {
+            this.high = mask(high, length);
+            this.low = mask(low, length - WORD_BITS);
+            this.length = length;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+        }
+
+        private boolean matches(long high, long low) {
+            return commonLength(this.high, this.low, high, low, length) == length;
+        }
+
+        private Node<V> child(long high, long low) {
+            if (length == 2 * WORD_BITS) {
+                return null;
+            }
+            return bit(high, low, length) ? right : left;
+        }
+
+        private Node<V> withChildren(Node<V> left, Node<V> right) {
+            return new Node<>(high, low, length, value, left, right);
+        }
+    }
+}
@@ -16,14 +16,18 @@
 
 package org.onosproject.routeservice.impl;
 
+import com.google.common.collect.ImmutableSet;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Modified;
+import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
 import org.onlab.packet.IpAddress;
 import org.onlab.packet.IpPrefix;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.routeservice.InternalRouteEvent;
 import org.onosproject.routeservice.ResolvedRoute;
@@ -42,24 +46,31 @@ import org.onosproject.net.host.HostEvent;
 import org.onosproject.net.host.HostListener;
 import org.onosproject.net.host.HostService;
 import org.onosproject.store.service.StorageService;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.concurrent.GuardedBy;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.Dictionary;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
+import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.groupedThreads;
 
 /**
@@ -71,6 +82,8 @@ public class RouteManager implements RouteService, RouteAdminService {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    private static final int MAX_EVENT_BATCH = 1000;
+
     private RouteStoreDelegate delegate = new InternalRouteStoreDelegate();
     private InternalHostListener hostListener = new InternalHostListener();
 
@@ -86,7 +99,25 @@ public class RouteManager implements RouteService, RouteAdminService {
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected StorageService storageService;
 
-    private ResolvedRouteStore resolvedRouteStore;
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected ComponentConfigService cfgService;
+
+    private static final String RADIX_TREE = "radixTree";
+    private static final String PREFIX_TRIE = "prefixTrie";
+    private static final String DEFAULT_RESOLVED_ROUTE_STORE = RADIX_TREE;
+    @Property(name = "resolvedRouteStore", value = DEFAULT_RESOLVED_ROUTE_STORE,
+            label = "Structure holding the resolved routes: radixTree or prefixTrie")
+    private String resolvedRouteStoreType = DEFAULT_RESOLVED_ROUTE_STORE;
+
+    private volatile ResolvedRouteStore resolvedRouteStore;
+
+    // serializes resolved route updates with a change of resolved route store;
+    // never held while posting events or writing to the route store
+    private final Object resolvedRouteStoreLock = new Object();
+
+    // next hop resolutions, dropped on events about the hosts owning them
+    // and when routes through them are withdrawn
+    private final Map<IpAddress, Optional<Host>> nextHops = new ConcurrentHashMap<>();
 
     private RouteMonitor routeMonitor;
 
@@ -96,11 +127,13 @@ public class RouteManager implements RouteService, RouteAdminService {
     private ThreadFactory threadFactory;
 
     @Activate
-    protected void activate() {
+    protected void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
         routeMonitor = new RouteMonitor(this, clusterService, storageService);
         threadFactory = groupedThreads("onos/route", "listener-%d", log);
 
-        resolvedRouteStore = new DefaultResolvedRouteStore();
+        readComponentConfiguration(context);
+        resolvedRouteStore = createResolvedRouteStore(resolvedRouteStoreType);
 
         routeStore.setDelegate(delegate);
         hostService.addListener(hostListener);
@@ -112,6 +145,7 @@ public class RouteManager implements RouteService, RouteAdminService {
 
     @Deactivate
     protected void deactivate() {
+        cfgService.unregisterProperties(getClass(), false);
         routeMonitor.shutdown();
         synchronized (this) {
             listeners.values().forEach(ListenerQueue::stop);
@@ -121,6 +155,45 @@ public class RouteManager implements RouteService, RouteAdminService {
         hostService.removeListener(hostListener);
     }
 
+    @Modified
+    protected void modified(ComponentContext context) {
+        String oldType = resolvedRouteStoreType;
+        readComponentConfiguration(context);
+        if (!resolvedRouteStoreType.equals(oldType)) {
+            synchronized (resolvedRouteStoreLock) {
+                resolvedRouteStore = copyResolvedRoutes(resolvedRouteStore,
+                                                        createResolvedRouteStore(resolvedRouteStoreType));
+            }
+            log.info("Moved resolved routes to the {} store", resolvedRouteStoreType);
+        }
+    }
+
+    private void readComponentConfiguration(ComponentContext context) {
+        if (context == null) {
+            return;
+        }
+        Dictionary<?, ?> properties = context.getProperties();
+        String type = get(properties, "resolvedRouteStore");
+        if (isNullOrEmpty(type)) {
+            resolvedRouteStoreType = DEFAULT_RESOLVED_ROUTE_STORE;
+        } else if (type.equals(RADIX_TREE) || type.equals(PREFIX_TRIE)) {
+            resolvedRouteStoreType = type;
+        } else {
+            log.warn("Unknown resolved route store {}, keeping {}", type, resolvedRouteStoreType);
+        }
+    }
+
+    private static ResolvedRouteStore createResolvedRouteStore(String type) {
+        return PREFIX_TRIE.equals(type) ? new TrieResolvedRouteStore() : new DefaultResolvedRouteStore();
+    }
+
+    private static ResolvedRouteStore copyResolvedRoutes(ResolvedRouteStore from, ResolvedRouteStore to) {
+        from.getRouteTables().stream()
+                .flatMap(id -> from.getRoutes(id).stream())
+                .forEach(route -> to.updateRoute(route, ImmutableSet.copyOf(from.getAllRoutes(route.prefix()))));
+        return to;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -213,21 +286,19 @@ public class RouteManager implements RouteService, RouteAdminService {
     @Override
     public void update(Collection<Route> routes) {
         synchronized (this) {
-            routes.forEach(route -> {
-                log.debug("Received update {}", route);
-                routeStore.updateRoute(route);
-            });
+            log.debug("Received update of {} routes", routes.size());
+            routeStore.updateRoutes(routes);
         }
     }
 
     @Override
     public void withdraw(Collection<Route> routes) {
         synchronized (this) {
-            routes.forEach(route -> {
-                log.debug("Received withdraw {}", route);
-                routeStore.removeRoute(route);
-            });
+            log.debug("Received withdraw of {} routes", routes.size());
+            routeStore.removeRoutes(routes);
         }
+        // resolutions still used by other routes are looked up again on their next update
+        routes.forEach(route -> nextHops.remove(route.nextHop()));
     }
 
     @Override
@@ -238,25 +309,54 @@ public class RouteManager implements RouteService, RouteAdminService {
     }
 
     private ResolvedRoute resolve(Route route) {
-        hostService.startMonitoringIp(route.nextHop());
-        Set<Host> hosts = hostService.getHostsByIp(route.nextHop());
-
-        return hosts.stream().findFirst()
+        return resolveNextHop(route.nextHop())
                 .map(host -> new ResolvedRoute(route, host.mac(), host.vlan(), host.location()))
                 .orElse(null);
     }
 
+    private Optional<Host> resolveNextHop(IpAddress nextHop) {
+        // a full table shares a handful of next hops, so each is looked up once
+        return nextHops.computeIfAbsent(nextHop, ip -> {
+            hostService.startMonitoringIp(ip);
+            return hostService.getHostsByIp(ip).stream().findFirst();
+        });
+    }
+
+    private void forgetNextHops(Host host) {
+        if (host != null) {
+            host.ipAddresses().forEach(nextHops::remove);
+        }
+    }
+
+    private void forgetNextHops(Collection<ResolvedRoute> removedRoutes, RouteSet remainingRoutes) {
+        Set<IpAddress> remainingNextHops = remainingRoutes.routes().stream()
+                .map(Route::nextHop)
+                .collect(Collectors.toSet());
+        removedRoutes.stream()
+                .map(ResolvedRoute::nextHop)
+                .filter(nextHop -> !remainingNextHops.contains(nextHop))
+                .forEach(nextHops::remove);
+    }
+
     private ResolvedRoute decide(ResolvedRoute route1, ResolvedRoute route2) {
         return Comparator.comparing(ResolvedRoute::nextHop)
                        .compare(route1, route2) <= 0 ? route1 : route2;
     }
 
     private void store(ResolvedRoute route, Set<ResolvedRoute> alternatives) {
-        post(resolvedRouteStore.updateRoute(route, alternatives));
+        RouteEvent event;
+        synchronized (resolvedRouteStoreLock) {
+            event = resolvedRouteStore.updateRoute(route, alternatives);
+        }
+        post(event);
     }
 
     private void remove(IpPrefix prefix) {
-        post(resolvedRouteStore.removeRoute(prefix));
+        RouteEvent event;
+        synchronized (resolvedRouteStoreLock) {
+            event = resolvedRouteStore.removeRoute(prefix);
+        }
+        post(event);
     }
 
     private void resolve(RouteSet routes) {
@@ -340,7 +440,15 @@ public class RouteManager implements RouteService, RouteAdminService {
         private void poll() {
             while (true) {
                 try {
-                    listener.event(queue.take());
+                    List<RouteEvent> events = new ArrayList<>();
+                    events.add(queue.take());
+                    // events queued meanwhile, as during a full table update, go out together
+                    queue.drainTo(events, MAX_EVENT_BATCH - 1);
+                    if (events.size() == 1) {
+                        listener.event(events.get(0));
+                    } else {
+                        listener.events(events);
+                    }
                 } catch (InterruptedException e) {
                     log.info("Route listener event thread shutting down: {}", e.getMessage());
                     break;
@@ -362,7 +470,12 @@ public class RouteManager implements RouteService, RouteAdminService {
                 resolve(event.subject());
                 break;
             case ROUTE_REMOVED:
+                // the withdrawn routes are among those resolved so far, as
+                // routes withdrawn on another instance only show up here
+                Collection<ResolvedRoute> resolvedRoutes =
+                        resolvedRouteStore.getAllRoutes(event.subject().prefix());
                 resolve(event.subject());
+                forgetNextHops(resolvedRoutes, event.subject());
                 break;
             default:
                 break;
@@ -376,6 +489,8 @@ public class RouteManager implements RouteService, RouteAdminService {
     private class InternalHostListener implements HostListener {
         @Override
         public void event(HostEvent event) {
+            forgetNextHops(event.subject());
+            forgetNextHops(event.prevSubject());
             switch (event.type()) {
             case HOST_ADDED:
             case HOST_UPDATED:
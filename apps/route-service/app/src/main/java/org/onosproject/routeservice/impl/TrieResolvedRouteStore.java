@@ -0,0 +1,232 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.routeservice.impl;
+
+import com.google.common.collect.ImmutableSet;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+import org.onosproject.routeservice.ResolvedRoute;
+import org.onosproject.routeservice.RouteEvent;
+import org.onosproject.routeservice.RouteTableId;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Stores routes that have been resolved in binary prefix tries.
+ * <p>
+ * Unlike {@link DefaultResolvedRouteStore}, lookups do not build a binary
+ * string of the address and never lock, which makes the store suited to
+ * full Internet routing tables.
+ */
+public class TrieResolvedRouteStore implements ResolvedRouteStore {
+
+    private Map<RouteTableId, RouteTable> routeTables;
+    private static final RouteTableId IPV4 = new RouteTableId("ipv4");
+    private static final RouteTableId IPV6 = new RouteTableId("ipv6");
+
+    /**
+     * Creates a new resolved route store.
+     */
+    public TrieResolvedRouteStore() {
+        routeTables = new ConcurrentHashMap<>();
+
+        routeTables.put(IPV4, new RouteTable());
+        routeTables.put(IPV6, new RouteTable());
+    }
+
+    @Override
+    public RouteEvent updateRoute(ResolvedRoute route, Set<ResolvedRoute> alternatives) {
+        return getDefaultRouteTable(route.prefix().address()).update(route, alternatives);
+    }
+
+    @Override
+    public RouteEvent removeRoute(IpPrefix prefix) {
+        return getDefaultRouteTable(prefix.address()).remove(prefix);
+    }
+
+    @Override
+    public Set<RouteTableId> getRouteTables() {
+        return routeTables.keySet();
+    }
+
+    @Override
+    public Collection<ResolvedRoute> getRoutes(RouteTableId table) {
+        RouteTable routeTable = routeTables.get(table);
+        if (routeTable == null) {
+            return Collections.emptySet();
+        }
+        return routeTable.getRoutes();
+    }
+
+    @Override
+    public Optional<ResolvedRoute> getRoute(IpPrefix prefix) {
+        return getDefaultRouteTable(prefix.address()).getRoute(prefix);
+    }
+
+    @Override
+    public Collection<ResolvedRoute> getAllRoutes(IpPrefix prefix) {
+        return getDefaultRouteTable(prefix.address()).getAllRoutes(prefix);
+    }
+
+    @Override
+    public Optional<ResolvedRoute> longestPrefixMatch(IpAddress ip) {
+        return getDefaultRouteTable(ip).longestPrefixMatch(ip);
+    }
+
+    private RouteTable getDefaultRouteTable(IpAddress ip) {
+        RouteTableId routeTableId = (ip.isIp4()) ? IPV4 : IPV6;
+        return routeTables.get(routeTableId);
+    }
+
+    /**
+     * Best route of a prefix along with its alternatives.
+     */
+    private static final class RouteEntry {
+        private final ResolvedRoute route;
+        private final Set<ResolvedRoute> alternatives;
+
+        private RouteEntry(ResolvedRoute route, Set<ResolvedRoute> alternatives) {
+            this.route = route;
+            this.alternatives = alternatives;
+        }
+    }
+
+    /**
+     * Route table into which routes can be placed.
+     */
+    private static class RouteTable {
+        // the best route and its alternatives are swapped together, so readers see them consistently
+        private final IpPrefixTrie<RouteEntry> routeTable = new IpPrefixTrie<>();
+
+        /**
+         * Adds or updates the route in the route table.
+         *
+         * @param route route to update
+         * @param alternatives alternative routes
+         * @return event describing the change, or null if nothing changed
+         */
+        public RouteEvent update(ResolvedRoute route, Set<ResolvedRoute> alternatives) {
+            Set<ResolvedRoute> immutableAlternatives = checkAlternatives(route, alternatives);
+
+            synchronized (this) {
+                RouteEntry old = routeTable.put(route.prefix(), new RouteEntry(route, immutableAlternatives));
+                ResolvedRoute oldRoute = old == null ? null : old.route;
+                Set<ResolvedRoute> oldRoutes = old == null ? null : old.alternatives;
+
+                if (!route.equals(oldRoute)) {
+                    if (oldRoute == null) {
+                        return new RouteEvent(RouteEvent.Type.ROUTE_ADDED, route,
+                                immutableAlternatives);
+                    } else {
+                        return new RouteEvent(RouteEvent.Type.ROUTE_UPDATED, route,
+                                oldRoute, immutableAlternatives, oldRoutes);
+                    }
+                }
+
+                if (!immutableAlternatives.equals(oldRoutes)) {
+                    return new RouteEvent(RouteEvent.Type.ALTERNATIVE_ROUTES_CHANGED,
+                            route, null, immutableAlternatives, oldRoutes);
+                }
+
+                return null;
+            }
+        }
+
+        /**
+         * Checks that the best route is present in the alternatives list and
+         * returns an immutable set of alternatives.
+         *
+         * @param route best route
+         * @param alternatives alternatives
+         * @return immutable set of alternative routes
+         */
+        private Set<ResolvedRoute> checkAlternatives(ResolvedRoute route, Set<ResolvedRoute> alternatives) {
+            if (!alternatives.contains(route)) {
+                return ImmutableSet.<ResolvedRoute>builder()
+                        .addAll(alternatives)
+                        .add(route)
+                        .build();
+            } else {
+                return ImmutableSet.copyOf(alternatives);
+            }
+        }
+
+        /**
+         * Removes the route from the route table.
+         *
+         * @param prefix prefix to remove
+         * @return event describing the change, or null if the prefix had no route
+         */
+        public RouteEvent remove(IpPrefix prefix) {
+            synchronized (this) {
+                RouteEntry old = routeTable.remove(prefix);
+                if (old != null) {
+                    return new RouteEvent(RouteEvent.Type.ROUTE_REMOVED, old.route, old.alternatives);
+                }
+                return null;
+            }
+        }
+
+        /**
+         * Returns all routes in the route table.
+         *
+         * @return all routes
+         */
+        public Collection<ResolvedRoute> getRoutes() {
+            return routeTable.values().stream()
+                    .map(entry -> entry.route)
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Returns the best route for the given prefix, if one exists.
+         *
+         * @param prefix IP prefix
+         * @return best route
+         */
+        public Optional<ResolvedRoute> getRoute(IpPrefix prefix) {
+            return Optional.ofNullable(routeTable.get(prefix)).map(entry -> entry.route);
+        }
+
+        /**
+         * Returns the best route and the alternatives for the given prefix.
+         *
+         * @param prefix IP prefix
+         * @return all resolved routes of the prefix
+         */
+        public Collection<ResolvedRoute> getAllRoutes(IpPrefix prefix) {
+            RouteEntry entry = routeTable.get(prefix);
+            return entry == null ? Collections.emptySet() : entry.alternatives;
+        }
+
+        /**
+         * Performs a longest prefix match with the given IP in the route table.
+         *
+         * @param ip IP address to look up
+         * @return most specific prefix containing the given
+         */
+        public Optional<ResolvedRoute> longestPrefixMatch(IpAddress ip) {
+            return Optional.ofNullable(routeTable.longestPrefixMatch(ip)).map(entry -> entry.route);
+        }
+    }
+}
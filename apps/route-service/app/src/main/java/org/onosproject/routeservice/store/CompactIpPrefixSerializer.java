@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.routeservice.store;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import org.onlab.packet.Ip4Prefix;
+import org.onlab.packet.Ip6Prefix;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+
+/**
+ * Kryo serializer writing an IP prefix in as few bytes as its length allows.
+ * <p>
+ * The encoding is a byte holding the address family, a byte holding the
+ * prefix length and the bytes of the address covered by the prefix, so that
+ * a /24 IPv4 prefix takes 5 bytes and a /48 IPv6 prefix 8 bytes.
+ */
+final class CompactIpPrefixSerializer extends Serializer<IpPrefix> {
+
+    private static final int INET = 4;
+    private static final int INET6 = 6;
+
+    /**
+     * Creates a compact IP prefix serializer.
+     */
+    CompactIpPrefixSerializer() {
+        // non-null, immutable
+        super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, IpPrefix object) {
+        writePrefix(output, object);
+    }
+
+    @Override
+    public IpPrefix read(Kryo kryo, Input input, Class<IpPrefix> type) {
+        IpPrefix prefix = readPrefix(input);
+        if (Ip4Prefix.class.equals(type)) {
+            return prefix.getIp4Prefix();
+        }
+        if (Ip6Prefix.class.equals(type)) {
+            return prefix.getIp6Prefix();
+        }
+        return prefix;
+    }
+
+    /**
+     * Writes a prefix in the compact encoding.
+     *
+     * @param output output to write to
+     * @param prefix IP prefix
+     */
+    static void writePrefix(Output output, IpPrefix prefix) {
+        int length = prefix.prefixLength();
+        output.writeByte(prefix.isIp4() ? INET : INET6);
+        output.writeByte(length);
+        output.writeBytes(prefix.address().toOctets(), 0, (length + Byte.SIZE - 1) / Byte.SIZE);
+    }
+
+    /**
+     * Reads a prefix in the compact encoding.
+     *
+     * @param input input to read from
+     * @return IP prefix
+     */
+    static IpPrefix readPrefix(Input input) {
+        IpAddress.Version version = input.readByte() == INET ? IpAddress.Version.INET : IpAddress.Version.INET6;
+        int length = input.readByte() & 0xff;
+        byte[] address = new byte[IpAddress.byteLength(version)];
+        input.readBytes(address, 0, (length + Byte.SIZE - 1) / Byte.SIZE);
+        return IpPrefix.valueOf(version, address, length);
+    }
+}
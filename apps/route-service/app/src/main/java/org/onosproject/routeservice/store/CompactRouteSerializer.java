@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.routeservice.store;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.routeservice.Route;
+
+/**
+ * Kryo serializer writing a route in a compact form.
+ * <p>
+ * A route is encoded as a byte holding the code of its source, the prefix
+ * as written by {@link CompactIpPrefixSerializer}, the raw bytes of the next
+ * hop, whose address family is the one of the prefix, and the identifier of
+ * the source node. Next hops and source nodes are interned when routes are read, since
+ * a full table only has a handful of either.
+ */
+final class CompactRouteSerializer extends Serializer<Route> {
+
+    // codes of the route sources on the wire, which must never change
+    private static final byte BGP_CODE = 0;
+    private static final byte FPM_CODE = 1;
+    private static final byte STATIC_CODE = 2;
+    private static final byte UNDEFINED_CODE = 3;
+
+    private static final Interner<IpAddress> NEXT_HOPS = Interners.newWeakInterner();
+    private static final Interner<NodeId> SOURCE_NODES = Interners.newWeakInterner();
+
+    /**
+     * Creates a compact route serializer.
+     */
+    CompactRouteSerializer() {
+        // non-null, immutable
+        super(false, true);
+    }
+
+    @Override
+    public void write(Kryo kryo, Output output, Route object) {
+        output.writeByte(sourceCode(object.source()));
+        CompactIpPrefixSerializer.writePrefix(output, object.prefix());
+        output.writeBytes(object.nextHop().toOctets());
+        output.writeString(object.sourceNode().id());
+    }
+
+    @Override
+    public Route read(Kryo kryo, Input input, Class<Route> type) {
+        Route.Source source = source(input.readByte());
+        IpPrefix prefix = CompactIpPrefixSerializer.readPrefix(input);
+        IpAddress.Version version = prefix.version();
+        IpAddress nextHop = IpAddress.valueOf(version, input.readBytes(IpAddress.byteLength(version)));
+        NodeId sourceNode = NodeId.nodeId(input.readString());
+        return new Route(source, prefix, NEXT_HOPS.intern(nextHop), SOURCE_NODES.intern(sourceNode));
+    }
+
+    private static byte sourceCode(Route.Source source) {
+        switch (source) {
+        case BGP:
+            return BGP_CODE;
+        case FPM:
+            return FPM_CODE;
+        case STATIC:
+            return STATIC_CODE;
+        case UNDEFINED:
+            return UNDEFINED_CODE;
+        default:
+            throw new KryoException("Unsupported route source " + source);
+        }
+    }
+
+    private static Route.Source source(byte code) {
+        switch (code) {
+        case BGP_CODE:
+            return Route.Source.BGP;
+        case FPM_CODE:
+            return Route.Source.FPM;
+        case STATIC_CODE:
+            return Route.Source.STATIC;
+        case UNDEFINED_CODE:
+            return Route.Source.UNDEFINED;
+        default:
+            throw new KryoException("Unknown route source code " + code);
+        }
+    }
+}
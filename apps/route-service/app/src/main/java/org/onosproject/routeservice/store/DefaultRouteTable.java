@@ -16,6 +16,9 @@
 
 package org.onosproject.routeservice.store;
 
+import com.google.common.collect.Iterables;
+import org.onlab.packet.Ip4Prefix;
+import org.onlab.packet.Ip6Prefix;
 import org.onlab.packet.IpAddress;
 import org.onlab.packet.IpPrefix;
 import org.onlab.util.KryoNamespace;
@@ -25,6 +28,7 @@ import org.onosproject.routeservice.RouteSet;
 import org.onosproject.routeservice.RouteStoreDelegate;
 import org.onosproject.routeservice.RouteTableId;
 import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.AsyncConsistentMap;
 import org.onosproject.store.service.ConsistentMap;
 import org.onosproject.store.service.DistributedPrimitive;
 import org.onosproject.store.service.MapEvent;
@@ -32,11 +36,18 @@ import org.onosproject.store.service.MapEventListener;
 import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.StorageService;
 import org.onosproject.store.service.Versioned;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -48,7 +59,15 @@ import static com.google.common.base.Preconditions.checkNotNull;
  */
 public class DefaultRouteTable implements RouteTable {
 
+    private static final Logger log = LoggerFactory.getLogger(DefaultRouteTable.class);
+
+    // prefixes of a bulk update being written at the same time
+    private static final int MAX_PENDING_PREFIXES = 500;
+
     private final RouteTableId id;
+    private final StorageService storageService;
+    private final Serializer serializer;
+    private final AsyncConsistentMap<IpPrefix, Set<Route>> asyncRoutes;
     private final ConsistentMap<IpPrefix, Set<Route>> routes;
     private final RouteStoreDelegate delegate;
     private final ExecutorService executor;
@@ -68,7 +87,10 @@ public class DefaultRouteTable implements RouteTable {
                              StorageService storageService, ExecutorService executor) {
         this.delegate = checkNotNull(delegate);
         this.id = checkNotNull(id);
-        this.routes = buildRouteMap(checkNotNull(storageService));
+        this.storageService = checkNotNull(storageService);
+        this.serializer = buildSerializer();
+        this.asyncRoutes = buildRouteMap();
+        this.routes = asyncRoutes.asConsistentMap();
         this.executor = checkNotNull(executor);
 
         statusChangeListener = status -> {
@@ -90,17 +112,33 @@ public class DefaultRouteTable implements RouteTable {
                 .forEach(delegate::notify);
     }
 
-    private ConsistentMap<IpPrefix, Set<Route>> buildRouteMap(StorageService storageService) {
+    static Serializer buildSerializer() {
+        // full tables hold hundreds of thousands of routes, so prefixes and
+        // routes are written in a packed form rather than field by field
         KryoNamespace routeTableSerializer = KryoNamespace.newBuilder()
-                .register(KryoNamespaces.API)
-                .register(Route.class)
-                .register(Route.Source.class)
+                .register(KryoNamespaces.BASIC)
+                // classes registered together share an identifier, which
+                // would decode every prefix as the last of them
+                .register(new CompactIpPrefixSerializer(), IpPrefix.class)
+                .register(new CompactIpPrefixSerializer(), Ip4Prefix.class)
+                .register(new CompactIpPrefixSerializer(), Ip6Prefix.class)
+                .register(new CompactRouteSerializer(), Route.class)
                 .build();
+        return Serializer.using(routeTableSerializer);
+    }
+
+    private AsyncConsistentMap<IpPrefix, Set<Route>> buildRouteMap() {
         return storageService.<IpPrefix, Set<Route>>consistentMapBuilder()
-                .withName("onos-routes-" + id.name())
+                .withName(mapName())
                 .withRelaxedReadConsistency()
-                .withSerializer(Serializer.using(routeTableSerializer))
-                .build();
+                .withSerializer(serializer)
+                .buildAsyncMap();
+    }
+
+    private String mapName() {
+        // versioned with the encoding, so that instances running an older
+        // encoding never decode the entries of this one
+        return "onos-routes-v2-" + id.name();
     }
 
     @Override
@@ -145,6 +183,66 @@ public class DefaultRouteTable implements RouteTable {
         });
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The routes are grouped by prefix, and up to {@value #MAX_PENDING_PREFIXES}
+     * prefixes are written at the same time rather than one after the other.
+     * The routes of a prefix that fails to be written are written one at a
+     * time.
+     */
+    @Override
+    public void update(Collection<Route> routes) {
+        apply(routes, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The routes are grouped by prefix, and up to {@value #MAX_PENDING_PREFIXES}
+     * prefixes are written at the same time rather than one after the other.
+     * The routes of a prefix that fails to be written are removed one at a
+     * time.
+     */
+    @Override
+    public void remove(Collection<Route> routes) {
+        apply(routes, false);
+    }
+
+    private void apply(Collection<Route> routes, boolean add) {
+        Map<IpPrefix, List<Route>> routesByPrefix = routes.stream()
+                .collect(Collectors.groupingBy(Route::prefix, LinkedHashMap::new, Collectors.toList()));
+        for (List<IpPrefix> prefixes : Iterables.partition(routesByPrefix.keySet(), MAX_PENDING_PREFIXES)) {
+            Map<IpPrefix, CompletableFuture<Versioned<Set<Route>>>> writes = new LinkedHashMap<>();
+            for (IpPrefix prefix : prefixes) {
+                List<Route> changes = routesByPrefix.get(prefix);
+                // the route set is only written if the routes change it
+                writes.put(prefix, asyncRoutes.computeIf(prefix,
+                        set -> add ? set == null || !set.containsAll(changes)
+                                : set != null && changes.stream().anyMatch(set::contains),
+                        (key, set) -> merge(set, changes, add)));
+            }
+            writes.forEach((prefix, write) -> {
+                try {
+                    write.join();
+                } catch (CompletionException e) {
+                    log.debug("Falling back to single route writes for {} in {}", prefix, id, e);
+                    routesByPrefix.get(prefix).forEach(add ? this::update : this::remove);
+                }
+            });
+        }
+    }
+
+    private static Set<Route> merge(Set<Route> current, List<Route> changes, boolean add) {
+        Set<Route> updated = current == null ? new HashSet<>() : new HashSet<>(current);
+        if (add) {
+            updated.addAll(changes);
+        } else {
+            updated.removeAll(changes);
+        }
+        return updated.isEmpty() ? null : updated;
+    }
+
     @Override
     public Collection<RouteSet> getRoutes() {
         return routes.entrySet().stream()
@@ -141,6 +141,16 @@ public class RouteStoreImpl extends AbstractStore<InternalRouteEvent, RouteStore
         currentRouteStore.removeRoute(route);
     }
 
+    @Override
+    public void updateRoutes(Collection<Route> routes) {
+        currentRouteStore.updateRoutes(routes);
+    }
+
+    @Override
+    public void removeRoutes(Collection<Route> routes) {
+        currentRouteStore.removeRoutes(routes);
+    }
+
     @Override
     public Set<RouteTableId> getRouteTables() {
         return currentRouteStore.getRouteTables();
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.routeservice.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.Ip6Address;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the IP prefix trie.
+ */
+public class IpPrefixTrieTest {
+
+    private IpPrefixTrie<String> trie;
+
+    @Before
+    public void setUp() {
+        trie = new IpPrefixTrie<>();
+    }
+
+    /**
+     * Tests storing, replacing and removing the value of a prefix.
+     */
+    @Test
+    public void testPutGetRemove() {
+        IpPrefix prefix = IpPrefix.valueOf("10.1.0.0/16");
+
+        assertNull(trie.put(prefix, "a"));
+        assertEquals("a", trie.get(prefix));
+        assertEquals("a", trie.put(prefix, "b"));
+        assertEquals("b", trie.get(prefix));
+        assertNull(trie.get(IpPrefix.valueOf("10.1.0.0/24")));
+        assertNull(trie.get(IpPrefix.valueOf("10.0.0.0/8")));
+
+        assertEquals("b", trie.remove(prefix));
+        assertNull(trie.remove(prefix));
+        assertNull(trie.get(prefix));
+        assertTrue(trie.values().isEmpty());
+    }
+
+    /**
+     * Tests that the most specific of nested prefixes matches.
+     */
+    @Test
+    public void testLongestPrefixMatch() {
+        trie.put(IpPrefix.valueOf("0.0.0.0/0"), "default");
+        trie.put(IpPrefix.valueOf("10.0.0.0/8"), "8");
+        trie.put(IpPrefix.valueOf("10.1.0.0/16"), "16");
+        trie.put(IpPrefix.valueOf("10.1.1.1/32"), "32");
+        trie.put(IpPrefix.valueOf("10.2.0.0/16"), "sibling");
+
+        assertEquals("32", trie.longestPrefixMatch(IpAddress.valueOf("10.1.1.1")));
+        assertEquals("16", trie.longestPrefixMatch(IpAddress.valueOf("10.1.1.2")));
+        assertEquals("8", trie.longestPrefixMatch(IpAddress.valueOf("10.3.0.1")));
+        assertEquals("sibling", trie.longestPrefixMatch(IpAddress.valueOf("10.2.255.255")));
+        assertEquals("default", trie.longestPrefixMatch(IpAddress.valueOf("192.168.0.1")));
+
+        trie.remove(IpPrefix.valueOf("10.1.0.0/16"));
+        assertEquals("8", trie.longestPrefixMatch(IpAddress.valueOf("10.1.1.2")));
+        assertEquals("32", trie.longestPrefixMatch(IpAddress.valueOf("10.1.1.1")));
+
+        trie.remove(IpPrefix.valueOf("0.0.0.0/0"));
+        assertNull(trie.longestPrefixMatch(IpAddress.valueOf("192.168.0.1")));
+    }
+
+    /**
+     * Tests IPv6 prefixes spanning both halves of the key.
+     */
+    @Test
+    public void testIp6() {
+        trie.put(IpPrefix.valueOf("2001:db8::/32"), "32");
+        trie.put(IpPrefix.valueOf("2001:db8:0:1::/64"), "64");
+        trie.put(IpPrefix.valueOf("2001:db8:0:1::8000:0/97"), "97");
+        trie.put(IpPrefix.valueOf("2001:db8:0:1::1/128"), "128");
+
+        assertEquals("128", trie.longestPrefixMatch(IpAddress.valueOf("2001:db8:0:1::1")));
+        assertEquals("64", trie.longestPrefixMatch(IpAddress.valueOf("2001:db8:0:1::2")));
+        assertEquals("97", trie.longestPrefixMatch(IpAddress.valueOf("2001:db8:0:1::8000:1")));
+        assertEquals("32", trie.longestPrefixMatch(IpAddress.valueOf("2001:db8:0:2::1")));
+        assertNull(trie.longestPrefixMatch(IpAddress.valueOf("2001:db9::1")));
+        assertEquals(4, trie.values().size());
+    }
+
+    /**
+     * Tests random updates and lookups against a linear scan of the stored prefixes.
+     */
+    @Test
+    public void testRandomAgainstLinearScan() {
+        checkRandom(IpAddress.Version.INET, 1);
+        trie = new IpPrefixTrie<>();
+        checkRandom(IpAddress.Version.INET6, 2);
+    }
+
+    private void checkRandom(IpAddress.Version version, long seed) {
+        Random random = new Random(seed);
+        int maxLength = version == IpAddress.Version.INET ? Ip4Address.BIT_LENGTH : Ip6Address.BIT_LENGTH;
+        // prefixes of various lengths over few addresses, so that they nest and share paths
+        byte[][] addresses = new byte[32][IpAddress.byteLength(version)];
+        for (byte[] address : addresses) {
+            random.nextBytes(address);
+            address[0] &= 0x81;
+        }
+
+        Map<IpPrefix, String> expected = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            IpAddress address = IpAddress.valueOf(version, addresses[random.nextInt(addresses.length)]);
+            IpPrefix prefix = IpPrefix.valueOf(address, random.nextInt(maxLength + 1));
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(prefix), trie.remove(prefix));
+            } else {
+                assertEquals(expected.put(prefix, prefix.toString()), trie.put(prefix, prefix.toString()));
+            }
+        }
+        assertEquals(expected.size(), trie.values().size());
+        expected.forEach((prefix, value) -> assertEquals(value, trie.get(prefix)));
+
+        for (int i = 0; i < 2000; i++) {
+            byte[] octets = addresses[random.nextInt(addresses.length)].clone();
+            octets[random.nextInt(octets.length)] ^= (byte) (1 << random.nextInt(Byte.SIZE));
+            IpAddress address = IpAddress.valueOf(version, octets);
+            String match = expected.keySet().stream()
+                    .filter(prefix -> prefix.contains(address))
+                    .max((a, b) -> Integer.compare(a.prefixLength(), b.prefixLength()))
+                    .map(expected::get)
+                    .orElse(null);
+            assertEquals(match, trie.longestPrefixMatch(address));
+        }
+    }
+}
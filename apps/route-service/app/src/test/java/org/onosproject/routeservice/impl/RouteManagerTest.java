@@ -18,9 +18,11 @@ package org.onosproject.routeservice.impl;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.junit.TestUtils;
 import org.onlab.packet.Ip4Address;
 import org.onlab.packet.Ip4Prefix;
 import org.onlab.packet.Ip6Address;
@@ -34,6 +36,7 @@ import org.onosproject.routeservice.Route;
 import org.onosproject.routeservice.RouteEvent;
 import org.onosproject.routeservice.RouteListener;
 import org.onosproject.routeservice.store.LocalRouteStore;
+import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DefaultHost;
@@ -50,6 +53,7 @@ import org.onosproject.net.provider.ProviderId;
 import org.onosproject.store.service.StorageService;
 import org.onosproject.store.service.WorkQueue;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 
 import static org.easymock.EasyMock.anyObject;
@@ -61,6 +65,7 @@ import static org.easymock.EasyMock.expectLastCall;
 import static org.easymock.EasyMock.replay;
 import static org.easymock.EasyMock.reset;
 import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertFalse;
 
 /**
  * Unit tests for the route manager.
@@ -111,7 +116,8 @@ public class RouteManagerTest {
         LocalRouteStore routeStore = new LocalRouteStore();
         routeStore.activate();
         routeManager.routeStore = routeStore;
-        routeManager.activate();
+        routeManager.cfgService = new ComponentConfigAdapter();
+        routeManager.activate(null);
 
         routeManager.addListener(routeListener);
     }
@@ -223,6 +229,37 @@ public class RouteManagerTest {
         verify(routeListener);
     }
 
+    /**
+     * Tests that a bulk update looks up a next hop shared by several routes
+     * only once.
+     */
+    @Test
+    public void testBulkUpdateResolvesNextHopOnce() {
+        Host host = createHost(MAC1, V4_NEXT_HOP1);
+        reset(hostService);
+        expect(hostService.getHostsByIp(V4_NEXT_HOP1)).andReturn(Sets.newHashSet(host)).once();
+        hostService.startMonitoringIp(V4_NEXT_HOP1);
+        expectLastCall().once();
+        replay(hostService);
+
+        Route route1 = new Route(Route.Source.STATIC, V4_PREFIX1, V4_NEXT_HOP1);
+        Route route2 = new Route(Route.Source.STATIC, V4_PREFIX2, V4_NEXT_HOP1);
+        ResolvedRoute resolvedRoute1 = new ResolvedRoute(route1, MAC1, CP1);
+        ResolvedRoute resolvedRoute2 = new ResolvedRoute(route2, MAC1, CP1);
+
+        reset(routeListener);
+        routeListener.event(event(RouteEvent.Type.ROUTE_ADDED, resolvedRoute1, null,
+                Sets.newHashSet(resolvedRoute1), null));
+        routeListener.event(event(RouteEvent.Type.ROUTE_ADDED, resolvedRoute2, null,
+                Sets.newHashSet(resolvedRoute2), null));
+        replay(routeListener);
+
+        routeManager.update(ImmutableList.of(route1, route2));
+
+        verify(routeListener);
+        verify(hostService);
+    }
+
     /**
      * Tests updating routes in the route manager.
      */
@@ -317,6 +354,9 @@ public class RouteManagerTest {
         routeManager.withdraw(Collections.singleton(route));
 
         verify(routeListener);
+
+        Map<IpAddress, ?> nextHops = TestUtils.getField(routeManager, "nextHops");
+        assertFalse(nextHops.containsKey(route.nextHop()));
     }
 
     /**
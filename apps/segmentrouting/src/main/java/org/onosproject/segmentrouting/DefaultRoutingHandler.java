@@ -22,6 +22,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Futures;
 
 import org.onlab.packet.Ip4Address;
 import org.onlab.packet.Ip6Address;
@@ -33,6 +34,7 @@ import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.Link;
+import org.onosproject.net.LinkKey;
 import org.onosproject.net.PortNumber;
 import org.onosproject.segmentrouting.config.DeviceConfigNotFoundException;
 import org.onosproject.segmentrouting.config.DeviceConfiguration;
@@ -48,10 +50,12 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -74,6 +78,9 @@ public class DefaultRoutingHandler {
     private RoutingRulePopulator rulePopulator;
     private HashMap<DeviceId, EcmpShortestPathGraph> currentEcmpSpgMap;
     private HashMap<DeviceId, EcmpShortestPathGraph> updatedEcmpSpgMap;
+    // latest topology snapshot, and the graphs computed on it
+    private RoutingTopology ecmpTopology;
+    private Map<DeviceId, EcmpShortestPathGraph> ecmpSpgs = ImmutableMap.of();
     private DeviceConfiguration config;
     private final Lock statusLock = new ReentrantLock();
     private volatile Status populationStatus;
@@ -188,18 +195,15 @@ public class DefaultRoutingHandler {
             log.debug("populateAllRoutingRules: populationStatus is STARTED");
 
             // take a snapshot of the topology
-            updatedEcmpSpgMap = new HashMap<>();
+            Set<DeviceId> roots = new HashSet<>();
             Set<EdgePair> edgePairs = new HashSet<>();
             Set<ArrayList<DeviceId>> routeChanges = new HashSet<>();
             for (DeviceId dstSw : srManager.deviceConfiguration.getRouters()) {
-                EcmpShortestPathGraph ecmpSpgUpdated =
-                        new EcmpShortestPathGraph(dstSw, srManager);
-                updatedEcmpSpgMap.put(dstSw, ecmpSpgUpdated);
+                roots.add(dstSw);
                 DeviceId pairDev = getPairDev(dstSw);
                 if (pairDev != null) {
                     // pairDev may not be available yet, but we still need to add
-                    ecmpSpgUpdated = new EcmpShortestPathGraph(pairDev, srManager);
-                    updatedEcmpSpgMap.put(pairDev, ecmpSpgUpdated);
+                    roots.add(pairDev);
                     edgePairs.add(new EdgePair(dstSw, pairDev));
                 }
                 DeviceId ret = shouldHandleRouting(dstSw);
@@ -217,6 +221,7 @@ public class DefaultRoutingHandler {
                     }
                 }
             }
+            updatedEcmpSpgMap = computeEcmpSpgs(roots);
 
             if (!redoRouting(routeChanges, edgePairs, null)) {
                 log.debug("populateAllRoutingRules: populationStatus is ABORTED");
@@ -262,7 +267,6 @@ public class DefaultRoutingHandler {
             log.info("Starting to populate routing rules for added routes, subnets={}, cpts={}",
                     subnets, cpts);
             // Take snapshots of the topology
-            updatedEcmpSpgMap = new HashMap<>();
             Set<EdgePair> edgePairs = new HashSet<>();
             Set<ArrayList<DeviceId>> routeChanges = new HashSet<>();
             boolean handleRouting = false;
@@ -280,10 +284,9 @@ public class DefaultRoutingHandler {
                     populationStatus = Status.ABORTED;
                     return;
                 }
+                updatedEcmpSpgMap = computeEcmpSpgs(
+                        cpts.stream().map(ConnectPoint::deviceId).collect(Collectors.toSet()));
                 for (ConnectPoint cp : cpts) {
-                    EcmpShortestPathGraph ecmpSpgUpdated =
-                            new EcmpShortestPathGraph(cp.deviceId(), srManager);
-                    updatedEcmpSpgMap.put(cp.deviceId(), ecmpSpgUpdated);
                     DeviceId retId = shouldHandleRouting(cp.deviceId());
                     if (retId == null) {
                         continue;
@@ -293,9 +296,7 @@ public class DefaultRoutingHandler {
             } else {
                 // single connect point
                 DeviceId dstSw = cpts.iterator().next().deviceId();
-                EcmpShortestPathGraph ecmpSpgUpdated =
-                        new EcmpShortestPathGraph(dstSw, srManager);
-                updatedEcmpSpgMap.put(dstSw, ecmpSpgUpdated);
+                updatedEcmpSpgMap = computeEcmpSpgs(ImmutableSet.of(dstSw));
                 if (srManager.mastershipService.isLocalMaster(dstSw)) {
                     handleRouting = true;
                 }
@@ -387,20 +388,18 @@ public class DefaultRoutingHandler {
             }
 
             // Take snapshots of the topology
-            updatedEcmpSpgMap = new HashMap<>();
+            Set<DeviceId> roots = new HashSet<>();
             Set<EdgePair> edgePairs = new HashSet<>();
             for (Device sw : srManager.deviceService.getDevices()) {
-                EcmpShortestPathGraph ecmpSpgUpdated =
-                        new EcmpShortestPathGraph(sw.id(), srManager);
-                updatedEcmpSpgMap.put(sw.id(), ecmpSpgUpdated);
+                roots.add(sw.id());
                 DeviceId pairDev = getPairDev(sw.id());
                 if (pairDev != null) {
                     // pairDev may not be available yet, but we still need to add
-                    ecmpSpgUpdated = new EcmpShortestPathGraph(pairDev, srManager);
-                    updatedEcmpSpgMap.put(pairDev, ecmpSpgUpdated);
+                    roots.add(pairDev);
                     edgePairs.add(new EdgePair(sw.id(), pairDev));
                 }
             }
+            updatedEcmpSpgMap = computeEcmpSpgs(roots);
 
             log.info("Starting to populate routing rules from link status change");
 
@@ -531,14 +530,24 @@ public class DefaultRoutingHandler {
             }
         }
 
-        // now process changedRoutes according to edgePairs
-        if (!redoRoutingEdgePairs(edgePairs, subnets, changedRoutes)) {
-            return false; //abort routing and fail fast
-        }
+        // in batched mode, the objectives of all routes are submitted together
+        // once every route has been processed
+        ObjectiveBatch batch = srManager.batchObjectives
+                ? new ObjectiveBatch(srManager.flowObjectiveService) : null;
+        try {
+            // now process changedRoutes according to edgePairs
+            if (!redoRoutingEdgePairs(edgePairs, subnets, changedRoutes, batch)) {
+                return false; //abort routing and fail fast
+            }
 
-        // whatever is left in changedRoutes is now processed for individual dsts.
-        if (!redoRoutingIndividualDests(subnets, changedRoutes)) {
-            return false; //abort routing and fail fast
+            // whatever is left in changedRoutes is now processed for individual dsts.
+            if (!redoRoutingIndividualDests(subnets, changedRoutes, batch)) {
+                return false; //abort routing and fail fast
+            }
+        } finally {
+            if (batch != null) {
+                submitBatch(batch);
+            }
         }
 
         // update ecmpSPG for all edge-pairs
@@ -550,6 +559,23 @@ public class DefaultRoutingHandler {
         return true;
     }
 
+    /**
+     * Submits the objectives collected in a batch during a reroute.
+     *
+     * @param batch batch of routing objectives
+     */
+    private void submitBatch(ObjectiveBatch batch) {
+        int size = batch.size();
+        log.debug("Submitting a batch of {} routing objectives", size);
+        batch.submit().whenComplete((success, error) -> {
+            if (Boolean.TRUE.equals(success)) {
+                log.info("Batch of {} routing objectives populated", size);
+            } else {
+                log.warn("Failed to populate some of a batch of {} routing objectives", size);
+            }
+        });
+    }
+
     /**
      * Programs targetSw in the changedRoutes for given prefixes reachable by
      * an edgePair. If no prefixes are given, the method will use configured
@@ -566,11 +592,14 @@ public class DefaultRoutingHandler {
      *                     a list with its first element the src-switch (target)
      *                     of the path, and the second element the dst-switch of
      *                     the path.
+     * @param batch batch to add the objectives to, or null to submit them
+     *              right away
      * @return true if successful
      */
     private boolean redoRoutingEdgePairs(Set<EdgePair> edgePairs,
                                       Set<IpPrefix> subnets,
-                                      Set<ArrayList<DeviceId>> changedRoutes) {
+                                      Set<ArrayList<DeviceId>> changedRoutes,
+                                      ObjectiveBatch batch) {
         for (EdgePair ep : edgePairs) {
             // temp store for a target's changedRoutes to this edge-pair
             Map<DeviceId, Set<ArrayList<DeviceId>>> targetRoutes = new HashMap<>();
@@ -628,7 +657,8 @@ public class DefaultRoutingHandler {
                              targetSw,
                              ep.dev1, ep.dev2,
                              perDstNextHops,
-                             Sets.intersection(ipDev1, ipDev2))) {
+                             Sets.intersection(ipDev1, ipDev2),
+                             batch)) {
                         return false; // abort everything and fail fast
                     }
                 }
@@ -641,7 +671,8 @@ public class DefaultRoutingHandler {
                             targetSw,
                             ep.dev1, null,
                             onlyDev1NextHops,
-                            onlyDev1Subnets)) {
+                            onlyDev1Subnets,
+                            batch)) {
                         return false; // abort everything and fail fast
                     }
                 }
@@ -654,7 +685,8 @@ public class DefaultRoutingHandler {
                             targetSw,
                             ep.dev2, null,
                             onlyDev2NextHops,
-                            onlyDev2Subnets)) {
+                            onlyDev2Subnets,
+                            batch)) {
                         return false; // abort everything and fail fast
                     }
                 }
@@ -677,10 +709,13 @@ public class DefaultRoutingHandler {
      *                     a list with its first element the src-switch (target)
      *                     of the path, and the second element the dst-switch of
      *                     the path.
+     * @param batch batch to add the objectives to, or null to submit them
+     *              right away
      * @return true if successful
      */
     private boolean redoRoutingIndividualDests(Set<IpPrefix> subnets,
-                                               Set<ArrayList<DeviceId>> changedRoutes) {
+                                               Set<ArrayList<DeviceId>> changedRoutes,
+                                               ObjectiveBatch batch) {
         // aggregate route-path changes for each dst device
         HashMap<DeviceId, ArrayList<ArrayList<DeviceId>>> routesBydevice =
                 new HashMap<>();
@@ -711,7 +746,7 @@ public class DefaultRoutingHandler {
                 Map<DeviceId, Set<DeviceId>> nhops = new HashMap<>();
                 nhops.put(dstSw, nextHops);
                 if (!populateEcmpRoutingRulePartial(targetSw, dstSw, null, nhops,
-                         (subnets == null) ? Sets.newHashSet() : subnets)) {
+                         (subnets == null) ? Sets.newHashSet() : subnets, batch)) {
                     return false; // abort routing and fail fast
                 }
                 log.debug("Populating flow rules from target: {} to dst: {}"
@@ -740,13 +775,15 @@ public class DefaultRoutingHandler {
      *                A null deviceId indicates packets should only be sent to destSw1
      * @param nextHops Map indication a list of next hops per destSw
      * @param subnets Subnets to be populated. If empty, populate all configured subnets.
+     * @param batch batch to add the objectives to, or null to submit them right away
      * @return true if it succeeds in populating rules
      */ // refactor
     private boolean populateEcmpRoutingRulePartial(DeviceId targetSw,
                                                    DeviceId destSw1,
                                                    DeviceId destSw2,
                                                    Map<DeviceId, Set<DeviceId>> nextHops,
-                                                   Set<IpPrefix> subnets) {
+                                                   Set<IpPrefix> subnets,
+                                                   ObjectiveBatch batch) {
         boolean result;
         // If both target switch and dest switch are edge routers, then set IP
         // rule for both subnet and router IP.
@@ -790,7 +827,7 @@ public class DefaultRoutingHandler {
                                         subnets);
             result = rulePopulator.populateIpRuleForSubnet(targetSw, subnets,
                                                            destSw1, destSw2,
-                                                           nextHops);
+                                                           nextHops, batch);
             if (!result) {
                 return false;
             }
@@ -823,14 +860,14 @@ public class DefaultRoutingHandler {
                     + "all MPLS rules", targetSw, destSw1);
             result = rulePopulator.populateMplsRule(targetSw, destSw1,
                                                     nextHops.get(destSw1),
-                                                    dest1RouterIpv4);
+                                                    dest1RouterIpv4, batch);
             if (!result) {
                 return false;
             }
             if (dest1RouterIpv6 != null) {
                 result = rulePopulator.populateMplsRule(targetSw, destSw1,
                                                         nextHops.get(destSw1),
-                                                        dest1RouterIpv6);
+                                                        dest1RouterIpv6, batch);
                 if (!result) {
                     return false;
                 }
@@ -1428,11 +1465,58 @@ public class DefaultRoutingHandler {
      * Updates the currentEcmpSpgGraph for all devices.
      */
     private void updateEcmpSpgMaps() {
-        for (Device sw : srManager.deviceService.getDevices()) {
-            EcmpShortestPathGraph ecmpSpgUpdated =
-                    new EcmpShortestPathGraph(sw.id(), srManager);
-            currentEcmpSpgMap.put(sw.id(), ecmpSpgUpdated);
+        Set<DeviceId> roots = new HashSet<>();
+        srManager.deviceService.getDevices().forEach(sw -> roots.add(sw.id()));
+        currentEcmpSpgMap.putAll(computeEcmpSpgs(roots));
+    }
+
+    /**
+     * Computes the ECMP shortest-path graphs rooted at the given devices.
+     * <p>
+     * All graphs are computed on the same snapshot of the topology, in
+     * parallel. A graph computed for an earlier snapshot is reused as long as
+     * none of the links that changed since then affect its shortest paths.
+     *
+     * @param roots root devices of the graphs
+     * @return ECMP shortest-path graph of each root device
+     */
+    private synchronized HashMap<DeviceId, EcmpShortestPathGraph> computeEcmpSpgs(Set<DeviceId> roots) {
+        RoutingTopology topology = RoutingTopology.snapshot(srManager);
+        Set<LinkKey> removedLinks = ImmutableSet.of();
+        Set<LinkKey> addedLinks = ImmutableSet.of();
+        if (ecmpTopology != null) {
+            removedLinks = ecmpTopology.linksNotIn(topology);
+            addedLinks = topology.linksNotIn(ecmpTopology);
+        }
+
+        // graphs of the previous snapshot that are still valid
+        HashMap<DeviceId, EcmpShortestPathGraph> graphs = new HashMap<>();
+        if (ecmpTopology != null) {
+            for (Map.Entry<DeviceId, EcmpShortestPathGraph> entry : ecmpSpgs.entrySet()) {
+                if (!entry.getValue().isAffectedBy(removedLinks, addedLinks)) {
+                    graphs.put(entry.getKey(), entry.getValue());
+                }
+            }
         }
+
+        Map<DeviceId, Future<EcmpShortestPathGraph>> computations = new HashMap<>();
+        for (DeviceId root : roots) {
+            if (!graphs.containsKey(root)) {
+                computations.put(root, srManager.ecmpExecutor.submit(
+                        () -> new EcmpShortestPathGraph(root, srManager, topology)));
+            }
+        }
+        log.debug("Computing {} ECMP graphs, reusing {} for {} removed and {} added links",
+                  computations.size(), roots.size() - computations.size(),
+                  removedLinks.size(), addedLinks.size());
+        computations.forEach((root, computation) -> graphs.put(root, Futures.getUnchecked(computation)));
+
+        ecmpTopology = topology;
+        ecmpSpgs = ImmutableMap.copyOf(graphs);
+
+        HashMap<DeviceId, EcmpShortestPathGraph> result = new HashMap<>();
+        roots.forEach(root -> result.put(root, graphs.get(root)));
+        return result;
     }
 
     /**
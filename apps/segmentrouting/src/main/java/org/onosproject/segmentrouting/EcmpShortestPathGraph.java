@@ -15,11 +15,11 @@
  */
 package org.onosproject.segmentrouting;
 
-import org.onosproject.net.DefaultLink;
 import org.onosproject.net.DefaultPath;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.Link;
+import org.onosproject.net.LinkKey;
 import org.onosproject.net.Path;
 import org.onosproject.net.provider.ProviderId;
 import org.slf4j.Logger;
@@ -30,7 +30,9 @@ import com.google.common.collect.Sets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class creates breadth-first-search (BFS) tree for a given root device
@@ -42,7 +44,8 @@ public class EcmpShortestPathGraph {
     LinkedList<Integer> distanceQueue = new LinkedList<>();
     HashMap<DeviceId, Integer> deviceSearched = new HashMap<>();
     HashMap<DeviceId, ArrayList<Link>> upstreamLinks = new HashMap<>();
-    HashMap<DeviceId, ArrayList<Path>> paths = new HashMap<>();
+    // filled lazily, possibly by several threads once the graph is shared
+    Map<DeviceId, ArrayList<Path>> paths = new ConcurrentHashMap<>();
     HashMap<Integer, ArrayList<DeviceId>> distanceDeviceMap = new HashMap<>();
     DeviceId rootDevice;
     private SegmentRoutingManager srManager;
@@ -55,15 +58,27 @@ public class EcmpShortestPathGraph {
      * @param srManager SegmentRoutingManager object
      */
     public EcmpShortestPathGraph(DeviceId rootDevice, SegmentRoutingManager srManager) {
+        this(rootDevice, srManager, RoutingTopology.snapshot(srManager));
+    }
+
+    /**
+     * Constructor computing the BFS tree on a given topology snapshot.
+     *
+     * @param rootDevice root of the BFS tree
+     * @param srManager SegmentRoutingManager object
+     * @param topology snapshot of the links to consider
+     */
+    EcmpShortestPathGraph(DeviceId rootDevice, SegmentRoutingManager srManager,
+                          RoutingTopology topology) {
         this.rootDevice = rootDevice;
         this.srManager = srManager;
-        calcECMPShortestPathGraph();
+        calcECMPShortestPathGraph(topology);
     }
 
     /**
      * Calculates the BFS tree.
      */
-   private void calcECMPShortestPathGraph() {
+   private void calcECMPShortestPathGraph(RoutingTopology topology) {
         deviceQueue.add(rootDevice);
         int currDistance = 0;
         distanceQueue.add(currDistance);
@@ -73,10 +88,7 @@ public class EcmpShortestPathGraph {
             Set<DeviceId> prevSw = Sets.newHashSet();
             currDistance = distanceQueue.poll();
 
-            for (Link link : srManager.linkService.getDeviceEgressLinks(sw)) {
-                if (srManager.linkHandler.avoidLink(link)) {
-                    continue;
-                }
+            for (Link link : topology.egressLinks(sw)) {
                 DeviceId reachedDevice = link.dst().deviceId();
                 if (prevSw.contains(reachedDevice)) {
                     // Ignore LAG links between the same set of Devices
@@ -110,12 +122,11 @@ public class EcmpShortestPathGraph {
                         upstreamLinks.get(reachedDevice);
                 if (upstreamLinkArray == null) {
                     upstreamLinkArray = new ArrayList<>();
-                    upstreamLinkArray.add(copyDefaultLink(link));
-                    //upstreamLinkArray.add(link);
+                    upstreamLinkArray.add(link);
                     upstreamLinks.put(reachedDevice, upstreamLinkArray);
                 } else {
                     // ECMP links
-                    upstreamLinkArray.add(copyDefaultLink(link));
+                    upstreamLinkArray.add(link);
                 }
             }
         }
@@ -234,18 +245,41 @@ public class EcmpShortestPathGraph {
         return deviceViaMap;
     }
 
-
-    private Link copyDefaultLink(Link link) {
-        DefaultLink src = (DefaultLink) link;
-        DefaultLink defaultLink = DefaultLink.builder()
-                .providerId(src.providerId())
-                .src(src.src())
-                .dst(src.dst())
-                .type(src.type())
-                .annotations(src.annotations())
-                .build();
-
-        return defaultLink;
+    /**
+     * Determines whether the BFS tree would change if computed again after
+     * the given links were removed from and added to the topology snapshot it
+     * was computed on.
+     * <p>
+     * A removed link matters only if it is part of the shortest-path DAG, and
+     * an added link only if it leaves a reached device towards a device that
+     * is not already closer to the root than the far end of the link.
+     *
+     * @param removedLinks links no longer in the topology
+     * @param addedLinks links new to the topology
+     * @return true if the graph has to be computed again
+     */
+    boolean isAffectedBy(Set<LinkKey> removedLinks, Set<LinkKey> addedLinks) {
+        if (!removedLinks.isEmpty()) {
+            for (ArrayList<Link> links : upstreamLinks.values()) {
+                for (Link link : links) {
+                    if (removedLinks.contains(LinkKey.linkKey(link))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        for (LinkKey link : addedLinks) {
+            Integer srcDistance = deviceSearched.get(link.src().deviceId());
+            if (srcDistance == null) {
+                // not reachable from the root
+                continue;
+            }
+            Integer dstDistance = deviceSearched.get(link.dst().deviceId());
+            if (dstDistance == null || dstDistance > srcDistance) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.segmentrouting;
+
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flowobjective.FlowObjectiveService;
+import org.onosproject.net.flowobjective.ForwardingObjective;
+import org.onosproject.net.flowobjective.NextObjective;
+import org.onosproject.net.flowobjective.Objective;
+import org.onosproject.net.flowobjective.ObjectiveContext;
+import org.onosproject.net.flowobjective.ObjectiveError;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Accumulates next and forwarding objectives per device and submits them
+ * together.
+ * <p>
+ * On submission, the objectives of each device are handed to the flow
+ * objective service in a single call, next objectives first, so that they
+ * reach the device pipeline in order. The contexts of the objectives are still
+ * notified individually, and the batch completes once every objective has
+ * been reported as installed or failed.
+ * <p>
+ * A batch is meant to be filled by a single route population; it is not
+ * shared between threads.
+ */
+public final class ObjectiveBatch {
+
+    private final FlowObjectiveService flowObjectiveService;
+    private final Map<DeviceId, List<NextObjective>> nextObjectives = new LinkedHashMap<>();
+    private final Map<DeviceId, List<ForwardingObjective>> forwardingObjectives = new LinkedHashMap<>();
+    private final CompletableFuture<Boolean> completion = new CompletableFuture<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicBoolean failed = new AtomicBoolean();
+    private boolean submitted;
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param flowObjectiveService service the objectives are submitted to
+     */
+    public ObjectiveBatch(FlowObjectiveService flowObjectiveService) {
+        this.flowObjectiveService = flowObjectiveService;
+    }
+
+    /**
+     * Adds a next objective to the batch.
+     *
+     * @param deviceId device identifier
+     * @param objective next objective
+     */
+    public synchronized void next(DeviceId deviceId, NextObjective objective) {
+        checkState(!submitted, "Batch already submitted");
+        NextObjective.Builder builder = objective.copy();
+        ObjectiveContext context = track(objective);
+        NextObjective tracked;
+        switch (objective.op()) {
+            case ADD:
+                tracked = builder.add(context);
+                break;
+            case REMOVE:
+                tracked = builder.remove(context);
+                break;
+            case ADD_TO_EXISTING:
+                tracked = builder.addToExisting(context);
+                break;
+            case REMOVE_FROM_EXISTING:
+                tracked = builder.removeFromExisting(context);
+                break;
+            case VERIFY:
+                tracked = builder.verify(context);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + objective.op());
+        }
+        nextObjectives.computeIfAbsent(deviceId, k -> new ArrayList<>()).add(tracked);
+    }
+
+    /**
+     * Adds a forwarding objective to the batch.
+     *
+     * @param deviceId device identifier
+     * @param objective forwarding objective
+     */
+    public synchronized void forward(DeviceId deviceId, ForwardingObjective objective) {
+        checkState(!submitted, "Batch already submitted");
+        ForwardingObjective.Builder builder = objective.copy();
+        ObjectiveContext context = track(objective);
+        ForwardingObjective tracked;
+        switch (objective.op()) {
+            case ADD:
+                tracked = builder.add(context);
+                break;
+            case REMOVE:
+                tracked = builder.remove(context);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + objective.op());
+        }
+        forwardingObjectives.computeIfAbsent(deviceId, k -> new ArrayList<>()).add(tracked);
+    }
+
+    /**
+     * Returns the number of objectives in the batch.
+     *
+     * @return number of objectives
+     */
+    public synchronized int size() {
+        return nextObjectives.values().stream().mapToInt(List::size).sum()
+                + forwardingObjectives.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Submits the objectives of the batch, with one call to the flow
+     * objective service per device.
+     *
+     * @return future completed with true once all objectives are installed, or
+     *         with false once all are reported and at least one has failed
+     */
+    public synchronized CompletableFuture<Boolean> submit() {
+        checkState(!submitted, "Batch already submitted");
+        submitted = true;
+        pending.set(size() + 1);
+        Map<DeviceId, List<Objective>> objectives = new LinkedHashMap<>();
+        nextObjectives.forEach((deviceId, nexts) ->
+                objectives.computeIfAbsent(deviceId, k -> new ArrayList<>()).addAll(nexts));
+        forwardingObjectives.forEach((deviceId, forwards) ->
+                objectives.computeIfAbsent(deviceId, k -> new ArrayList<>()).addAll(forwards));
+        objectives.forEach(flowObjectiveService::apply);
+        // the extra count keeps the batch from completing while still submitting
+        done();
+        return completion;
+    }
+
+    private ObjectiveContext track(Objective original) {
+        ObjectiveContext context = original.context().orElse(null);
+        return new ObjectiveContext() {
+            @Override
+            public void onSuccess(Objective objective) {
+                if (context != null) {
+                    context.onSuccess(objective);
+                }
+                done();
+            }
+
+            @Override
+            public void onError(Objective objective, ObjectiveError error) {
+                if (context != null) {
+                    context.onError(objective, error);
+                }
+                failed.set(true);
+                done();
+            }
+        };
+    }
+
+    private void done() {
+        if (pending.decrementAndGet() == 0) {
+            completion.complete(!failed.get());
+        }
+    }
+}
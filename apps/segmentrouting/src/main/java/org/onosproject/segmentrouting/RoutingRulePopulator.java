@@ -279,12 +279,15 @@ public class RoutingRulePopulator {
      *                 (although the next-hop set may be empty in certain scenarios).
      *                 If destSw2 is null, there should not be an entry in this
      *                 map for destSw2.
+     * @param batch batch to add the objectives to, or null to submit them
+     *              right away
      * @return true if all rules are set successfully, false otherwise
      */
     boolean populateIpRuleForSubnet(DeviceId targetSw, Set<IpPrefix> subnets,
-            DeviceId destSw1, DeviceId destSw2, Map<DeviceId, Set<DeviceId>> nextHops) {
+            DeviceId destSw1, DeviceId destSw2, Map<DeviceId, Set<DeviceId>> nextHops,
+            ObjectiveBatch batch) {
         for (IpPrefix subnet : subnets) {
-            if (!populateIpRuleForRouter(targetSw, subnet, destSw1, destSw2, nextHops)) {
+            if (!populateIpRuleForRouter(targetSw, subnet, destSw1, destSw2, nextHops, batch)) {
                 return false;
             }
         }
@@ -320,12 +323,15 @@ public class RoutingRulePopulator {
      *                  Should only contain destination switches that are
      *                  actually meant to be routed to. If destSw2 is null, there
      *                  should not be an entry for destSw2 in this map.
+     * @param batch batch to add the objectives to, or null to submit them
+     *              right away
      * @return true if all rules are set successfully, false otherwise
      */
     private boolean populateIpRuleForRouter(DeviceId targetSw,
                                            IpPrefix ipPrefix, DeviceId destSw1,
                                            DeviceId destSw2,
-                                           Map<DeviceId, Set<DeviceId>> nextHops) {
+                                           Map<DeviceId, Set<DeviceId>> nextHops,
+                                           ObjectiveBatch batch) {
         int segmentId1, segmentId2 = -1;
         try {
             if (ipPrefix.isIp4()) {
@@ -393,7 +399,8 @@ public class RoutingRulePopulator {
         }
 
         int nextId = grpHandler.getNextObjectiveId(ds, nextHops,
-                                                   metabuilder.build(), true);
+                                                   metabuilder.build(), true,
+                                                   batch);
         if (nextId <= 0) {
             log.warn("No next objective in {} for ds: {}", targetSw, ds);
             return false;
@@ -418,7 +425,7 @@ public class RoutingRulePopulator {
                 (objective, error) ->
                         log.warn("Failed to populate IP rule for router {}: {} in dev:{}",
                                  ipPrefix, error, targetSw));
-        srManager.flowObjectiveService.forward(targetSw, fwdBuilder.add(context));
+        forward(targetSw, fwdBuilder.add(context), batch);
         rulePopulationCounter.incrementAndGet();
 
         return true;
@@ -464,6 +471,8 @@ public class RoutingRulePopulator {
      * @param nextHops the set of next hops
      * @param segmentId the segmentId to match
      * @param routerIp the router ip
+     * @param batch batch to add the next objectives to, or null to submit
+     *              them right away
      * @return a collection of fwdobjective
      */
     private Collection<ForwardingObjective> handleMpls(
@@ -472,7 +481,8 @@ public class RoutingRulePopulator {
                                         Set<DeviceId> nextHops,
                                         int segmentId,
                                         IpAddress routerIp,
-                                        boolean isMplsBos) {
+                                        boolean isMplsBos,
+                                        ObjectiveBatch batch) {
 
         TrafficSelector.Builder sbuilder = DefaultTrafficSelector.builder();
         List<ForwardingObjective.Builder> fwdObjBuilders = Lists.newArrayList();
@@ -503,7 +513,8 @@ public class RoutingRulePopulator {
                                                isMplsBos,
                                                metabuilder.build(),
                                                routerIp,
-                                               destSwId);
+                                               destSwId,
+                                               batch);
             // Error case, we cannot handle, exit.
             if (fwdObjNoBosBuilder == null) {
                 return Collections.emptyList();
@@ -525,7 +536,8 @@ public class RoutingRulePopulator {
                                                isMplsBos,
                                                metabuilder.build(),
                                                routerIp,
-                                               destSwId);
+                                               destSwId,
+                                               batch);
             // Error case, we cannot handle, exit.
             if (fwdObjNoBosBuilder == null) {
                 return Collections.emptyList();
@@ -569,11 +581,14 @@ public class RoutingRulePopulator {
      * @param destSwId destination switch device ID
      * @param nextHops next hops switch ID list
      * @param routerIp the router ip
+     * @param batch batch to add the objectives to, or null to submit them
+     *              right away
      * @return true if all rules are set successfully, false otherwise
      */
     boolean populateMplsRule(DeviceId targetSwId, DeviceId destSwId,
                                     Set<DeviceId> nextHops,
-                                    IpAddress routerIp) {
+                                    IpAddress routerIp,
+                                    ObjectiveBatch batch) {
 
         int segmentId;
         try {
@@ -590,7 +605,7 @@ public class RoutingRulePopulator {
         List<ForwardingObjective> fwdObjs = new ArrayList<>();
         Collection<ForwardingObjective> fwdObjsMpls;
         // Generates the transit rules used by the standard "routing".
-        fwdObjsMpls = handleMpls(targetSwId, destSwId, nextHops, segmentId, routerIp, true);
+        fwdObjsMpls = handleMpls(targetSwId, destSwId, nextHops, segmentId, routerIp, true, batch);
         if (fwdObjsMpls.isEmpty()) {
             return false;
         }
@@ -604,7 +619,7 @@ public class RoutingRulePopulator {
             log.warn(e.getMessage() + " Aborting populateMplsRule. No label for PseudoWire traffic.");
             return false;
         }
-        fwdObjsMpls = handleMpls(targetSwId, destSwId, nextHops, pwSrLabel, routerIp, false);
+        fwdObjsMpls = handleMpls(targetSwId, destSwId, nextHops, pwSrLabel, routerIp, false, batch);
         if (fwdObjsMpls.isEmpty()) {
             return false;
         }
@@ -613,13 +628,21 @@ public class RoutingRulePopulator {
         for (ForwardingObjective fwdObj : fwdObjs) {
             log.debug("Sending MPLS fwd obj {} for SID {}-> next {} in sw: {}",
                       fwdObj.id(), segmentId, fwdObj.nextId(), targetSwId);
-            srManager.flowObjectiveService.forward(targetSwId, fwdObj);
+            forward(targetSwId, fwdObj, batch);
             rulePopulationCounter.incrementAndGet();
         }
 
         return true;
     }
 
+    private void forward(DeviceId deviceId, ForwardingObjective objective, ObjectiveBatch batch) {
+        if (batch != null) {
+            batch.forward(deviceId, objective);
+        } else {
+            srManager.flowObjectiveService.forward(deviceId, objective);
+        }
+    }
+
     private ForwardingObjective.Builder getMplsForwardingObjective(
                                              DeviceId targetSw,
                                              Set<DeviceId> nextHops,
@@ -627,7 +650,8 @@ public class RoutingRulePopulator {
                                              boolean isBos,
                                              TrafficSelector meta,
                                              IpAddress routerIp,
-                                             DeviceId destSw) {
+                                             DeviceId destSw,
+                                             ObjectiveBatch batch) {
 
         ForwardingObjective.Builder fwdBuilder = DefaultForwardingObjective
                 .builder().withFlag(ForwardingObjective.Flag.SPECIFIC);
@@ -681,7 +705,7 @@ public class RoutingRulePopulator {
         // by MPLS flows and if Bos == False the driver will use MPLS groups.
         Map<DeviceId, Set<DeviceId>> dstNextHops = new HashMap<>();
         dstNextHops.put(destSw, nextHops);
-        int nextId = gh.getNextObjectiveId(ns, dstNextHops, meta, isBos);
+        int nextId = gh.getNextObjectiveId(ns, dstNextHops, meta, isBos, batch);
         if (nextId <= 0) {
             log.warn("No next objective in {} for ns: {}", targetSw, ns);
             return null;
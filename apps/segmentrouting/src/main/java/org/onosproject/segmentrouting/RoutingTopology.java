@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.segmentrouting;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.LinkKey;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the infrastructure links considered when computing
+ * ECMP shortest-path graphs.
+ * <p>
+ * Links that should be avoided by routing are left out of the snapshot, so
+ * that the graphs of all root devices can be computed concurrently from the
+ * same snapshot without querying the link service again.
+ */
+final class RoutingTopology {
+
+    private final ImmutableMap<DeviceId, ImmutableList<Link>> egressLinks;
+    private final ImmutableSet<LinkKey> links;
+
+    private RoutingTopology(ImmutableMap<DeviceId, ImmutableList<Link>> egressLinks,
+                            ImmutableSet<LinkKey> links) {
+        this.egressLinks = egressLinks;
+        this.links = links;
+    }
+
+    /**
+     * Takes a snapshot of the links currently known to the link service.
+     *
+     * @param srManager SegmentRoutingManager object
+     * @return topology snapshot
+     */
+    static RoutingTopology snapshot(SegmentRoutingManager srManager) {
+        Map<DeviceId, ImmutableList.Builder<Link>> egressLinks = new LinkedHashMap<>();
+        ImmutableSet.Builder<LinkKey> links = ImmutableSet.builder();
+        for (Link link : srManager.linkService.getLinks()) {
+            if (srManager.linkHandler.avoidLink(link)) {
+                continue;
+            }
+            egressLinks.computeIfAbsent(link.src().deviceId(), k -> ImmutableList.builder())
+                    .add(copyDefaultLink(link));
+            links.add(LinkKey.linkKey(link));
+        }
+        ImmutableMap.Builder<DeviceId, ImmutableList<Link>> builder = ImmutableMap.builder();
+        egressLinks.forEach((deviceId, deviceLinks) -> builder.put(deviceId, deviceLinks.build()));
+        return new RoutingTopology(builder.build(), links.build());
+    }
+
+    /**
+     * Returns the links leaving the given device.
+     *
+     * @param deviceId device identifier
+     * @return egress links of the device, empty if it has none
+     */
+    List<Link> egressLinks(DeviceId deviceId) {
+        return egressLinks.getOrDefault(deviceId, ImmutableList.of());
+    }
+
+    /**
+     * Returns the links of this snapshot that are not part of the given one.
+     *
+     * @param other topology snapshot to compare with
+     * @return keys of the links only found in this snapshot
+     */
+    Set<LinkKey> linksNotIn(RoutingTopology other) {
+        return ImmutableSet.copyOf(Sets.difference(links, other.links));
+    }
+
+    private static Link copyDefaultLink(Link link) {
+        DefaultLink src = (DefaultLink) link;
+        return DefaultLink.builder()
+                .providerId(src.providerId())
+                .src(src.src())
+                .dst(src.dst())
+                .type(src.type())
+                .annotations(src.annotations())
+                .build();
+    }
+}
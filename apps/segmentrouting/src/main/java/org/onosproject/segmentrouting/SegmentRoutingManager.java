@@ -124,6 +124,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -144,6 +145,9 @@ public class SegmentRoutingManager implements SegmentRoutingService {
 
     private static Logger log = LoggerFactory.getLogger(SegmentRoutingManager.class);
     private static final String NOT_MASTER = "Current instance is not the master of {}. Ignore.";
+    private static final int MAX_ECMP_GRAPH_THREADS = 8;
+    private static final int ECMP_GRAPH_THREADS =
+            Math.min(MAX_ECMP_GRAPH_THREADS, Runtime.getRuntime().availableProcessors());
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     private ComponentConfigService compCfgService;
@@ -200,6 +204,10 @@ public class SegmentRoutingManager implements SegmentRoutingService {
             label = "Enable active probing to discover dual-homed hosts.")
     boolean activeProbing = true;
 
+    @Property(name = "batchObjectives", boolValue = false,
+            label = "Submit the objectives of a route computation per device in a single batch.")
+    boolean batchObjectives = false;
+
     ArpHandler arpHandler = null;
     IcmpHandler icmpHandler = null;
     IpHandler ipHandler = null;
@@ -229,6 +237,9 @@ public class SegmentRoutingManager implements SegmentRoutingService {
 
     private ScheduledExecutorService executorService = Executors
             .newScheduledThreadPool(1, groupedThreads("SegmentRoutingManager", "event-%d", log));
+    // computes the ECMP shortest-path graphs of the root devices in parallel
+    ExecutorService ecmpExecutor = Executors
+            .newFixedThreadPool(ECMP_GRAPH_THREADS, groupedThreads("SegmentRoutingManager", "ecmp-%d", log));
 
     @SuppressWarnings("unused")
     private static ScheduledFuture<?> eventHandlerFuture = null;
@@ -480,6 +491,7 @@ public class SegmentRoutingManager implements SegmentRoutingService {
         portNextObjStore.destroy();
         tunnelStore.destroy();
         policyStore.destroy();
+        ecmpExecutor.shutdown();
         log.info("Stopped");
     }
 
@@ -497,6 +509,14 @@ public class SegmentRoutingManager implements SegmentRoutingService {
             activeProbing = expectActiveProbing;
             log.info("{} active probing", activeProbing ? "Enabling" : "Disabling");
         }
+
+        String strBatchObjectives = Tools.get(properties, "batchObjectives");
+        boolean expectBatchObjectives = Boolean.parseBoolean(strBatchObjectives);
+
+        if (expectBatchObjectives != batchObjectives) {
+            batchObjectives = expectBatchObjectives;
+            log.info("{} batched objective population", batchObjectives ? "Enabling" : "Disabling");
+        }
     }
 
     @Override
@@ -41,6 +41,7 @@ import org.onosproject.net.flowobjective.NextObjective;
 import org.onosproject.net.flowobjective.ObjectiveContext;
 import org.onosproject.net.link.LinkService;
 import org.onosproject.segmentrouting.DefaultRoutingHandler;
+import org.onosproject.segmentrouting.ObjectiveBatch;
 import org.onosproject.segmentrouting.SegmentRoutingManager;
 import org.onosproject.segmentrouting.config.DeviceConfigNotFoundException;
 import org.onosproject.segmentrouting.config.DeviceProperties;
@@ -695,6 +696,28 @@ public class DefaultGroupHandler {
     public int getNextObjectiveId(DestinationSet ds,
                                   Map<DeviceId, Set<DeviceId>> nextHops,
                                   TrafficSelector meta, boolean isBos) {
+        return getNextObjectiveId(ds, nextHops, meta, isBos, null);
+    }
+
+    /**
+     * Returns the next objective of type hashed associated with the destination
+     * set, like {@link #getNextObjectiveId(DestinationSet, Map, TrafficSelector, boolean)}.
+     * A next objective created by this call is added to the given batch rather
+     * than submitted right away.
+     *
+     * @param ds destination set
+     * @param nextHops a map of per destination next hops
+     * @param meta metadata passed into the creation of a Next Objective
+     * @param isBos if Bos is set
+     * @param batch batch to add a created next objective to, or null to
+     *              submit it right away
+     * @return int if found or -1 if there are errors in the creation of the
+     *          neighbor set.
+     */
+    public int getNextObjectiveId(DestinationSet ds,
+                                  Map<DeviceId, Set<DeviceId>> nextHops,
+                                  TrafficSelector meta, boolean isBos,
+                                  ObjectiveBatch batch) {
         NextNeighbors next = dsNextObjStore.
                 get(new DestinationSetNextObjectiveStoreKey(deviceId, ds));
         if (next == null) {
@@ -708,7 +731,7 @@ public class DefaultGroupHandler {
                       (nsStoreEntry.getKey().deviceId().equals(deviceId)))
                       .collect(Collectors.toList()));
 
-            createGroupFromDestinationSet(ds, nextHops, meta, isBos);
+            createGroupFromDestinationSet(ds, nextHops, meta, isBos, batch);
             next = dsNextObjStore.
                     get(new DestinationSetNextObjectiveStoreKey(deviceId, ds));
             if (next == null) {
@@ -853,6 +876,25 @@ public class DefaultGroupHandler {
                                               Map<DeviceId, Set<DeviceId>> neighbors,
                                               TrafficSelector meta,
                                               boolean isBos) {
+        createGroupFromDestinationSet(ds, neighbors, meta, isBos, null);
+    }
+
+    /**
+     * Creates a NextObjective for a hash group in this device from a given
+     * DestinationSet, adding it to the given batch.
+     *
+     * @param ds the DestinationSet
+     * @param neighbors a map for each destination and its next-hops
+     * @param meta metadata passed into the creation of a Next Objective
+     * @param isBos if BoS is set
+     * @param batch batch to add the next objective to, or null to submit it
+     *              right away
+     */
+    public void createGroupFromDestinationSet(DestinationSet ds,
+                                              Map<DeviceId, Set<DeviceId>> neighbors,
+                                              TrafficSelector meta,
+                                              boolean isBos,
+                                              ObjectiveBatch batch) {
         int nextId = flowObjectiveService.allocateNextId();
         NextObjective.Type type = NextObjective.Type.HASHED;
         if (neighbors == null || neighbors.isEmpty()) {
@@ -968,7 +1010,11 @@ public class DefaultGroupHandler {
         NextObjective nextObj = nextObjBuilder.add(context);
         log.debug(".. createGroupsFromDestinationSet: Submitted "
                 + "next objective {} in device {}", nextId, deviceId);
-        flowObjectiveService.next(deviceId, nextObj);
+        if (batch != null) {
+            batch.next(deviceId, nextObj);
+        } else {
+            flowObjectiveService.next(deviceId, nextObj);
+        }
         //update store
         dsNextObjStore.put(new DestinationSetNextObjectiveStoreKey(deviceId, ds),
                            new NextNeighbors(dstNextHops, nextId));
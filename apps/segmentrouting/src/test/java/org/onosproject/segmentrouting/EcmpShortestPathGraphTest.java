@@ -0,0 +1,168 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.segmentrouting;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.LinkKey;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.link.LinkServiceAdapter;
+import org.onosproject.net.provider.ProviderId;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the ECMP shortest-path graph.
+ */
+public class EcmpShortestPathGraphTest {
+
+    private static final ProviderId PID = new ProviderId("of", "foo");
+
+    private static final DeviceId L1 = DeviceId.deviceId("of:0000000000000001");
+    private static final DeviceId L2 = DeviceId.deviceId("of:0000000000000002");
+    private static final DeviceId L3 = DeviceId.deviceId("of:0000000000000003");
+    private static final DeviceId S1 = DeviceId.deviceId("of:0000000000000011");
+    private static final DeviceId S2 = DeviceId.deviceId("of:0000000000000012");
+
+    private final Set<Link> links = new LinkedHashSet<>();
+    private SegmentRoutingManager srManager;
+    private int nextPort;
+
+    @Before
+    public void setUp() {
+        srManager = new MockSegmentRoutingManager(new HashMap<>());
+        srManager.linkService = new LinkServiceAdapter() {
+            @Override
+            public Iterable<Link> getLinks() {
+                return ImmutableSet.copyOf(links);
+            }
+        };
+        srManager.linkHandler = new MockLinkHandler(srManager) {
+            @Override
+            boolean avoidLink(Link link) {
+                return false;
+            }
+        };
+
+        // two-spine leaf-spine fabric
+        for (DeviceId leaf : ImmutableSet.of(L1, L2, L3)) {
+            for (DeviceId spine : ImmutableSet.of(S1, S2)) {
+                connect(leaf, spine);
+            }
+        }
+    }
+
+    /**
+     * Tests the equal-cost paths between two leaves.
+     */
+    @Test
+    public void testEcmpPaths() {
+        EcmpShortestPathGraph graph = graph(L1);
+        assertEquals(2, graph.getECMPPaths(L2).size());
+        assertEquals(1, graph.getECMPPaths(S1).size());
+        assertEquals(ImmutableSet.of(S1, S2), ImmutableSet.copyOf(graph.getAllLearnedSwitchesAndVia().get(1).keySet()));
+    }
+
+    /**
+     * Tests that removing a link outside the shortest-path DAG does not affect
+     * the graph.
+     */
+    @Test
+    public void testUnusedLinkRemoved() {
+        Set<LinkKey> removed = connect(S1, S2);
+        EcmpShortestPathGraph graph = graph(L1);
+
+        disconnect(removed);
+        assertFalse(graph.isAffectedBy(removed, ImmutableSet.of()));
+        assertEquals(graph(L1).getAllLearnedSwitchesAndVia(), graph.getAllLearnedSwitchesAndVia());
+    }
+
+    /**
+     * Tests that removing a link of the shortest-path DAG affects the graph.
+     */
+    @Test
+    public void testDagLinkRemoved() {
+        Set<LinkKey> removed = linksBetween(S1, L2);
+        EcmpShortestPathGraph graph = graph(L1);
+
+        disconnect(removed);
+        assertTrue(graph.isAffectedBy(removed, ImmutableSet.of()));
+        assertEquals(1, graph(L1).getECMPPaths(L2).size());
+    }
+
+    /**
+     * Tests that links only joining devices already at the same or a shorter
+     * distance do not affect the graph, while shortcuts do.
+     */
+    @Test
+    public void testLinksAdded() {
+        EcmpShortestPathGraph graph = graph(L1);
+
+        assertFalse(graph.isAffectedBy(ImmutableSet.of(), connect(S1, S2)));
+        assertTrue(graph.isAffectedBy(ImmutableSet.of(), connect(L1, L3)));
+        assertEquals(1, graph(L1).getECMPPaths(L3).size());
+    }
+
+    private EcmpShortestPathGraph graph(DeviceId root) {
+        return new EcmpShortestPathGraph(root, srManager, RoutingTopology.snapshot(srManager));
+    }
+
+    private Set<LinkKey> connect(DeviceId one, DeviceId two) {
+        ConnectPoint a = port(one, ++nextPort);
+        ConnectPoint b = port(two, ++nextPort);
+        links.add(link(a, b));
+        links.add(link(b, a));
+        return ImmutableSet.of(LinkKey.linkKey(a, b), LinkKey.linkKey(b, a));
+    }
+
+    private Set<LinkKey> linksBetween(DeviceId one, DeviceId two) {
+        Set<DeviceId> ends = ImmutableSet.of(one, two);
+        return links.stream()
+                .filter(link -> ends.contains(link.src().deviceId()) && ends.contains(link.dst().deviceId()))
+                .map(LinkKey::linkKey)
+                .collect(Collectors.toSet());
+    }
+
+    private void disconnect(Set<LinkKey> keys) {
+        links.removeIf(link -> keys.contains(LinkKey.linkKey(link)));
+    }
+
+    private static ConnectPoint port(DeviceId deviceId, long port) {
+        return new ConnectPoint(deviceId, PortNumber.portNumber(port));
+    }
+
+    private static Link link(ConnectPoint src, ConnectPoint dst) {
+        return DefaultLink.builder()
+                .providerId(PID)
+                .src(src)
+                .dst(dst)
+                .type(Link.Type.DIRECT)
+                .build();
+    }
+}
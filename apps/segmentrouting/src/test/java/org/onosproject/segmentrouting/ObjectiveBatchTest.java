@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.onosproject.segmentrouting;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.flow.DefaultTrafficSelector;
+import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.flowobjective.DefaultForwardingObjective;
+import org.onosproject.net.flowobjective.DefaultNextObjective;
+import org.onosproject.net.flowobjective.DefaultObjectiveContext;
+import org.onosproject.net.flowobjective.FlowObjectiveServiceAdapter;
+import org.onosproject.net.flowobjective.ForwardingObjective;
+import org.onosproject.net.flowobjective.NextObjective;
+import org.onosproject.net.flowobjective.Objective;
+import org.onosproject.net.flowobjective.ObjectiveError;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the objective batch.
+ */
+public class ObjectiveBatchTest {
+
+    private static final ApplicationId APP_ID = new DefaultApplicationId(1, SegmentRoutingManager.APP_NAME);
+    private static final DeviceId D1 = DeviceId.deviceId("of:0000000000000001");
+    private static final DeviceId D2 = DeviceId.deviceId("of:0000000000000002");
+
+    private final List<Objective> submitted = Lists.newArrayList();
+    private final List<DeviceId> devices = Lists.newArrayList();
+    private final AtomicInteger notified = new AtomicInteger();
+    private ObjectiveBatch batch;
+
+    @Before
+    public void setUp() {
+        batch = new ObjectiveBatch(new FlowObjectiveServiceAdapter() {
+            @Override
+            public void apply(DeviceId deviceId, List<? extends Objective> objectives) {
+                devices.add(deviceId);
+                submitted.addAll(objectives);
+            }
+        });
+    }
+
+    /**
+     * Tests that objectives are held until submitted, and sent in one call
+     * per device with next objectives first.
+     */
+    @Test
+    public void testSubmissionOrder() {
+        batch.forward(D1, forwardingObjective(1));
+        batch.forward(D2, forwardingObjective(2));
+        batch.next(D1, nextObjective(1));
+        batch.forward(D1, forwardingObjective(3));
+        assertEquals(4, batch.size());
+        assertTrue(submitted.isEmpty());
+
+        batch.submit();
+        assertEquals(Lists.newArrayList(D1, D2), devices);
+        assertTrue(submitted.get(0) instanceof NextObjective);
+        assertEquals(1, ((ForwardingObjective) submitted.get(1)).nextId().intValue());
+        assertEquals(3, ((ForwardingObjective) submitted.get(2)).nextId().intValue());
+        assertEquals(2, ((ForwardingObjective) submitted.get(3)).nextId().intValue());
+    }
+
+    /**
+     * Tests that the batch completes once every objective is reported, and
+     * that the contexts of the objectives are still notified.
+     */
+    @Test
+    public void testCompletion() {
+        batch.next(D1, nextObjective(1));
+        batch.forward(D1, forwardingObjective(1));
+        batch.forward(D2, forwardingObjective(2));
+        CompletableFuture<Boolean> completion = batch.submit();
+
+        succeed(0);
+        succeed(1);
+        assertFalse(completion.isDone());
+        submitted.get(2).context().ifPresent(c -> c.onError(submitted.get(2), ObjectiveError.GROUPMISSING));
+        assertFalse(completion.join());
+        assertEquals(3, notified.get());
+    }
+
+    /**
+     * Tests that the operations of the objectives are kept.
+     */
+    @Test
+    public void testOperations() {
+        batch.next(D1, nextObjective(1).copy().addToExisting());
+        batch.next(D1, nextObjective(2).copy().removeFromExisting());
+        batch.next(D1, nextObjective(3).copy().verify());
+        batch.forward(D1, forwardingObjective(1).copy().remove());
+        batch.submit();
+
+        assertEquals(Lists.newArrayList(Objective.Operation.ADD_TO_EXISTING,
+                                         Objective.Operation.REMOVE_FROM_EXISTING,
+                                         Objective.Operation.VERIFY,
+                                         Objective.Operation.REMOVE),
+                     Lists.transform(submitted, Objective::op));
+    }
+
+    /**
+     * Tests that an empty batch completes on submission.
+     */
+    @Test
+    public void testEmptyBatch() {
+        assertTrue(batch.submit().join());
+    }
+
+    private void succeed(int index) {
+        submitted.get(index).context().ifPresent(c -> c.onSuccess(submitted.get(index)));
+    }
+
+    private ForwardingObjective forwardingObjective(int nextId) {
+        return DefaultForwardingObjective.builder()
+                .fromApp(APP_ID)
+                .makePermanent()
+                .withPriority(nextId)
+                .withSelector(DefaultTrafficSelector.emptySelector())
+                .withFlag(ForwardingObjective.Flag.SPECIFIC)
+                .nextStep(nextId)
+                .add(new DefaultObjectiveContext(o -> notified.incrementAndGet(),
+                                                 (o, e) -> notified.incrementAndGet()));
+    }
+
+    private NextObjective nextObjective(int nextId) {
+        return DefaultNextObjective.builder()
+                .withId(nextId)
+                .withType(NextObjective.Type.HASHED)
+                .fromApp(APP_ID)
+                .addTreatment(DefaultTrafficTreatment.builder().setOutput(PortNumber.portNumber(1)).build())
+                .add(new DefaultObjectiveContext(o -> notified.incrementAndGet(),
+                                                 (o, e) -> notified.incrementAndGet()));
+    }
+}
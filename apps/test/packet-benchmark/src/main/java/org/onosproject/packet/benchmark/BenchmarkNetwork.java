@@ -0,0 +1,409 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.packet.benchmark;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.onlab.graph.ScalarWeight;
+import org.onlab.packet.ChassisId;
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.Ip6Address;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DefaultDevice;
+import org.onosproject.net.DefaultHost;
+import org.onosproject.net.DefaultLink;
+import org.onosproject.net.DefaultPath;
+import org.onosproject.net.Device;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Host;
+import org.onosproject.net.HostId;
+import org.onosproject.net.HostLocation;
+import org.onosproject.net.Link;
+import org.onosproject.net.MastershipRole;
+import org.onosproject.net.Path;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DeviceService;
+import org.onosproject.net.device.DeviceServiceAdapter;
+import org.onosproject.net.edge.EdgePortService;
+import org.onosproject.net.edge.EdgePortServiceAdapter;
+import org.onosproject.net.host.HostService;
+import org.onosproject.net.host.HostServiceAdapter;
+import org.onosproject.net.host.InterfaceIpAddress;
+import org.onosproject.net.intf.Interface;
+import org.onosproject.net.intf.InterfaceService;
+import org.onosproject.net.intf.InterfaceServiceAdapter;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.net.topology.Topology;
+import org.onosproject.net.topology.TopologyService;
+import org.onosproject.net.topology.TopologyServiceAdapter;
+import org.onosproject.openflow.controller.Dpid;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Static network the packet processors of the benchmark run against.
+ * <p>
+ * Every device is directly linked to every other device and has a host on
+ * each of its edge ports. Each edge port carries an interface with an address
+ * in the subnet of its device, and the first host of the first device acts as
+ * the DHCP server. The network is exposed through read-only implementations of
+ * the device, host, topology, edge port and interface services.
+ */
+public final class BenchmarkNetwork {
+
+    // devices belong to the OpenFlow provider, so that packet-outs reach it
+    private static final ProviderId PROVIDER_ID = new ProviderId("of", "org.onosproject.provider.openflow");
+    private static final int MAX_DEVICES = 254;
+    private static final int MAX_HOSTS_PER_DEVICE = 250;
+    private static final long LINK_PORT_BASE = 1000;
+    private static final VlanId INTERFACE_VLAN = VlanId.vlanId((short) 100);
+
+    private final List<Device> devices;
+    private final List<Host> hosts;
+    private final Map<HostId, Host> hostsById;
+    private final Map<IpAddress, Host> hostsByIp;
+    private final Map<ConnectPoint, Interface> interfaces;
+    private final Map<DeviceId, Map<DeviceId, Path>> paths;
+
+    private final DeviceService deviceService = new StaticDeviceService();
+    private final HostService hostService = new StaticHostService();
+    private final TopologyService topologyService = new StaticTopologyService();
+    private final EdgePortService edgeService = new StaticEdgePortService();
+    private final InterfaceService interfaceService = new StaticInterfaceService();
+
+    /**
+     * Creates a fully meshed network of the given size.
+     *
+     * @param deviceCount    number of devices
+     * @param hostsPerDevice number of hosts attached to each device
+     */
+    public BenchmarkNetwork(int deviceCount, int hostsPerDevice) {
+        checkArgument(deviceCount > 0 && deviceCount <= MAX_DEVICES,
+                      "Device count must be between 1 and %s", MAX_DEVICES);
+        checkArgument(hostsPerDevice > 0 && hostsPerDevice <= MAX_HOSTS_PER_DEVICE,
+                      "Hosts per device must be between 1 and %s", MAX_HOSTS_PER_DEVICE);
+
+        ImmutableList.Builder<Device> devices = ImmutableList.builder();
+        ImmutableList.Builder<Host> hosts = ImmutableList.builder();
+        ImmutableMap.Builder<ConnectPoint, Interface> interfaces = ImmutableMap.builder();
+        for (int d = 1; d <= deviceCount; d++) {
+            DeviceId deviceId = DeviceId.deviceId(Dpid.uri(d));
+            devices.add(new DefaultDevice(PROVIDER_ID, deviceId, Device.Type.SWITCH,
+                                          "ONF", "benchmark", "benchmark", Integer.toString(d),
+                                          new ChassisId(d)));
+            InterfaceIpAddress interfaceIp = new InterfaceIpAddress(
+                    ip4(d, 254), IpPrefix.valueOf(ip4(d, 0), 24));
+            for (int p = 1; p <= hostsPerDevice; p++) {
+                ConnectPoint point = new ConnectPoint(deviceId, PortNumber.portNumber(p));
+                MacAddress mac = MacAddress.valueOf(((long) d << 16) | p);
+                hosts.add(new DefaultHost(PROVIDER_ID, HostId.hostId(mac), mac, VlanId.NONE,
+                                          new HostLocation(point, 0),
+                                          ImmutableSet.of(ip4(d, p), ip6(d, p))));
+                interfaces.put(point, new Interface("intf-" + d + "-" + p, point,
+                                                    ImmutableList.of(interfaceIp),
+                                                    MacAddress.valueOf(((long) d << 16) | 0xfe00),
+                                                    VlanId.NONE, INTERFACE_VLAN, null, null));
+            }
+        }
+        this.devices = devices.build();
+        this.hosts = hosts.build();
+        this.interfaces = interfaces.build();
+        this.hostsById = this.hosts.stream()
+                .collect(ImmutableMap.toImmutableMap(Host::id, host -> host));
+        this.hostsByIp = Maps.newHashMap();
+        this.hosts.forEach(host -> host.ipAddresses().forEach(ip -> hostsByIp.put(ip, host)));
+
+        this.paths = Maps.newHashMap();
+        for (Device src : this.devices) {
+            Map<DeviceId, Path> fromSrc = Maps.newHashMap();
+            for (Device dst : this.devices) {
+                if (!src.id().equals(dst.id())) {
+                    Link link = DefaultLink.builder()
+                            .providerId(PROVIDER_ID)
+                            .src(linkPoint(src.id(), dst.id()))
+                            .dst(linkPoint(dst.id(), src.id()))
+                            .type(Link.Type.DIRECT)
+                            .state(Link.State.ACTIVE)
+                            .build();
+                    fromSrc.put(dst.id(), new DefaultPath(PROVIDER_ID, ImmutableList.of(link),
+                                                          ScalarWeight.toWeight(1)));
+                }
+            }
+            paths.put(src.id(), fromSrc);
+        }
+    }
+
+    /**
+     * Returns the devices of the network.
+     *
+     * @return devices
+     */
+    public List<Device> devices() {
+        return devices;
+    }
+
+    /**
+     * Returns the hosts of the network.
+     *
+     * @return hosts
+     */
+    public List<Host> hosts() {
+        return hosts;
+    }
+
+    /**
+     * Returns the host acting as the DHCP server.
+     *
+     * @return DHCP server host
+     */
+    public Host dhcpServer() {
+        return hosts.get(0);
+    }
+
+    /**
+     * Returns the address of the interface facing the hosts of the given edge port.
+     *
+     * @param point edge port
+     * @return interface address, or null if the port is not an edge port
+     */
+    public Ip4Address gatewayIp(ConnectPoint point) {
+        Interface intf = interfaces.get(point);
+        return intf == null ? null : intf.ipAddressesList().get(0).ipAddress().getIp4Address();
+    }
+
+    /**
+     * Returns the device service view of the network.
+     *
+     * @return device service
+     */
+    public DeviceService deviceService() {
+        return deviceService;
+    }
+
+    /**
+     * Returns the host service view of the network.
+     *
+     * @return host service
+     */
+    public HostService hostService() {
+        return hostService;
+    }
+
+    /**
+     * Returns the topology service view of the network.
+     *
+     * @return topology service
+     */
+    public TopologyService topologyService() {
+        return topologyService;
+    }
+
+    /**
+     * Returns the edge port service view of the network.
+     *
+     * @return edge port service
+     */
+    public EdgePortService edgeService() {
+        return edgeService;
+    }
+
+    /**
+     * Returns the interface service view of the network.
+     *
+     * @return interface service
+     */
+    public InterfaceService interfaceService() {
+        return interfaceService;
+    }
+
+    private static Ip4Address ip4(int device, int host) {
+        return Ip4Address.valueOf(10 << 24 | device << 8 | host);
+    }
+
+    private static Ip6Address ip6(int device, int host) {
+        return Ip6Address.valueOf(String.format("2000::%x:%x", device, host));
+    }
+
+    private static ConnectPoint linkPoint(DeviceId from, DeviceId to) {
+        return new ConnectPoint(from, PortNumber.portNumber(LINK_PORT_BASE + Dpid.dpid(to.uri()).value()));
+    }
+
+    private static boolean isEdgePort(ConnectPoint point) {
+        return point.port().toLong() < LINK_PORT_BASE;
+    }
+
+    private final class StaticDeviceService extends DeviceServiceAdapter {
+        @Override
+        public int getDeviceCount() {
+            return devices.size();
+        }
+
+        @Override
+        public int getAvailableDeviceCount() {
+            return devices.size();
+        }
+
+        @Override
+        public Iterable<Device> getDevices() {
+            return devices;
+        }
+
+        @Override
+        public Iterable<Device> getAvailableDevices() {
+            return devices;
+        }
+
+        @Override
+        public Device getDevice(DeviceId deviceId) {
+            return devices.stream().filter(device -> device.id().equals(deviceId)).findFirst().orElse(null);
+        }
+
+        @Override
+        public boolean isAvailable(DeviceId deviceId) {
+            return getDevice(deviceId) != null;
+        }
+
+        @Override
+        public MastershipRole getRole(DeviceId deviceId) {
+            return MastershipRole.MASTER;
+        }
+    }
+
+    private final class StaticHostService extends HostServiceAdapter {
+        @Override
+        public int getHostCount() {
+            return hosts.size();
+        }
+
+        @Override
+        public Iterable<Host> getHosts() {
+            return hosts;
+        }
+
+        @Override
+        public Host getHost(HostId hostId) {
+            return hostsById.get(hostId);
+        }
+
+        @Override
+        public Set<Host> getHostsByMac(MacAddress mac) {
+            Host host = hostsById.get(HostId.hostId(mac));
+            return host == null ? ImmutableSet.of() : ImmutableSet.of(host);
+        }
+
+        @Override
+        public Set<Host> getHostsByIp(IpAddress ip) {
+            Host host = hostsByIp.get(ip);
+            return host == null ? ImmutableSet.of() : ImmutableSet.of(host);
+        }
+
+        @Override
+        public Set<Host> getConnectedHosts(ConnectPoint connectPoint) {
+            return hosts.stream()
+                    .filter(host -> host.location().equals(connectPoint))
+                    .collect(Collectors.toSet());
+        }
+
+        @Override
+        public Set<Host> getConnectedHosts(DeviceId deviceId) {
+            return hosts.stream()
+                    .filter(host -> host.location().deviceId().equals(deviceId))
+                    .collect(Collectors.toSet());
+        }
+    }
+
+    private final class StaticTopologyService extends TopologyServiceAdapter {
+        @Override
+        public Set<Path> getPaths(Topology topology, DeviceId src, DeviceId dst) {
+            Path path = paths.getOrDefault(src, ImmutableMap.of()).get(dst);
+            return path == null ? ImmutableSet.of() : ImmutableSet.of(path);
+        }
+
+        @Override
+        public boolean isBroadcastPoint(Topology topology, ConnectPoint connectPoint) {
+            return isEdgePort(connectPoint);
+        }
+    }
+
+    private final class StaticEdgePortService extends EdgePortServiceAdapter {
+        @Override
+        public boolean isEdgePoint(ConnectPoint point) {
+            return interfaces.containsKey(point);
+        }
+
+        @Override
+        public Iterable<ConnectPoint> getEdgePoints() {
+            return interfaces.keySet();
+        }
+
+        @Override
+        public Iterable<ConnectPoint> getEdgePoints(DeviceId deviceId) {
+            return interfaces.keySet().stream()
+                    .filter(point -> point.deviceId().equals(deviceId))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private final class StaticInterfaceService extends InterfaceServiceAdapter {
+        @Override
+        public Set<Interface> getInterfaces() {
+            return ImmutableSet.copyOf(interfaces.values());
+        }
+
+        @Override
+        public Set<Interface> getInterfacesByPort(ConnectPoint port) {
+            Interface intf = interfaces.get(port);
+            return intf == null ? ImmutableSet.of() : ImmutableSet.of(intf);
+        }
+
+        @Override
+        public Set<Interface> getInterfacesByIp(IpAddress ip) {
+            return interfaces.values().stream()
+                    .filter(intf -> intf.ipAddressesList().stream().anyMatch(a -> a.ipAddress().equals(ip)))
+                    .collect(Collectors.toSet());
+        }
+
+        @Override
+        public Set<Interface> getInterfacesByVlan(VlanId vlan) {
+            return interfaces.values().stream()
+                    .filter(intf -> intf.vlanUntagged().equals(vlan))
+                    .collect(Collectors.toSet());
+        }
+
+        @Override
+        public Interface getMatchingInterface(IpAddress ip) {
+            return getMatchingInterfaces(ip).stream().findFirst().orElse(null);
+        }
+
+        @Override
+        public Set<Interface> getMatchingInterfaces(IpAddress ip) {
+            return interfaces.values().stream()
+                    .filter(intf -> intf.ipAddressesList().stream().anyMatch(a -> a.subnetAddress().contains(ip)))
+                    .collect(Collectors.toSet());
+        }
+    }
+}
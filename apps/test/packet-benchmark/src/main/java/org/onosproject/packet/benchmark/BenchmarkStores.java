@@ -0,0 +1,234 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.packet.benchmark;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+import org.onosproject.dhcprelay.store.DhcpRecord;
+import org.onosproject.dhcprelay.store.DhcpRelayCounters;
+import org.onosproject.dhcprelay.store.DhcpRelayCountersStore;
+import org.onosproject.dhcprelay.store.DhcpRelayStore;
+import org.onosproject.dhcprelay.store.DhcpRelayStoreEvent;
+import org.onosproject.net.HostId;
+import org.onosproject.net.HostLocation;
+import org.onosproject.net.host.HostDescription;
+import org.onosproject.net.host.HostProvider;
+import org.onosproject.net.host.HostProviderRegistry;
+import org.onosproject.net.host.HostProviderService;
+import org.onosproject.net.provider.ProviderId;
+import org.onosproject.routeservice.InternalRouteEvent;
+import org.onosproject.routeservice.Route;
+import org.onosproject.routeservice.RouteSet;
+import org.onosproject.routeservice.RouteStore;
+import org.onosproject.routeservice.RouteStoreDelegate;
+import org.onosproject.routeservice.RouteTableId;
+import org.onosproject.store.AbstractStore;
+import org.onosproject.store.StoreDelegate;
+
+/**
+ * In-memory stores and registries backing the DHCP relay under benchmark.
+ * <p>
+ * They stand in for the distributed stores, so that the benchmark measures
+ * the relay itself rather than the replication of its state.
+ */
+final class BenchmarkStores {
+
+    private BenchmarkStores() {
+    }
+
+    /**
+     * DHCP relay store keeping the records in a local map.
+     */
+    static final class DhcpRelayRecords
+            extends AbstractStore<DhcpRelayStoreEvent, StoreDelegate<DhcpRelayStoreEvent>>
+            implements DhcpRelayStore {
+        private final Map<HostId, DhcpRecord> records = Maps.newConcurrentMap();
+
+        @Override
+        public void updateDhcpRecord(HostId hostId, DhcpRecord dhcpRecord) {
+            records.put(hostId, dhcpRecord);
+            notifyDelegate(new DhcpRelayStoreEvent(DhcpRelayStoreEvent.Type.UPDATED, dhcpRecord));
+        }
+
+        @Override
+        public Optional<DhcpRecord> getDhcpRecord(HostId hostId) {
+            return Optional.ofNullable(records.get(hostId));
+        }
+
+        @Override
+        public Collection<DhcpRecord> getDhcpRecords() {
+            return records.values();
+        }
+
+        @Override
+        public Optional<DhcpRecord> removeDhcpRecord(HostId hostId) {
+            DhcpRecord dhcpRecord = records.remove(hostId);
+            if (dhcpRecord != null) {
+                notifyDelegate(new DhcpRelayStoreEvent(DhcpRelayStoreEvent.Type.REMOVED, dhcpRecord));
+            }
+            return Optional.ofNullable(dhcpRecord);
+        }
+    }
+
+    /**
+     * DHCP relay counters store keeping the counters in a local map.
+     */
+    static final class DhcpRelayCounterRecords implements DhcpRelayCountersStore {
+        private final Map<String, DhcpRelayCounters> counters = Maps.newConcurrentMap();
+
+        @Override
+        public void incrementCounter(String counterClass, String counterName) {
+            counters.computeIfAbsent(counterClass, c -> new DhcpRelayCounters()).incrementCounter(counterName);
+        }
+
+        @Override
+        public Optional<DhcpRelayCounters> getCounters(String counterClass) {
+            return Optional.ofNullable(counters.get(counterClass));
+        }
+
+        @Override
+        public Set<Map.Entry<String, DhcpRelayCounters>> getAllCounters() {
+            return counters.entrySet();
+        }
+
+        @Override
+        public void resetCounters(String counterClass) {
+            DhcpRelayCounters classCounters = counters.get(counterClass);
+            if (classCounters != null) {
+                classCounters.resetCounters();
+            }
+        }
+
+        @Override
+        public void resetAllCounters() {
+            counters.clear();
+        }
+    }
+
+    /**
+     * Route store keeping the routes learnt by the relay in a local map.
+     */
+    static final class Routes extends AbstractStore<InternalRouteEvent, RouteStoreDelegate>
+            implements RouteStore {
+        private static final RouteTableId IPV4 = new RouteTableId("ipv4");
+        private static final RouteTableId IPV6 = new RouteTableId("ipv6");
+
+        private final Map<IpPrefix, Route> routes = Maps.newConcurrentMap();
+
+        @Override
+        public void updateRoute(Route route) {
+            routes.put(route.prefix(), route);
+        }
+
+        @Override
+        public void removeRoute(Route route) {
+            routes.remove(route.prefix(), route);
+        }
+
+        @Override
+        public Set<RouteTableId> getRouteTables() {
+            return ImmutableSet.of(IPV4, IPV6);
+        }
+
+        @Override
+        public Collection<RouteSet> getRoutes(RouteTableId table) {
+            return routes.values().stream()
+                    .filter(route -> tableOf(route.prefix()).equals(table))
+                    .map(this::routeSet)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public Collection<Route> getRoutesForNextHop(IpAddress ip) {
+            return routes.values().stream()
+                    .filter(route -> route.nextHop().equals(ip))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public RouteSet getRoutes(IpPrefix prefix) {
+            Route route = routes.get(prefix);
+            return route == null ? null : routeSet(route);
+        }
+
+        private RouteSet routeSet(Route route) {
+            return new RouteSet(tableOf(route.prefix()), route.prefix(), ImmutableSet.of(route));
+        }
+
+        private static RouteTableId tableOf(IpPrefix prefix) {
+            return prefix.isIp4() ? IPV4 : IPV6;
+        }
+    }
+
+    /**
+     * Host provider registry handing every provider a service that discards its reports.
+     */
+    static final class HostProviders implements HostProviderRegistry {
+        private final HostReports reports = new HostReports();
+        private final Set<ProviderId> providers = Sets.newConcurrentHashSet();
+
+        @Override
+        public HostProviderService register(HostProvider provider) {
+            providers.add(provider.id());
+            return reports;
+        }
+
+        @Override
+        public void unregister(HostProvider provider) {
+            providers.remove(provider.id());
+        }
+
+        @Override
+        public Set<ProviderId> getProviders() {
+            return ImmutableSet.copyOf(providers);
+        }
+    }
+
+    /**
+     * Host provider service discarding the hosts the relay reports.
+     */
+    private static final class HostReports implements HostProviderService {
+        @Override
+        public void hostDetected(HostId hostId, HostDescription hostDescription, boolean replaceIps) {
+        }
+
+        @Override
+        public void hostVanished(HostId hostId) {
+        }
+
+        @Override
+        public void removeIpFromHost(HostId hostId, IpAddress ipAddress) {
+        }
+
+        @Override
+        public void removeLocationFromHost(HostId hostId, HostLocation location) {
+        }
+
+        @Override
+        public HostProvider provider() {
+            return null;
+        }
+    }
+}
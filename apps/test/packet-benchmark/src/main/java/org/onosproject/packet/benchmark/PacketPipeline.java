@@ -0,0 +1,509 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.packet.benchmark;
+
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.onlab.osgi.ComponentContextAdapter;
+import org.onlab.packet.IpAddress;
+import org.onosproject.cfg.ComponentConfigAdapter;
+import org.onosproject.cluster.ClusterServiceAdapter;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.core.CoreService;
+import org.onosproject.core.CoreServiceAdapter;
+import org.onosproject.core.DefaultApplicationId;
+import org.onosproject.dhcprelay.Dhcp4HandlerImpl;
+import org.onosproject.dhcprelay.Dhcp6HandlerImpl;
+import org.onosproject.dhcprelay.DhcpRelayManager;
+import org.onosproject.dhcprelay.config.DhcpServerConfig;
+import org.onosproject.dhcprelay.store.DhcpRelayCountersStore;
+import org.onosproject.dhcprelay.store.DhcpRelayStore;
+import org.onosproject.fwd.ReactiveForwarding;
+import org.onosproject.net.Host;
+import org.onosproject.net.config.NetworkConfigRegistryAdapter;
+import org.onosproject.net.driver.DriverServiceAdapter;
+import org.onosproject.net.flow.FlowRuleServiceAdapter;
+import org.onosproject.net.flowobjective.FlowObjectiveServiceAdapter;
+import org.onosproject.net.host.HostProviderRegistry;
+import org.onosproject.net.neighbour.NeighbourResolutionService;
+import org.onosproject.net.neighbour.impl.NeighbourResolutionManager;
+import org.onosproject.net.packet.PacketProviderRegistry;
+import org.onosproject.net.packet.PacketService;
+import org.onosproject.net.packet.impl.PacketManager;
+import org.onosproject.openflow.controller.DefaultOpenFlowPacketContext;
+import org.onosproject.openflow.controller.Dpid;
+import org.onosproject.openflow.controller.OpenFlowController;
+import org.onosproject.openflow.controller.OpenFlowSwitch;
+import org.onosproject.openflow.controller.OpenFlowSwitchAdapter;
+import org.onosproject.openflow.controller.OpenflowControllerAdapter;
+import org.onosproject.openflow.controller.PacketListener;
+import org.onosproject.provider.of.packet.impl.OpenFlowPacketProvider;
+import org.onosproject.proxyarp.DefaultProxyArp;
+import org.onosproject.routeservice.RouteStore;
+import org.onosproject.store.service.TestStorageService;
+import org.onosproject.store.trivial.SimplePacketStore;
+import org.osgi.service.component.ComponentContext;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFPacketIn;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Packet-in path from the OpenFlow packet provider through the packet manager
+ * to the packet processors of a set of applications.
+ * <p>
+ * The provider, the packet manager and the applications are the production
+ * components; the services they depend on are backed by the benchmark network
+ * and by in-memory stores. Packet-ins are handed to the provider the way the
+ * OpenFlow controller would, and the packet-outs and flow objectives the
+ * applications issue go no further than the simulated switches.
+ */
+public final class PacketPipeline {
+
+    /**
+     * Applications whose packet processors can be placed on the path.
+     */
+    public enum Application {
+        /** Reactive forwarding. */
+        FWD,
+        /** Proxy ARP/NDP, on top of the neighbour resolution service. */
+        PROXYARP,
+        /** DHCP relay, with its DHCPv4 and DHCPv6 handlers. */
+        DHCPRELAY
+    }
+
+    private final BenchmarkNetwork network;
+    private final CoreService coreService = new BenchmarkCoreService();
+    private final BenchmarkController controller;
+    private final BenchmarkPacketManager packetManager;
+    private final BenchmarkPacketProvider packetProvider;
+    private final ProfilingPacketService packetService;
+    private final List<Runnable> stopActions = Lists.newArrayList();
+
+    private PacketPipeline(BenchmarkNetwork network) {
+        this.network = network;
+        this.controller = new BenchmarkController(network);
+        this.packetManager = new BenchmarkPacketManager(network, coreService);
+        this.packetProvider = new BenchmarkPacketProvider(packetManager, controller);
+        this.packetService = new ProfilingPacketService(packetManager);
+    }
+
+    /**
+     * Starts the packet path with the processors of the given applications.
+     *
+     * @param network      network the applications run against
+     * @param applications applications to start
+     * @return started packet path
+     */
+    public static PacketPipeline start(BenchmarkNetwork network, Set<Application> applications) {
+        PacketPipeline pipeline = new PacketPipeline(network);
+        pipeline.packetManager.activate(null);
+        pipeline.stopActions.add(pipeline.packetManager::deactivate);
+        pipeline.packetProvider.activate();
+        pipeline.stopActions.add(pipeline.packetProvider::deactivate);
+
+        if (applications.contains(Application.FWD)) {
+            pipeline.startForwarding();
+        }
+        if (applications.contains(Application.PROXYARP)) {
+            pipeline.startProxyArp();
+        }
+        if (applications.contains(Application.DHCPRELAY)) {
+            pipeline.startDhcpRelay();
+        }
+        return pipeline;
+    }
+
+    /**
+     * Delivers a packet-in received from the given switch.
+     *
+     * @param dpid     datapath identifier of the switch
+     * @param packetIn packet-in message
+     */
+    public void deliver(Dpid dpid, OFPacketIn packetIn) {
+        PacketListener listener = controller.listener;
+        checkState(listener != null, "Packet provider is not started");
+        listener.handlePacket(DefaultOpenFlowPacketContext.packetContextFromPacketIn(
+                controller.switches.get(dpid), packetIn));
+    }
+
+    /**
+     * Returns the number of messages the switches were sent.
+     *
+     * @return sent message count
+     */
+    public long sentMessages() {
+        return controller.switches.values().stream().mapToLong(sw -> sw.sent.sum()).sum();
+    }
+
+    /**
+     * Returns the profiles of the application packet processors.
+     *
+     * @return processor profiles, in processing order
+     */
+    public List<ProcessorProfile> profiles() {
+        return packetService.profiles();
+    }
+
+    /**
+     * Discards the processor measurements recorded so far.
+     */
+    public void resetProfiles() {
+        packetService.reset();
+    }
+
+    /**
+     * Stops the applications and the packet path.
+     */
+    public void stop() {
+        Lists.reverse(stopActions).forEach(Runnable::run);
+        stopActions.clear();
+    }
+
+    private void startForwarding() {
+        BenchmarkForwarding forwarding = new BenchmarkForwarding(network, packetService, coreService);
+        forwarding.activate(context(ImmutableMap.of()));
+        stopActions.add(forwarding::deactivate);
+    }
+
+    private void startProxyArp() {
+        BenchmarkNeighbourResolution neighbours =
+                new BenchmarkNeighbourResolution(network, packetService, coreService);
+        neighbours.start(context(ImmutableMap.of("ndpEnabled", "true")));
+        stopActions.add(neighbours::stop);
+
+        BenchmarkProxyArp proxyArp = new BenchmarkProxyArp(network, neighbours, coreService);
+        proxyArp.start();
+        stopActions.add(proxyArp::stop);
+    }
+
+    private void startDhcpRelay() {
+        DhcpRelayStore records = new BenchmarkStores.DhcpRelayRecords();
+        RouteStore routes = new BenchmarkStores.Routes();
+        HostProviderRegistry hostProviders = new BenchmarkStores.HostProviders();
+
+        BenchmarkDhcp4Handler v4Handler = new BenchmarkDhcp4Handler(
+                network, packetService, coreService, records, routes, hostProviders);
+        v4Handler.start();
+        stopActions.add(v4Handler::stop);
+        BenchmarkDhcp6Handler v6Handler = new BenchmarkDhcp6Handler(
+                network, packetService, coreService, records, routes, hostProviders,
+                new BenchmarkStores.DhcpRelayCounterRecords());
+        v6Handler.start();
+        stopActions.add(v6Handler::stop);
+
+        BenchmarkDhcpRelay relay = new BenchmarkDhcpRelay(
+                network, packetService, coreService, records, v4Handler, v6Handler);
+        relay.start(context(ImmutableMap.of("arpEnabled", "true",
+                                            "dhcpPollInterval", Integer.toString(24 * 3600))));
+        stopActions.add(relay::stop);
+
+        // the relay serves the clients of every edge port from the server of the network
+        Host server = network.dhcpServer();
+        ObjectNode config = new ObjectMapper().createObjectNode();
+        config.put("dhcpServerConnectPoint", server.location().toString());
+        config.putArray("serverIps").add(server.ipAddresses().stream()
+                                                  .filter(IpAddress::isIp4)
+                                                  .findFirst().get().toString());
+        v4Handler.setDefaultDhcpServerConfigs(ImmutableList.of(new DhcpServerConfig(config)));
+    }
+
+    private static ComponentContext context(Map<String, String> properties) {
+        return new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                return new Hashtable<>(properties);
+            }
+        };
+    }
+
+    /**
+     * Core service handing out application identifiers.
+     */
+    private static final class BenchmarkCoreService extends CoreServiceAdapter {
+        private final AtomicInteger nextId = new AtomicInteger(1);
+        private final Map<String, ApplicationId> applications = Maps.newConcurrentMap();
+
+        private BenchmarkCoreService() {
+            registerApplication(CORE_APP_NAME);
+        }
+
+        @Override
+        public ApplicationId registerApplication(String name) {
+            return applications.computeIfAbsent(name, n -> new DefaultApplicationId(nextId.getAndIncrement(), n));
+        }
+
+        @Override
+        public ApplicationId registerApplication(String name, Runnable preDeactivate) {
+            return registerApplication(name);
+        }
+
+        @Override
+        public ApplicationId getAppId(String name) {
+            return applications.get(name);
+        }
+    }
+
+    /**
+     * OpenFlow controller with a connected switch for every device of the network.
+     */
+    private static final class BenchmarkController extends OpenflowControllerAdapter {
+        private final Map<Dpid, BenchmarkSwitch> switches;
+        private volatile PacketListener listener;
+
+        private BenchmarkController(BenchmarkNetwork network) {
+            this.switches = network.devices().stream()
+                    .map(device -> Dpid.dpid(device.id().uri()))
+                    .collect(ImmutableMap.toImmutableMap(dpid -> dpid, BenchmarkSwitch::new));
+        }
+
+        @Override
+        public Iterable<OpenFlowSwitch> getSwitches() {
+            return ImmutableList.copyOf(switches.values());
+        }
+
+        @Override
+        public Iterable<OpenFlowSwitch> getMasterSwitches() {
+            return getSwitches();
+        }
+
+        @Override
+        public OpenFlowSwitch getSwitch(Dpid dpid) {
+            return switches.get(dpid);
+        }
+
+        @Override
+        public OpenFlowSwitch getMasterSwitch(Dpid dpid) {
+            return switches.get(dpid);
+        }
+
+        @Override
+        public void addPacketListener(int priority, PacketListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void removePacketListener(PacketListener listener) {
+            this.listener = null;
+        }
+    }
+
+    /**
+     * OpenFlow 1.3 switch counting the messages it is sent.
+     */
+    private static final class BenchmarkSwitch extends OpenFlowSwitchAdapter {
+        private static final OFFactory FACTORY = OFFactories.getFactory(OFVersion.OF_13);
+
+        private final Dpid dpid;
+        private final LongAdder sent = new LongAdder();
+
+        private BenchmarkSwitch(Dpid dpid) {
+            this.dpid = dpid;
+        }
+
+        @Override
+        public void sendMsg(OFMessage msg) {
+            sent.increment();
+        }
+
+        @Override
+        public void sendMsg(List<OFMessage> msgs) {
+            sent.add(msgs.size());
+        }
+
+        @Override
+        public OFFactory factory() {
+            return FACTORY;
+        }
+
+        @Override
+        public long getId() {
+            return dpid.value();
+        }
+
+        @Override
+        public String getStringId() {
+            return dpid.toString();
+        }
+
+        @Override
+        public boolean isConnected() {
+            return true;
+        }
+    }
+
+    // Subclasses giving the benchmark access to the injected references
+
+    private static final class BenchmarkPacketManager extends PacketManager {
+        private BenchmarkPacketManager(BenchmarkNetwork network, CoreService coreService) {
+            this.coreService = coreService;
+            this.clusterService = new ClusterServiceAdapter();
+            this.deviceService = network.deviceService();
+            this.driverService = new DriverServiceAdapter();
+            this.store = new SimplePacketStore();
+            this.objectiveService = new FlowObjectiveServiceAdapter();
+            this.cfgService = new ComponentConfigAdapter();
+        }
+    }
+
+    private static final class BenchmarkPacketProvider extends OpenFlowPacketProvider {
+        private BenchmarkPacketProvider(PacketProviderRegistry providerRegistry,
+                                        OpenFlowController controller) {
+            this.providerRegistry = providerRegistry;
+            this.controller = controller;
+        }
+    }
+
+    private static final class BenchmarkForwarding extends ReactiveForwarding {
+        private BenchmarkForwarding(BenchmarkNetwork network, PacketService packetService,
+                                    CoreService coreService) {
+            this.topologyService = network.topologyService();
+            this.packetService = packetService;
+            this.hostService = network.hostService();
+            this.flowRuleService = new FlowRuleServiceAdapter();
+            this.flowObjectiveService = new FlowObjectiveServiceAdapter();
+            this.coreService = coreService;
+            this.cfgService = new ComponentConfigAdapter();
+            this.storageService = new TestStorageService();
+        }
+    }
+
+    private static final class BenchmarkNeighbourResolution extends NeighbourResolutionManager {
+        private BenchmarkNeighbourResolution(BenchmarkNetwork network, PacketService packetService,
+                                             CoreService coreService) {
+            this.coreService = coreService;
+            this.hostService = network.hostService();
+            this.edgeService = network.edgeService();
+            this.packetService = packetService;
+            this.componentConfigService = new ComponentConfigAdapter();
+        }
+
+        private void start(ComponentContext context) {
+            activate(context);
+        }
+
+        private void stop() {
+            deactivate();
+        }
+    }
+
+    private static final class BenchmarkProxyArp extends DefaultProxyArp {
+        private BenchmarkProxyArp(BenchmarkNetwork network, NeighbourResolutionService neighbourResolutionService,
+                                  CoreService coreService) {
+            this.edgeService = network.edgeService();
+            this.neighbourResolutionService = neighbourResolutionService;
+            this.coreService = coreService;
+        }
+
+        private void start() {
+            activate();
+        }
+
+        private void stop() {
+            deactivate();
+        }
+    }
+
+    private static final class BenchmarkDhcp4Handler extends Dhcp4HandlerImpl {
+        private BenchmarkDhcp4Handler(BenchmarkNetwork network, PacketService packetService,
+                                      CoreService coreService, DhcpRelayStore dhcpRelayStore,
+                                      RouteStore routeStore, HostProviderRegistry providerRegistry) {
+            this.dhcpRelayStore = dhcpRelayStore;
+            this.packetService = packetService;
+            this.routeStore = routeStore;
+            this.interfaceService = network.interfaceService();
+            this.hostService = network.hostService();
+            this.providerRegistry = providerRegistry;
+            this.coreService = coreService;
+            this.deviceService = network.deviceService();
+            this.flowObjectiveService = new FlowObjectiveServiceAdapter();
+        }
+
+        private void start() {
+            activate();
+        }
+
+        private void stop() {
+            deactivate();
+        }
+    }
+
+    private static final class BenchmarkDhcp6Handler extends Dhcp6HandlerImpl {
+        private BenchmarkDhcp6Handler(BenchmarkNetwork network, PacketService packetService,
+                                      CoreService coreService, DhcpRelayStore dhcpRelayStore,
+                                      RouteStore routeStore, HostProviderRegistry providerRegistry,
+                                      DhcpRelayCountersStore dhcpRelayCountersStore) {
+            this.dhcpRelayStore = dhcpRelayStore;
+            this.dhcpRelayCountersStore = dhcpRelayCountersStore;
+            this.packetService = packetService;
+            this.routeStore = routeStore;
+            this.interfaceService = network.interfaceService();
+            this.hostService = network.hostService();
+            this.providerRegistry = providerRegistry;
+            this.coreService = coreService;
+            this.deviceService = network.deviceService();
+            this.flowObjectiveService = new FlowObjectiveServiceAdapter();
+        }
+
+        private void start() {
+            activate();
+        }
+
+        private void stop() {
+            deactivate();
+        }
+    }
+
+    private static final class BenchmarkDhcpRelay extends DhcpRelayManager {
+        private BenchmarkDhcpRelay(BenchmarkNetwork network, PacketService packetService,
+                                   CoreService coreService, DhcpRelayStore dhcpRelayStore,
+                                   Dhcp4HandlerImpl v4Handler, Dhcp6HandlerImpl v6Handler) {
+            this.cfgService = new NetworkConfigRegistryAdapter();
+            this.coreService = coreService;
+            this.packetService = packetService;
+            this.hostService = network.hostService();
+            this.interfaceService = network.interfaceService();
+            this.dhcpRelayStore = dhcpRelayStore;
+            this.compCfgService = new ComponentConfigAdapter();
+            this.deviceService = network.deviceService();
+            this.v4Handler = v4Handler;
+            this.v6Handler = v6Handler;
+        }
+
+        private void start(ComponentContext context) {
+            activate(context);
+        }
+
+        private void stop() {
+            deactivate();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.packet.benchmark;
+
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.onosproject.packet.benchmark.PacketPipeline.Application;
+import org.onosproject.packet.benchmark.PacketStream.Traffic;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+/**
+ * Benchmarks of the packet-in path, from the OpenFlow packet provider through
+ * the packet manager to the processors of the selected applications.
+ * <p>
+ * Besides the end-to-end figures reported by JMH, the latency and allocation
+ * of every processor are collected over the measurement iterations and
+ * printed when the trial ends. Setting the {@code pcap} parameter replays a
+ * capture instead of the synthetic {@code traffic}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PacketProcessingBenchmark {
+
+    private static final int STREAM_SIZE = 65536;
+    private static final long STREAM_SEED = 1;
+    private static final String ALL_APPLICATIONS = "ALL";
+
+    @Param({"FWD", "PROXYARP", "DHCPRELAY", ALL_APPLICATIONS})
+    private String applications;
+
+    @Param({"MIXED"})
+    private String traffic;
+
+    @Param({""})
+    private String pcap;
+
+    @Param({"16"})
+    private int devices;
+
+    @Param({"16"})
+    private int hostsPerDevice;
+
+    private PacketPipeline pipeline;
+    private PacketStream stream;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BenchmarkNetwork network = new BenchmarkNetwork(devices, hostsPerDevice);
+        stream = pcap.isEmpty()
+                ? PacketStream.synthetic(network, Traffic.valueOf(traffic), STREAM_SIZE, STREAM_SEED)
+                : PacketStream.pcap(network, Paths.get(pcap));
+        pipeline = PacketPipeline.start(network, applications(applications));
+    }
+
+    @TearDown(Level.Iteration)
+    public void resetWarmupProfiles(IterationParams iteration) {
+        // processor profiles only cover the measurement iterations
+        if (iteration.getType() == IterationType.WARMUP) {
+            pipeline.resetProfiles();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nProcessor profiles (%s, %s):%n", applications, pcap.isEmpty() ? traffic : pcap);
+        pipeline.profiles().forEach(profile -> System.out.println("  " + profile));
+        System.out.printf("  messages sent to switches: %d%n", pipeline.sentMessages());
+        pipeline.stop();
+    }
+
+    /**
+     * Delivers the next packet-in of the stream to the OpenFlow packet provider.
+     *
+     * @return index of the delivered packet in the stream
+     */
+    @Benchmark
+    public int processPacketIn() {
+        int index = next;
+        pipeline.deliver(stream.dpid(index), stream.packetIn(index));
+        next = index + 1 == stream.size() ? 0 : index + 1;
+        return index;
+    }
+
+    private static Set<Application> applications(String names) {
+        if (ALL_APPLICATIONS.equals(names)) {
+            return EnumSet.allOf(Application.class);
+        }
+        Set<Application> applications = EnumSet.noneOf(Application.class);
+        for (String name : names.split(",")) {
+            applications.add(Application.valueOf(name.trim()));
+        }
+        return applications;
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.packet.benchmark;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import org.onlab.packet.ARP;
+import org.onlab.packet.DHCP;
+import org.onlab.packet.Ethernet;
+import org.onlab.packet.IPv4;
+import org.onlab.packet.IPv6;
+import org.onlab.packet.Ip4Address;
+import org.onlab.packet.Ip6Address;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.TCP;
+import org.onlab.packet.UDP;
+import org.onlab.packet.VlanId;
+import org.onlab.packet.dhcp.DhcpOption;
+import org.onlab.packet.ndp.NeighborSolicitation;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.Host;
+import org.onosproject.openflow.controller.Dpid;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFPacketIn;
+import org.projectfloodlight.openflow.protocol.OFPacketInReason;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.protocol.match.MatchField;
+import org.projectfloodlight.openflow.types.OFBufferId;
+import org.projectfloodlight.openflow.types.OFPort;
+import org.projectfloodlight.openflow.types.TableId;
+import org.projectfloodlight.openflow.types.U64;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Sequence of OpenFlow 1.3 packet-ins, each paired with the switch it is
+ * received from.
+ * <p>
+ * Streams are either synthesized from the hosts of the benchmark network or
+ * replayed from an Ethernet capture in the classic pcap format. Messages are
+ * built up front, so that replaying a stream only costs what the controller
+ * does with a packet-in.
+ */
+public final class PacketStream {
+
+    /**
+     * Kinds of synthetic traffic.
+     */
+    public enum Traffic {
+        /** ARP requests between hosts. */
+        ARP,
+        /** IPv6 neighbour solicitations between hosts. */
+        NDP,
+        /** TCP segments between hosts. */
+        IPV4,
+        /** DHCP discovers from new clients. */
+        DHCP,
+        /** A mix of 40% IPv4, 30% ARP, 20% NDP and 10% DHCP. */
+        MIXED
+    }
+
+    private static final OFFactory FACTORY = OFFactories.getFactory(OFVersion.OF_13);
+    private static final int PCAP_MAGIC = 0xa1b2c3d4;
+    private static final int PCAP_NANOS_MAGIC = 0xa1b23c4d;
+    private static final int PCAP_HEADER_LENGTH = 24;
+    private static final int PCAP_RECORD_HEADER_LENGTH = 16;
+    private static final int LINKTYPE_ETHERNET = 1;
+    private static final int ETHERNET_HEADER_LENGTH = 14;
+    private static final long CLIENT_MAC_BASE = 0x020000000000L;
+
+    private final Dpid[] dpids;
+    private final OFPacketIn[] packetIns;
+
+    private PacketStream(List<Dpid> dpids, List<OFPacketIn> packetIns) {
+        this.dpids = dpids.toArray(new Dpid[0]);
+        this.packetIns = packetIns.toArray(new OFPacketIn[0]);
+    }
+
+    /**
+     * Synthesizes a stream of packets exchanged by the hosts of a network.
+     *
+     * @param network network the packets are received from
+     * @param traffic kind of traffic
+     * @param size    number of packets
+     * @param seed    seed of the random choice of hosts
+     * @return packet stream
+     */
+    public static PacketStream synthetic(BenchmarkNetwork network, Traffic traffic, int size, long seed) {
+        checkArgument(size > 0, "Stream size must be positive");
+        checkArgument(network.hosts().size() > 1, "Network must have more than one host");
+        Random random = new Random(seed);
+        Builder builder = new Builder();
+        for (int i = 0; i < size; i++) {
+            Host src = randomHost(network, random);
+            Host dst = randomHost(network, random);
+            while (dst.equals(src)) {
+                dst = randomHost(network, random);
+            }
+            builder.add(src.location(), frame(pick(traffic, random), src, dst, random));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads a stream from a pcap capture of Ethernet frames.
+     * <p>
+     * Captures carry no ingress port, so a frame is received on the port of the
+     * host owning its source MAC address, or else on an edge port chosen by
+     * hashing that address.
+     *
+     * @param network network the packets are received from
+     * @param file    capture file
+     * @return packet stream
+     * @throws IOException if the file cannot be read or is not an Ethernet pcap capture
+     */
+    public static PacketStream pcap(BenchmarkNetwork network, Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < PCAP_HEADER_LENGTH) {
+            throw new IOException("Truncated pcap header in " + file);
+        }
+        int magic = buffer.getInt(0);
+        if (magic == Integer.reverseBytes(PCAP_MAGIC) || magic == Integer.reverseBytes(PCAP_NANOS_MAGIC)) {
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (magic != PCAP_MAGIC && magic != PCAP_NANOS_MAGIC) {
+            throw new IOException("Not a pcap capture: " + file);
+        }
+        if (buffer.getInt(20) != LINKTYPE_ETHERNET) {
+            throw new IOException("Not an Ethernet capture: " + file);
+        }
+
+        Map<MacAddress, ConnectPoint> hostPorts = network.hosts().stream()
+                .collect(Collectors.toMap(Host::mac, Host::location));
+        List<ConnectPoint> edgePorts = ImmutableList.copyOf(hostPorts.values());
+        Builder builder = new Builder();
+        buffer.position(PCAP_HEADER_LENGTH);
+        while (buffer.remaining() >= PCAP_RECORD_HEADER_LENGTH) {
+            buffer.position(buffer.position() + 8);
+            int capturedLength = buffer.getInt();
+            buffer.getInt();
+            if (capturedLength < 0 || capturedLength > buffer.remaining()) {
+                throw new IOException("Truncated pcap record in " + file);
+            }
+            byte[] frame = new byte[capturedLength];
+            buffer.get(frame);
+            if (frame.length < ETHERNET_HEADER_LENGTH) {
+                continue;
+            }
+            MacAddress source = MacAddress.valueOf(Arrays.copyOfRange(frame, 6, 12));
+            ConnectPoint port = hostPorts.get(source);
+            if (port == null) {
+                port = edgePorts.get(Math.floorMod(source.hashCode(), edgePorts.size()));
+            }
+            builder.add(port, frame);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the number of packets in the stream.
+     *
+     * @return stream size
+     */
+    public int size() {
+        return packetIns.length;
+    }
+
+    /**
+     * Returns the datapath identifier of the switch the given packet is received from.
+     *
+     * @param index packet index
+     * @return datapath identifier
+     */
+    public Dpid dpid(int index) {
+        return dpids[index];
+    }
+
+    /**
+     * Returns the given packet-in.
+     *
+     * @param index packet index
+     * @return packet-in message
+     */
+    public OFPacketIn packetIn(int index) {
+        return packetIns[index];
+    }
+
+    private static Host randomHost(BenchmarkNetwork network, Random random) {
+        return network.hosts().get(random.nextInt(network.hosts().size()));
+    }
+
+    private static Traffic pick(Traffic traffic, Random random) {
+        if (traffic != Traffic.MIXED) {
+            return traffic;
+        }
+        int draw = random.nextInt(100);
+        return draw < 40 ? Traffic.IPV4 : draw < 70 ? Traffic.ARP : draw < 90 ? Traffic.NDP : Traffic.DHCP;
+    }
+
+    private static byte[] frame(Traffic traffic, Host src, Host dst, Random random) {
+        switch (traffic) {
+            case ARP:
+                return ARP.buildArpRequest(src.mac().toBytes(), ip4(src).toOctets(), ip4(dst).toOctets(),
+                                           VlanId.NONE.toShort()).serialize();
+            case NDP:
+                byte[] target = ip6(dst).toOctets();
+                return NeighborSolicitation.buildNdpSolicit(
+                        ip6(dst), ip6(src), Ip6Address.valueOf(IPv6.getSolicitNodeAddress(target)),
+                        src.mac(), MacAddress.valueOf(IPv6.getMCastMacAddress(target)), VlanId.NONE)
+                        .serialize();
+            case IPV4:
+                return tcp(src, dst, random).serialize();
+            case DHCP:
+                return dhcpDiscover(MacAddress.valueOf(CLIENT_MAC_BASE | random.nextInt() & 0xffffffffL),
+                                    random.nextInt()).serialize();
+            default:
+                throw new IllegalArgumentException("Unexpected traffic " + traffic);
+        }
+    }
+
+    private static Ethernet tcp(Host src, Host dst, Random random) {
+        TCP tcp = new TCP();
+        tcp.setSourcePort(1024 + random.nextInt(60000));
+        tcp.setDestinationPort(80);
+        tcp.setFlags((short) 0x02);
+        tcp.setWindowSize((short) 1024);
+
+        IPv4 ipv4 = new IPv4();
+        ipv4.setSourceAddress(ip4(src).toInt());
+        ipv4.setDestinationAddress(ip4(dst).toInt());
+        ipv4.setProtocol(IPv4.PROTOCOL_TCP);
+        ipv4.setTtl((byte) 64);
+        ipv4.setPayload(tcp);
+
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(Ethernet.TYPE_IPV4)
+                .setSourceMACAddress(src.mac())
+                .setDestinationMACAddress(dst.mac())
+                .setPayload(ipv4);
+        return eth;
+    }
+
+    private static Ethernet dhcpDiscover(MacAddress client, int transactionId) {
+        DhcpOption type = new DhcpOption();
+        type.setCode(DHCP.DHCPOptionCode.OptionCode_MessageType.getValue());
+        type.setLength((byte) 1);
+        type.setData(new byte[]{(byte) DHCP.MsgType.DHCPDISCOVER.getValue()});
+        DhcpOption end = new DhcpOption();
+        end.setCode(DHCP.DHCPOptionCode.OptionCode_END.getValue());
+
+        DHCP dhcp = new DHCP();
+        dhcp.setOpCode(DHCP.OPCODE_REQUEST);
+        dhcp.setHardwareType(DHCP.HWTYPE_ETHERNET);
+        dhcp.setHardwareAddressLength((byte) 6);
+        dhcp.setTransactionId(transactionId);
+        dhcp.setClientHardwareAddress(client.toBytes());
+        dhcp.setOptions(ImmutableList.of(type, end));
+
+        UDP udp = new UDP();
+        udp.setSourcePort(UDP.DHCP_CLIENT_PORT);
+        udp.setDestinationPort(UDP.DHCP_SERVER_PORT);
+        udp.setPayload(dhcp);
+
+        IPv4 ipv4 = new IPv4();
+        ipv4.setSourceAddress(0);
+        ipv4.setDestinationAddress(Ip4Address.valueOf("255.255.255.255").toInt());
+        ipv4.setProtocol(IPv4.PROTOCOL_UDP);
+        ipv4.setTtl((byte) 64);
+        ipv4.setPayload(udp);
+
+        Ethernet eth = new Ethernet();
+        eth.setEtherType(Ethernet.TYPE_IPV4)
+                .setSourceMACAddress(client)
+                .setDestinationMACAddress(MacAddress.BROADCAST)
+                .setPayload(ipv4);
+        return eth;
+    }
+
+    private static Ip4Address ip4(Host host) {
+        return host.ipAddresses().stream().filter(IpAddress::isIp4)
+                .map(IpAddress::getIp4Address).findFirst().get();
+    }
+
+    private static Ip6Address ip6(Host host) {
+        return host.ipAddresses().stream().filter(IpAddress::isIp6)
+                .map(IpAddress::getIp6Address).findFirst().get();
+    }
+
+    private static final class Builder {
+        private final List<Dpid> dpids = Lists.newArrayList();
+        private final List<OFPacketIn> packetIns = Lists.newArrayList();
+
+        private void add(ConnectPoint port, byte[] frame) {
+            dpids.add(Dpid.dpid(port.deviceId().uri()));
+            packetIns.add(FACTORY.buildPacketIn()
+                                  .setBufferId(OFBufferId.NO_BUFFER)
+                                  .setTotalLen(frame.length)
+                                  .setReason(OFPacketInReason.NO_MATCH)
+                                  .setTableId(TableId.of(0))
+                                  .setCookie(U64.ZERO)
+                                  .setMatch(FACTORY.buildMatch()
+                                                    .setExact(MatchField.IN_PORT,
+                                                              OFPort.of((int) port.port().toLong()))
+                                                    .build())
+                                  .setData(frame)
+                                  .build());
+        }
+
+        private PacketStream build() {
+            checkArgument(!packetIns.isEmpty(), "Stream has no packets");
+            return new PacketStream(dpids, packetIns);
+        }
+    }
+}
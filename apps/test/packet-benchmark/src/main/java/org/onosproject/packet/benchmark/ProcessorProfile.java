@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.packet.benchmark;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Latency and allocation profile of a packet processor.
+ */
+public final class ProcessorProfile {
+    private final String processor;
+    private final int priority;
+    private final long packets;
+    private final long handled;
+    private final double meanNanos;
+    private final long p50Nanos;
+    private final long p99Nanos;
+    private final long maxNanos;
+    private final double bytesPerPacket;
+
+    /**
+     * Creates a processor profile.
+     *
+     * @param processor      class name of the processor
+     * @param priority       priority the processor was registered with
+     * @param packets        number of packets the processor was invoked with
+     * @param handled        number of packets the processor marked as handled
+     * @param meanNanos      mean processing latency, in nanoseconds
+     * @param p50Nanos       median processing latency, in nanoseconds
+     * @param p99Nanos       99th percentile processing latency, in nanoseconds
+     * @param maxNanos       maximum processing latency, in nanoseconds
+     * @param bytesPerPacket mean bytes allocated per packet, or -1 if the JVM
+     *                       does not measure thread allocation
+     */
+    public ProcessorProfile(String processor, int priority, long packets, long handled,
+                            double meanNanos, long p50Nanos, long p99Nanos, long maxNanos,
+                            double bytesPerPacket) {
+        this.processor = processor;
+        this.priority = priority;
+        this.packets = packets;
+        this.handled = handled;
+        this.meanNanos = meanNanos;
+        this.p50Nanos = p50Nanos;
+        this.p99Nanos = p99Nanos;
+        this.maxNanos = maxNanos;
+        this.bytesPerPacket = bytesPerPacket;
+    }
+
+    /**
+     * Returns the class name of the processor.
+     *
+     * @return processor class name
+     */
+    public String processor() {
+        return processor;
+    }
+
+    /**
+     * Returns the priority the processor was registered with.
+     *
+     * @return processor priority
+     */
+    public int priority() {
+        return priority;
+    }
+
+    /**
+     * Returns the number of packets the processor was invoked with.
+     *
+     * @return packet count
+     */
+    public long packets() {
+        return packets;
+    }
+
+    /**
+     * Returns the number of packets the processor marked as handled.
+     *
+     * @return handled packet count
+     */
+    public long handled() {
+        return handled;
+    }
+
+    /**
+     * Returns the mean processing latency.
+     *
+     * @return latency in nanoseconds
+     */
+    public double meanNanos() {
+        return meanNanos;
+    }
+
+    /**
+     * Returns the median processing latency.
+     *
+     * @return latency in nanoseconds
+     */
+    public long p50Nanos() {
+        return p50Nanos;
+    }
+
+    /**
+     * Returns the 99th percentile processing latency.
+     *
+     * @return latency in nanoseconds
+     */
+    public long p99Nanos() {
+        return p99Nanos;
+    }
+
+    /**
+     * Returns the maximum processing latency.
+     *
+     * @return latency in nanoseconds
+     */
+    public long maxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Returns the mean number of bytes allocated while processing a packet.
+     *
+     * @return bytes per packet, or -1 if allocation is not measured
+     */
+    public double bytesPerPacket() {
+        return bytesPerPacket;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("processor", processor)
+                .add("priority", priority)
+                .add("packets", packets)
+                .add("handled", handled)
+                .add("meanNanos", meanNanos)
+                .add("p50Nanos", p50Nanos)
+                .add("p99Nanos", p99Nanos)
+                .add("maxNanos", maxNanos)
+                .add("bytesPerPacket", bytesPerPacket)
+                .toString();
+    }
+}
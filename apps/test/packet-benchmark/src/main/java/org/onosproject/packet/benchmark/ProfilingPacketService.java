@@ -0,0 +1,217 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.packet.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Maps;
+import com.sun.management.ThreadMXBean;
+import org.onlab.util.LatencyHistogram;
+import org.onosproject.core.ApplicationId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.TrafficSelector;
+import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketContext;
+import org.onosproject.net.packet.PacketPriority;
+import org.onosproject.net.packet.PacketProcessor;
+import org.onosproject.net.packet.PacketProcessorEntry;
+import org.onosproject.net.packet.PacketRequest;
+import org.onosproject.net.packet.PacketService;
+
+/**
+ * Packet service handed to the applications under benchmark.
+ * <p>
+ * Delegates to the packet manager, but wraps every processor the applications
+ * add so that the latency and the bytes allocated by each invocation are
+ * recorded. Allocation is measured through the per-thread allocation counter
+ * of the JVM, which covers everything the processor allocates on the calling
+ * thread, including packet-outs it emits synchronously.
+ */
+final class ProfilingPacketService implements PacketService {
+
+    private static final ThreadMXBean THREADS = threadBean();
+    private static final long ALLOCATION_OVERHEAD = allocationOverhead();
+
+    private final PacketService delegate;
+    private final Map<PacketProcessor, ProfiledProcessor> processors = Maps.newConcurrentMap();
+
+    /**
+     * Creates a profiling packet service.
+     *
+     * @param delegate packet service doing the actual work
+     */
+    ProfilingPacketService(PacketService delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Returns the profiles of the processors added through this service.
+     *
+     * @return processor profiles, in processing order
+     */
+    List<ProcessorProfile> profiles() {
+        return processors.values().stream()
+                .sorted((a, b) -> Integer.compare(a.priority, b.priority))
+                .map(ProfiledProcessor::profile)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Discards the measurements recorded so far.
+     */
+    void reset() {
+        processors.values().forEach(ProfiledProcessor::reset);
+    }
+
+    @Override
+    public void addProcessor(PacketProcessor processor, int priority) {
+        ProfiledProcessor profiled = new ProfiledProcessor(processor, priority);
+        processors.put(processor, profiled);
+        delegate.addProcessor(profiled, priority);
+    }
+
+    @Override
+    public void removeProcessor(PacketProcessor processor) {
+        ProfiledProcessor profiled = processors.remove(processor);
+        if (profiled != null) {
+            delegate.removeProcessor(profiled);
+        }
+    }
+
+    @Override
+    public List<PacketProcessorEntry> getProcessors() {
+        return delegate.getProcessors();
+    }
+
+    @Override
+    public void requestPackets(TrafficSelector selector, PacketPriority priority,
+                               ApplicationId appId) {
+        delegate.requestPackets(selector, priority, appId);
+    }
+
+    @Override
+    public void requestPackets(TrafficSelector selector, PacketPriority priority,
+                               ApplicationId appId, Optional<DeviceId> deviceId) {
+        delegate.requestPackets(selector, priority, appId, deviceId);
+    }
+
+    @Override
+    public void cancelPackets(TrafficSelector selector, PacketPriority priority,
+                              ApplicationId appId) {
+        delegate.cancelPackets(selector, priority, appId);
+    }
+
+    @Override
+    public void cancelPackets(TrafficSelector selector, PacketPriority priority,
+                              ApplicationId appId, Optional<DeviceId> deviceId) {
+        delegate.cancelPackets(selector, priority, appId, deviceId);
+    }
+
+    @Override
+    public List<PacketRequest> getRequests() {
+        return delegate.getRequests();
+    }
+
+    @Override
+    public void emit(OutboundPacket packet) {
+        delegate.emit(packet);
+    }
+
+    private static ThreadMXBean threadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof ThreadMXBean && ((ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            ((ThreadMXBean) bean).setThreadAllocatedMemoryEnabled(true);
+            return (ThreadMXBean) bean;
+        }
+        return null;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? 0 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // bytes the two reads of the allocation counter allocate themselves
+    private static long allocationOverhead() {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long start = allocatedBytes();
+            overhead = Math.min(overhead, allocatedBytes() - start);
+        }
+        return overhead;
+    }
+
+    /**
+     * Processor recording the cost of every invocation of the processor it wraps.
+     */
+    private static final class ProfiledProcessor implements PacketProcessor {
+        private final PacketProcessor processor;
+        private final int priority;
+        private volatile Measurements measurements = new Measurements();
+
+        private ProfiledProcessor(PacketProcessor processor, int priority) {
+            this.processor = processor;
+            this.priority = priority;
+        }
+
+        @Override
+        public void process(PacketContext context) {
+            Measurements m = measurements;
+            boolean wasHandled = context.isHandled();
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            try {
+                processor.process(context);
+            } finally {
+                m.latency.record(System.nanoTime() - start);
+                m.bytes.add(allocatedBytes() - allocated - ALLOCATION_OVERHEAD);
+                if (!wasHandled && context.isHandled()) {
+                    m.handled.increment();
+                }
+            }
+        }
+
+        private void reset() {
+            measurements = new Measurements();
+        }
+
+        private ProcessorProfile profile() {
+            Measurements m = measurements;
+            LatencyHistogram.Snapshot latency = m.latency.snapshot();
+            long packets = latency.count();
+            double bytesPerPacket = THREADS == null ? -1
+                    : packets == 0 ? 0 : (double) m.bytes.sum() / packets;
+            return new ProcessorProfile(processor.getClass().getName(), priority, packets,
+                                        m.handled.sum(), latency.mean(), latency.percentile(50),
+                                        latency.percentile(99), latency.max(), bytesPerPacket);
+        }
+
+        @Override
+        public String toString() {
+            return processor.toString();
+        }
+    }
+
+    private static final class Measurements {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder handled = new LongAdder();
+    }
+}
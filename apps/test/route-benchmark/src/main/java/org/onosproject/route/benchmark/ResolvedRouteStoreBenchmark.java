@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.route.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableSet;
+import org.onlab.packet.IpAddress;
+import org.onosproject.routeservice.ResolvedRoute;
+import org.onosproject.routeservice.RouteEvent;
+import org.onosproject.routeservice.impl.DefaultResolvedRouteStore;
+import org.onosproject.routeservice.impl.ResolvedRouteStore;
+import org.onosproject.routeservice.impl.TrieResolvedRouteStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the resolved route store backends on an Internet-sized table.
+ * <p>
+ * The radix tree backend keys a concurrent inverted radix tree by binary
+ * strings of the prefixes, the prefix trie backend walks a binary trie over
+ * the address bits. The heap retained by the populated store is printed when
+ * the table is loaded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class ResolvedRouteStoreBenchmark {
+
+    private static final String RADIX_TREE = "radixTree";
+    private static final int LOOKUP_ADDRESSES = 1 << 20;
+    private static final long SEED = 1;
+
+    @Param({RADIX_TREE, "prefixTrie"})
+    private String store;
+
+    @Param({"900000"})
+    private int ipv4Routes;
+
+    @Param({"200000"})
+    private int ipv6Routes;
+
+    private ResolvedRouteStore routeStore;
+    private List<ResolvedRoute> routes;
+    private IpAddress[] ipv4Addresses;
+    private IpAddress[] ipv6Addresses;
+    private int nextLookup;
+    private int nextUpdate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        routes = RouteTables.generate(ipv4Routes, ipv6Routes, SEED);
+        ipv4Addresses = RouteTables.addressesIn(routes.subList(0, ipv4Routes), LOOKUP_ADDRESSES, SEED);
+        ipv6Addresses = RouteTables.addressesIn(routes.subList(ipv4Routes, routes.size()), LOOKUP_ADDRESSES, SEED);
+
+        long heapBefore = usedHeap();
+        routeStore = RADIX_TREE.equals(store) ? new DefaultResolvedRouteStore() : new TrieResolvedRouteStore();
+        for (ResolvedRoute route : routes) {
+            routeStore.updateRoute(route, ImmutableSet.of(route));
+        }
+        long retained = usedHeap() - heapBefore;
+        System.out.printf("%n%s store retains %d bytes, %d bytes per route%n",
+                          store, retained, retained / routes.size());
+    }
+
+    /**
+     * Looks up the longest prefix match of an IPv4 address.
+     *
+     * @return matching route
+     */
+    @Benchmark
+    public Optional<ResolvedRoute> ipv4LongestPrefixMatch() {
+        return routeStore.longestPrefixMatch(ipv4Addresses[nextLookup()]);
+    }
+
+    /**
+     * Looks up the longest prefix match of an IPv6 address.
+     *
+     * @return matching route
+     */
+    @Benchmark
+    public Optional<ResolvedRoute> ipv6LongestPrefixMatch() {
+        return routeStore.longestPrefixMatch(ipv6Addresses[nextLookup()]);
+    }
+
+    /**
+     * Withdraws a route and announces it again, as during BGP churn.
+     *
+     * @return event of the announcement
+     */
+    @Benchmark
+    public RouteEvent withdrawAndAnnounce() {
+        int index = nextUpdate;
+        nextUpdate = index + 1 == routes.size() ? 0 : index + 1;
+        ResolvedRoute route = routes.get(index);
+        routeStore.removeRoute(route.prefix());
+        return routeStore.updateRoute(route, ImmutableSet.of(route));
+    }
+
+    private int nextLookup() {
+        int index = nextLookup;
+        nextLookup = (index + 1) & (LOOKUP_ADDRESSES - 1);
+        return index;
+    }
+
+    private static long usedHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.route.benchmark;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.collect.ImmutableList;
+import org.onlab.packet.IpAddress;
+import org.onlab.packet.IpPrefix;
+import org.onlab.packet.MacAddress;
+import org.onlab.packet.VlanId;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.routeservice.ResolvedRoute;
+import org.onosproject.routeservice.Route;
+
+/**
+ * Synthetic routing tables shaped like the Internet routing table.
+ * <p>
+ * Prefix lengths follow the distribution of the public IPv4 and IPv6 tables,
+ * dominated by /24 and /48 prefixes respectively, and routes point at a small
+ * set of peers, as learnt by a BGP speaker at an exchange point.
+ */
+public final class RouteTables {
+
+    private static final int PEERS = 64;
+    private static final DeviceId PEERING_DEVICE = DeviceId.deviceId("of:0000000000000001");
+
+    // cumulative percentages of the prefix lengths
+    private static final int[][] IPV4_LENGTHS = {
+            {8, 1}, {12, 2}, {14, 3}, {16, 8}, {18, 11}, {19, 15}, {20, 21},
+            {21, 26}, {22, 36}, {23, 44}, {24, 100}
+    };
+    private static final int[][] IPV6_LENGTHS = {
+            {29, 3}, {32, 25}, {36, 30}, {40, 40}, {44, 48}, {46, 52}, {47, 55}, {48, 100}
+    };
+
+    private RouteTables() {
+    }
+
+    /**
+     * Generates a routing table of resolved routes with distinct prefixes.
+     *
+     * @param ipv4Routes number of IPv4 routes
+     * @param ipv6Routes number of IPv6 routes
+     * @param seed       seed of the random prefixes
+     * @return resolved routes
+     */
+    public static List<ResolvedRoute> generate(int ipv4Routes, int ipv6Routes, long seed) {
+        Random random = new Random(seed);
+        Map<IpPrefix, ResolvedRoute> routes = new LinkedHashMap<>();
+        addRoutes(routes, IpAddress.Version.INET, ipv4Routes, random);
+        addRoutes(routes, IpAddress.Version.INET6, ipv6Routes, random);
+        return ImmutableList.copyOf(routes.values());
+    }
+
+    /**
+     * Picks addresses covered by the given routes, each in the prefix of a random route.
+     *
+     * @param routes routes to pick from
+     * @param count  number of addresses
+     * @param seed   seed of the random choice
+     * @return addresses to look up
+     */
+    public static IpAddress[] addressesIn(List<ResolvedRoute> routes, int count, long seed) {
+        Random random = new Random(seed);
+        IpAddress[] addresses = new IpAddress[count];
+        for (int i = 0; i < count; i++) {
+            IpPrefix prefix = routes.get(random.nextInt(routes.size())).prefix();
+            byte[] octets = prefix.address().toOctets();
+            for (int bit = prefix.prefixLength(); bit < octets.length * Byte.SIZE; bit++) {
+                if (random.nextBoolean()) {
+                    octets[bit / Byte.SIZE] |= 1 << (Byte.SIZE - 1 - bit % Byte.SIZE);
+                }
+            }
+            addresses[i] = IpAddress.valueOf(prefix.address().version(), octets);
+        }
+        return addresses;
+    }
+
+    private static void addRoutes(Map<IpPrefix, ResolvedRoute> routes, IpAddress.Version version,
+                                  int count, Random random) {
+        boolean ipv4 = version == IpAddress.Version.INET;
+        int[][] lengths = ipv4 ? IPV4_LENGTHS : IPV6_LENGTHS;
+        int target = routes.size() + count;
+        byte[] octets = new byte[IpAddress.byteLength(version)];
+        while (routes.size() < target) {
+            random.nextBytes(octets);
+            if (ipv4) {
+                // unicast space, short of the class D and E blocks
+                octets[0] = (byte) (1 + random.nextInt(223));
+            } else {
+                // global unicast space 2000::/3
+                octets[0] = (byte) (0x20 | octets[0] & 0x1f);
+            }
+            IpPrefix prefix = IpPrefix.valueOf(IpAddress.valueOf(version, octets), prefixLength(lengths, random));
+            int peer = random.nextInt(PEERS);
+            routes.computeIfAbsent(prefix, p -> resolvedRoute(p, version, peer));
+        }
+    }
+
+    private static int prefixLength(int[][] lengths, Random random) {
+        int draw = random.nextInt(100);
+        for (int[] length : lengths) {
+            if (draw < length[1]) {
+                return length[0];
+            }
+        }
+        return lengths[lengths.length - 1][0];
+    }
+
+    private static ResolvedRoute resolvedRoute(IpPrefix prefix, IpAddress.Version version, int peer) {
+        IpAddress nextHop = version == IpAddress.Version.INET
+                ? IpAddress.valueOf("192.0.2." + (peer + 1))
+                : IpAddress.valueOf("2001:db8::" + Integer.toHexString(peer + 1));
+        return new ResolvedRoute(new Route(Route.Source.BGP, prefix, nextHop),
+                                 MacAddress.valueOf(0x020000000000L + peer), VlanId.NONE,
+                                 new ConnectPoint(PEERING_DEVICE, PortNumber.portNumber(peer + 1)));
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.cli.net;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.karaf.shell.commands.Argument;
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.event.EventDeliveryService;
+import org.onosproject.event.ListenerLatencyInfo;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+
+/**
+ * Command to list the event processing latencies of the event listeners.
+ */
+@Command(scope = "onos", name = "listener-latencies",
+        description = "Lists event processing latency percentiles of the registered event listeners")
+public class ListenerLatenciesCommand extends AbstractShellCommand {
+
+    private static final String FMT =
+            "event=%s listener=%s count=%d p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms";
+    private static final double NANOS_PER_MILLI = 1000000.0;
+
+    @Argument(index = 0, name = "name",
+            description = "Only lists listeners whose class or event class name contains the given string",
+            required = false, multiValued = false)
+    String name = null;
+
+    /**
+     * Displays latency info as text.
+     *
+     * @param latencies listener latency descriptions
+     */
+    private void displayLatencies(List<ListenerLatencyInfo> latencies) {
+        for (ListenerLatencyInfo info : latencies) {
+            print(FMT, info.eventType(), info.listener(), info.count(),
+                  millis(info.p50()), millis(info.p99()), millis(info.p999()), millis(info.max()));
+        }
+    }
+
+    /**
+     * Converts list of latency info into a JSON array.
+     *
+     * @param latencies listener latency descriptions
+     */
+    private JsonNode json(List<ListenerLatencyInfo> latencies) {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode result = mapper.createArrayNode();
+        latencies.forEach(info -> result.addObject()
+                .put("event", info.eventType())
+                .put("listener", info.listener())
+                .put("count", info.count())
+                .put("mean", info.mean())
+                .put("p50", info.p50())
+                .put("p99", info.p99())
+                .put("p999", info.p999())
+                .put("max", info.max()));
+        return result;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    protected void execute() {
+        EventDeliveryService eventDeliveryService = get(EventDeliveryService.class);
+        List<ListenerLatencyInfo> latencies = eventDeliveryService.getListenerLatencies()
+                .stream()
+                .filter(info -> name == null || info.listener().contains(name) ||
+                        info.eventType().contains(name))
+                .sorted(Comparator.comparing(ListenerLatencyInfo::eventType)
+                                .thenComparing(ListenerLatencyInfo::listener))
+                .collect(Collectors.toList());
+        if (outputJson()) {
+            print("%s", json(latencies));
+        } else {
+            displayLatencies(latencies);
+        }
+    }
+}
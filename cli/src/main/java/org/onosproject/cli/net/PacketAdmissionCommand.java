@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.cli.net;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.apache.karaf.shell.commands.Command;
+import org.onosproject.cli.AbstractShellCommand;
+import org.onosproject.net.packet.PacketAdmissionInfo;
+import org.onosproject.net.packet.PacketService;
+
+import java.util.List;
+
+/**
+ * Lists the packet admission statistics of each device.
+ */
+@Command(scope = "onos", name = "packet-admission",
+        description = "Lists the packet admission statistics of each device")
+public class PacketAdmissionCommand extends AbstractShellCommand {
+
+    private static final String FMT = "deviceId=%s, admitted=%d, deviceRateDropped=%d, " +
+            "ethTypeRateDropped=%d, queueDropped=%d, queueDepth=%d";
+
+    @Override
+    protected void execute() {
+        PacketService service = get(PacketService.class);
+        List<PacketAdmissionInfo> infos = service.getAdmissionInfo();
+        if (outputJson()) {
+            print("%s", json(infos));
+        } else {
+            infos.forEach(this::print);
+        }
+    }
+
+    private JsonNode json(List<PacketAdmissionInfo> infos) {
+        ObjectMapper mapper = new ObjectMapper();
+        ArrayNode result = mapper.createArrayNode();
+
+        for (PacketAdmissionInfo info : infos) {
+            result.add(mapper.createObjectNode()
+                    .put("deviceId", info.deviceId().toString())
+                    .put("admitted", info.admitted())
+                    .put("deviceRateDropped", info.deviceRateDropped())
+                    .put("ethTypeRateDropped", info.ethTypeRateDropped())
+                    .put("queueDropped", info.queueDropped())
+                    .put("queueDepth", info.queueDepth()));
+        }
+
+        return result;
+    }
+
+    private void print(PacketAdmissionInfo info) {
+        print(FMT, info.deviceId(), info.admitted(), info.deviceRateDropped(),
+              info.ethTypeRateDropped(), info.queueDropped(), info.queueDepth());
+    }
+
+}
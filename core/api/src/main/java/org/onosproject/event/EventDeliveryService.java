@@ -15,6 +15,10 @@
  */
 package org.onosproject.event;
 
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
 /**
  * Abstraction of an entity capable of accepting events to be posted and
  * then dispatching them to the appropriate event sink.
@@ -35,4 +39,65 @@ public interface EventDeliveryService extends EventDispatcher, EventSinkRegistry
      */
     long getDispatchTimeLimit();
 
+    /**
+     * Sets the number of threads dispatching events in parallel. Every
+     * event class then gets its own queue, so that a slow sink only delays
+     * events of its own class; events of the same class are still processed
+     * in the order they were posted. Zero selects the default dispatch,
+     * where a few loops each serve a fixed group of event classes.
+     *
+     * @param threads number of dispatch threads; 0 for default dispatch
+     */
+    default void setDispatchThreads(int threads) {
+    }
+
+    /**
+     * Returns the number of threads dispatching events in parallel.
+     *
+     * @return number of dispatch threads; 0 for default dispatch
+     */
+    default int getDispatchThreads() {
+        return 0;
+    }
+
+    /**
+     * Sets the number of events an event class queue holds before posting
+     * more events of that class is held back; applies to parallel dispatch.
+     *
+     * @param capacity queue capacity per event class
+     */
+    default void setDispatchQueueCapacity(int capacity) {
+    }
+
+    /**
+     * Returns the number of events an event class queue holds before
+     * posting more events of that class is held back.
+     *
+     * @return queue capacity per event class
+     */
+    default int getDispatchQueueCapacity() {
+        return 0;
+    }
+
+    /**
+     * Returns the number of events queued past the capacity of their event
+     * class queue, because the queue was still full after holding back the
+     * poster, or because the poster was itself a dispatch thread.
+     *
+     * @return number of events queued past capacity
+     */
+    default long getDispatchQueueOverflows() {
+        return 0;
+    }
+
+    /**
+     * Returns the event processing latencies of the listeners registered
+     * with the event sinks.
+     *
+     * @return list of listener latency statistics
+     */
+    default List<ListenerLatencyInfo> getListenerLatencies() {
+        return ImmutableList.of();
+    }
+
 }
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.event;
+
+import org.onlab.util.LatencyHistogram;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Latency statistics of the event processing by an event listener.
+ * <p>
+ * Latencies are expressed in nanoseconds and cover every relevant event
+ * processed by the listener since it was registered.
+ */
+public final class ListenerLatencyInfo {
+    private final String eventType;
+    private final String listener;
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    /**
+     * Creates latency statistics from a histogram snapshot.
+     *
+     * @param eventType class name of the events
+     * @param listener  class name of the listener
+     * @param snapshot  snapshot of the listener processing latencies
+     */
+    public ListenerLatencyInfo(String eventType, String listener, LatencyHistogram.Snapshot snapshot) {
+        this.eventType = eventType;
+        this.listener = listener;
+        this.count = snapshot.count();
+        this.mean = snapshot.mean();
+        this.p50 = snapshot.percentile(50);
+        this.p99 = snapshot.percentile(99);
+        this.p999 = snapshot.percentile(99.9);
+        this.max = snapshot.max();
+    }
+
+    /**
+     * Returns the class name of the events processed by the listener.
+     *
+     * @return event class name
+     */
+    public String eventType() {
+        return eventType;
+    }
+
+    /**
+     * Returns the class name of the listener.
+     *
+     * @return listener class name
+     */
+    public String listener() {
+        return listener;
+    }
+
+    /**
+     * Returns the number of processed events.
+     *
+     * @return event count
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the mean event processing latency.
+     *
+     * @return mean latency in nanoseconds
+     */
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * Returns the median event processing latency.
+     *
+     * @return 50th percentile latency in nanoseconds
+     */
+    public long p50() {
+        return p50;
+    }
+
+    /**
+     * Returns the 99th percentile event processing latency.
+     *
+     * @return 99th percentile latency in nanoseconds
+     */
+    public long p99() {
+        return p99;
+    }
+
+    /**
+     * Returns the 99.9th percentile event processing latency.
+     *
+     * @return 99.9th percentile latency in nanoseconds
+     */
+    public long p999() {
+        return p999;
+    }
+
+    /**
+     * Returns the highest event processing latency.
+     *
+     * @return maximum latency in nanoseconds
+     */
+    public long max() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("eventType", eventType)
+                .add("listener", listener)
+                .add("count", count)
+                .add("p50", p50)
+                .add("p99", p99)
+                .add("p999", p999)
+                .add("max", max)
+                .toString();
+    }
+}
@@ -15,8 +15,12 @@
  */
 package org.onosproject.event;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import org.onlab.util.LatencyHistogram;
 import org.slf4j.Logger;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
 
@@ -42,10 +46,15 @@ public class ListenerRegistry<E extends Event, L extends EventListener<E>>
      */
     protected final Set<L> listeners = new CopyOnWriteArraySet<>();
 
+    // Latencies of the event processing by each registered listener
+    private final Map<L, LatencyHistogram> latencies = Maps.newConcurrentMap();
+
     @Override
     public void addListener(L listener) {
         checkNotNull(listener, "Listener cannot be null");
-        listeners.add(listener);
+        if (listeners.add(listener)) {
+            latencies.put(listener, new LatencyHistogram());
+        }
     }
 
     @Override
@@ -54,6 +63,7 @@ public class ListenerRegistry<E extends Event, L extends EventListener<E>>
         if (!listeners.remove(listener)) {
             log.warn("Listener {} not registered", listener);
         }
+        latencies.remove(listener);
     }
 
     @Override
@@ -63,7 +73,12 @@ public class ListenerRegistry<E extends Event, L extends EventListener<E>>
                 lastListener = listener;
                 lastStart = System.currentTimeMillis();
                 if (listener.isRelevant(event)) {
+                    long start = System.nanoTime();
                     listener.event(event);
+                    LatencyHistogram latency = latencies.get(listener);
+                    if (latency != null) {
+                        latency.record(System.nanoTime() - start);
+                    }
                 }
                 lastStart = 0;
             } catch (Exception error) {
@@ -86,6 +101,18 @@ public class ListenerRegistry<E extends Event, L extends EventListener<E>>
         }
     }
 
+    /**
+     * Returns the event processing latencies of the registered listeners.
+     * Only the events relevant to a listener count towards its latency.
+     *
+     * @return latency snapshot of each listener
+     */
+    public Map<L, LatencyHistogram.Snapshot> listenerLatencies() {
+        ImmutableMap.Builder<L, LatencyHistogram.Snapshot> snapshots = ImmutableMap.builder();
+        latencies.forEach((listener, latency) -> snapshots.put(listener, latency.snapshot()));
+        return snapshots.build();
+    }
+
     /**
      * Reports a problem encountered while processing an event.
      *
@@ -17,6 +17,7 @@ package org.onosproject.net.packet;
 
 import org.onosproject.net.ConnectPoint;
 import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
 
 import java.nio.ByteBuffer;
 import java.util.Objects;
@@ -26,12 +27,17 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 
 /**
  * Default implementation of an immutable inbound packet.
+ * <p>
+ * A packet created without its parsed form is deserialized from the raw
+ * bytes on the first call to {@link #parsed()}.
  */
 public final class DefaultInboundPacket implements InboundPacket {
 
     private final ConnectPoint receivedFrom;
     private final Ethernet parsed;
     private final ByteBuffer unparsed;
+    private final EthernetView view;
+    private final boolean lazy;
     private final Optional<Long> cookie;
 
     /**
@@ -56,9 +62,30 @@ public final class DefaultInboundPacket implements InboundPacket {
      */
     public DefaultInboundPacket(ConnectPoint receivedFrom, Ethernet parsed,
             ByteBuffer unparsed, Optional<Long> cookie) {
+        this(receivedFrom, parsed, unparsed, cookie, false);
+    }
+
+    /**
+     * Creates an immutable inbound packet with cookie, whose parsed form is
+     * deserialized from the raw bytes only when it is first requested. The
+     * raw bytes are not copied, so they must not be modified afterwards.
+     *
+     * @param receivedFrom connection point where received
+     * @param unparsed     unparsed raw bytes
+     * @param cookie       cookie
+     */
+    public DefaultInboundPacket(ConnectPoint receivedFrom, ByteBuffer unparsed,
+                                Optional<Long> cookie) {
+        this(receivedFrom, null, unparsed, cookie, true);
+    }
+
+    private DefaultInboundPacket(ConnectPoint receivedFrom, Ethernet parsed,
+                                 ByteBuffer unparsed, Optional<Long> cookie, boolean lazy) {
         this.receivedFrom = receivedFrom;
         this.parsed = parsed;
         this.unparsed = unparsed;
+        this.view = unparsed == null ? null : EthernetView.of(unparsed);
+        this.lazy = lazy && view != null;
         this.cookie = cookie;
     }
 
@@ -69,7 +96,7 @@ public final class DefaultInboundPacket implements InboundPacket {
 
     @Override
     public Ethernet parsed() {
-        return parsed;
+        return lazy ? view.ethernet() : parsed;
     }
 
     @Override
@@ -78,14 +105,22 @@ public final class DefaultInboundPacket implements InboundPacket {
         return unparsed;
     }
 
+    @Override
+    public EthernetView view() {
+        return view;
+    }
+
     @Override
     public Optional<Long> cookie() {
         return cookie;
     }
 
+    // Equality and hashing rely on the raw bytes, so that a lazily parsed
+    // packet is not deserialized; the parsed frames are only compared when
+    // both packets were created with them.
     @Override
     public int hashCode() {
-        return Objects.hash(receivedFrom, parsed, unparsed);
+        return Objects.hash(receivedFrom, unparsed);
     }
 
     @Override
@@ -93,11 +128,11 @@ public final class DefaultInboundPacket implements InboundPacket {
         if (this == obj) {
             return true;
         }
-        if (obj instanceof InboundPacket) {
+        if (obj instanceof DefaultInboundPacket) {
             final DefaultInboundPacket other = (DefaultInboundPacket) obj;
             return Objects.equals(this.receivedFrom, other.receivedFrom) &&
-                    Objects.equals(this.parsed, other.parsed) &&
-                    Objects.equals(this.unparsed, other.unparsed);
+                    Objects.equals(this.unparsed, other.unparsed) &&
+                    (this.lazy || other.lazy || Objects.equals(this.parsed, other.parsed));
         }
         return false;
     }
@@ -105,8 +140,10 @@ public final class DefaultInboundPacket implements InboundPacket {
     @Override
     public String toString() {
         return toStringHelper(this)
+                .omitNullValues()
                 .add("receivedFrom", receivedFrom)
                 .add("parsed", parsed)
+                .add("unparsed", unparsed)
                 .toString();
     }
 }
@@ -17,6 +17,7 @@ package org.onosproject.net.packet;
 
 import org.onosproject.net.ConnectPoint;
 import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
 
 import java.nio.ByteBuffer;
 import java.util.Optional;
@@ -42,12 +43,25 @@ public interface InboundPacket {
     Ethernet parsed();
 
     /**
-     * Unparsed packet data.
+     * Unparsed packet data. The bytes may be shared with the outbound packet
+     * of the same packet context and must not be modified.
      *
      * @return raw packet bytes
      */
     ByteBuffer unparsed();
 
+    /**
+     * Returns a view of the packet that reads header fields from the raw
+     * bytes on demand. Processors that only look at a few header fields
+     * should prefer it to {@link #parsed()}, which deserializes every layer.
+     *
+     * @return packet view; null if there is no packet data
+     */
+    default EthernetView view() {
+        ByteBuffer data = unparsed();
+        return data == null ? null : EthernetView.of(data);
+    }
+
     /**
      * Returns the cookie in the packet in message.
      *
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.packet;
+
+import org.onosproject.net.DeviceId;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Admission statistics of the packets received from a device.
+ * <p>
+ * Counters cover every packet received from the device since admission
+ * control was last configured.
+ */
+public final class PacketAdmissionInfo {
+    private final DeviceId deviceId;
+    private final long admitted;
+    private final long deviceRateDropped;
+    private final long ethTypeRateDropped;
+    private final long queueDropped;
+    private final int queueDepth;
+
+    /**
+     * Creates admission statistics of a device.
+     *
+     * @param deviceId           device identifier
+     * @param admitted           number of packets admitted for processing
+     * @param deviceRateDropped  number of packets dropped by the device rate limit
+     * @param ethTypeRateDropped number of packets dropped by the ethertype rate limit
+     * @param queueDropped       number of packets dropped because the device queue was full
+     * @param queueDepth         number of packets waiting in the device queue
+     */
+    public PacketAdmissionInfo(DeviceId deviceId, long admitted, long deviceRateDropped,
+                               long ethTypeRateDropped, long queueDropped, int queueDepth) {
+        this.deviceId = deviceId;
+        this.admitted = admitted;
+        this.deviceRateDropped = deviceRateDropped;
+        this.ethTypeRateDropped = ethTypeRateDropped;
+        this.queueDropped = queueDropped;
+        this.queueDepth = queueDepth;
+    }
+
+    /**
+     * Returns the identifier of the device the packets were received from.
+     *
+     * @return device identifier
+     */
+    public DeviceId deviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Returns the number of packets admitted for processing.
+     *
+     * @return admitted packet count
+     */
+    public long admitted() {
+        return admitted;
+    }
+
+    /**
+     * Returns the number of packets dropped because the device exceeded its
+     * packet rate.
+     *
+     * @return dropped packet count
+     */
+    public long deviceRateDropped() {
+        return deviceRateDropped;
+    }
+
+    /**
+     * Returns the number of packets dropped because their ethertype exceeded
+     * its packet rate on the device.
+     *
+     * @return dropped packet count
+     */
+    public long ethTypeRateDropped() {
+        return ethTypeRateDropped;
+    }
+
+    /**
+     * Returns the number of packets dropped because the device queue was full.
+     *
+     * @return dropped packet count
+     */
+    public long queueDropped() {
+        return queueDropped;
+    }
+
+    /**
+     * Returns the number of packets waiting to be processed.
+     *
+     * @return queue depth
+     */
+    public int queueDepth() {
+        return queueDepth;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("deviceId", deviceId)
+                .add("admitted", admitted)
+                .add("deviceRateDropped", deviceRateDropped)
+                .add("ethTypeRateDropped", ethTypeRateDropped)
+                .add("queueDropped", queueDropped)
+                .add("queueDepth", queueDepth)
+                .toString();
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.onosproject.net.packet;
 
+import com.google.common.collect.ImmutableList;
 import org.onosproject.core.ApplicationId;
 import org.onosproject.net.DeviceId;
 import org.onosproject.net.flow.TrafficSelector;
@@ -123,4 +124,14 @@ public interface PacketService {
      */
     void emit(OutboundPacket packet);
 
+    /**
+     * Returns the admission statistics of the packets received from each
+     * device. The list is empty when packet admission control is disabled.
+     *
+     * @return list of per-device admission statistics
+     */
+    default List<PacketAdmissionInfo> getAdmissionInfo() {
+        return ImmutableList.of();
+    }
+
 }
@@ -23,6 +23,7 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.onosproject.cluster.NodeId;
+import org.onosproject.store.service.Serializer;
 
 /**
  * Service for assisting communications between controller cluster nodes.
@@ -79,6 +80,28 @@ public interface ClusterCommunicationService {
             Function<M, byte[]> encoder,
             NodeId toNodeId);
 
+    /**
+     * Sends a message to the specified controller node, serializing it with
+     * the given serializer.
+     * <p>
+     * Unlike {@link #unicast(Object, MessageSubject, Function, NodeId)}, this
+     * allows implementations to serialize the message directly into the
+     * transport buffer without intermediate byte arrays.
+     *
+     * @param message message to send
+     * @param subject message subject
+     * @param serializer serializer for encoding the message
+     * @param toNodeId destination node identifier
+     * @param <M> message type
+     * @return future that is completed when the message is sent
+     */
+    default <M> CompletableFuture<Void> unicast(M message,
+            MessageSubject subject,
+            Serializer serializer,
+            NodeId toNodeId) {
+        return unicast(message, subject, serializer::encode, toNodeId);
+    }
+
     /**
      * Multicasts a message to a set of controller nodes.
      *
@@ -157,6 +180,27 @@ public interface ClusterCommunicationService {
             Consumer<M> handler,
             Executor executor);
 
+    /**
+     * Adds a new subscriber for the specified message subject, decoding
+     * incoming messages with the given serializer.
+     * <p>
+     * Unlike {@link #addSubscriber(MessageSubject, Function, Consumer, Executor)},
+     * this allows implementations to decode messages directly from the received
+     * buffer without intermediate byte arrays.
+     *
+     * @param subject message subject
+     * @param serializer serializer for decoding incoming messages
+     * @param handler handler for handling message
+     * @param executor executor to run this handler on
+     * @param <M> incoming message type
+     */
+    default <M> void addSubscriber(MessageSubject subject,
+            Serializer serializer,
+            Consumer<M> handler,
+            Executor executor) {
+        addSubscriber(subject, serializer::decode, handler, executor);
+    }
+
     /**
      * Removes a subscriber for the specified message subject.
      *
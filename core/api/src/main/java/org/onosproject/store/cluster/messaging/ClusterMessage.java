@@ -21,6 +21,7 @@ import java.util.Objects;
 
 import org.onlab.util.ByteArraySizeHashPrinter;
 import org.onosproject.cluster.NodeId;
+import org.onosproject.store.service.Serializer;
 
 import com.google.common.base.Charsets;
 import com.google.common.base.MoreObjects;
@@ -153,6 +154,54 @@ public class ClusterMessage {
                 payloadBytes);
     }
 
+    /**
+     * Encodes a cluster message into the given buffer, serializing the payload
+     * in place rather than through an intermediate byte array. The encoding is
+     * identical to that of {@link #getBytes()}.
+     *
+     * @param sender     message sender
+     * @param subject    message subject
+     * @param payload    message payload
+     * @param serializer serializer for the payload
+     * @param buffer     buffer to write to, starting at its current position
+     * @param <M> payload type
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public static <M> void encode(NodeId sender, MessageSubject subject, M payload,
+                                  Serializer serializer, ByteBuffer buffer) {
+        byte[] senderBytes = sender.toString().getBytes(Charsets.UTF_8);
+        byte[] subjectBytes = subject.value().getBytes(Charsets.UTF_8);
+        buffer.putInt(senderBytes.length);
+        buffer.put(senderBytes);
+        buffer.putInt(subjectBytes.length);
+        buffer.put(subjectBytes);
+        int lengthPosition = buffer.position();
+        buffer.putInt(0);
+        ByteBuffer payloadBuffer = buffer.slice();
+        serializer.encode(payload, payloadBuffer);
+        int payloadLength = payloadBuffer.position();
+        buffer.putInt(lengthPosition, payloadLength);
+        buffer.position(buffer.position() + payloadLength);
+    }
+
+    /**
+     * Returns a view of the payload of an encoded cluster message, without
+     * copying it.
+     *
+     * @param buffer encoded cluster message
+     * @return buffer holding only the message payload
+     */
+    public static ByteBuffer payloadOf(ByteBuffer buffer) {
+        ByteBuffer payload = buffer.duplicate();
+        int senderLength = payload.getInt();
+        payload.position(payload.position() + senderLength);
+        int subjectLength = payload.getInt();
+        payload.position(payload.position() + subjectLength);
+        int payloadLength = payload.getInt();
+        payload.limit(payload.position() + payloadLength);
+        return payload.slice();
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(sender, subject, Arrays.hashCode(payload));
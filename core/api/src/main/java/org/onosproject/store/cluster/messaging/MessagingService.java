@@ -15,10 +15,14 @@
  */
 package org.onosproject.store.cluster.messaging;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 /**
  * Interface for low level messaging primitives.
@@ -35,6 +39,32 @@ public interface MessagingService {
      */
     CompletableFuture<Void> sendAsync(Endpoint ep, String type, byte[] payload);
 
+    /**
+     * Sends a message asynchronously to the specified communication end point.
+     * The payload is written by the given writer, starting at the current
+     * position of the buffer it is handed, so that implementations may have it
+     * written straight into their transport buffers rather than into an
+     * intermediate byte array. The writer signals a buffer too small for the
+     * payload by throwing {@link BufferOverflowException}, in which case it is
+     * invoked again with a larger buffer.
+     * @param ep end point to send the message to.
+     * @param type type of message.
+     * @param payloadWriter writer of the message payload.
+     * @return future that is completed when the message is sent
+     */
+    default CompletableFuture<Void> sendAsync(Endpoint ep, String type, Consumer<ByteBuffer> payloadWriter) {
+        int capacity = 4096;
+        while (true) {
+            ByteBuffer buffer = ByteBuffer.allocate(capacity);
+            try {
+                payloadWriter.accept(buffer);
+                return sendAsync(ep, type, Arrays.copyOf(buffer.array(), buffer.position()));
+            } catch (BufferOverflowException e) {
+                capacity = Math.multiplyExact(capacity, 2);
+            }
+        }
+    }
+
     /**
      * Sends a message asynchronously and expects a response.
      * @param ep end point to send the message to.
@@ -77,6 +107,20 @@ public interface MessagingService {
      */
     void registerHandler(String type, BiFunction<Endpoint, byte[], CompletableFuture<byte[]>> handler);
 
+    /**
+     * Registers a new message handler for message type which receives the payload
+     * as a buffer. The buffer is only valid for the duration of the
+     * handler invocation.
+     * @param type message type.
+     * @param handler message handler
+     * @param executor executor to use for running message handler logic.
+     */
+    default void registerBufferHandler(String type, BiConsumer<Endpoint, ByteBuffer> handler, Executor executor) {
+        BiConsumer<Endpoint, byte[]> bytesHandler =
+                (ep, payload) -> handler.accept(ep, ByteBuffer.wrap(payload));
+        registerHandler(type, bytesHandler, executor);
+    }
+
     /**
      * Unregister current handler, if one exists for message type.
      * @param type message type
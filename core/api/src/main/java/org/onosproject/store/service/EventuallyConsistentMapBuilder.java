@@ -180,6 +180,23 @@ public interface EventuallyConsistentMapBuilder<K, V> {
      */
     EventuallyConsistentMapBuilder<K, V> withFasterConvergence();
 
+    /**
+     * Configure anti-entropy to exchange hashes of buckets of entries before
+     * exchanging digests. Only the digests of entries in buckets that differ
+     * between two peers are exchanged, which bounds the cost of each
+     * anti-entropy cycle by the divergence between the peers rather than by
+     * the size of the map. Suited to large maps.
+     * <p>
+     * All instances of a map must be configured alike. The default behavior
+     * is to advertise the digest of every entry.
+     * </p>
+     *
+     * @return this EventuallyConsistentMapBuilder
+     */
+    default EventuallyConsistentMapBuilder<K, V> withBucketedAntiEntropy() {
+        return this;
+    }
+
     /**
      * Configure the map to persist data to disk.
      * <p>
@@ -190,6 +207,24 @@ public interface EventuallyConsistentMapBuilder<K, V> {
      */
     EventuallyConsistentMapBuilder<K, V> withPersistence();
 
+    /**
+     * Configure the map to keep values serialized in off-heap memory.
+     * <p>
+     * Keys and value metadata stay on heap. Values are deserialized on
+     * access, with a small cache of recently accessed values, trading some
+     * CPU for a smaller heap. Suited to large maps of bulky values.
+     * Cannot be combined with persistence.
+     * </p>
+     * <p>
+     * The default behavior is to keep values on heap.
+     * </p>
+     *
+     * @return this EventuallyConsistentMapBuilder
+     */
+    default EventuallyConsistentMapBuilder<K, V> withOffHeapStorage() {
+        return this;
+    }
+
     /**
      * Builds an eventually consistent map based on the configuration options
      * supplied to this builder.
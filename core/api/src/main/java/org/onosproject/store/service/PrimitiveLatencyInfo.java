@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.service;
+
+import org.onlab.util.LatencyHistogram;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Latency statistics of the operations on a distributed primitive.
+ * <p>
+ * Latencies are expressed in nanoseconds and cover every metered operation on
+ * the primitive since it was first created on the local node.
+ */
+public final class PrimitiveLatencyInfo {
+    private final String type;
+    private final String name;
+    private final long count;
+    private final double mean;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+
+    /**
+     * Creates latency statistics from a histogram snapshot.
+     *
+     * @param type     primitive type
+     * @param name     primitive name
+     * @param snapshot snapshot of the primitive operation latencies
+     */
+    public PrimitiveLatencyInfo(String type, String name, LatencyHistogram.Snapshot snapshot) {
+        this.type = type;
+        this.name = name;
+        this.count = snapshot.count();
+        this.mean = snapshot.mean();
+        this.p50 = snapshot.percentile(50);
+        this.p99 = snapshot.percentile(99);
+        this.p999 = snapshot.percentile(99.9);
+        this.max = snapshot.max();
+    }
+
+    /**
+     * Returns the type of the primitive.
+     *
+     * @return primitive type
+     */
+    public String type() {
+        return type;
+    }
+
+    /**
+     * Returns the name of the primitive.
+     *
+     * @return primitive name
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns the number of completed operations.
+     *
+     * @return operation count
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the mean operation latency.
+     *
+     * @return mean latency in nanoseconds
+     */
+    public double mean() {
+        return mean;
+    }
+
+    /**
+     * Returns the median operation latency.
+     *
+     * @return 50th percentile latency in nanoseconds
+     */
+    public long p50() {
+        return p50;
+    }
+
+    /**
+     * Returns the 99th percentile operation latency.
+     *
+     * @return 99th percentile latency in nanoseconds
+     */
+    public long p99() {
+        return p99;
+    }
+
+    /**
+     * Returns the 99.9th percentile operation latency.
+     *
+     * @return 99.9th percentile latency in nanoseconds
+     */
+    public long p999() {
+        return p999;
+    }
+
+    /**
+     * Returns the highest operation latency.
+     *
+     * @return maximum latency in nanoseconds
+     */
+    public long max() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("type", type)
+                .add("name", name)
+                .add("count", count)
+                .add("p50", p50)
+                .add("p99", p99)
+                .add("p999", p999)
+                .add("max", max)
+                .toString();
+    }
+}
@@ -16,6 +16,7 @@
 
 package org.onosproject.store.service;
 
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.List;
 
@@ -43,6 +44,31 @@ public interface Serializer {
      */
     <T> T decode(byte[] bytes);
 
+    /**
+     * Serialize the specified object into the given buffer, starting at its
+     * current position.
+     * @param object object to serialize.
+     * @param buffer buffer to write to
+     * @param <T> encoded type
+     * @throws java.nio.BufferOverflowException if the buffer is too small;
+     *         the buffer position is then undefined
+     */
+    default <T> void encode(T object, ByteBuffer buffer) {
+        buffer.put(encode(object));
+    }
+
+    /**
+     * Deserialize an object from the remaining bytes of the given buffer.
+     * @param buffer buffer to read from.
+     * @return deserialized object.
+     * @param <T> decoded type
+     */
+    default <T> T decode(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return decode(bytes);
+    }
+
     /**
      * Copies the specified object.
      * @param object object to copy.
@@ -70,6 +96,16 @@ public interface Serializer {
                 return kryo.deserialize(bytes);
             }
 
+            @Override
+            public <T> void encode(T object, ByteBuffer buffer) {
+                kryo.serialize(object, buffer);
+            }
+
+            @Override
+            public <T> T decode(ByteBuffer buffer) {
+                return kryo.deserialize(buffer);
+            }
+
             @Override
             public <T> T copy(T object) {
                 return kryo.run(k -> k.copy(object));
@@ -99,23 +135,7 @@ public interface Serializer {
         KryoNamespace.Builder builder = new KryoNamespace.Builder();
         namespaces.forEach(builder::register);
         Lists.newArrayList(classes).forEach(builder::register);
-        KryoNamespace namespace = builder.build();
-        return new Serializer() {
-            @Override
-            public <T> byte[] encode(T object) {
-                return namespace.serialize(object);
-            }
-
-            @Override
-            public <T> T decode(byte[] bytes) {
-                return namespace.deserialize(bytes);
-            }
-
-            @Override
-            public <T> T copy(T object) {
-                return namespace.run(kryo -> kryo.copy(object));
-            }
-        };
+        return using(builder.build());
     }
 
     static Serializer forTypes(Class<?>... classes) {
@@ -64,4 +64,12 @@ public interface StorageAdminService {
      * @return collection of pending transaction identifiers.
      */
     Collection<TransactionId> getPendingTransactions();
+
+    /**
+     * Returns the operation latency statistics of all the metered primitives
+     * used on the local node.
+     *
+     * @return list of primitive latency statistics
+     */
+    List<PrimitiveLatencyInfo> getPrimitiveLatencies();
 }
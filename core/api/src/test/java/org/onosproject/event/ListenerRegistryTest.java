@@ -18,6 +18,7 @@ package org.onosproject.event;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -71,4 +72,18 @@ public class ListenerRegistryTest {
         assertTrue("BAR not processed", secondListener.events.contains(BAR_EVENT));
     }
 
+    @Test
+    public void latencies() {
+        manager.addListener(listener);
+        manager.addListener(secondListener);
+
+        manager.process(BAR_EVENT);
+        manager.process(FOO_EVENT);
+        assertEquals("incorrect listener count", 2, manager.listenerLatencies().size());
+        assertEquals("incorrect event count", 2, manager.listenerLatencies().get(listener).count());
+
+        manager.removeListener(listener);
+        assertFalse("listener latency retained", manager.listenerLatencies().containsKey(listener));
+    }
+
 }
@@ -19,14 +19,18 @@ import java.nio.ByteBuffer;
 import java.util.Optional;
 
 import org.junit.Test;
+import org.onlab.packet.DeserializationException;
 import org.onlab.packet.Ethernet;
 import org.onlab.packet.MacAddress;
 
 import com.google.common.testing.EqualsTester;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.onlab.junit.ImmutableClassChecker.assertThatClassIsImmutable;
 import static org.onosproject.net.NetTestTools.connectPoint;
 
@@ -87,4 +91,41 @@ public class DefaultInboundPacketTest {
         assertThat(packet1.unparsed(), notNullValue());
         assertThat(packet1.cookie(), equalTo(Optional.of(1L)));
     }
+
+    /**
+     * Tests that a packet created from its raw bytes only is parsed on demand.
+     */
+    @Test
+    public void testLazyParsing() throws DeserializationException {
+        byte[] frame = eth.serialize();
+        Ethernet deserialized = Ethernet.deserializer().deserialize(frame, 0, frame.length);
+        DefaultInboundPacket packet =
+                new DefaultInboundPacket(connectPoint("d1", 1),
+                        ByteBuffer.wrap(frame),
+                        Optional.of(1L));
+
+        assertThat(packet.view().sourceMac(), equalTo(MacAddress.BROADCAST));
+        assertThat(packet.view().etherType(), equalTo(eth.getEtherType()));
+        assertThat(packet.parsed(), equalTo(deserialized));
+        assertThat(packet.parsed(), sameInstance(packet.parsed()));
+        assertThat(packet, equalTo(new DefaultInboundPacket(connectPoint("d1", 1),
+                deserialized, ByteBuffer.wrap(frame), Optional.of(1L))));
+    }
+
+    /**
+     * Tests that comparing, hashing and printing a lazily parsed packet does
+     * not deserialize it.
+     */
+    @Test
+    public void testLazyEquals() {
+        byte[] frame = eth.serialize();
+        DefaultInboundPacket packet =
+                new DefaultInboundPacket(connectPoint("d1", 1), ByteBuffer.wrap(frame), Optional.empty());
+        DefaultInboundPacket sameAsPacket =
+                new DefaultInboundPacket(connectPoint("d1", 1), ByteBuffer.wrap(frame.clone()), Optional.empty());
+
+        assertThat(packet, equalTo(sameAsPacket));
+        assertThat(packet.hashCode(), equalTo(sameAsPacket.hashCode()));
+        assertThat(packet.toString(), not(containsString(" parsed=")));
+    }
 }
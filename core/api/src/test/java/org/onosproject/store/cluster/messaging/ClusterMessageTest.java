@@ -15,8 +15,12 @@
  */
 package org.onosproject.store.cluster.messaging;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 import org.junit.Test;
 import org.onosproject.cluster.NodeId;
+import org.onosproject.store.service.Serializer;
 
 import com.google.common.testing.EqualsTester;
 
@@ -79,4 +83,33 @@ public class ClusterMessageTest {
         ClusterMessage message = ClusterMessage.fromBytes(fromBytes);
         assertThat(message, is(message3));
     }
+
+    /**
+     * Tests that encoding into a buffer matches the byte array encoding.
+     */
+    @Test
+    public void testBufferMethods() {
+        Serializer serializer = Serializer.forTypes(String.class);
+        String payload = "payload";
+        ClusterMessage expected = new ClusterMessage(nodeId, subject2, serializer.encode(payload));
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        ClusterMessage.encode(nodeId, subject2, payload, serializer, buffer);
+        buffer.flip();
+
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        assertThat(ClusterMessage.fromBytes(bytes), is(expected));
+        assertThat(serializer.decode(ClusterMessage.payloadOf(buffer)), is(payload));
+    }
+
+    /**
+     * Tests that encoding into a buffer which is too small overflows.
+     */
+    @Test(expected = BufferOverflowException.class)
+    public void testBufferOverflow() {
+        Serializer serializer = Serializer.forTypes(String.class);
+        ClusterMessage.encode(nodeId, subject2, "a payload which does not fit", serializer,
+                              ByteBuffer.allocate(32));
+    }
 }
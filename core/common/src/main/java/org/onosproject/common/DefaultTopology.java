@@ -59,9 +59,15 @@ import org.onosproject.net.topology.TopologyVertex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -93,10 +99,18 @@ public class DefaultTopology extends AbstractModel implements Topology {
             new KShortestPathsSearch<>();
     private static final LazyKShortestPathsSearch<TopologyVertex, TopologyEdge> LAZY_KSHORTEST =
             new LazyKShortestPathsSearch<>();
+    private static final LinkWeigher NO_INDIRECT_LINKS_WEIGHER = new NoIndirectLinksWeigher();
 
+    // Largest share of the devices which may be affected by a change for the
+    // clusters to be derived incrementally rather than searched afresh.
+    private static final double MAX_INCREMENTAL_SHARE = 0.5;
+
+    // Stand-in for the hop-count weigher of each topology in path cache keys
+    private static final Object HOP_COUNT_WEIGHER = new Object();
 
     private static LinkWeigher defaultLinkWeigher = null;
     private static GraphPathSearch<TopologyVertex, TopologyEdge> defaultGraphPathSearch = null;
+    private static volatile int pathCacheSize = 0;
 
     private final long time;
     private final long creationTime;
@@ -105,13 +119,18 @@ public class DefaultTopology extends AbstractModel implements Topology {
 
     private final LinkWeigher hopCountWeigher;
 
-    private final Supplier<SccResult<TopologyVertex, TopologyEdge>> clusterResults;
+    private final Supplier<ClusterSets> clusterResults;
     private final Supplier<ImmutableMap<ClusterId, TopologyCluster>> clusters;
     private final Supplier<ImmutableSet<ConnectPoint>> infrastructurePoints;
     private final Supplier<ImmutableSetMultimap<ClusterId, ConnectPoint>> broadcastSets;
     private final Function<ConnectPoint, Boolean> broadcastFunction;
     private final Supplier<ClusterIndexes> clusterIndexes;
 
+    // Topology from which the clusters and path cache are derived
+    // incrementally; released once the clusters have been computed.
+    private volatile DefaultTopology previous;
+    private volatile PathCache pathCache;
+
     /**
      * Sets the default link-weight to be used when computing paths. If null is
      * specified, the builtin default link-weight measuring hop-counts will be
@@ -136,6 +155,37 @@ public class DefaultTopology extends AbstractModel implements Topology {
         defaultGraphPathSearch = graphPathSearch;
     }
 
+    /**
+     * Sets the maximum number of source and destination pairs whose shortest
+     * paths are cached by each topology. Zero disables the cache. Takes
+     * effect with the next topology.
+     *
+     * @param size maximum number of cached source and destination pairs
+     */
+    public static synchronized void setPathCacheSize(int size) {
+        checkArgument(size >= 0, "Path cache size must not be negative");
+        log.info("Setting new path cache size to {}", size);
+        pathCacheSize = size;
+    }
+
+    /**
+     * Returns the number of path cache hits across all topologies.
+     *
+     * @return path cache hit count
+     */
+    public static long pathCacheHitCount() {
+        return PathCache.hitCount();
+    }
+
+    /**
+     * Returns the number of path cache misses across all topologies.
+     *
+     * @return path cache miss count
+     */
+    public static long pathCacheMissCount() {
+        return PathCache.missCount();
+    }
+
 
     /**
      * Creates a topology descriptor attributed to the specified provider.
@@ -146,8 +196,28 @@ public class DefaultTopology extends AbstractModel implements Topology {
      */
     public DefaultTopology(ProviderId providerId, GraphDescription description,
                            Function<ConnectPoint, Boolean> broadcastFunction) {
+        this(providerId, description, broadcastFunction, null);
+    }
+
+    /**
+     * Creates a topology descriptor attributed to the specified provider,
+     * deriving it from the previous topology. Only the clusters touched by
+     * the devices and links which differ from the previous topology are
+     * searched afresh; the other clusters and their broadcast sets are
+     * carried over.
+     *
+     * @param providerId        identity of the provider
+     * @param description       data describing the new topology
+     * @param broadcastFunction broadcast point function
+     * @param previous          previous topology; null to compute from scratch
+     */
+    public DefaultTopology(ProviderId providerId, GraphDescription description,
+                           Function<ConnectPoint, Boolean> broadcastFunction,
+                           DefaultTopology previous) {
         super(providerId);
         this.broadcastFunction = broadcastFunction;
+        this.previous = previous;
+        this.pathCache = previous == null ? new PathCache(pathCacheSize) : null;
         this.time = description.timestamp();
         this.creationTime = description.creationTime();
 
@@ -385,13 +455,17 @@ public class DefaultTopology extends AbstractModel implements Topology {
             return ImmutableSet.of();
         }
 
-        GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
-                graphPathSearch().search(graph, srcV, dstV, weigher, maxPaths);
-        ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
-        for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
-            builder.add(networkPath(path));
-        }
-        return builder.build();
+        GraphPathSearch<TopologyVertex, TopologyEdge> search = graphPathSearch();
+        Object weigherKey = weigher == hopCountWeigher ? HOP_COUNT_WEIGHER : weigher;
+        return pathCache().get(src, dst, weigherKey, search, maxPaths, () -> {
+            GraphPathSearch.Result<TopologyVertex, TopologyEdge> result =
+                    search.search(graph, srcV, dstV, weigher, maxPaths);
+            ImmutableSet.Builder<Path> builder = ImmutableSet.builder();
+            for (org.onlab.graph.Path<TopologyVertex, TopologyEdge> path : result.paths()) {
+                builder.add(networkPath(path));
+            }
+            return builder.build();
+        });
     }
 
     /**
@@ -629,24 +703,189 @@ public class DefaultTopology extends AbstractModel implements Topology {
     }
 
     // Searches for SCC clusters in the network topology graph using Tarjan
-    // algorithm.
-    private SccResult<TopologyVertex, TopologyEdge> searchForClusters() {
-        return TARJAN.search(graph, new NoIndirectLinksWeigher());
+    // algorithm, incrementally if a previous topology is available.
+    private ClusterSets searchForClusters() {
+        DefaultTopology base = previous;
+        ClusterSets sets = null;
+        if (base != null) {
+            GraphDelta delta = new GraphDelta(base.graph, graph);
+            pathCache = derivePathCache(base, delta);
+            sets = deriveClusters(base, delta);
+            previous = null;
+        }
+        if (sets == null) {
+            SccResult<TopologyVertex, TopologyEdge> results =
+                    TARJAN.search(graph, NO_INDIRECT_LINKS_WEIGHER);
+            sets = new ClusterSets(results.clusterVertexes(),
+                                   results.clusterEdges(), ImmutableMap.of());
+        }
+        return sets;
+    }
+
+    // Returns the path cache, deriving it first from the previous topology
+    // if need be.
+    private PathCache pathCache() {
+        if (previous != null) {
+            clusterResults.get();
+        }
+        return pathCache;
+    }
+
+    // Derives the path cache from that of the previous topology. Paths are
+    // carried over only if links were merely removed, as any other change
+    // may shorten paths anywhere. The hop-count weight of indirect links
+    // follows the device count, so paths weighed by it are carried over only
+    // if the count is unchanged or there are no indirect links.
+    private PathCache derivePathCache(DefaultTopology base, GraphDelta delta) {
+        PathCache baseCache = base.pathCache();
+        int size = pathCacheSize;
+        if (!delta.changedEdges.isEmpty() || baseCache.size() != size) {
+            return new PathCache(size);
+        }
+        Set<Link> removedLinks = delta.removedEdges.stream()
+                .map(TopologyEdge::link).collect(Collectors.toSet());
+        boolean hopCountKept = base.deviceCount() == deviceCount() ||
+                graph.getEdges().stream().noneMatch(edge -> edge.link().type() == INDIRECT);
+        return baseCache.derive(removedLinks,
+                                weigher -> hopCountKept || weigher != HOP_COUNT_WEIGHER);
+    }
+
+    // Derives the clusters from those of the previous topology. Clusters
+    // containing an end-point of a changed link or device, together with any
+    // cluster they may merge with, are searched afresh; the others are carried
+    // over along with their broadcast sets. The broadcast set of an untouched
+    // cluster cannot change, since detours over indirect links always cost
+    // more than the hop-count of any path within the cluster.
+    // Returns null if too much has changed for this to pay off.
+    private ClusterSets deriveClusters(DefaultTopology base, GraphDelta delta) {
+        ClusterSets baseSets = base.clusterResults.get();
+        Map<DeviceId, TopologyCluster> baseClusters = base.clustersByDevice();
+        int limit = (int) (graph.getVertexes().size() * MAX_INCREMENTAL_SHARE);
+
+        Set<Integer> touched = new HashSet<>();
+        Set<TopologyVertex> affected = new HashSet<>(delta.addedVertexes);
+        boolean merging = false;
+
+        // Devices which left the topology touch their former cluster.
+        for (TopologyVertex vertex : delta.removedVertexes) {
+            touched.add(baseClusters.get(vertex.deviceId()).id().index());
+        }
+
+        // Changed links touch the clusters of both their end-points; viable
+        // links bridging two clusters may merge further clusters lying in
+        // between.
+        for (TopologyEdge edge : delta.changedEdges) {
+            TopologyCluster src = baseClusters.get(edge.src().deviceId());
+            TopologyCluster dst = baseClusters.get(edge.dst().deviceId());
+            merging |= (src == null || src != dst) &&
+                    NO_INDIRECT_LINKS_WEIGHER.weight(edge).isViable();
+            touch(edge.src(), baseClusters, touched);
+            touch(edge.dst(), baseClusters, touched);
+        }
+        for (TopologyEdge edge : delta.removedEdges) {
+            touch(edge.src(), baseClusters, touched);
+            touch(edge.dst(), baseClusters, touched);
+        }
+
+        // Gather the devices of the touched clusters which are still around.
+        for (int index : touched) {
+            for (TopologyVertex vertex : baseSets.vertexes.get(index)) {
+                if (graph.getVertexes().contains(vertex)) {
+                    affected.add(vertex);
+                }
+            }
+        }
+        if (affected.size() > limit) {
+            return null;
+        }
+
+        // Devices which both reach and are reached from the affected ones
+        // may now share a cluster with them.
+        if (merging) {
+            Set<TopologyVertex> reached = reachable(affected, true);
+            reached.retainAll(reachable(affected, false));
+            for (TopologyVertex vertex : reached) {
+                if (affected.add(vertex)) {
+                    touched.add(baseClusters.get(vertex.deviceId()).id().index());
+                }
+            }
+            if (affected.size() > limit) {
+                return null;
+            }
+        }
+
+        // Carry over the untouched clusters and search the affected devices.
+        List<Set<TopologyVertex>> vertexes = new ArrayList<>();
+        List<Set<TopologyEdge>> edges = new ArrayList<>();
+        ImmutableMap.Builder<Integer, Set<ConnectPoint>> broadcastSets = ImmutableMap.builder();
+        ImmutableSetMultimap<ClusterId, ConnectPoint> baseBroadcastSets = base.broadcastSets.get();
+        for (int i = 0, n = baseSets.vertexes.size(); i < n; i++) {
+            if (!touched.contains(i)) {
+                broadcastSets.put(vertexes.size(), baseBroadcastSets.get(ClusterId.clusterId(i)));
+                vertexes.add(baseSets.vertexes.get(i));
+                edges.add(baseSets.edges.get(i));
+            }
+        }
+
+        Set<TopologyEdge> affectedEdges = new HashSet<>();
+        for (TopologyVertex vertex : affected) {
+            for (TopologyEdge edge : graph.getEdgesFrom(vertex)) {
+                if (affected.contains(edge.dst())) {
+                    affectedEdges.add(edge);
+                }
+            }
+        }
+        SccResult<TopologyVertex, TopologyEdge> results =
+                TARJAN.search(new DefaultTopologyGraph(affected, affectedEdges),
+                              NO_INDIRECT_LINKS_WEIGHER);
+        vertexes.addAll(results.clusterVertexes());
+        edges.addAll(results.clusterEdges());
+
+        log.debug("Derived {} clusters searching {} of {} devices",
+                  vertexes.size(), affected.size(), graph.getVertexes().size());
+        return new ClusterSets(vertexes, edges, broadcastSets.build());
+    }
+
+    // Marks the previous cluster of the given end-point, if any, as touched.
+    private static void touch(TopologyVertex vertex, Map<DeviceId, TopologyCluster> baseClusters,
+                              Set<Integer> touched) {
+        TopologyCluster cluster = baseClusters.get(vertex.deviceId());
+        if (cluster != null) {
+            touched.add(cluster.id().index());
+        }
+    }
+
+    // Returns the devices reachable from, or reaching if not forward, the
+    // given devices over viable links.
+    private Set<TopologyVertex> reachable(Collection<TopologyVertex> sources, boolean forward) {
+        Set<TopologyVertex> reached = new HashSet<>(sources);
+        Queue<TopologyVertex> queue = new ArrayDeque<>(sources);
+        while (!queue.isEmpty()) {
+            TopologyVertex vertex = queue.remove();
+            Set<TopologyEdge> next = forward ? graph.getEdgesFrom(vertex) : graph.getEdgesTo(vertex);
+            for (TopologyEdge edge : next) {
+                TopologyVertex other = forward ? edge.dst() : edge.src();
+                if (NO_INDIRECT_LINKS_WEIGHER.weight(edge).isViable() && reached.add(other)) {
+                    queue.add(other);
+                }
+            }
+        }
+        return reached;
     }
 
     // Builds the topology clusters and returns the id-cluster bindings.
     private ImmutableMap<ClusterId, TopologyCluster> buildTopologyClusters() {
         ImmutableMap.Builder<ClusterId, TopologyCluster> clusterBuilder =
                 ImmutableMap.builder();
-        SccResult<TopologyVertex, TopologyEdge> results = clusterResults.get();
+        ClusterSets results = clusterResults.get();
 
         // Extract both vertexes and edges from the results; the lists form
         // pairs along the same index.
-        List<Set<TopologyVertex>> clusterVertexes = results.clusterVertexes();
-        List<Set<TopologyEdge>> clusterEdges = results.clusterEdges();
+        List<Set<TopologyVertex>> clusterVertexes = results.vertexes;
+        List<Set<TopologyEdge>> clusterEdges = results.edges;
 
         // Scan over the lists and create a cluster from the results.
-        for (int i = 0, n = results.clusterCount(); i < n; i++) {
+        for (int i = 0, n = clusterVertexes.size(); i < n; i++) {
             Set<TopologyVertex> vertexSet = clusterVertexes.get(i);
             Set<TopologyEdge> edgeSet = clusterEdges.get(i);
 
@@ -676,8 +915,14 @@ public class DefaultTopology extends AbstractModel implements Topology {
     // Processes a map of broadcast sets for each cluster.
     private ImmutableSetMultimap<ClusterId, ConnectPoint> buildBroadcastSets() {
         Builder<ClusterId, ConnectPoint> builder = ImmutableSetMultimap.builder();
+        Map<Integer, Set<ConnectPoint>> carried = clusterResults.get().broadcastSets;
         for (TopologyCluster cluster : clusters.get().values()) {
-            addClusterBroadcastSet(cluster, builder);
+            Set<ConnectPoint> points = carried.get(cluster.id().index());
+            if (points != null) {
+                builder.putAll(cluster.id(), points);
+            } else {
+                addClusterBroadcastSet(cluster, builder);
+            }
         }
         return builder.build();
     }
@@ -744,13 +989,13 @@ public class DefaultTopology extends AbstractModel implements Topology {
             int i = cluster.id().index();
 
             // Scan through all the cluster vertexes.
-            for (TopologyVertex vertex : clusterResults.get().clusterVertexes().get(i)) {
+            for (TopologyVertex vertex : clusterResults.get().vertexes.get(i)) {
                 devicesBuilder.put(cluster, vertex.deviceId());
                 clusterBuilder.put(vertex.deviceId(), cluster);
             }
 
             // Scan through all the cluster edges.
-            for (TopologyEdge edge : clusterResults.get().clusterEdges().get(i)) {
+            for (TopologyEdge edge : clusterResults.get().edges.get(i)) {
                 linksBuilder.put(cluster, edge.link());
             }
         }
@@ -781,6 +1026,63 @@ public class DefaultTopology extends AbstractModel implements Topology {
         }
     }
 
+    // Vertexes and edges of the SCC clusters; the lists form pairs along the
+    // same index. Broadcast sets carried over from a previous topology are
+    // keyed by the cluster index.
+    static final class ClusterSets {
+        final List<Set<TopologyVertex>> vertexes;
+        final List<Set<TopologyEdge>> edges;
+        final Map<Integer, Set<ConnectPoint>> broadcastSets;
+
+        ClusterSets(List<Set<TopologyVertex>> vertexes,
+                    List<Set<TopologyEdge>> edges,
+                    Map<Integer, Set<ConnectPoint>> broadcastSets) {
+            this.vertexes = vertexes;
+            this.edges = edges;
+            this.broadcastSets = broadcastSets;
+        }
+    }
+
+    // Devices and links which differ between two topology graphs.
+    static final class GraphDelta {
+        final Set<TopologyVertex> addedVertexes = new HashSet<>();
+        final Set<TopologyVertex> removedVertexes = new HashSet<>();
+        // Links which are new or differ from their previous incarnation
+        final List<TopologyEdge> changedEdges = new ArrayList<>();
+        final Set<TopologyEdge> removedEdges;
+
+        GraphDelta(TopologyGraph base, TopologyGraph graph) {
+            for (TopologyVertex vertex : graph.getVertexes()) {
+                if (!base.getVertexes().contains(vertex)) {
+                    addedVertexes.add(vertex);
+                }
+            }
+            for (TopologyVertex vertex : base.getVertexes()) {
+                if (!graph.getVertexes().contains(vertex)) {
+                    removedVertexes.add(vertex);
+                }
+            }
+
+            Map<TopologyEdge, TopologyEdge> baseEdges = new HashMap<>();
+            base.getEdges().forEach(edge -> baseEdges.put(edge, edge));
+            for (TopologyEdge edge : graph.getEdges()) {
+                TopologyEdge baseEdge = baseEdges.remove(edge);
+                if (baseEdge == null || !sameLink(baseEdge.link(), edge.link())) {
+                    changedEdges.add(edge);
+                }
+            }
+            removedEdges = baseEdges.keySet();
+        }
+
+        // Indicates whether the two equal links are also alike in every
+        // other respect.
+        private static boolean sameLink(Link a, Link b) {
+            return a == b || (a.state() == b.state() &&
+                    Objects.equals(a.providerId(), b.providerId()) &&
+                    Objects.equals(a.annotations(), b.annotations()));
+        }
+    }
+
     static final class ClusterIndexes {
         final ImmutableMap<DeviceId, TopologyCluster> clustersByDevice;
         final ImmutableSetMultimap<TopologyCluster, DeviceId> devicesByCluster;
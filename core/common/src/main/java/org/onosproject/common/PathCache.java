@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.common;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.Link;
+import org.onosproject.net.Path;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the shortest paths computed on a topology, keyed by source and
+ * destination devices, link weigher, path search algorithm and maximum number
+ * of paths. Weighers and search algorithms are told apart by identity, and
+ * are expected to yield the same paths for as long as the topology does not
+ * change.
+ * <p>
+ * Hit and miss counts are accumulated across all caches.
+ */
+final class PathCache {
+
+    private static final LongAdder HITS = new LongAdder();
+    private static final LongAdder MISSES = new LongAdder();
+
+    private final int size;
+    private final Cache<Key, Set<Path>> paths;
+
+    /**
+     * Creates a new path cache.
+     *
+     * @param size maximum number of cached source and destination pairs;
+     *             0 to disable caching
+     */
+    PathCache(int size) {
+        this.size = size;
+        this.paths = size > 0 ? CacheBuilder.newBuilder().maximumSize(size).build() : null;
+    }
+
+    /**
+     * Returns the maximum number of cached source and destination pairs.
+     *
+     * @return cache size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the cached paths, computing them on a miss.
+     *
+     * @param src      source device
+     * @param dst      destination device
+     * @param weigher  link weigher, or a stand-in for it
+     * @param search   path search algorithm
+     * @param maxPaths maximum number of paths
+     * @param compute  computes the paths on a miss
+     * @return set of paths
+     */
+    Set<Path> get(DeviceId src, DeviceId dst, Object weigher, Object search,
+                  int maxPaths, Supplier<Set<Path>> compute) {
+        if (paths == null) {
+            return compute.get();
+        }
+        Key key = new Key(src, dst, weigher, search, maxPaths);
+        Set<Path> cached = paths.getIfPresent(key);
+        if (cached != null) {
+            HITS.increment();
+            return cached;
+        }
+        MISSES.increment();
+        Set<Path> computed = compute.get();
+        paths.put(key, computed);
+        return computed;
+    }
+
+    /**
+     * Returns a cache for a topology which differs from this one only by the
+     * removal of the given links, carrying over the paths which avoid them.
+     * Removing links can only lengthen paths, so those carried over remain
+     * the shortest ones.
+     *
+     * @param removedLinks links removed from the topology
+     * @param weighers     weighers whose paths may be carried over
+     * @return new path cache
+     */
+    PathCache derive(Set<Link> removedLinks, Predicate<Object> weighers) {
+        PathCache derived = new PathCache(size);
+        if (paths != null) {
+            for (Map.Entry<Key, Set<Path>> entry : paths.asMap().entrySet()) {
+                if (weighers.test(entry.getKey().weigher) &&
+                        entry.getValue().stream().noneMatch(path -> traverses(path, removedLinks))) {
+                    derived.paths.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return derived;
+    }
+
+    private static boolean traverses(Path path, Set<Link> links) {
+        return path.links().stream().anyMatch(links::contains);
+    }
+
+    /**
+     * Returns the number of cache hits across all caches.
+     *
+     * @return hit count
+     */
+    static long hitCount() {
+        return HITS.sum();
+    }
+
+    /**
+     * Returns the number of cache misses across all caches.
+     *
+     * @return miss count
+     */
+    static long missCount() {
+        return MISSES.sum();
+    }
+
+    // Weighers and search algorithms are compared by identity.
+    private static final class Key {
+        private final DeviceId src;
+        private final DeviceId dst;
+        private final Object weigher;
+        private final Object search;
+        private final int maxPaths;
+
+        private Key(DeviceId src, DeviceId dst, Object weigher, Object search, int maxPaths) {
+            this.src = src;
+            this.dst = dst;
+            this.weigher = weigher;
+            this.search = search;
+            this.maxPaths = maxPaths;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(src, dst, System.identityHashCode(weigher),
+                                System.identityHashCode(search), maxPaths);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj instanceof Key) {
+                Key other = (Key) obj;
+                return src.equals(other.src) && dst.equals(other.dst) &&
+                        weigher == other.weigher && search == other.search &&
+                        maxPaths == other.maxPaths;
+            }
+            return false;
+        }
+    }
+}
@@ -22,7 +22,9 @@ import org.onlab.metrics.MetricsComponent;
 import org.onlab.metrics.MetricsFeature;
 import org.onlab.metrics.MetricsService;
 import org.onlab.osgi.DefaultServiceDirectory;
+import org.onlab.util.LatencyHistogram;
 
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -30,9 +32,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Agent that implements usage and performance monitoring via the metrics service.
+ * <p>
+ * Besides the metrics service timers, an activated agent records the latency of
+ * every successful operation in a {@link LatencyHistogram} shared by all agents
+ * metering the same primitive, see {@link #latencyHistograms()}.
  */
 public class MeteringAgent {
 
+    private static final Map<String, Map<String, SharedHistogram>> LATENCY_HISTOGRAMS =
+            Maps.newConcurrentMap();
+
     private Counter exceptionCounter;
     private Counter perObjExceptionCounter;
     private MetricsService metricsService;
@@ -45,6 +54,10 @@ public class MeteringAgent {
     private MetricsFeature wildcard;
     private final boolean activated;
     private Context nullTimer;
+    private LatencyHistogram latencyHistogram;
+    private String primitiveName;
+    private String objName;
+    private boolean registered;
 
     /**
      * Constructs a new MeteringAgent for a given distributed primitive.
@@ -68,9 +81,56 @@ public class MeteringAgent {
             this.perPrimitiveTimer = metricsService.createTimer(metricsComponent, wildcard, "*");
             this.perObjExceptionCounter = metricsService.createCounter(metricsComponent, metricsFeature, "exceptions");
             this.exceptionCounter = metricsService.createCounter(metricsComponent, wildcard, "exceptions");
+            this.primitiveName = primitiveName;
+            this.objName = objName;
+            this.latencyHistogram = registerHistogram(primitiveName, objName);
+            this.registered = true;
         }
     }
 
+    /**
+     * Releases this agent's reference to the latency histogram of its object.
+     * The histogram is dropped once no agent metering the object remains.
+     * Intended to be called when the metered object is destroyed.
+     */
+    public synchronized void deregister() {
+        if (registered) {
+            registered = false;
+            LATENCY_HISTOGRAMS.computeIfPresent(primitiveName, (type, histograms) -> {
+                histograms.computeIfPresent(objName, (name, shared) -> --shared.references == 0 ? null : shared);
+                return histograms.isEmpty() ? null : histograms;
+            });
+        }
+    }
+
+    private static LatencyHistogram registerHistogram(String primitiveName, String objName) {
+        return LATENCY_HISTOGRAMS.compute(primitiveName, (type, histograms) -> {
+            Map<String, SharedHistogram> result = histograms == null ? Maps.newConcurrentMap() : histograms;
+            result.computeIfAbsent(objName, name -> new SharedHistogram()).references++;
+            return result;
+        }).get(objName).histogram;
+    }
+
+    /**
+     * Returns the operation latency histograms of all the metered objects,
+     * indexed by primitive type and then by object name.
+     *
+     * @return latency histograms
+     */
+    public static Map<String, Map<String, LatencyHistogram>> latencyHistograms() {
+        return Collections.unmodifiableMap(Maps.transformValues(LATENCY_HISTOGRAMS,
+                histograms -> Maps.transformValues(histograms, shared -> shared.histogram)));
+    }
+
+    /**
+     * Latency histogram shared by the agents metering the same object.
+     */
+    private static final class SharedHistogram {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        // guarded by the lock of the LATENCY_HISTOGRAMS entry of the primitive
+        private long references;
+    }
+
     /**
      * Initializes a specific timer for a given operation.
      *
@@ -176,6 +236,8 @@ public class MeteringAgent {
                 perObjTimer.update(time, TimeUnit.NANOSECONDS);
                 //updates timer with aggregated measurements per all Consistent Maps
                 perPrimitiveTimer.update(time, TimeUnit.NANOSECONDS);
+                //records the latency in the per object histogram
+                latencyHistogram.record(time);
             } else {
                 exceptionCounter.inc();
                 perObjExceptionCounter.inc();
@@ -39,7 +39,11 @@ import org.onosproject.net.topology.TopologyCluster;
 import org.onosproject.net.topology.TopologyEdge;
 import org.onosproject.net.topology.TopologyVertex;
 
+import com.google.common.collect.Sets;
+
 import java.util.Set;
+import java.util.stream.Collectors;
+
 import static com.google.common.collect.ImmutableSet.of;
 import static org.junit.Assert.*;
 import static org.onosproject.net.DeviceId.deviceId;
@@ -148,6 +152,160 @@ public class DefaultTopologyTest {
         assertFalse("cluster should not contain D5", devs.contains(D5));
     }
 
+    @Test
+    public void incrementalLinkChanges() {
+        // Six bidirectional rings of six devices each
+        Set<Device> devices = Sets.newHashSet();
+        Set<Link> links = Sets.newHashSet();
+        for (int r = 0; r < 6; r++) {
+            for (int i = 0; i < 6; i++) {
+                devices.add(device(ringDevice(r, i)));
+                links.addAll(biLink(ringDevice(r, i), ringDevice(r, (i + 1) % 6)));
+            }
+        }
+        DefaultTopology topology = assertIncremental(null, devices, links);
+        assertEquals("incorrect cluster count", 6, topology.clusterCount());
+
+        // A single link flap leaves the ring in one piece.
+        links.removeAll(biLink(ringDevice(0, 0), ringDevice(0, 1)));
+        topology = assertIncremental(topology, devices, links);
+        assertEquals("incorrect cluster count", 6, topology.clusterCount());
+
+        // A second one splits it in two.
+        links.removeAll(biLink(ringDevice(0, 3), ringDevice(0, 4)));
+        topology = assertIncremental(topology, devices, links);
+        assertEquals("incorrect cluster count", 7, topology.clusterCount());
+
+        // A one-way link between rings does not merge them.
+        links.add(link(ringDevice(1, 0), 9, ringDevice(2, 0), 9));
+        topology = assertIncremental(topology, devices, links);
+        assertEquals("incorrect cluster count", 7, topology.clusterCount());
+
+        // A way back merges them, along with a ring lying in between.
+        links.add(link(ringDevice(2, 0), 8, ringDevice(3, 0), 8));
+        links.add(link(ringDevice(3, 0), 9, ringDevice(1, 0), 8));
+        topology = assertIncremental(topology, devices, links);
+        assertEquals("incorrect cluster count", 5, topology.clusterCount());
+
+        // Links changing state change the clusters as well.
+        links.remove(link(ringDevice(3, 0), 9, ringDevice(1, 0), 8));
+        links.add(DefaultLink.builder().providerId(PID)
+                          .src(new ConnectPoint(did(ringDevice(3, 0)), portNumber(9)))
+                          .dst(new ConnectPoint(did(ringDevice(1, 0)), portNumber(8)))
+                          .type(Link.Type.DIRECT).state(Link.State.INACTIVE)
+                          .build());
+        topology = assertIncremental(topology, devices, links);
+        assertEquals("incorrect cluster count", 7, topology.clusterCount());
+    }
+
+    @Test
+    public void incrementalDeviceChanges() {
+        Set<Device> devices = Sets.newHashSet();
+        Set<Link> links = Sets.newHashSet();
+        for (int r = 0; r < 3; r++) {
+            for (int i = 0; i < 6; i++) {
+                devices.add(device(ringDevice(r, i)));
+                links.addAll(biLink(ringDevice(r, i), ringDevice(r, (i + 1) % 6)));
+            }
+        }
+        DefaultTopology topology = assertIncremental(null, devices, links);
+
+        // A device joining on its own forms a cluster of its own.
+        devices.add(device("99"));
+        topology = assertIncremental(topology, devices, links);
+        assertEquals("incorrect cluster count", 4, topology.clusterCount());
+
+        // A device leaving takes its links along, breaking the ring open.
+        devices.remove(device(ringDevice(0, 0)));
+        links.removeIf(l -> l.src().deviceId().equals(did(ringDevice(0, 0))) ||
+                l.dst().deviceId().equals(did(ringDevice(0, 0))));
+        topology = assertIncremental(topology, devices, links);
+        assertEquals("incorrect cluster count", 4, topology.clusterCount());
+        assertEquals("incorrect cluster device count", 5,
+                     topology.getClusterDevices(topology.getCluster(did(ringDevice(0, 1)))).size());
+    }
+
+    @Test
+    public void pathCache() {
+        DefaultTopology.setPathCacheSize(100);
+        try {
+            Set<Device> devices = Sets.newHashSet();
+            Set<Link> links = Sets.newHashSet();
+            for (int i = 0; i < 6; i++) {
+                devices.add(device(ringDevice(0, i)));
+                links.addAll(biLink(ringDevice(0, i), ringDevice(0, (i + 1) % 6)));
+            }
+            DefaultTopology topology = assertIncremental(null, devices, links);
+            DeviceId a = did(ringDevice(0, 0));
+            DeviceId b = did(ringDevice(0, 1));
+            DeviceId c = did(ringDevice(0, 3));
+
+            long hits = DefaultTopology.pathCacheHitCount();
+            long misses = DefaultTopology.pathCacheMissCount();
+            Set<Path> paths = topology.getPaths(a, b);
+            assertSame("paths should be cached", paths, topology.getPaths(a, b));
+            assertEquals("incorrect path count", 2, topology.getPaths(a, c).size());
+            assertEquals("incorrect hit count", hits + 1, DefaultTopology.pathCacheHitCount());
+            assertEquals("incorrect miss count", misses + 2, DefaultTopology.pathCacheMissCount());
+
+            // Removing a link keeps the paths which do not traverse it.
+            links.removeAll(biLink(ringDevice(0, 3), ringDevice(0, 4)));
+            topology = assertIncremental(topology, devices, links);
+            assertSame("paths should be carried over", paths, topology.getPaths(a, b));
+            assertEquals("incorrect path count", 1, topology.getPaths(a, c).size());
+
+            // Adding a link may shorten any path.
+            links.addAll(biLink(ringDevice(0, 0), ringDevice(0, 3)));
+            topology = assertIncremental(topology, devices, links);
+            assertNotSame("paths should not be carried over", paths, topology.getPaths(a, b));
+            assertEquals("incorrect path length", 1,
+                         topology.getPaths(a, c).iterator().next().links().size());
+        } finally {
+            DefaultTopology.setPathCacheSize(0);
+        }
+    }
+
+    // Derives a topology from the previous one and validates it against one
+    // computed from scratch.
+    private static DefaultTopology assertIncremental(DefaultTopology previous,
+                                                     Set<Device> devices, Set<Link> links) {
+        long now = System.nanoTime();
+        GraphDescription description =
+                new DefaultGraphDescription(now, System.currentTimeMillis(), devices, links);
+        DefaultTopology full = new DefaultTopology(PID, description, null);
+        DefaultTopology incremental = new DefaultTopology(PID, description, null, previous);
+
+        assertEquals("incorrect cluster count", full.clusterCount(), incremental.clusterCount());
+        for (TopologyCluster cluster : incremental.getClusters()) {
+            TopologyCluster expected = full.getCluster(cluster.root().deviceId());
+            assertEquals("incorrect root node", expected.root(), cluster.root());
+            assertEquals("incorrect cluster devices",
+                         full.getClusterDevices(expected), incremental.getClusterDevices(cluster));
+            assertEquals("incorrect cluster links",
+                         full.getClusterLinks(expected), incremental.getClusterLinks(cluster));
+            // Ties between equally short paths may be broken either way, so
+            // only check the broadcast tree spans the same devices.
+            Set<ConnectPoint> points = incremental.broadcastPoints(cluster.id());
+            assertEquals("incorrect broadcast set size",
+                         full.broadcastSetSize(expected.id()), points.size());
+            if (cluster.deviceCount() > 1) {
+                assertEquals("incorrect broadcast devices", full.getClusterDevices(expected),
+                             points.stream().map(ConnectPoint::deviceId).collect(Collectors.toSet()));
+            }
+        }
+        return incremental;
+    }
+
+    // Short-hand for the name of a device of a ring.
+    private static String ringDevice(int ring, int index) {
+        return Integer.toString(ring * 10 + index + 1);
+    }
+
+    // Short-hand for creating a pair of links between neighbouring ring devices.
+    private static Set<Link> biLink(String src, String dst) {
+        return of(link(src, 2, dst, 1), link(dst, 1, src, 2));
+    }
+
     // Short-hand for creating a link.
     public static Link link(String src, int sp, String dst, int dp) {
         return DefaultLink.builder().providerId(PID)
@@ -89,6 +89,17 @@ public class CoreManager implements CoreService {
             label = "Maximum number of millis an event sink has to process an event")
     private int maxEventTimeLimit = DEFAULT_EVENT_TIME;
 
+    private static final int DEFAULT_EVENT_DISPATCH_THREADS = 0;
+    @Property(name = "eventDispatchThreads", intValue = DEFAULT_EVENT_DISPATCH_THREADS,
+            label = "Number of threads dispatching events in parallel, with a queue per event class; " +
+                    "0 for the default dispatch loops")
+    private int eventDispatchThreads = DEFAULT_EVENT_DISPATCH_THREADS;
+
+    private static final int DEFAULT_EVENT_QUEUE_CAPACITY = 10000;
+    @Property(name = "eventQueueCapacity", intValue = DEFAULT_EVENT_QUEUE_CAPACITY,
+            label = "Number of events an event class queue holds before posters are held back")
+    private int eventQueueCapacity = DEFAULT_EVENT_QUEUE_CAPACITY;
+
     private static final boolean DEFAULT_PERFORMANCE_CHECK = false;
     @Property(name = "sharedThreadPerformanceCheck", boolValue = DEFAULT_PERFORMANCE_CHECK,
             label = "Enable queue performance check on shared pool")
@@ -174,13 +185,31 @@ public class CoreManager implements CoreService {
             log.warn("maxEventTimeLimit must be greater than or equal to 0");
         }
 
+        Integer queueCapacity = Tools.getIntegerProperty(properties, "eventQueueCapacity");
+        if (queueCapacity != null && queueCapacity > 0) {
+            eventQueueCapacity = queueCapacity;
+            eventDeliveryService.setDispatchQueueCapacity(eventQueueCapacity);
+        } else if (queueCapacity != null) {
+            log.warn("eventQueueCapacity must be greater than 0");
+        }
+
+        Integer dispatchThreads = Tools.getIntegerProperty(properties, "eventDispatchThreads");
+        if (dispatchThreads != null && dispatchThreads >= 0) {
+            eventDispatchThreads = dispatchThreads;
+            eventDeliveryService.setDispatchThreads(eventDispatchThreads);
+        } else if (dispatchThreads != null) {
+            log.warn("eventDispatchThreads must be greater than or equal to 0");
+        }
+
         Boolean performanceCheck = Tools.isPropertyEnabled(properties, "sharedThreadPerformanceCheck");
         if (performanceCheck != null) {
             calculatePoolPerformance = performanceCheck;
             SharedExecutors.setMetricsService(calculatePoolPerformance ? metricsService : null);
         }
 
-        log.info("Settings: sharedThreadPoolSize={}, maxEventTimeLimit={}, calculatePoolPerformance={}",
-                 sharedThreadPoolSize, maxEventTimeLimit, calculatePoolPerformance);
+        log.info("Settings: sharedThreadPoolSize={}, maxEventTimeLimit={}, eventDispatchThreads={}, " +
+                         "eventQueueCapacity={}, calculatePoolPerformance={}",
+                 sharedThreadPoolSize, maxEventTimeLimit, eventDispatchThreads,
+                 eventQueueCapacity, calculatePoolPerformance);
     }
 }
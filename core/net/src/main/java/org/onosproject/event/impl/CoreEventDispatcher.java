@@ -15,14 +15,23 @@
  */
 package org.onosproject.event.impl;
 
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TimerTask;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
@@ -34,6 +43,8 @@ import org.onosproject.event.DefaultEventSinkRegistry;
 import org.onosproject.event.Event;
 import org.onosproject.event.EventDeliveryService;
 import org.onosproject.event.EventSink;
+import org.onosproject.event.ListenerLatencyInfo;
+import org.onosproject.event.ListenerRegistry;
 import org.onosproject.net.device.DeviceEvent;
 import org.onosproject.net.flow.FlowRuleEvent;
 import org.onosproject.net.host.HostEvent;
@@ -44,7 +55,9 @@ import org.slf4j.Logger;
 
 import com.google.common.base.Stopwatch;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.concurrent.Executors.newSingleThreadExecutor;
@@ -88,12 +101,28 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
     private static final long DEFAULT_EXECUTE_MS = 5_000; // ms
     private static final long WATCHDOG_MS = 250; // ms
 
+    // Default number of events an event class queue holds in parallel dispatch.
+    private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+    // Number of millis a poster is held back by a full event class queue.
+    private static final long POST_BLOCK_MS = 1_000; // ms
+    // Number of events dispatched from a queue before yielding the thread.
+    private static final int LANE_BATCH = 64;
+
+    // Indicates whether the current thread is a parallel dispatch thread.
+    private static final ThreadLocal<Boolean> DISPATCHING = ThreadLocal.withInitial(() -> false);
+
     @SuppressWarnings("unchecked")
     private static final Event KILL_PILL = new AbstractEvent(null, 0) {
     };
 
     private long maxProcessMillis = DEFAULT_EXECUTE_MS;
 
+    private int dispatchThreads = 0;
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private volatile ParallelDispatcher parallelDispatcher;
+    // Number of events queued past the capacity of their event class queue.
+    private final AtomicLong queueOverflows = new AtomicLong();
+
     private DispatchLoop getDispatcher(Event event) {
         DispatchLoop dispatcher = dispatcherMap.get(event.getClass());
         if (dispatcher == null) {
@@ -104,6 +133,11 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
 
     @Override
     public void post(Event event) {
+        ParallelDispatcher parallel = parallelDispatcher;
+        if (parallel != null) {
+            parallel.post(event);
+            return;
+        }
 
         if (!getDispatcher(event).add(event)) {
             log.error("Unable to post event {}", event);
@@ -123,6 +157,12 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
     @Deactivate
     public void deactivate() {
         dispatchers.forEach(DispatchLoop::stop);
+        synchronized (this) {
+            if (parallelDispatcher != null) {
+                parallelDispatcher.stop();
+                parallelDispatcher = null;
+            }
+        }
 
         log.info("Stopped");
     }
@@ -148,6 +188,74 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         return maxProcessMillis;
     }
 
+    @Override
+    public synchronized void setDispatchThreads(int threads) {
+        checkPermission(EVENT_WRITE);
+        checkArgument(threads >= 0, "Number of dispatch threads cannot be negative");
+        if (threads != dispatchThreads) {
+            dispatchThreads = threads;
+            restartParallelDispatcher();
+        }
+    }
+
+    @Override
+    public synchronized int getDispatchThreads() {
+        checkPermission(EVENT_READ);
+        return dispatchThreads;
+    }
+
+    @Override
+    public synchronized void setDispatchQueueCapacity(int capacity) {
+        checkPermission(EVENT_WRITE);
+        checkArgument(capacity > 0, "Queue capacity must be greater than 0");
+        if (capacity != queueCapacity) {
+            queueCapacity = capacity;
+            if (dispatchThreads > 0) {
+                restartParallelDispatcher();
+            }
+        }
+    }
+
+    @Override
+    public synchronized int getDispatchQueueCapacity() {
+        checkPermission(EVENT_READ);
+        return queueCapacity;
+    }
+
+    @Override
+    public long getDispatchQueueOverflows() {
+        checkPermission(EVENT_READ);
+        return queueOverflows.get();
+    }
+
+    @Override
+    public List<ListenerLatencyInfo> getListenerLatencies() {
+        checkPermission(EVENT_READ);
+        ImmutableList.Builder<ListenerLatencyInfo> latencies = ImmutableList.builder();
+        for (Class<? extends Event> eventClass : getSinks()) {
+            EventSink<?> sink = getSink(eventClass);
+            if (sink instanceof ListenerRegistry) {
+                ((ListenerRegistry<?, ?>) sink).listenerLatencies().forEach(
+                        (listener, snapshot) -> latencies.add(new ListenerLatencyInfo(
+                                eventClass.getName(), listener.getClass().getName(), snapshot)));
+            }
+        }
+        return latencies.build();
+    }
+
+    // Swaps the parallel dispatcher for one matching the current settings;
+    // events already queued by the old one are dispatched before it stops,
+    // so they may interleave with events posted right after the swap.
+    private void restartParallelDispatcher() {
+        ParallelDispatcher old = parallelDispatcher;
+        parallelDispatcher = dispatchThreads > 0 ?
+                new ParallelDispatcher(dispatchThreads, queueCapacity) : null;
+        if (old != null) {
+            old.stop();
+        }
+        log.info("Event dispatch: threads={}, queueCapacity={}", dispatchThreads, queueCapacity);
+    }
+
     // Auxiliary event dispatching loop that feeds off the events queue.
     private class DispatchLoop implements Runnable {
         private final String name;
@@ -254,5 +362,226 @@ public class CoreEventDispatcher extends DefaultEventSinkRegistry
         }
     }
 
+    // Dispatcher giving every event class its own bounded queue, drained by a
+    // shared pool of threads. A queue is drained by one thread at a time, in
+    // batches, so that events of a class keep their order while a burst of
+    // one class cannot starve the others.
+    private class ParallelDispatcher {
+        private final int capacity;
+        private final ThreadPoolExecutor executor;
+        private final Map<Class<?>, Lane> lanes = Maps.newConcurrentMap();
+        private final TimerTask watchdog = new TimerTask() {
+            @Override
+            public void run() {
+                lanes.values().forEach(Lane::checkProcessTime);
+            }
+        };
+        private volatile boolean stopped;
+
+        ParallelDispatcher(int threads, int capacity) {
+            this.capacity = capacity;
+            executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                                              new LinkedBlockingQueue<>(),
+                                              groupedThreads("onos/event", "dispatch-parallel-%d", log));
+            SharedExecutors.getTimer().schedule(watchdog, WATCHDOG_MS, WATCHDOG_MS);
+        }
+
+        void post(Event event) {
+            Lane lane = lanes.get(event.getClass());
+            if (lane == null) {
+                lane = lanes.computeIfAbsent(event.getClass(), Lane::new);
+            }
+            lane.add(event);
+        }
 
+        // Lets the queued events be dispatched, then releases the threads.
+        void stop() {
+            stopped = true;
+            watchdog.cancel();
+            executor.shutdown();
+        }
+
+        // Adds threads to, or removes threads from, the pool.
+        private void resizePool(int delta) {
+            synchronized (executor) {
+                int size = executor.getCorePoolSize() + delta;
+                if (delta > 0) {
+                    executor.setMaximumPoolSize(size);
+                    executor.setCorePoolSize(size);
+                } else {
+                    executor.setCorePoolSize(size);
+                    executor.setMaximumPoolSize(size);
+                }
+            }
+        }
+
+        // Queue of the events of one class, with its dispatch state.
+        private final class Lane implements Runnable {
+            private final Class<?> eventClass;
+            private final Queue<Event> queue = new ConcurrentLinkedQueue<>();
+            // Free queue slots; events queued past the capacity are owed
+            private final Semaphore permits;
+            private final AtomicInteger owed = new AtomicInteger();
+            private final AtomicBoolean scheduled = new AtomicBoolean();
+
+            // Guarded by this lane; a stuck worker is replaced in the pool by
+            // a new thread, but keeps the lane until its sink returns.
+            private Thread worker;
+            private boolean stuck;
+            private volatile long startMillis;
+            private volatile EventSink lastSink;
+
+            Lane(Class<?> eventClass) {
+                this.eventClass = eventClass;
+                this.permits = new Semaphore(capacity);
+            }
+
+            void add(Event event) {
+                if (!acquire()) {
+                    owed.incrementAndGet();
+                    queueOverflows.incrementAndGet();
+                }
+                queue.add(event);
+                schedule();
+            }
+
+            // Takes a queue slot, holding back the poster for a while if
+            // there is none. The capacity is a soft limit: once the poster
+            // has been held back, or if it is a dispatch thread which may be
+            // the one to free the slots, the event is queued past capacity
+            // and counted as an overflow rather than dropped.
+            private boolean acquire() {
+                if (permits.tryAcquire()) {
+                    return true;
+                } else if (DISPATCHING.get()) {
+                    return false;
+                }
+                try {
+                    if (permits.tryAcquire(POST_BLOCK_MS, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                    log.warn("Event queue for {} is full; queueing past capacity", eventClass.getName());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return false;
+            }
+
+            // Frees the queue slot of a dequeued event, settling debts first.
+            private void release() {
+                int debt;
+                do {
+                    debt = owed.get();
+                    if (debt == 0) {
+                        permits.release();
+                        return;
+                    }
+                } while (!owed.compareAndSet(debt, debt - 1));
+            }
+
+            private void schedule() {
+                if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                try {
+                    executor.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // Stopped; hand the leftovers over to the current dispatch
+                    scheduled.set(false);
+                    Event event;
+                    while ((event = queue.poll()) != null) {
+                        release();
+                        CoreEventDispatcher.this.post(event);
+                    }
+                }
+            }
+
+            @Override
+            public void run() {
+                synchronized (this) {
+                    worker = Thread.currentThread();
+                }
+                DISPATCHING.set(true);
+                boolean wasStuck;
+                try {
+                    for (int i = 0; i < LANE_BATCH || stopped; i++) {
+                        Event event = queue.poll();
+                        if (event == null) {
+                            break;
+                        }
+                        release();
+                        process(event);
+                        synchronized (this) {
+                            startMillis = 0;
+                            if (stuck) {
+                                break;
+                            }
+                        }
+                    }
+                } finally {
+                    DISPATCHING.set(false);
+                    synchronized (this) {
+                        wasStuck = stuck;
+                        stuck = false;
+                        worker = null;
+                        scheduled.set(false);
+                    }
+                }
+                if (wasStuck) {
+                    // Clear the interrupt used to unblock the sink and give
+                    // back the thread added in place of this one.
+                    Thread.interrupted();
+                    resizePool(-1);
+                }
+                schedule();
+            }
+
+            // Locate the sink for the event class and use it to process the event
+            @SuppressWarnings("unchecked")
+            private void process(Event event) {
+                EventSink sink = getSink(event.getClass());
+                if (sink == null) {
+                    log.warn("No sink registered for event class {}", event.getClass().getName());
+                    return;
+                }
+                lastSink = sink;
+                startMillis = System.currentTimeMillis();
+                try {
+                    sink.process(event);
+                } catch (Exception | Error e) {
+                    log.warn("Error encountered while dispatching event:", e);
+                }
+            }
+
+            // Notifies the sink if it exceeds the time limit, interrupts it
+            // and adds a new thread to the pool in place of the stuck one, so
+            // that other event classes keep being dispatched. The rest of the
+            // queue waits for the sink to return, so that the events of the
+            // class are never processed concurrently or out of order.
+            private void checkProcessTime() {
+                long limit = maxProcessMillis;
+                long start = startMillis;
+                if (limit == 0 || start == 0) {
+                    return;
+                }
+                long elapsedTimeMillis = System.currentTimeMillis() - start;
+                if (elapsedTimeMillis <= limit) {
+                    return;
+                }
+                synchronized (this) {
+                    if (worker == null || stuck || startMillis != start) {
+                        return;
+                    }
+                    log.warn("Event sink {} exceeded execution time limit: {} ms; " +
+                                     "spawning new dispatch thread",
+                             lastSink.getClass().getName(), elapsedTimeMillis);
+                    // Notify the sink that it has exceeded its time limit.
+                    lastSink.onProcessLimit();
+                    stuck = true;
+                    worker.interrupt();
+                }
+                resizePool(1);
+            }
+        }
+    }
 }
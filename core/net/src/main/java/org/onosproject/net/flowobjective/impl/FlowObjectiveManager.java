@@ -15,6 +15,7 @@
  */
 package org.onosproject.net.flowobjective.impl;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
@@ -191,23 +192,23 @@ public class FlowObjectiveManager implements FlowObjectiveService {
     }
 
     /**
-     * Task that passes the flow objective down to the driver. The task will
+     * Task that passes flow objectives down to the driver. The task will
      * make a few attempts to find the appropriate driver, then eventually give
      * up and report an error if no suitable driver could be found.
      */
     private class ObjectiveInstaller implements Runnable {
         private final DeviceId deviceId;
-        private final Objective objective;
+        private final List<Objective> objectives;
 
         private final int numAttempts;
 
         public ObjectiveInstaller(DeviceId deviceId, Objective objective) {
-            this(deviceId, objective, 1);
+            this(deviceId, ImmutableList.of(checkNotNull(objective)), 1);
         }
 
-        public ObjectiveInstaller(DeviceId deviceId, Objective objective, int attemps) {
+        public ObjectiveInstaller(DeviceId deviceId, List<Objective> objectives, int attemps) {
             this.deviceId = checkNotNull(deviceId);
-            this.objective = checkNotNull(objective);
+            this.objectives = checkNotNull(objectives);
             this.numAttempts = attemps;
         }
 
@@ -217,29 +218,38 @@ public class FlowObjectiveManager implements FlowObjectiveService {
                 Pipeliner pipeliner = getDevicePipeliner(deviceId);
 
                 if (pipeliner != null) {
-                    if (objective instanceof NextObjective) {
-                        nextToDevice.put(objective.id(), deviceId);
-                        pipeliner.next((NextObjective) objective);
-                    } else if (objective instanceof ForwardingObjective) {
-                        pipeliner.forward((ForwardingObjective) objective);
-                    } else {
-                        pipeliner.filter((FilteringObjective) objective);
-                    }
+                    objectives.forEach(objective -> install(pipeliner, objective));
                     //Attempts to check if pipeliner is null for retry attempts
                 } else if (numAttempts < INSTALL_RETRY_ATTEMPTS) {
                     Thread.sleep(INSTALL_RETRY_INTERVAL);
-                    executorService.execute(new ObjectiveInstaller(deviceId, objective, numAttempts + 1));
+                    executorService.execute(new ObjectiveInstaller(deviceId, objectives, numAttempts + 1));
                 } else {
                     // Otherwise we've tried a few times and failed, report an
                     // error back to the user.
-                    objective.context().ifPresent(
-                            c -> c.onError(objective, ObjectiveError.NOPIPELINER));
+                    objectives.forEach(objective -> objective.context().ifPresent(
+                            c -> c.onError(objective, ObjectiveError.NOPIPELINER)));
                 }
                 //Exception thrown
             } catch (Exception e) {
                 log.warn("Exception while installing flow objective", e);
             }
         }
+
+        private void install(Pipeliner pipeliner, Objective objective) {
+            try {
+                if (objective instanceof NextObjective) {
+                    nextToDevice.put(objective.id(), deviceId);
+                    pipeliner.next((NextObjective) objective);
+                } else if (objective instanceof ForwardingObjective) {
+                    pipeliner.forward((ForwardingObjective) objective);
+                } else {
+                    pipeliner.filter((FilteringObjective) objective);
+                }
+            } catch (Exception e) {
+                // keep going with the rest of a batch
+                log.warn("Exception while installing flow objective", e);
+            }
+        }
     }
 
     @Override
@@ -251,10 +261,7 @@ public class FlowObjectiveManager implements FlowObjectiveService {
     @Override
     public void forward(DeviceId deviceId, ForwardingObjective forwardingObjective) {
         checkPermission(FLOWRULE_WRITE);
-        if (forwardingObjective.nextId() == null ||
-                forwardingObjective.op() == Objective.Operation.REMOVE ||
-                flowObjectiveStore.getNextGroup(forwardingObjective.nextId()) != null ||
-                !queueFwdObjective(deviceId, forwardingObjective)) {
+        if (isReady(deviceId, forwardingObjective)) {
             // fast path
             executorService.execute(new ObjectiveInstaller(deviceId, forwardingObjective));
         }
@@ -263,14 +270,67 @@ public class FlowObjectiveManager implements FlowObjectiveService {
     @Override
     public void next(DeviceId deviceId, NextObjective nextObjective) {
         checkPermission(FLOWRULE_WRITE);
-        if (nextObjective.op() == Operation.ADD ||
-                flowObjectiveStore.getNextGroup(nextObjective.id()) != null ||
-                !queueNextObjective(deviceId, nextObjective)) {
+        if (isReady(deviceId, nextObjective)) {
             // either group exists or we are trying to create it - let it through
             executorService.execute(new ObjectiveInstaller(deviceId, nextObjective));
         }
     }
 
+    @Override
+    public void apply(DeviceId deviceId, List<? extends Objective> objectives) {
+        checkPermission(FLOWRULE_WRITE);
+        // objectives that need not wait for a next objective are installed
+        // together, in order, by a single task
+        List<Objective> ready = new ArrayList<>(objectives.size());
+        for (Objective objective : objectives) {
+            if (objective instanceof ForwardingObjective) {
+                if (isReady(deviceId, (ForwardingObjective) objective)) {
+                    ready.add(objective);
+                }
+            } else if (objective instanceof NextObjective) {
+                if (isReady(deviceId, (NextObjective) objective)) {
+                    ready.add(objective);
+                }
+            } else if (objective instanceof FilteringObjective) {
+                ready.add(objective);
+            } else {
+                throw new UnsupportedOperationException("Unsupported objective of type " + objective.getClass());
+            }
+        }
+        if (!ready.isEmpty()) {
+            executorService.execute(new ObjectiveInstaller(deviceId, ready, 1));
+        }
+    }
+
+    /**
+     * Returns whether the forwarding objective can be installed right away,
+     * queueing it otherwise until its next objective is installed.
+     *
+     * @param deviceId device identifier
+     * @param fwd forwarding objective
+     * @return true if the objective was not queued
+     */
+    private boolean isReady(DeviceId deviceId, ForwardingObjective fwd) {
+        return fwd.nextId() == null ||
+                fwd.op() == Objective.Operation.REMOVE ||
+                flowObjectiveStore.getNextGroup(fwd.nextId()) != null ||
+                !queueFwdObjective(deviceId, fwd);
+    }
+
+    /**
+     * Returns whether the next objective can be installed right away,
+     * queueing it otherwise until the initial creation of its group.
+     *
+     * @param deviceId device identifier
+     * @param next next objective
+     * @return true if the objective was not queued
+     */
+    private boolean isReady(DeviceId deviceId, NextObjective next) {
+        return next.op() == Operation.ADD ||
+                flowObjectiveStore.getNextGroup(next.id()) != null ||
+                !queueNextObjective(deviceId, next);
+    }
+
     @Override
     public int allocateNextId() {
         checkPermission(FLOWRULE_WRITE);
@@ -15,6 +15,7 @@
  */
 package org.onosproject.net.intent.impl;
 
+import com.google.common.collect.ImmutableList;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -70,12 +71,12 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Strings.isNullOrEmpty;
 import static java.util.concurrent.Executors.newFixedThreadPool;
-import static java.util.concurrent.Executors.newSingleThreadExecutor;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.net.intent.IntentState.*;
 import static org.onosproject.net.intent.constraint.PartialFailureConstraint.intentAllowsPartialFailure;
@@ -116,6 +117,12 @@ public class IntentManager
             label = "Number of worker threads")
     private int numThreads = DEFAULT_NUM_THREADS;
 
+    private static final int DEFAULT_NUM_BATCH_PARTITIONS = 1;
+    @Property(name = "numBatchPartitions",
+            intValue = DEFAULT_NUM_BATCH_PARTITIONS,
+            label = "Number of intent key partitions whose batches are processed concurrently")
+    private int numBatchPartitions = DEFAULT_NUM_BATCH_PARTITIONS;
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected CoreService coreService;
 
@@ -146,7 +153,7 @@ public class IntentManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     private NetworkConfigService networkConfigService;
 
-    private ExecutorService batchExecutor;
+    private volatile ExecutorService batchExecutor;
     private ExecutorService workerExecutor;
 
     private final CompilerRegistry compilerRegistry = new CompilerRegistry();
@@ -155,11 +162,11 @@ public class IntentManager
     private final IntentStoreDelegate delegate = new InternalStoreDelegate();
     private final IntentStoreDelegate testOnlyDelegate = new TestOnlyIntentStoreDelegate();
     private final TopologyChangeDelegate topoDelegate = new InternalTopoChangeDelegate();
-    private final IntentBatchDelegate batchDelegate = new InternalBatchDelegate();
     private InstallCoordinator installCoordinator;
     private IdGenerator idGenerator;
 
-    private final IntentAccumulator accumulator = new IntentAccumulator(batchDelegate);
+    private volatile List<InternalBatchDelegate> batchPartitions =
+            createBatchPartitions(DEFAULT_NUM_BATCH_PARTITIONS, CompletableFuture.completedFuture(null));
 
     @Activate
     public void activate() {
@@ -171,7 +178,7 @@ public class IntentManager
         }
         trackerService.setDelegate(topoDelegate);
         eventDispatcher.addSink(IntentEvent.class, listenerRegistry);
-        batchExecutor = newSingleThreadExecutor(groupedThreads("onos/intent", "batch", log));
+        batchExecutor = newFixedThreadPool(numBatchPartitions, groupedThreads("onos/intent", "batch-%d", log));
         workerExecutor = newFixedThreadPool(numThreads, groupedThreads("onos/intent", "worker-%d", log));
         idGenerator = coreService.getIdGenerator("intent-ids");
         Intent.unbindIdGenerator(idGenerator);
@@ -229,10 +236,50 @@ public class IntentManager
             }
             logConfig("Reconfigured number of worker threads");
         }
+
+        s = Tools.get(context.getProperties(), "numBatchPartitions");
+        int newNumBatchPartitions = isNullOrEmpty(s) ? numBatchPartitions : Integer.parseInt(s);
+        if (newNumBatchPartitions > 0 && newNumBatchPartitions != numBatchPartitions) {
+            numBatchPartitions = newNumBatchPartitions;
+            ExecutorService oldBatchExecutor = batchExecutor;
+            batchExecutor = newFixedThreadPool(numBatchPartitions,
+                                               groupedThreads("onos/intent", "batch-%d", log));
+            // A key may move to another partition, so the new partitions hold
+            // their batches back until those in flight in the old ones are done.
+            // Operations still accumulated by the old partitions are handed over.
+            CompletableFuture<Void> drained = new CompletableFuture<>();
+            List<InternalBatchDelegate> oldPartitions = batchPartitions;
+            batchPartitions = createBatchPartitions(numBatchPartitions, drained);
+            CompletableFuture.allOf(oldPartitions.stream()
+                                            .map(InternalBatchDelegate::retire)
+                                            .toArray(CompletableFuture[]::new))
+                    .whenComplete((r, e) -> drained.complete(null));
+            if (oldBatchExecutor != null) {
+                oldBatchExecutor.shutdown();
+            }
+            logConfig("Reconfigured number of batch partitions");
+        }
+    }
+
+    private List<InternalBatchDelegate> createBatchPartitions(int count, CompletableFuture<Void> previousBatches) {
+        ImmutableList.Builder<InternalBatchDelegate> partitions = ImmutableList.builder();
+        for (int i = 0; i < count; i++) {
+            partitions.add(new InternalBatchDelegate(previousBatches));
+        }
+        return partitions.build();
+    }
+
+    // Returns the batch partition of the intent key. Keys are spread using
+    // the same hashing as the work partition service, so all operations on
+    // a key go through one partition and are processed in order.
+    private InternalBatchDelegate batchPartition(Key key) {
+        List<InternalBatchDelegate> partitions = batchPartitions;
+        return partitions.get(Math.floorMod((int) key.hash(), partitions.size()));
     }
 
     private void logConfig(String prefix) {
-        log.info("{} with skipReleaseResourcesOnWithdrawal = {}", prefix, skipReleaseResourcesOnWithdrawal);
+        log.info("{} with skipReleaseResourcesOnWithdrawal = {}, numThreads = {}, numBatchPartitions = {}",
+                 prefix, skipReleaseResourcesOnWithdrawal, numThreads, numBatchPartitions);
     }
 
     @Override
@@ -393,7 +440,7 @@ public class IntentManager
 
         @Override
         public void process(IntentData data) {
-            accumulator.add(data);
+            batchPartition(data.key()).accumulator.add(data);
         }
 
         @Override
@@ -444,7 +491,7 @@ public class IntentManager
     private class TestOnlyIntentStoreDelegate implements IntentStoreDelegate {
         @Override
         public void process(IntentData data) {
-            accumulator.add(data);
+            batchPartition(data.key()).accumulator.add(data);
         }
 
         @Override
@@ -501,14 +548,39 @@ public class IntentManager
         }
     }
 
+    // Batch delegate of one partition of the intent keys; one batch per
+    // partition is in flight at a time, while partitions overlap.
     private class InternalBatchDelegate implements IntentBatchDelegate {
+        private final IntentAccumulator accumulator = new IntentAccumulator(this);
+        // batches of the partitions this one replaced that must complete first
+        private final CompletableFuture<Void> previousBatches;
+        private CompletableFuture<Void> lastBatch = CompletableFuture.completedFuture(null);
+        private boolean retired;
+
+        InternalBatchDelegate(CompletableFuture<Void> previousBatches) {
+            this.previousBatches = previousBatches;
+        }
+
+        // Stops running batches of this partition, returning the one in flight.
+        synchronized CompletableFuture<Void> retire() {
+            retired = true;
+            return lastBatch;
+        }
+
         @Override
-        public void execute(Collection<IntentData> operations) {
+        public synchronized void execute(Collection<IntentData> operations) {
+            if (retired) {
+                log.debug("Handing {} operation(s) over to the current partitions.", operations.size());
+                operations.forEach(data -> batchPartition(data.key()).accumulator.add(data));
+                accumulator.ready();
+                return;
+            }
             log.debug("Execute {} operation(s).", operations.size());
             log.trace("Execute operations: {}", operations);
 
-            // batchExecutor is single-threaded, so only one batch is in flight at a time
-            CompletableFuture.runAsync(() -> {
+            // the accumulator holds back the next batch of this partition until
+            // this one is done, so only one batch per partition is in flight
+            lastBatch = previousBatches.thenCompose(v -> runBatch(() -> {
                 // process intent until the phase reaches one of the final phases
                 List<CompletableFuture<IntentData>> futures = operations.stream()
                         .map(data -> {
@@ -544,7 +616,7 @@ public class IntentManager
                 store.batchWrite(Tools.allOf(futures).join().stream()
                                          .filter(Objects::nonNull)
                                          .collect(Collectors.toList()));
-            }, batchExecutor).exceptionally(e -> {
+            })).exceptionally(e -> {
                 log.error("Error submitting batches:", e);
                 // FIXME incomplete Intents should be cleaned up
                 //       (transition to FAILED, etc.)
@@ -558,6 +630,24 @@ public class IntentManager
         }
     }
 
+    // Runs a batch on the batch executor. A reconfiguration may shut the
+    // executor down while the batch is submitted, in which case the batch
+    // runs on the executor that replaced it; once deactivated, it fails.
+    private CompletableFuture<Void> runBatch(Runnable batch) {
+        ExecutorService executor = batchExecutor;
+        while (true) {
+            try {
+                return CompletableFuture.runAsync(batch, executor);
+            } catch (RejectedExecutionException e) {
+                ExecutorService current = batchExecutor;
+                if (current == executor) {
+                    return Tools.exceptionalFuture(e);
+                }
+                executor = current;
+            }
+        }
+    }
+
     private IntentProcessPhase createInitialPhase(IntentData data) {
         IntentData pending = store.getPendingData(data.key());
         if (pending == null || pending.version().isNewerThan(data.version())) {
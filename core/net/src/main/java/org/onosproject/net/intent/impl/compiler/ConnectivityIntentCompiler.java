@@ -86,6 +86,8 @@ public abstract class ConnectivityIntentCompiler<T extends ConnectivityIntent>
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ResourceService resourceService;
 
+    private final LinkWeigher unconstrainedWeigher = new ConstraintBasedLinkWeigher(null);
+
     /**
      * Returns an edge-weight capable of evaluating links on the basis of the
      * specified constraints.
@@ -94,6 +96,11 @@ public abstract class ConnectivityIntentCompiler<T extends ConnectivityIntent>
      * @return edge-weight function
      */
     protected LinkWeigher weigher(List<Constraint> constraints) {
+        // Share the weigher of unconstrained intents, so that their paths
+        // may be served from the topology path cache.
+        if (constraints == null || constraints.isEmpty()) {
+            return unconstrainedWeigher;
+        }
         return new ConstraintBasedLinkWeigher(constraints);
     }
 
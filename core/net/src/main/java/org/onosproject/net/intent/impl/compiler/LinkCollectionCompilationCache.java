@@ -0,0 +1,237 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.intent.impl.compiler;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import org.onlab.util.Identifier;
+import org.onosproject.net.ConnectPoint;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.intent.Key;
+import org.onosproject.net.intent.LinkCollectionIntent;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the per-device results of the last compilation of each link
+ * collection intent.
+ * <p>
+ * The rules of a device only depend on the intent attributes other than its
+ * links, and on the input ports, output ports and labels of that device. When
+ * an intent is recompiled, for example after a topology change, the rules of
+ * the devices whose inputs did not change are reused as they are, so only the
+ * devices touching changed links are recomputed. Since the reused rules are
+ * identical to the installed ones, the installer leaves them untouched.
+ *
+ * @param <T> the type of the flows representations
+ */
+final class LinkCollectionCompilationCache<T> {
+
+    private final Cache<Key, CompiledIntent<T>> compiledIntents;
+    private final AtomicLong reusedDevices = new AtomicLong();
+    private final AtomicLong computedDevices = new AtomicLong();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxIntents maximum number of intents whose results are retained
+     */
+    LinkCollectionCompilationCache(long maxIntents) {
+        compiledIntents = CacheBuilder.newBuilder().maximumSize(maxIntents).build();
+    }
+
+    /**
+     * Starts a compilation of the given intent.
+     *
+     * @param intent the intent to compile
+     * @return the compilation
+     */
+    Compilation compilation(LinkCollectionIntent intent) {
+        List<Object> signature = signature(intent);
+        CompiledIntent<T> previous = compiledIntents.getIfPresent(intent.key());
+        if (previous != null && !previous.signature.equals(signature)) {
+            previous = null;
+        }
+        return new Compilation(intent.key(), signature, previous);
+    }
+
+    /**
+     * Discards the results of the given intent.
+     *
+     * @param key intent key
+     */
+    void invalidate(Key key) {
+        compiledIntents.invalidate(key);
+    }
+
+    /**
+     * Discards the results of all intents.
+     */
+    void invalidateAll() {
+        compiledIntents.invalidateAll();
+    }
+
+    /**
+     * Returns the number of devices whose rules were reused so far.
+     *
+     * @return number of reused devices
+     */
+    long reusedDevices() {
+        return reusedDevices.get();
+    }
+
+    /**
+     * Returns the number of devices whose rules were computed so far.
+     *
+     * @return number of computed devices
+     */
+    long computedDevices() {
+        return computedDevices.get();
+    }
+
+    // Attributes of the intent, other than the links, and compiler settings
+    // that the rules of any device depend on.
+    private static List<Object> signature(LinkCollectionIntent intent) {
+        return Arrays.asList(intent.selector(),
+                             intent.treatment(),
+                             intent.constraints(),
+                             intent.priority(),
+                             intent.filteredIngressPoints(),
+                             intent.filteredEgressPoints(),
+                             intent.applyTreatmentOnEgress(),
+                             intent.links().isEmpty(),
+                             LinkCollectionCompiler.optimizeInstructions,
+                             LinkCollectionCompiler.copyTtl);
+    }
+
+    /**
+     * Compilation of one intent; collects the rules of every device and
+     * records them in the cache once complete.
+     */
+    final class Compilation {
+        private final Key key;
+        private final List<Object> signature;
+        private final CompiledIntent<T> previous;
+        private final ImmutableMap.Builder<DeviceId, CompiledDevice<T>> devices = ImmutableMap.builder();
+
+        private Compilation(Key key, List<Object> signature, CompiledIntent<T> previous) {
+            this.key = key;
+            this.signature = signature;
+            this.previous = previous;
+        }
+
+        /**
+         * Returns the rules of the given device, reusing the ones of the
+         * previous compilation if the device inputs are unchanged.
+         *
+         * @param deviceId the device
+         * @param inPorts  the input ports of the device
+         * @param outPorts the output ports of the device
+         * @param labels   the labels of the intent
+         * @param rules    supplier computing the rules of the device
+         * @return the rules of the device
+         */
+        List<T> rules(DeviceId deviceId,
+                      Set<PortNumber> inPorts,
+                      Set<PortNumber> outPorts,
+                      Map<ConnectPoint, Identifier<?>> labels,
+                      Supplier<List<T>> rules) {
+            Set<PortNumber> in = ImmutableSet.copyOf(inPorts);
+            Set<PortNumber> out = ImmutableSet.copyOf(outPorts);
+            Map<ConnectPoint, Identifier<?>> deviceLabels = deviceLabels(deviceId, in, out, labels);
+            CompiledDevice<T> device = previous == null ? null : previous.devices.get(deviceId);
+            if (device != null && device.hasInputs(in, out, deviceLabels)) {
+                reusedDevices.incrementAndGet();
+            } else {
+                computedDevices.incrementAndGet();
+                device = new CompiledDevice<>(in, out, deviceLabels, ImmutableList.copyOf(rules.get()));
+            }
+            devices.put(deviceId, device);
+            return device.rules;
+        }
+
+        /**
+         * Records the results of this compilation, replacing the previous ones.
+         */
+        void complete() {
+            compiledIntents.put(key, new CompiledIntent<>(signature, devices.build()));
+        }
+    }
+
+    // Labels of the connect points of the device, the only ones its rules use.
+    private static Map<ConnectPoint, Identifier<?>> deviceLabels(DeviceId deviceId,
+                                                                 Set<PortNumber> inPorts,
+                                                                 Set<PortNumber> outPorts,
+                                                                 Map<ConnectPoint, Identifier<?>> labels) {
+        if (labels.isEmpty()) {
+            return ImmutableMap.of();
+        }
+        ImmutableMap.Builder<ConnectPoint, Identifier<?>> deviceLabels = ImmutableMap.builder();
+        Sets.union(inPorts, outPorts).forEach(port -> {
+            ConnectPoint cp = new ConnectPoint(deviceId, port);
+            Identifier<?> label = labels.get(cp);
+            if (label != null) {
+                deviceLabels.put(cp, label);
+            }
+        });
+        return deviceLabels.build();
+    }
+
+    private static final class CompiledIntent<T> {
+        private final List<Object> signature;
+        private final Map<DeviceId, CompiledDevice<T>> devices;
+
+        private CompiledIntent(List<Object> signature, Map<DeviceId, CompiledDevice<T>> devices) {
+            this.signature = signature;
+            this.devices = devices;
+        }
+    }
+
+    private static final class CompiledDevice<T> {
+        private final Set<PortNumber> inPorts;
+        private final Set<PortNumber> outPorts;
+        private final Map<ConnectPoint, Identifier<?>> labels;
+        private final List<T> rules;
+
+        private CompiledDevice(Set<PortNumber> inPorts,
+                               Set<PortNumber> outPorts,
+                               Map<ConnectPoint, Identifier<?>> labels,
+                               List<T> rules) {
+            this.inPorts = inPorts;
+            this.outPorts = outPorts;
+            this.labels = labels;
+            this.rules = rules;
+        }
+
+        private boolean hasInputs(Set<PortNumber> inPorts,
+                                  Set<PortNumber> outPorts,
+                                  Map<ConnectPoint, Identifier<?>> labels) {
+            return this.inPorts.equals(inPorts) &&
+                    this.outPorts.equals(outPorts) &&
+                    this.labels.equals(labels);
+        }
+    }
+}
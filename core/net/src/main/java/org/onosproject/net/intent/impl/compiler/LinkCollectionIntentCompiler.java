@@ -43,6 +43,9 @@ import org.onosproject.net.intent.FlowRuleIntent;
 import org.onosproject.net.intent.Intent;
 import org.onosproject.net.intent.IntentCompilationException;
 import org.onosproject.net.intent.IntentCompiler;
+import org.onosproject.net.intent.IntentEvent;
+import org.onosproject.net.intent.IntentListener;
+import org.onosproject.net.intent.IntentService;
 import org.onosproject.net.intent.LinkCollectionIntent;
 import org.onosproject.net.intent.PathIntent;
 import org.onosproject.net.intent.constraint.EncapsulationConstraint;
@@ -69,6 +72,7 @@ public class LinkCollectionIntentCompiler
     private static final String UNKNOWN_INSTRUCTION = "Unknown instruction type";
     private static final String UNSUPPORTED_INSTRUCTION = "Unsupported %s instruction";
 
+    private static final long MAX_CACHED_INTENTS = 10000;
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected IntentConfigurableRegistrator registrator;
@@ -82,12 +86,23 @@ public class LinkCollectionIntentCompiler
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected DomainService domainService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected IntentService intentService;
+
     private ApplicationId appId;
 
+    private final IntentListener intentListener = new InternalIntentListener();
+
+    // results of previous compilations, so that a recompilation only
+    // recomputes the rules of the devices whose ports or labels changed
+    final LinkCollectionCompilationCache<FlowRule> compilationCache =
+            new LinkCollectionCompilationCache<>(MAX_CACHED_INTENTS);
+
     @Activate
     public void activate() {
         appId = coreService.registerApplication("org.onosproject.net.intent");
         registrator.registerCompiler(LinkCollectionIntent.class, this, false);
+        intentService.addListener(intentListener);
         if (labelAllocator == null) {
             labelAllocator = new LabelAllocator(resourceService);
         }
@@ -96,6 +111,8 @@ public class LinkCollectionIntentCompiler
     @Deactivate
     public void deactivate() {
         registrator.unregisterCompiler(LinkCollectionIntent.class, false);
+        intentService.removeListener(intentListener);
+        compilationCache.invalidateAll();
     }
 
     @Override
@@ -121,18 +138,24 @@ public class LinkCollectionIntentCompiler
         }
 
         List<FlowRule> rules = new ArrayList<>();
+        LinkCollectionCompilationCache<FlowRule>.Compilation compilation =
+                compilationCache.compilation(intent);
+        Map<ConnectPoint, Identifier<?>> intentLabels = labels;
         for (DeviceId deviceId : outputPorts.keySet()) {
             // add only flows that are not inside of a domain
             if (LOCAL.equals(domainService.getDomain(deviceId))) {
-                rules.addAll(createRules(
-                        intent,
+                Set<PortNumber> inPorts = inputPorts.get(deviceId);
+                Set<PortNumber> outPorts = outputPorts.get(deviceId);
+                rules.addAll(compilation.rules(
                         deviceId,
-                        inputPorts.get(deviceId),
-                        outputPorts.get(deviceId),
-                        labels)
+                        inPorts,
+                        outPorts,
+                        intentLabels,
+                        () -> createRules(intent, deviceId, inPorts, outPorts, intentLabels))
                 );
             }
         }
+        compilation.complete();
         // if any rules have been created
         if (!rules.isEmpty()) {
             intentList.add(new FlowRuleIntent(appId, intent.key(), rules,
@@ -391,4 +414,19 @@ public class LinkCollectionIntentCompiler
 
     }
 
+    /**
+     * Drops the cached results of withdrawn and purged intents, which would
+     * otherwise stay until evicted by other intents.
+     */
+    private class InternalIntentListener implements IntentListener {
+        @Override
+        public boolean isRelevant(IntentEvent event) {
+            return event.type() == IntentEvent.Type.WITHDRAWN || event.type() == IntentEvent.Type.PURGED;
+        }
+
+        @Override
+        public void event(IntentEvent event) {
+            compilationCache.invalidate(event.subject().key());
+        }
+    }
 }
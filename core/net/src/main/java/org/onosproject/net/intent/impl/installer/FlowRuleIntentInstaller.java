@@ -17,6 +17,7 @@
 package org.onosproject.net.intent.impl.installer;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -52,11 +53,13 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
@@ -194,23 +197,30 @@ public class FlowRuleIntentInstaller implements IntentInstaller<FlowRuleIntent>
         List<FlowRule> flowRuleToModify;
         List<FlowRule> dontTouch;
 
+        // Index the rules to uninstall by match conditions, so that the diff
+        // stays linear in the number of rules of large intents
+        Map<FlowRule, List<FlowRule>> uninstallByMatch = flowRulesToUninstall.stream()
+                .collect(Collectors.groupingBy(Function.identity()));
+
         // If both uninstall/install list contained equal (=match conditions are equal) FlowRules,
         // omit it from remove list, since it will/should be overwritten by install
         flowRuleToModify = flowRulesToInstall.stream()
-                .filter(flowRule -> flowRulesToUninstall.stream().anyMatch(flowRule::equals))
+                .filter(uninstallByMatch::containsKey)
                 .collect(Collectors.toList());
 
         // If both contained exactMatch-ing FlowRules, remove from both list,
         // since it will result in no-op.
-        dontTouch = flowRulesToInstall.stream()
-                .filter(flowRule -> flowRulesToUninstall.stream().anyMatch(flowRule::exactMatch))
+        dontTouch = flowRuleToModify.stream()
+                .filter(flowRule -> uninstallByMatch.get(flowRule).stream().anyMatch(flowRule::exactMatch))
                 .collect(Collectors.toList());
 
-        flowRulesToUninstall.removeAll(flowRuleToModify);
-        flowRulesToUninstall.removeAll(dontTouch);
-        flowRulesToInstall.removeAll(flowRuleToModify);
-        flowRulesToInstall.removeAll(dontTouch);
-        flowRuleToModify.removeAll(dontTouch);
+        Set<FlowRule> modifySet = Sets.newHashSet(flowRuleToModify);
+        Set<FlowRule> dontTouchSet = Sets.newHashSet(dontTouch);
+        flowRulesToUninstall.removeAll(modifySet);
+        flowRulesToUninstall.removeAll(dontTouchSet);
+        flowRulesToInstall.removeAll(modifySet);
+        flowRulesToInstall.removeAll(dontTouchSet);
+        flowRuleToModify.removeAll(dontTouchSet);
 
         if (flowRulesToInstall.isEmpty() && flowRulesToUninstall.isEmpty() && flowRuleToModify.isEmpty()) {
             // There is no flow rules to install/uninstall
@@ -29,6 +29,7 @@ import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
 import org.onlab.packet.Ethernet;
+import org.onlab.packet.EthernetView;
 import org.onlab.packet.ICMP6;
 import org.onlab.packet.IPv6;
 import org.onlab.packet.IpAddress;
@@ -453,6 +454,12 @@ public class NeighbourResolutionManager implements NeighbourResolutionService {
             }
 
             InboundPacket pkt = context.inPacket();
+            EthernetView view = pkt.view();
+            if (view != null && !isNeighbourMessage(view)) {
+                // not worth deserializing
+                return;
+            }
+
             Ethernet ethPkt = pkt.parsed();
             if (ethPkt == null) {
                 return;
@@ -473,5 +480,14 @@ public class NeighbourResolutionManager implements NeighbourResolutionService {
                 }
             }
         }
+
+        private boolean isNeighbourMessage(EthernetView view) {
+            if (view.etherType() == TYPE_ARP) {
+                return true;
+            }
+            int icmpType = view.icmpType();
+            return view.etherType() == TYPE_IPV6 &&
+                    (icmpType == (NEIGHBOR_SOLICITATION & 0xff) || icmpType == (NEIGHBOR_ADVERTISEMENT & 0xff));
+        }
     }
 }
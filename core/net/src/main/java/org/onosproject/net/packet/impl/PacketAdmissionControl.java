@@ -0,0 +1,279 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.net.packet.impl;
+
+import com.google.common.collect.ImmutableList;
+import org.onlab.packet.Ethernet;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.packet.InboundPacket;
+import org.onosproject.net.packet.PacketAdmissionInfo;
+import org.onosproject.net.packet.PacketContext;
+import org.slf4j.Logger;
+
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.onlab.util.Tools.groupedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Admission stage between the packet providers and the packet processors.
+ * <p>
+ * A received packet first has to obtain a token from the bucket of its
+ * ethertype on the ingress device, then from the bucket of the device; it is
+ * then queued on a bounded per-device queue. Worker threads serve the device
+ * queues round-robin, one packet per turn, so a device flooding the controller
+ * only gets its share of the processing capacity. A device queue is served by
+ * a single worker at a time, which keeps the packets of a device in order.
+ */
+final class PacketAdmissionControl {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final int ETHERTYPE_OFFSET = 12;
+    private static final int VLAN_TAG_LENGTH = 4;
+    private static final int UNKNOWN_ETHERTYPE = -1;
+
+    private final Logger log = getLogger(getClass());
+
+    private final Consumer<PacketContext> processor;
+    private final int deviceRate;
+    private final int ethTypeRate;
+    private final int queueSize;
+
+    private final Map<DeviceId, DeviceQueue> devices = new ConcurrentHashMap<>();
+    private final BlockingQueue<DeviceQueue> ready = new LinkedBlockingQueue<>();
+    private final ExecutorService workers;
+    private volatile boolean closed;
+
+    /**
+     * Creates an admission stage and starts its workers.
+     *
+     * @param processor   runs the packet processors on an admitted packet
+     * @param threads     number of worker threads
+     * @param deviceRate  packets per second admitted per device; 0 for no limit
+     * @param ethTypeRate packets per second admitted per ethertype of a device; 0 for no limit
+     * @param queueSize   number of admitted packets a device queue holds
+     */
+    PacketAdmissionControl(Consumer<PacketContext> processor, int threads,
+                           int deviceRate, int ethTypeRate, int queueSize) {
+        this.processor = processor;
+        this.deviceRate = deviceRate;
+        this.ethTypeRate = ethTypeRate;
+        this.queueSize = queueSize;
+        this.workers = Executors.newFixedThreadPool(threads,
+                groupedThreads("onos/net/packet", "processor-%d", log));
+        for (int i = 0; i < threads; i++) {
+            workers.execute(this::serve);
+        }
+    }
+
+    /**
+     * Submits a received packet for processing.
+     *
+     * @param context packet context
+     * @return true if the packet was admitted; false if it was dropped
+     */
+    boolean submit(PacketContext context) {
+        if (closed) {
+            return false;
+        }
+        DeviceId deviceId = context.inPacket().receivedFrom().deviceId();
+        DeviceQueue queue = devices.computeIfAbsent(deviceId, DeviceQueue::new);
+        // a token is only spent on a packet that is admitted
+        TokenBucket ethTypeBucket = queue.ethTypeBucket(ethType(context.inPacket()));
+        if (!ethTypeBucket.tryAcquire()) {
+            queue.ethTypeRateDropped.incrementAndGet();
+            return false;
+        }
+        if (!queue.bucket.tryAcquire()) {
+            ethTypeBucket.refund();
+            queue.deviceRateDropped.incrementAndGet();
+            return false;
+        }
+        if (!queue.packets.offer(context)) {
+            ethTypeBucket.refund();
+            queue.bucket.refund();
+            queue.queueDropped.incrementAndGet();
+            return false;
+        }
+        queue.admitted.incrementAndGet();
+        queue.schedule();
+        return true;
+    }
+
+    /**
+     * Returns the admission statistics of every device a packet was received from.
+     *
+     * @return list of admission statistics, ordered by device
+     */
+    List<PacketAdmissionInfo> admissionInfo() {
+        return devices.values().stream()
+                .sorted(Comparator.comparing(queue -> queue.deviceId.toString()))
+                .map(DeviceQueue::info)
+                .collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Forgets the admission state and statistics of a removed device. Packets
+     * of the device still waiting in its queue are processed.
+     *
+     * @param deviceId device identifier
+     */
+    void removeDevice(DeviceId deviceId) {
+        devices.remove(deviceId);
+    }
+
+    /**
+     * Stops the workers. Packets still waiting in the device queues are discarded.
+     */
+    void shutdown() {
+        closed = true;
+        workers.shutdownNow();
+    }
+
+    private void serve() {
+        try {
+            while (!closed) {
+                DeviceQueue queue = ready.take();
+                PacketContext context = queue.packets.poll();
+                if (context != null) {
+                    try {
+                        processor.accept(context);
+                    } catch (Exception e) {
+                        log.warn("Unable to process packet from {}", queue.deviceId, e);
+                    }
+                }
+                queue.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Reads the ethertype, past any VLAN tags, without parsing the packet
+    private static int ethType(InboundPacket packet) {
+        ByteBuffer data = packet.unparsed();
+        if (data == null) {
+            Ethernet eth = packet.parsed();
+            return eth == null ? UNKNOWN_ETHERTYPE : eth.getEtherType() & 0xffff;
+        }
+        int offset = data.position() + ETHERTYPE_OFFSET;
+        while (offset + Short.BYTES <= data.limit()) {
+            int ethType = data.getShort(offset) & 0xffff;
+            if (ethType != (Ethernet.TYPE_VLAN & 0xffff) && ethType != (Ethernet.TYPE_QINQ & 0xffff)) {
+                return ethType;
+            }
+            offset += VLAN_TAG_LENGTH;
+        }
+        return UNKNOWN_ETHERTYPE;
+    }
+
+    /**
+     * Token bucket refilled continuously at a fixed rate, holding up to one
+     * second worth of tokens.
+     */
+    private static final class TokenBucket {
+        private final long rate;
+        private double tokens;
+        private long lastRefill = System.nanoTime();
+
+        private TokenBucket(long rate) {
+            this.rate = rate;
+            this.tokens = rate;
+        }
+
+        synchronized boolean tryAcquire() {
+            if (rate <= 0) {
+                return true;
+            }
+            long now = System.nanoTime();
+            tokens = Math.min(rate, tokens + (double) (now - lastRefill) * rate / NANOS_PER_SECOND);
+            lastRefill = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+
+        // Gives back a token taken for a packet that was dropped later on
+        synchronized void refund() {
+            if (rate > 0) {
+                tokens = Math.min(rate, tokens + 1);
+            }
+        }
+    }
+
+    /**
+     * Admission state and queue of the packets received from a device.
+     */
+    private final class DeviceQueue {
+        private final DeviceId deviceId;
+        private final TokenBucket bucket = new TokenBucket(deviceRate);
+        private final Map<Integer, TokenBucket> ethTypeBuckets = new ConcurrentHashMap<>();
+        private final BlockingQueue<PacketContext> packets = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicLong admitted = new AtomicLong();
+        private final AtomicLong deviceRateDropped = new AtomicLong();
+        private final AtomicLong ethTypeRateDropped = new AtomicLong();
+        private final AtomicLong queueDropped = new AtomicLong();
+
+        private DeviceQueue(DeviceId deviceId) {
+            this.deviceId = deviceId;
+        }
+
+        private TokenBucket ethTypeBucket(int ethType) {
+            return ethTypeBuckets.computeIfAbsent(ethType, type -> new TokenBucket(ethTypeRate));
+        }
+
+        // Puts the queue in the ready list unless it is there or being served
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                ready.add(this);
+            }
+        }
+
+        // Called by the worker done with its turn; goes back to the end of the ready list
+        private void release() {
+            if (!packets.isEmpty()) {
+                ready.add(this);
+                return;
+            }
+            scheduled.set(false);
+            // a packet may have been queued after the emptiness check
+            if (!packets.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private PacketAdmissionInfo info() {
+            return new PacketAdmissionInfo(deviceId, admitted.get(), deviceRateDropped.get(),
+                                           ethTypeRateDropped.get(), queueDropped.get(), packets.size());
+        }
+    }
+}
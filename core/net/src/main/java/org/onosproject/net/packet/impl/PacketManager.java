@@ -20,9 +20,13 @@ import com.google.common.collect.Lists;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
+import org.apache.felix.scr.annotations.Modified;
+import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.util.Tools;
+import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.cluster.ClusterService;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.core.ApplicationId;
@@ -45,6 +49,7 @@ import org.onosproject.net.flowobjective.ObjectiveContext;
 import org.onosproject.net.flowobjective.ObjectiveError;
 import org.onosproject.net.packet.DefaultPacketRequest;
 import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketAdmissionInfo;
 import org.onosproject.net.packet.PacketContext;
 import org.onosproject.net.packet.PacketEvent;
 import org.onosproject.net.packet.PacketPriority;
@@ -59,14 +64,18 @@ import org.onosproject.net.packet.PacketStore;
 import org.onosproject.net.packet.PacketStoreDelegate;
 import org.onosproject.net.provider.AbstractProviderRegistry;
 import org.onosproject.net.provider.AbstractProviderService;
+import org.osgi.service.component.ComponentContext;
 import org.slf4j.Logger;
 
+import java.util.Dictionary;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Strings.isNullOrEmpty;
+import static org.onlab.util.Tools.get;
 import static org.onlab.util.Tools.groupedThreads;
 import static org.onosproject.security.AppGuard.checkPermission;
 import static org.onosproject.security.AppPermission.Type.PACKET_EVENT;
@@ -111,8 +120,37 @@ public class PacketManager
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected FlowObjectiveService objectiveService;
 
+    @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
+    protected ComponentConfigService cfgService;
+
+    @Property(name = "admissionControl", boolValue = false,
+            label = "Rate limit and fair-queue received packets before handing them to the processors")
+    private boolean admissionControl = false;
+
+    private static final int DEFAULT_DEVICE_PACKET_RATE = 2000;
+    @Property(name = "devicePacketRate", intValue = DEFAULT_DEVICE_PACKET_RATE,
+            label = "Packets per second admitted from a device; 0 for no limit")
+    private int devicePacketRate = DEFAULT_DEVICE_PACKET_RATE;
+
+    private static final int DEFAULT_ETHTYPE_PACKET_RATE = 1000;
+    @Property(name = "ethTypePacketRate", intValue = DEFAULT_ETHTYPE_PACKET_RATE,
+            label = "Packets per second admitted for an ethertype from a device; 0 for no limit")
+    private int ethTypePacketRate = DEFAULT_ETHTYPE_PACKET_RATE;
+
+    private static final int DEFAULT_DEVICE_QUEUE_SIZE = 1000;
+    @Property(name = "deviceQueueSize", intValue = DEFAULT_DEVICE_QUEUE_SIZE,
+            label = "Number of admitted packets queued per device before dropping")
+    private int deviceQueueSize = DEFAULT_DEVICE_QUEUE_SIZE;
+
+    private static final int DEFAULT_PROCESSING_THREADS = 4;
+    @Property(name = "packetProcessingThreads", intValue = DEFAULT_PROCESSING_THREADS,
+            label = "Number of threads running the processors on admitted packets")
+    private int packetProcessingThreads = DEFAULT_PROCESSING_THREADS;
+
     private ExecutorService eventHandlingExecutor;
 
+    private volatile PacketAdmissionControl admission;
+
     private final DeviceListener deviceListener = new InternalDeviceListener();
 
     private final List<ProcessorEntry> processors = Lists.newCopyOnWriteArrayList();
@@ -123,7 +161,9 @@ public class PacketManager
     private NodeId localNodeId;
 
     @Activate
-    public void activate() {
+    public void activate(ComponentContext context) {
+        cfgService.registerProperties(getClass());
+        modified(context);
         eventHandlingExecutor = Executors.newSingleThreadExecutor(
                 groupedThreads("onos/net/packet", "event-handler", log));
         localNodeId = clusterService.getLocalNode().id();
@@ -139,10 +179,63 @@ public class PacketManager
     public void deactivate() {
         store.unsetDelegate(delegate);
         deviceService.removeListener(deviceListener);
+        cfgService.unregisterProperties(getClass(), false);
         eventHandlingExecutor.shutdown();
+        if (admission != null) {
+            admission.shutdown();
+            admission = null;
+        }
         log.info("Stopped");
     }
 
+    @Modified
+    public void modified(ComponentContext context) {
+        if (context != null) {
+            readComponentConfiguration(context);
+        }
+        PacketAdmissionControl previous = admission;
+        admission = admissionControl
+                ? new PacketAdmissionControl(this::processPacket, packetProcessingThreads,
+                                             devicePacketRate, ethTypePacketRate, deviceQueueSize)
+                : null;
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Extracts properties from the component configuration context.
+     *
+     * @param context the component context
+     */
+    private void readComponentConfiguration(ComponentContext context) {
+        Dictionary<?, ?> properties = context.getProperties();
+
+        Boolean flag = Tools.isPropertyEnabled(properties, "admissionControl");
+        if (flag != null) {
+            admissionControl = flag;
+        }
+        devicePacketRate = getIntProperty(properties, "devicePacketRate", DEFAULT_DEVICE_PACKET_RATE);
+        ethTypePacketRate = getIntProperty(properties, "ethTypePacketRate", DEFAULT_ETHTYPE_PACKET_RATE);
+        deviceQueueSize = Math.max(1, getIntProperty(properties, "deviceQueueSize",
+                                                     DEFAULT_DEVICE_QUEUE_SIZE));
+        packetProcessingThreads = Math.max(1, getIntProperty(properties, "packetProcessingThreads",
+                                                             DEFAULT_PROCESSING_THREADS));
+        log.info("Configured. Packet admission control is {}; devicePacketRate = {}, " +
+                         "ethTypePacketRate = {}, deviceQueueSize = {}, packetProcessingThreads = {}",
+                 admissionControl ? "enabled" : "disabled", devicePacketRate, ethTypePacketRate,
+                 deviceQueueSize, packetProcessingThreads);
+    }
+
+    private int getIntProperty(Dictionary<?, ?> properties, String name, int defaultValue) {
+        String s = get(properties, name);
+        try {
+            return isNullOrEmpty(s) ? defaultValue : Integer.parseInt(s.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
     @Override
     protected PacketProvider defaultProvider() {
         return defaultProvider;
@@ -184,6 +277,13 @@ public class PacketManager
         return ImmutableList.copyOf(processors);
     }
 
+    @Override
+    public List<PacketAdmissionInfo> getAdmissionInfo() {
+        checkPermission(PACKET_READ);
+        PacketAdmissionControl current = admission;
+        return current == null ? ImmutableList.of() : current.admissionInfo();
+    }
+
     @Override
     public void requestPackets(TrafficSelector selector, PacketPriority priority,
                                ApplicationId appId) {
@@ -369,6 +469,34 @@ public class PacketManager
         return new InternalPacketProviderService(provider);
     }
 
+    /**
+     * Runs the registered processors on a received packet, in priority order.
+     *
+     * @param context packet context
+     */
+    private void processPacket(PacketContext context) {
+        // TODO filter packets sent to processors based on registrations
+        for (ProcessorEntry entry : processors) {
+            try {
+                if (log.isTraceEnabled()) {
+                    log.trace("Starting packet processing by {}",
+                            entry.processor().getClass().getName());
+                }
+
+                long start = System.nanoTime();
+                entry.processor().process(context);
+                entry.addNanos(System.nanoTime() - start);
+
+                if (log.isTraceEnabled()) {
+                    log.trace("Finished packet processing by {}",
+                            entry.processor().getClass().getName());
+                }
+            } catch (Exception e) {
+                log.warn("Packet processor {} threw an exception", entry.processor(), e);
+            }
+        }
+    }
+
     /**
      * Personalized packet provider service issued to the supplied provider.
      */
@@ -382,25 +510,11 @@ public class PacketManager
 
         @Override
         public void processPacket(PacketContext context) {
-            // TODO filter packets sent to processors based on registrations
-            for (ProcessorEntry entry : processors) {
-                try {
-                    if (log.isTraceEnabled()) {
-                        log.trace("Starting packet processing by {}",
-                                entry.processor().getClass().getName());
-                    }
-
-                    long start = System.nanoTime();
-                    entry.processor().process(context);
-                    entry.addNanos(System.nanoTime() - start);
-
-                    if (log.isTraceEnabled()) {
-                        log.trace("Finished packet processing by {}",
-                                entry.processor().getClass().getName());
-                    }
-                } catch (Exception e) {
-                    log.warn("Packet processor {} threw an exception", entry.processor(), e);
-                }
+            PacketAdmissionControl current = admission;
+            if (current != null) {
+                current.submit(context);
+            } else {
+                PacketManager.this.processPacket(context);
             }
         }
 
@@ -455,11 +569,19 @@ public class PacketManager
         @Override
         public boolean isRelevant(DeviceEvent event) {
             return event.type() == DeviceEvent.Type.DEVICE_ADDED ||
-                    event.type() == DeviceEvent.Type.DEVICE_AVAILABILITY_CHANGED;
+                    event.type() == DeviceEvent.Type.DEVICE_AVAILABILITY_CHANGED ||
+                    event.type() == DeviceEvent.Type.DEVICE_REMOVED;
         }
 
         @Override
         public void event(DeviceEvent event) {
+            if (event.type() == DeviceEvent.Type.DEVICE_REMOVED) {
+                PacketAdmissionControl current = admission;
+                if (current != null) {
+                    current.removeDevice(event.subject().id());
+                }
+                return;
+            }
             eventHandlingExecutor.execute(() -> {
                 try {
                     if (driverService == null) {
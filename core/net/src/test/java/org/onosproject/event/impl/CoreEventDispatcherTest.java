@@ -21,8 +21,12 @@ import org.junit.Test;
 import org.onosproject.event.AbstractEvent;
 import org.onosproject.event.EventSink;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Uninterruptibles;
+
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -88,6 +92,122 @@ public class CoreEventDispatcherTest {
         assertTrue(takesTooLong.interrupted);
     }
 
+    @Test
+    public void parallelPost() throws Exception {
+        dispatcher.setDispatchThreads(2);
+        assertEquals("incorrect thread count", 2, dispatcher.getDispatchThreads());
+        prickleSink.latch = new CountDownLatch(1);
+        dispatcher.post(new Prickle("yo"));
+        assertTrue("event not dispatched", prickleSink.latch.await(1000, TimeUnit.MILLISECONDS));
+        validate(prickleSink, "yo");
+        validate(gooSink);
+    }
+
+    @Test
+    public void parallelPostKeepsOrder() throws Exception {
+        dispatcher.setDispatchThreads(4);
+        dispatcher.setDispatchQueueCapacity(10);
+        prickleSink.latch = new CountDownLatch(500);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            expected.add("p" + i);
+            dispatcher.post(new Prickle("p" + i));
+        }
+        assertTrue("events not dispatched", prickleSink.latch.await(5000, TimeUnit.MILLISECONDS));
+        validate(prickleSink, expected.toArray(new String[0]));
+    }
+
+    @Test
+    public void parallelSlowSinkDoesNotBlockOthers() throws Exception {
+        SinkProcessTakesTooLong takesTooLong = new SinkProcessTakesTooLong();
+        dispatcher.setDispatchTimeLimit(0);
+        dispatcher.setDispatchThreads(2);
+        dispatcher.addSink(TooLongEvent.class, takesTooLong);
+        takesTooLong.latch = new CountDownLatch(1);
+        dispatcher.post(new TooLongEvent("XYZZY"));
+
+        prickleSink.latch = new CountDownLatch(1);
+        dispatcher.post(new Prickle("yo"));
+        assertTrue("event not dispatched", prickleSink.latch.await(1000, TimeUnit.MILLISECONDS));
+        validate(prickleSink, "yo");
+        dispatcher.removeSink(TooLongEvent.class);
+    }
+
+    @Test
+    public void parallelSinkTakesTooLong() throws Exception {
+        SinkProcessTakesTooLong takesTooLong = new SinkProcessTakesTooLong();
+        dispatcher.setDispatchTimeLimit(250);
+        dispatcher.setDispatchThreads(1);
+        dispatcher.addSink(TooLongEvent.class, takesTooLong);
+        takesTooLong.latch = new CountDownLatch(1);
+        dispatcher.post(new TooLongEvent("XYZZY"));
+        takesTooLong.latch.await(1000, TimeUnit.MILLISECONDS);
+        assertTrue(takesTooLong.interrupted);
+
+        // the abandoned thread is available again
+        dispatcher.setDispatchTimeLimit(0);
+        dispatcher.removeSink(TooLongEvent.class);
+        prickleSink.latch = new CountDownLatch(1);
+        dispatcher.post(new Prickle("yo"));
+        assertTrue("event not dispatched", prickleSink.latch.await(1000, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void parallelStuckSinkIsReplaced() throws Exception {
+        SinkIgnoresInterrupts stuckSink = new SinkIgnoresInterrupts();
+        dispatcher.setDispatchTimeLimit(250);
+        dispatcher.setDispatchThreads(1);
+        dispatcher.addSink(TooLongEvent.class, stuckSink);
+        stuckSink.latch = new CountDownLatch(2);
+        dispatcher.post(new TooLongEvent("a"));
+        dispatcher.post(new TooLongEvent("b"));
+
+        // the stuck thread is replaced, so other event classes get through
+        prickleSink.latch = new CountDownLatch(1);
+        dispatcher.post(new Prickle("yo"));
+        assertTrue("event not dispatched", prickleSink.latch.await(2000, TimeUnit.MILLISECONDS));
+        assertEquals("stuck event class processed concurrently", ImmutableList.of("a"), stuckSink.subjects);
+
+        // the rest of the stuck queue follows once the sink returns
+        stuckSink.done.countDown();
+        assertTrue("event not dispatched", stuckSink.latch.await(1000, TimeUnit.MILLISECONDS));
+        assertEquals("incorrect events", ImmutableList.of("a", "b"), stuckSink.subjects);
+        assertTrue("stuck sink not interrupted", stuckSink.interrupted);
+        dispatcher.removeSink(TooLongEvent.class);
+    }
+
+    @Test
+    public void parallelQueueOverflow() throws Exception {
+        SinkIgnoresInterrupts stuckSink = new SinkIgnoresInterrupts();
+        dispatcher.setDispatchTimeLimit(0);
+        dispatcher.setDispatchThreads(1);
+        dispatcher.setDispatchQueueCapacity(1);
+        dispatcher.addSink(TooLongEvent.class, stuckSink);
+        stuckSink.latch = new CountDownLatch(3);
+        dispatcher.post(new TooLongEvent("a"));
+        dispatcher.post(new TooLongEvent("b"));
+        assertEquals("no overflow expected", 0, dispatcher.getDispatchQueueOverflows());
+
+        // the poster is held back, then the event is queued past capacity
+        dispatcher.post(new TooLongEvent("c"));
+        assertEquals("overflow not counted", 1, dispatcher.getDispatchQueueOverflows());
+
+        stuckSink.done.countDown();
+        assertTrue("events not dispatched", stuckSink.latch.await(1000, TimeUnit.MILLISECONDS));
+        assertEquals("incorrect events", ImmutableList.of("a", "b", "c"), stuckSink.subjects);
+        dispatcher.removeSink(TooLongEvent.class);
+    }
+
+    @Test
+    public void revertToDefaultDispatch() throws Exception {
+        dispatcher.setDispatchThreads(2);
+        dispatcher.setDispatchThreads(0);
+        prickleSink.latch = new CountDownLatch(1);
+        dispatcher.post(new Prickle("yo"));
+        assertTrue("event not dispatched", prickleSink.latch.await(1000, TimeUnit.MILLISECONDS));
+        validate(prickleSink, "yo");
+    }
+
     private void validate(Sink sink, String... strings) {
         int i = 0;
         assertEquals("incorrect event count", strings.length, sink.subjects.size());
@@ -162,4 +282,22 @@ public class CoreEventDispatcherTest {
         }
     }
 
+    // Blocks on the first event until released, ignoring interrupts.
+    private static class SinkIgnoresInterrupts implements EventSink<TooLongEvent> {
+        final List<String> subjects = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile boolean interrupted = false;
+        CountDownLatch latch;
+
+        @Override
+        public void process(TooLongEvent event) {
+            subjects.add(event.subject());
+            if (subjects.size() == 1) {
+                Uninterruptibles.awaitUninterruptibly(done);
+                interrupted = Thread.currentThread().isInterrupted();
+            }
+            latch.countDown();
+        }
+    }
+
 }
@@ -26,6 +26,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.onlab.osgi.ComponentContextAdapter;
 import org.onosproject.TestApplicationId;
 import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.cfg.ComponentConfigService;
@@ -59,6 +60,8 @@ import org.onosproject.store.trivial.SimpleIntentStore;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Dictionary;
+import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -421,6 +424,60 @@ public class IntentManagerTest {
         verifyState();
     }
 
+    /**
+     * Tests that intents spread over several batch partitions all get installed.
+     */
+    @Test
+    public void partitionedBatches() {
+        flowRuleService.setFuture(true);
+        manager.modified(new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                Hashtable<String, String> props = new Hashtable<>();
+                props.put("numBatchPartitions", "4");
+                return props;
+            }
+        });
+
+        int count = 100;
+        listener.setLatch(count, Type.INSTALLED);
+        for (int i = 0; i < count; i++) {
+            service.submit(new MockIntent(MockIntent.nextId()));
+        }
+        listener.await(Type.INSTALLED);
+        assertEquals((long) count, service.getIntentCount());
+        assertEquals((long) count, flowRuleService.getFlowRuleCount());
+        verifyState();
+    }
+
+    /**
+     * Tests that intents submitted while the batch partitions are being
+     * reconfigured all get installed.
+     */
+    @Test
+    public void reconfigureBatchPartitions() {
+        flowRuleService.setFuture(true);
+        int count = 100;
+        listener.setLatch(count, Type.INSTALLED);
+        for (int i = 0; i < count; i++) {
+            service.submit(new MockIntent(MockIntent.nextId()));
+            if (i % 25 == 0) {
+                String partitions = String.valueOf(2 + i / 25);
+                manager.modified(new ComponentContextAdapter() {
+                    @Override
+                    public Dictionary getProperties() {
+                        Hashtable<String, String> props = new Hashtable<>();
+                        props.put("numBatchPartitions", partitions);
+                        return props;
+                    }
+                });
+            }
+        }
+        listener.await(Type.INSTALLED);
+        assertEquals((long) count, service.getIntentCount());
+        assertEquals((long) count, flowRuleService.getFlowRuleCount());
+        verifyState();
+    }
 
     /**
      * Tests for proper behavior of installation of an intent that triggers
@@ -36,6 +36,7 @@ import org.onosproject.net.flow.criteria.VlanIdCriterion;
 import org.onosproject.net.intent.FlowRuleIntent;
 import org.onosproject.net.intent.Intent;
 import org.onosproject.net.intent.IntentExtensionService;
+import org.onosproject.net.intent.IntentServiceAdapter;
 import org.onosproject.net.intent.LinkCollectionIntent;
 import org.onosproject.net.resource.MockResourceService;
 
@@ -84,6 +85,7 @@ public class LinkCollectionEncapIntentCompilerTest extends AbstractLinkCollectio
 
         sut.registrator = registrator;
         sut.resourceService = new MockResourceService();
+        sut.intentService = new IntentServiceAdapter();
 
         LinkCollectionCompiler.optimizeInstructions = false;
         LinkCollectionCompiler.copyTtl = false;
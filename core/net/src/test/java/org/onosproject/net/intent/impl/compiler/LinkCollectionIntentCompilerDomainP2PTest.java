@@ -31,6 +31,7 @@ import org.onosproject.net.intent.Constraint;
 import org.onosproject.net.intent.FlowRuleIntent;
 import org.onosproject.net.intent.Intent;
 import org.onosproject.net.intent.IntentExtensionService;
+import org.onosproject.net.intent.IntentServiceAdapter;
 import org.onosproject.net.intent.LinkCollectionIntent;
 import org.onosproject.net.intent.constraint.DomainConstraint;
 import org.onosproject.net.resource.MockResourceService;
@@ -85,6 +86,7 @@ public class LinkCollectionIntentCompilerDomainP2PTest extends AbstractLinkColle
 
         sut.registrator = registrator;
         sut.resourceService = new MockResourceService();
+        sut.intentService = new IntentServiceAdapter();
 
         LinkCollectionCompiler.optimizeInstructions = false;
         LinkCollectionCompiler.copyTtl = false;
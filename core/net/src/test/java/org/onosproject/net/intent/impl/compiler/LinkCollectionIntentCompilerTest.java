@@ -40,10 +40,14 @@ import org.onosproject.net.flow.criteria.PortCriterion;
 import org.onosproject.net.flow.criteria.VlanIdCriterion;
 import org.onosproject.net.intent.FlowRuleIntent;
 import org.onosproject.net.intent.Intent;
+import org.onosproject.net.intent.IntentEvent;
 import org.onosproject.net.intent.IntentExtensionService;
+import org.onosproject.net.intent.IntentListener;
+import org.onosproject.net.intent.IntentServiceAdapter;
 import org.onosproject.net.intent.LinkCollectionIntent;
 import org.onosproject.net.resource.MockResourceService;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -59,6 +63,7 @@ import static org.onlab.packet.EthType.EtherType.IPV4;
 import static org.onosproject.net.Link.Type.DIRECT;
 import static org.onosproject.net.NetTestTools.APP_ID;
 import static org.onosproject.net.NetTestTools.PID;
+import static org.onosproject.net.NetTestTools.link;
 import static org.onosproject.net.domain.DomainId.LOCAL;
 import static org.onosproject.net.flow.criteria.Criterion.Type.*;
 import static org.onosproject.net.flow.instructions.L2ModificationInstruction.ModEtherInstruction;
@@ -103,6 +108,7 @@ public class LinkCollectionIntentCompilerTest extends AbstractLinkCollectionTest
 
         sut.registrator = registrator;
         sut.resourceService = new MockResourceService();
+        sut.intentService = new IntentServiceAdapter();
 
         LinkCollectionCompiler.optimizeInstructions = false;
         LinkCollectionCompiler.copyTtl = false;
@@ -170,6 +176,98 @@ public class LinkCollectionIntentCompilerTest extends AbstractLinkCollectionTest
         sut.deactivate();
     }
 
+    /**
+     * Recompilation after a link change. Scenario is the follow:
+     *
+     * -1 of1 2-1 of2 2-1 of3 2-   becomes   -1 of1 2-1 of2 3-1 of3 2-
+     *
+     * We test that only the rules of the device whose ports changed are
+     * recomputed, and that the result matches a full compilation.
+     */
+    @Test
+    public void testRecompileAfterLinkChange() {
+        sut.activate();
+
+        LinkCollectionIntent before = LinkCollectionIntent.builder()
+                .appId(APP_ID)
+                .selector(selector)
+                .treatment(treatment)
+                .links(ImmutableSet.of(link(of1p2, of2p1), link(of2p2, of3p1)))
+                .ingressPoints(ImmutableSet.of(of1p1))
+                .egressPoints(ImmutableSet.of(of3p2))
+                .build();
+        LinkCollectionIntent after = LinkCollectionIntent.builder()
+                .appId(APP_ID)
+                .key(before.key())
+                .selector(selector)
+                .treatment(treatment)
+                .links(ImmutableSet.of(link(of1p2, of2p1), link(of2p3, of3p1)))
+                .ingressPoints(ImmutableSet.of(of1p1))
+                .egressPoints(ImmutableSet.of(of3p2))
+                .build();
+        LinkCollectionIntent reference = LinkCollectionIntent.builder()
+                .appId(APP_ID)
+                .selector(selector)
+                .treatment(treatment)
+                .links(after.links())
+                .ingressPoints(ImmutableSet.of(of1p1))
+                .egressPoints(ImmutableSet.of(of3p2))
+                .build();
+
+        Collection<FlowRule> beforeRules =
+                ((FlowRuleIntent) sut.compile(before, Collections.emptyList()).get(0)).flowRules();
+        assertThat(sut.compilationCache.computedDevices(), is(3L));
+
+        List<Intent> installable = sut.compile(after, Collections.emptyList());
+        Collection<FlowRule> afterRules = ((FlowRuleIntent) installable.get(0)).flowRules();
+        assertThat(sut.compilationCache.computedDevices(), is(4L));
+        assertThat(sut.compilationCache.reusedDevices(), is(2L));
+
+        // unchanged devices keep the very same rules
+        assertThat(getFlowRulesByDevice(of1Id, afterRules).get(0),
+                   sameInstance(getFlowRulesByDevice(of1Id, beforeRules).get(0)));
+        assertThat(getFlowRulesByDevice(of3Id, afterRules).get(0),
+                   sameInstance(getFlowRulesByDevice(of3Id, beforeRules).get(0)));
+        assertThat(getFlowRulesByDevice(of2Id, afterRules).get(0).treatment(),
+                   is(DefaultTrafficTreatment.builder().setOutput(of2p3.port()).build()));
+
+        Collection<FlowRule> referenceRules =
+                ((FlowRuleIntent) sut.compile(reference, Collections.emptyList()).get(0)).flowRules();
+        assertThat(afterRules, hasSize(referenceRules.size()));
+        afterRules.forEach(rule -> assertThat(referenceRules.stream().anyMatch(rule::exactMatch), is(true)));
+
+        sut.deactivate();
+    }
+
+    /**
+     * We test that the results of a withdrawn intent are not reused once
+     * it is submitted again.
+     */
+    @Test
+    public void testWithdrawnIntentEvicted() {
+        List<IntentListener> listeners = new ArrayList<>();
+        sut.intentService = new IntentServiceAdapter() {
+            @Override
+            public void addListener(IntentListener listener) {
+                listeners.add(listener);
+            }
+        };
+        sut.activate();
+
+        sut.compile(intent, Collections.emptyList());
+        sut.compile(intent, Collections.emptyList());
+        assertThat(sut.compilationCache.reusedDevices(), is(3L));
+
+        IntentEvent withdrawn = new IntentEvent(IntentEvent.Type.WITHDRAWN, intent);
+        listeners.stream().filter(listener -> listener.isRelevant(withdrawn))
+                .forEach(listener -> listener.event(withdrawn));
+        sut.compile(intent, Collections.emptyList());
+        assertThat(sut.compilationCache.reusedDevices(), is(3L));
+        assertThat(sut.compilationCache.computedDevices(), is(6L));
+
+        sut.deactivate();
+    }
+
     /**
      * Single point to multi point case. Scenario is the follow:
      *
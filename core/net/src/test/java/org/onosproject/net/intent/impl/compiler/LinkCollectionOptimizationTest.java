@@ -35,6 +35,7 @@ import org.onosproject.net.flow.criteria.VlanIdCriterion;
 import org.onosproject.net.intent.FlowRuleIntent;
 import org.onosproject.net.intent.Intent;
 import org.onosproject.net.intent.IntentExtensionService;
+import org.onosproject.net.intent.IntentServiceAdapter;
 import org.onosproject.net.intent.LinkCollectionIntent;
 import org.onosproject.net.resource.MockResourceService;
 
@@ -85,6 +86,7 @@ public class LinkCollectionOptimizationTest extends AbstractLinkCollectionTest {
 
         sut.registrator = registrator;
         sut.resourceService = new MockResourceService();
+        sut.intentService = new IntentServiceAdapter();
 
         /*
          * We activate the optimizations.
@@ -18,18 +18,26 @@ package org.onosproject.net.packet.impl;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.onlab.osgi.ComponentContextAdapter;
+import org.onlab.packet.Ethernet;
+import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.cluster.ClusterServiceAdapter;
 import org.onosproject.common.event.impl.TestEventDispatcher;
 import org.onosproject.core.CoreServiceAdapter;
 import org.onosproject.core.IdGenerator;
 import org.onosproject.event.TestListener;
 import org.onosproject.net.AnnotationKeys;
+import org.onosproject.net.ConnectPoint;
 import org.onosproject.net.DefaultAnnotations;
 import org.onosproject.net.DefaultDevice;
 import org.onosproject.net.Device;
 import org.onosproject.net.DeviceId;
+import org.onosproject.net.PortNumber;
+import org.onosproject.net.device.DeviceEvent;
+import org.onosproject.net.device.DeviceListener;
 import org.onosproject.net.device.DeviceServiceAdapter;
 import org.onosproject.net.driver.AbstractHandlerBehaviour;
 import org.onosproject.net.driver.DefaultDriver;
@@ -37,18 +45,31 @@ import org.onosproject.net.driver.DriverRegistry;
 import org.onosproject.net.driver.impl.DriverManager;
 import org.onosproject.net.driver.impl.DriverRegistryManager;
 import org.onosproject.net.flow.DefaultTrafficTreatment;
+import org.onosproject.net.packet.DefaultInboundPacket;
 import org.onosproject.net.packet.DefaultOutboundPacket;
+import org.onosproject.net.packet.DefaultPacketContext;
 import org.onosproject.net.packet.OutboundPacket;
+import org.onosproject.net.packet.PacketAdmissionInfo;
+import org.onosproject.net.packet.PacketContext;
 import org.onosproject.net.packet.PacketProgrammable;
+import org.onosproject.net.packet.PacketProvider;
 import org.onosproject.net.packet.PacketProviderRegistry;
+import org.onosproject.net.packet.PacketProviderService;
+import org.onosproject.net.provider.AbstractProvider;
 import org.onosproject.net.provider.ProviderId;
 import org.onosproject.net.provider.TestProvider;
 import org.onosproject.store.trivial.SimplePacketStore;
 
 import java.nio.ByteBuffer;
+import java.util.Dictionary;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.onlab.junit.TestTools.assertAfter;
 import static org.onosproject.net.NetTestTools.injectEventDispatcher;
 
 /**
@@ -84,8 +105,9 @@ public class PacketManagerTest {
         mgr.deviceService = new TestDeviceService();
         mgr.deviceService = new TestDeviceService();
         mgr.coreService = new TestCoreService();
+        mgr.cfgService = new ComponentConfigAdapter();
         providerRegistry = mgr;
-        mgr.activate();
+        mgr.activate(null);
 
         DriverRegistryManager driverRegistry = new DriverRegistryManager();
         driverService = new TestDriverManager(driverRegistry);
@@ -95,6 +117,11 @@ public class PacketManagerTest {
                                                    ImmutableMap.of()));
     }
 
+    @After
+    public void tearDown() {
+        mgr.deactivate();
+    }
+
     /**
      * Tests the correct usage of fallback driver provider for packets.
      */
@@ -106,7 +133,133 @@ public class PacketManagerTest {
         assertEquals("Packet not emitted correctly", packet, emittedPacket);
     }
 
+    /**
+     * Tests that packets above the device rate are dropped and that admitted
+     * packets are processed.
+     */
+    @Test
+    public void admissionDeviceRate() {
+        configureAdmission("10", "0");
+        AtomicInteger processed = new AtomicInteger();
+        mgr.addProcessor(context -> processed.incrementAndGet(), 1);
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+
+        for (int i = 0; i < 100; i++) {
+            providerService.processPacket(packetContext(FOO_DID, Ethernet.TYPE_IPV4));
+        }
+
+        List<PacketAdmissionInfo> infos = mgr.getAdmissionInfo();
+        assertEquals(1, infos.size());
+        PacketAdmissionInfo info = infos.get(0);
+        assertEquals(FOO_DID, info.deviceId());
+        assertEquals(100, info.admitted() + info.deviceRateDropped());
+        assertTrue("Too many packets admitted", info.admitted() < 20);
+        assertEquals(0, info.ethTypeRateDropped());
+        assertAfter(1000, () -> assertEquals(info.admitted(), processed.get()));
+    }
+
+    /**
+     * Tests that the ethertypes of a device are rate limited independently
+     * and that devices are accounted separately.
+     */
+    @Test
+    public void admissionEthTypeRate() {
+        configureAdmission("0", "5");
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+        DeviceId otherDevice = DeviceId.deviceId("foo:003");
+
+        for (int i = 0; i < 50; i++) {
+            providerService.processPacket(packetContext(FOO_DID, Ethernet.TYPE_ARP));
+            providerService.processPacket(packetContext(FOO_DID, Ethernet.TYPE_IPV4));
+            providerService.processPacket(packetContext(otherDevice, Ethernet.TYPE_ARP));
+        }
+
+        List<PacketAdmissionInfo> infos = mgr.getAdmissionInfo();
+        assertEquals(2, infos.size());
+        PacketAdmissionInfo foo = infos.get(0);
+        assertEquals(FOO_DID, foo.deviceId());
+        assertEquals(100, foo.admitted() + foo.ethTypeRateDropped());
+        assertTrue("Both ethertypes should be admitted", foo.admitted() >= 10 && foo.admitted() < 20);
+        PacketAdmissionInfo other = infos.get(1);
+        assertEquals(otherDevice, other.deviceId());
+        assertTrue("Other device should be admitted", other.admitted() >= 5 && other.admitted() < 10);
+        assertEquals(0, foo.deviceRateDropped() + other.deviceRateDropped());
+    }
+
+    /**
+     * Tests that the admission state of a removed device is dropped.
+     */
+    @Test
+    public void admissionDeviceRemoved() {
+        configureAdmission("10", "0");
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+        providerService.processPacket(packetContext(FOO_DID, Ethernet.TYPE_IPV4));
+        assertEquals(1, mgr.getAdmissionInfo().size());
+
+        ((TestDeviceService) mgr.deviceService).listener
+                .event(new DeviceEvent(DeviceEvent.Type.DEVICE_REMOVED, FOO_DEV));
+        assertTrue(mgr.getAdmissionInfo().isEmpty());
+    }
+
+    /**
+     * Tests that admission statistics are only reported when admission
+     * control is enabled.
+     */
+    @Test
+    public void admissionDisabled() {
+        AtomicInteger processed = new AtomicInteger();
+        mgr.addProcessor(context -> processed.incrementAndGet(), 1);
+        PacketProviderService providerService = providerRegistry.register(new TestPacketProvider());
+
+        providerService.processPacket(packetContext(FOO_DID, Ethernet.TYPE_IPV4));
+
+        assertEquals(1, processed.get());
+        assertTrue(mgr.getAdmissionInfo().isEmpty());
+    }
+
+    private void configureAdmission(String deviceRate, String ethTypeRate) {
+        mgr.modified(new ComponentContextAdapter() {
+            @Override
+            public Dictionary getProperties() {
+                Hashtable<String, String> props = new Hashtable<>();
+                props.put("admissionControl", "true");
+                props.put("devicePacketRate", deviceRate);
+                props.put("ethTypePacketRate", ethTypeRate);
+                return props;
+            }
+        });
+    }
+
+    private static PacketContext packetContext(DeviceId deviceId, short ethType) {
+        ByteBuffer data = ByteBuffer.allocate(64);
+        data.putShort(12, ethType);
+        DefaultInboundPacket inPacket =
+                new DefaultInboundPacket(new ConnectPoint(deviceId, PortNumber.portNumber(1)), null, data);
+        return new DefaultPacketContext(System.currentTimeMillis(), inPacket, null, false) {
+            @Override
+            public void send() {
+            }
+        };
+    }
+
+    private static class TestPacketProvider extends AbstractProvider implements PacketProvider {
+        TestPacketProvider() {
+            super(FOO_PID);
+        }
+
+        @Override
+        public void emit(OutboundPacket packet) {
+        }
+    }
+
     private static class TestDeviceService extends DeviceServiceAdapter {
+        DeviceListener listener;
+
+        @Override
+        public void addListener(DeviceListener listener) {
+            this.listener = listener;
+        }
+
         @Override
         public int getDeviceCount() {
             return 1;
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.io.FileUtils;
+import org.onlab.packet.IpAddress;
+import org.onosproject.cluster.ClusterEventListener;
+import org.onosproject.cluster.ClusterMetadata;
+import org.onosproject.cluster.ClusterMetadataEventListener;
+import org.onosproject.cluster.ClusterMetadataService;
+import org.onosproject.cluster.ClusterService;
+import org.onosproject.cluster.ControllerNode;
+import org.onosproject.cluster.DefaultControllerNode;
+import org.onosproject.cluster.DefaultPartition;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.cluster.Partition;
+import org.onosproject.cluster.PartitionId;
+import org.onosproject.core.HybridLogicalClockService;
+import org.onosproject.core.HybridLogicalTime;
+import org.onosproject.core.Version;
+import org.onosproject.store.cluster.messaging.Endpoint;
+import org.onosproject.store.cluster.messaging.impl.ClusterCommunicationManager;
+import org.onosproject.store.cluster.messaging.impl.NettyMessagingManager;
+import org.onosproject.store.primitives.impl.ActiveStoragePartition;
+import org.onosproject.store.primitives.impl.StoragePartition;
+import org.onosproject.store.primitives.impl.StoragePartitionClient;
+
+/**
+ * In-process cluster of nodes communicating over the loopback interface.
+ * <p>
+ * Every node runs its own Netty messaging service and cluster communicator,
+ * wired to static cluster membership. A Raft partition spanning all nodes can
+ * be opened on demand for benchmarking the consistent primitives.
+ */
+public final class BenchmarkCluster {
+
+    private static final String CLUSTER_NAME = "benchmark";
+    private static final String LOCALHOST = "127.0.0.1";
+    private static final Version VERSION = Version.version("1.0.0");
+    private static final long PARTITION_OPEN_TIMEOUT_SECONDS = 60;
+
+    private final List<Node> nodes;
+    private final File dataDirectory;
+    private final Set<ControllerNode> controllerNodes;
+    private List<StoragePartition> partitions = ImmutableList.of();
+
+    private BenchmarkCluster(List<Node> nodes, File dataDirectory) {
+        this.nodes = nodes;
+        this.dataDirectory = dataDirectory;
+        this.controllerNodes = nodes.stream().map(node -> node.controllerNode).collect(Collectors.toSet());
+    }
+
+    /**
+     * Starts a cluster of the given size on free loopback ports.
+     *
+     * @param size number of nodes
+     * @return started cluster
+     * @throws Exception if a node fails to start
+     */
+    public static BenchmarkCluster start(int size) throws Exception {
+        // the benchmarks measure the plain transport
+        System.setProperty("enableNettyTLS", Boolean.toString(false));
+
+        ImmutableList.Builder<ControllerNode> controllerNodes = ImmutableList.builder();
+        for (int i = 0; i < size; i++) {
+            controllerNodes.add(new DefaultControllerNode(
+                    NodeId.nodeId("node" + i), IpAddress.valueOf(LOCALHOST), freePort()));
+        }
+        List<ControllerNode> members = controllerNodes.build();
+        HybridLogicalClockService clockService = new BenchmarkClockService();
+
+        ImmutableList.Builder<Node> nodes = ImmutableList.builder();
+        for (ControllerNode member : members) {
+            nodes.add(new Node(member, members, clockService));
+        }
+        BenchmarkCluster cluster = new BenchmarkCluster(nodes.build(),
+                Files.createTempDirectory("onos-benchmark").toFile());
+        for (Node node : cluster.nodes) {
+            node.activate();
+        }
+        return cluster;
+    }
+
+    /**
+     * Opens a Raft partition replicated on every node of the cluster.
+     *
+     * @throws Exception if the partition fails to open in time
+     */
+    public void openPartition() throws Exception {
+        Partition partition = new DefaultPartition(PartitionId.from(1), VERSION,
+                nodes.stream().map(Node::id).collect(Collectors.toList()));
+        ImmutableList.Builder<StoragePartition> partitions = ImmutableList.builder();
+        for (Node node : nodes) {
+            partitions.add(new BenchmarkStoragePartition(partition, node,
+                    new File(dataDirectory, node.id().id())));
+        }
+        this.partitions = partitions.build();
+        CompletableFuture.allOf(this.partitions.stream()
+                .map(StoragePartition::open)
+                .toArray(CompletableFuture[]::new))
+                .get(PARTITION_OPEN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns the nodes of the cluster.
+     *
+     * @return cluster nodes
+     */
+    public List<Node> nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the given node of the cluster.
+     *
+     * @param index node index
+     * @return cluster node
+     */
+    public Node node(int index) {
+        return nodes.get(index);
+    }
+
+    /**
+     * Returns the client of the Raft partition on the given node.
+     *
+     * @param index node index
+     * @return partition client
+     */
+    public StoragePartitionClient partitionClient(int index) {
+        return partitions.get(index).client();
+    }
+
+    /**
+     * Stops every node of the cluster and deletes its data.
+     *
+     * @throws Exception if a node fails to stop
+     */
+    public void stop() throws Exception {
+        CompletableFuture.allOf(partitions.stream()
+                .map(StoragePartition::delete)
+                .toArray(CompletableFuture[]::new))
+                .get(PARTITION_OPEN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        for (Node node : nodes) {
+            node.deactivate();
+        }
+        FileUtils.deleteQuietly(dataDirectory);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /**
+     * Node of the benchmark cluster.
+     */
+    public static final class Node {
+        private final ControllerNode controllerNode;
+        private final Map<NodeId, ControllerNode> members;
+        private final BenchmarkMessagingManager messagingService;
+        private final BenchmarkCommunicationManager communicationService;
+        private final ClusterService clusterService;
+
+        private Node(ControllerNode controllerNode, List<ControllerNode> members,
+                     HybridLogicalClockService clockService) {
+            this.controllerNode = controllerNode;
+            this.members = members.stream().collect(ImmutableMap.toImmutableMap(ControllerNode::id, m -> m));
+            this.clusterService = new StaticClusterService();
+            this.messagingService = new BenchmarkMessagingManager(new StaticClusterMetadataService(), clockService);
+            this.communicationService = new BenchmarkCommunicationManager(clusterService, messagingService);
+        }
+
+        /**
+         * Returns the node identifier.
+         *
+         * @return node identifier
+         */
+        public NodeId id() {
+            return controllerNode.id();
+        }
+
+        /**
+         * Returns the endpoint the node accepts messages on.
+         *
+         * @return messaging endpoint
+         */
+        public Endpoint endpoint() {
+            return new Endpoint(controllerNode.ip(), controllerNode.tcpPort());
+        }
+
+        /**
+         * Returns the identifiers of the other nodes of the cluster.
+         *
+         * @return peer identifiers
+         */
+        public List<NodeId> peers() {
+            return members.keySet().stream()
+                    .filter(nodeId -> !nodeId.equals(id()))
+                    .collect(Collectors.toList());
+        }
+
+        /**
+         * Returns the messaging service of the node.
+         *
+         * @return messaging service
+         */
+        public NettyMessagingManager messagingService() {
+            return messagingService;
+        }
+
+        /**
+         * Returns the cluster communication service of the node.
+         *
+         * @return cluster communication service
+         */
+        public ClusterCommunicationManager communicationService() {
+            return communicationService;
+        }
+
+        /**
+         * Returns the cluster service of the node.
+         *
+         * @return cluster service
+         */
+        public ClusterService clusterService() {
+            return clusterService;
+        }
+
+        private void activate() throws Exception {
+            messagingService.activate();
+            communicationService.activate();
+        }
+
+        private void deactivate() throws Exception {
+            communicationService.deactivate();
+            messagingService.deactivate();
+        }
+
+        private final class StaticClusterService implements ClusterService {
+            @Override
+            public ControllerNode getLocalNode() {
+                return controllerNode;
+            }
+
+            @Override
+            public Set<ControllerNode> getNodes() {
+                return ImmutableSet.copyOf(members.values());
+            }
+
+            @Override
+            public ControllerNode getNode(NodeId nodeId) {
+                return members.get(nodeId);
+            }
+
+            @Override
+            public ControllerNode.State getState(NodeId nodeId) {
+                return members.containsKey(nodeId) ? ControllerNode.State.READY : null;
+            }
+
+            @Override
+            public Version getVersion(NodeId nodeId) {
+                return members.containsKey(nodeId) ? VERSION : null;
+            }
+
+            @Override
+            public void addListener(ClusterEventListener listener) {
+            }
+
+            @Override
+            public void removeListener(ClusterEventListener listener) {
+            }
+        }
+
+        private final class StaticClusterMetadataService implements ClusterMetadataService {
+            @Override
+            public ClusterMetadata getClusterMetadata() {
+                return new ClusterMetadata(CLUSTER_NAME, ImmutableSet.copyOf(members.values()), ImmutableSet.of());
+            }
+
+            @Override
+            public ControllerNode getLocalNode() {
+                return controllerNode;
+            }
+
+            @Override
+            public void addListener(ClusterMetadataEventListener listener) {
+            }
+
+            @Override
+            public void removeListener(ClusterMetadataEventListener listener) {
+            }
+        }
+    }
+
+    // Subclasses giving the benchmark access to the injected references
+
+    private static final class BenchmarkMessagingManager extends NettyMessagingManager {
+        private BenchmarkMessagingManager(ClusterMetadataService clusterMetadataService,
+                                          HybridLogicalClockService clockService) {
+            this.clusterMetadataService = clusterMetadataService;
+            this.clockService = clockService;
+        }
+    }
+
+    private static final class BenchmarkCommunicationManager extends ClusterCommunicationManager {
+        private BenchmarkCommunicationManager(ClusterService clusterService,
+                                              NettyMessagingManager messagingService) {
+            this.clusterService = clusterService;
+            this.messagingService = messagingService;
+        }
+    }
+
+    private static final class BenchmarkStoragePartition extends ActiveStoragePartition {
+        private final File dataFolder;
+
+        private BenchmarkStoragePartition(Partition partition, Node node, File dataFolder) {
+            super(partition, node.communicationService(), node.clusterService());
+            this.dataFolder = dataFolder;
+        }
+
+        @Override
+        public File getDataFolder() {
+            // nodes share the process, so each needs its own log directory
+            return dataFolder;
+        }
+    }
+
+    private static final class BenchmarkClockService implements HybridLogicalClockService {
+        private final AtomicLong logicalTime = new AtomicLong();
+
+        @Override
+        public HybridLogicalTime timeNow() {
+            return new HybridLogicalTime(logicalTime.incrementAndGet(), 0);
+        }
+
+        @Override
+        public void recordEventTime(HybridLogicalTime time) {
+            logicalTime.accumulateAndGet(time.logicalTime(), Math::max);
+        }
+    }
+}
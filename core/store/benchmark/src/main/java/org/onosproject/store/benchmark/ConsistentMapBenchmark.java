@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.Serializer;
+import org.onosproject.store.service.Versioned;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of a consistent map backed by a Raft partition replicated on a
+ * three node cluster.
+ * <p>
+ * Operations are issued by the client on node 0, which is not necessarily
+ * the partition leader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ConsistentMapBenchmark {
+
+    private static final String MAP_NAME = "benchmark-consistent-map";
+    private static final int CLUSTER_SIZE = 3;
+
+    @Param({"64", "1024", "16384"})
+    private int payloadSize;
+
+    @Param({"1000"})
+    private int keyCount;
+
+    private BenchmarkCluster cluster;
+    private AsyncConsistentMap<String, byte[]> map;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        cluster = BenchmarkCluster.start(CLUSTER_SIZE);
+        cluster.openPartition();
+        map = cluster.partitionClient(0).newAsyncConsistentMap(MAP_NAME, Serializer.using(KryoNamespaces.BASIC));
+        payload = new byte[payloadSize];
+        new Random(payloadSize).nextBytes(payload);
+
+        for (int i = 0; i < keyCount; i++) {
+            map.put(key(i), payload).join();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        map.destroy().join();
+        cluster.stop();
+    }
+
+    private static String key(int index) {
+        return "key" + index;
+    }
+
+    private String randomKey() {
+        return key(ThreadLocalRandom.current().nextInt(keyCount));
+    }
+
+    /**
+     * Writes an entry through the partition leader.
+     *
+     * @return previous value
+     */
+    @Benchmark
+    public Versioned<byte[]> put() {
+        return map.put(randomKey(), payload).join();
+    }
+
+    /**
+     * Reads and conditionally replaces an entry.
+     *
+     * @return new value
+     */
+    @Benchmark
+    public Versioned<byte[]> compute() {
+        return map.compute(randomKey(), (key, value) -> payload).join();
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.onosproject.store.primitives.impl.EventuallyConsistentMapBuilderImpl;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.EventuallyConsistentMap;
+import org.onosproject.store.service.WallClockTimestamp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Benchmarks of an eventually consistent map replicated on a three node cluster.
+ * <p>
+ * Updates are applied on node 0 and gossiped to the other nodes; reads are
+ * served by node 1 from its replica.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class EventuallyConsistentMapBenchmark {
+
+    private static final String MAP_NAME = "benchmark-ecmap";
+    private static final int CLUSTER_SIZE = 3;
+    private static final long REPLICATION_TIMEOUT_MILLIS = 30000;
+    private static final long REPLICATION_POLL_MILLIS = 100;
+
+    @Param({"64", "1024", "16384"})
+    private int payloadSize;
+
+    @Param({"1000"})
+    private int keyCount;
+
+    private BenchmarkCluster cluster;
+    private List<EventuallyConsistentMap<String, byte[]>> maps;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        cluster = BenchmarkCluster.start(CLUSTER_SIZE);
+        maps = cluster.nodes().stream()
+                .map(node -> new EventuallyConsistentMapBuilderImpl<String, byte[]>(
+                        node.id(), node.communicationService(), null, node::peers, node::peers)
+                        .withName(MAP_NAME)
+                        .withSerializer(KryoNamespaces.API)
+                        .withTimestampProvider((k, v) -> new WallClockTimestamp())
+                        .build())
+                .collect(Collectors.toList());
+        payload = new byte[payloadSize];
+        new Random(payloadSize).nextBytes(payload);
+
+        for (int i = 0; i < keyCount; i++) {
+            maps.get(0).put(key(i), payload);
+        }
+        awaitReplication(maps.get(1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        for (EventuallyConsistentMap<String, byte[]> map : maps) {
+            map.destroy();
+        }
+        cluster.stop();
+    }
+
+    private void awaitReplication(EventuallyConsistentMap<String, byte[]> replica) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + REPLICATION_TIMEOUT_MILLIS;
+        while (replica.size() < keyCount && System.currentTimeMillis() < deadline) {
+            Thread.sleep(REPLICATION_POLL_MILLIS);
+        }
+        checkState(replica.size() == keyCount, "Replica holds %s of %s entries", replica.size(), keyCount);
+    }
+
+    private static String key(int index) {
+        return "key" + index;
+    }
+
+    private String randomKey() {
+        return key(ThreadLocalRandom.current().nextInt(keyCount));
+    }
+
+    /**
+     * Updates an entry, which is then gossiped to the peers.
+     */
+    @Benchmark
+    public void put() {
+        maps.get(0).put(randomKey(), payload);
+    }
+
+    /**
+     * Reads an entry from a replica.
+     *
+     * @return entry value
+     */
+    @Benchmark
+    public byte[] get() {
+        return maps.get(1).get(randomKey());
+    }
+}
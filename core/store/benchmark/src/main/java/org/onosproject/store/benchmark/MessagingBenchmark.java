@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import org.onosproject.store.cluster.messaging.Endpoint;
+import org.onosproject.store.cluster.messaging.MessageSubject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request/reply benchmarks of the messaging service and cluster communicator.
+ * <p>
+ * Node 0 sends the payload to node 1, which echoes it back.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class MessagingBenchmark {
+
+    private static final String ECHO_TYPE = "benchmark-echo";
+    private static final MessageSubject ECHO_SUBJECT = new MessageSubject("benchmark-cluster-echo");
+
+    @Param({"64", "1024", "16384", "262144"})
+    private int payloadSize;
+
+    private BenchmarkCluster cluster;
+    private Endpoint target;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        cluster = BenchmarkCluster.start(2);
+        target = cluster.node(1).endpoint();
+        payload = new byte[payloadSize];
+        new Random(payloadSize).nextBytes(payload);
+
+        cluster.node(1).messagingService().registerHandler(ECHO_TYPE,
+                (BiFunction<Endpoint, byte[], byte[]>) (ep, bytes) -> bytes,
+                MoreExecutors.directExecutor());
+        cluster.node(1).communicationService().<byte[], byte[]>addSubscriber(ECHO_SUBJECT,
+                Function.identity(), Function.identity(), Function.identity(),
+                MoreExecutors.directExecutor());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        cluster.stop();
+    }
+
+    /**
+     * Sends a request directly through the Netty messaging service.
+     *
+     * @return reply payload
+     */
+    @Benchmark
+    public byte[] messagingSendAndReceive() {
+        return cluster.node(0).messagingService().sendAndReceive(target, ECHO_TYPE, payload).join();
+    }
+
+    /**
+     * Sends a request through the cluster communicator, including the
+     * cluster message framing.
+     *
+     * @return reply payload
+     */
+    @Benchmark
+    public byte[] clusterSendAndReceive() {
+        return cluster.node(0).communicationService().<byte[], byte[]>sendAndReceive(payload, ECHO_SUBJECT,
+                Function.identity(), Function.identity(), cluster.node(1).id()).join();
+    }
+}
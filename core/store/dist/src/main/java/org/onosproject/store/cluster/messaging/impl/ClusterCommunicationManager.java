@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.cluster.messaging.impl;
 
+import java.nio.ByteBuffer;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -43,6 +44,7 @@ import org.onosproject.store.cluster.messaging.ClusterMessageHandler;
 import org.onosproject.store.cluster.messaging.Endpoint;
 import org.onosproject.store.cluster.messaging.MessageSubject;
 import org.onosproject.store.cluster.messaging.MessagingService;
+import org.onosproject.store.service.Serializer;
 import org.onosproject.utils.MeteringAgent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -137,6 +139,28 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
         }
     }
 
+    @Override
+    public <M> CompletableFuture<Void> unicast(M message,
+                                               MessageSubject subject,
+                                               Serializer serializer,
+                                               NodeId toNodeId) {
+        checkPermission(CLUSTER_WRITE);
+        try {
+            return doUnicast(subject, buffer -> {
+                MeteringAgent.Context context = subjectMeteringAgent.startTimer(SERIALIZING);
+                try {
+                    ClusterMessage.encode(localNodeId, subject, message, serializer, buffer);
+                    context.stop(null);
+                } catch (RuntimeException e) {
+                    context.stop(e);
+                    throw e;
+                }
+            }, toNodeId);
+        } catch (Exception e) {
+            return Tools.exceptionalFuture(e);
+        }
+    }
+
     @Override
     public <M> void multicast(M message,
                               MessageSubject subject,
@@ -179,6 +203,16 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
         return messagingService.sendAsync(nodeEp, subject.toString(), payload).whenComplete((r, e) -> context.stop(e));
     }
 
+    private CompletableFuture<Void> doUnicast(MessageSubject subject, Consumer<ByteBuffer> payloadWriter,
+                                              NodeId toNodeId) {
+        ControllerNode node = clusterService.getNode(toNodeId);
+        checkArgument(node != null, "Unknown nodeId: %s", toNodeId);
+        Endpoint nodeEp = new Endpoint(node.ip(), node.tcpPort());
+        MeteringAgent.Context context = subjectMeteringAgent.startTimer(subject.toString() + ONE_WAY_SUFFIX);
+        return messagingService.sendAsync(nodeEp, subject.toString(), payloadWriter)
+                .whenComplete((r, e) -> context.stop(e));
+    }
+
     private CompletableFuture<byte[]> sendAndReceive(MessageSubject subject, byte[] payload, NodeId toNodeId) {
         ControllerNode node = clusterService.getNode(toNodeId);
         checkArgument(node != null, "Unknown nodeId: %s", toNodeId);
@@ -252,6 +286,17 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                 executor);
     }
 
+    @Override
+    public <M> void addSubscriber(MessageSubject subject,
+            Serializer serializer,
+            Consumer<M> handler,
+            Executor executor) {
+        checkPermission(CLUSTER_WRITE);
+        messagingService.registerBufferHandler(subject.toString(),
+                new InternalBufferConsumer<>(serializer, handler),
+                executor);
+    }
+
     /**
      * Performs the timed function, returning the value it would while timing the operation.
      *
@@ -337,4 +382,20 @@ public class ClusterCommunicationManager implements ClusterCommunicationService
                     apply(ClusterMessage.fromBytes(bytes).payload()));
         }
     }
+
+    private class InternalBufferConsumer<M> implements BiConsumer<Endpoint, ByteBuffer> {
+        private final Function<ByteBuffer, M> decoder;
+        private final Consumer<M> consumer;
+
+        public InternalBufferConsumer(Serializer serializer, Consumer<M> consumer) {
+            this.decoder = serializer::decode;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(Endpoint sender, ByteBuffer buffer) {
+            consumer.accept(timeFunction(decoder, subjectMeteringAgent, DESERIALIZING).
+                    apply(ClusterMessage.payloadOf(buffer)));
+        }
+    }
 }
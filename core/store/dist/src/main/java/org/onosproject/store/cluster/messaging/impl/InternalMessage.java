@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.cluster.messaging.impl;
 
+import io.netty.buffer.ByteBuf;
 import org.onosproject.core.HybridLogicalTime;
 
 /**
@@ -66,6 +67,8 @@ public abstract class InternalMessage {
     private final HybridLogicalTime time;
     private final long id;
     private final byte[] payload;
+    private final ByteBuf payloadBuffer;
+    private final boolean compressed;
 
     protected InternalMessage(int preamble,
             HybridLogicalTime time,
@@ -75,6 +78,21 @@ public abstract class InternalMessage {
         this.time = time;
         this.id = id;
         this.payload = payload;
+        this.payloadBuffer = null;
+        this.compressed = false;
+    }
+
+    protected InternalMessage(int preamble,
+            HybridLogicalTime time,
+            long id,
+            ByteBuf payloadBuffer,
+            boolean compressed) {
+        this.preamble = preamble;
+        this.time = time;
+        this.id = id;
+        this.payload = null;
+        this.payloadBuffer = payloadBuffer;
+        this.compressed = compressed;
     }
 
     public abstract Type type();
@@ -99,7 +117,33 @@ public abstract class InternalMessage {
         return id;
     }
 
+    /**
+     * Returns the message payload.
+     *
+     * @return payload bytes, or null if the payload is held in a buffer
+     */
     public byte[] payload() {
         return payload;
     }
+
+    /**
+     * Returns the buffer holding the message payload, if any. The buffer of an
+     * outbound message is owned by the sender, which releases it once the
+     * message has been written; that of an inbound request is owned by its
+     * handler, which releases it once it has run.
+     *
+     * @return payload buffer, or null if the payload is held in a byte array
+     */
+    public ByteBuf payloadBuffer() {
+        return payloadBuffer;
+    }
+
+    /**
+     * Returns whether the payload buffer holds a compressed payload.
+     *
+     * @return true if the payload is compressed
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
 }
\ No newline at end of file
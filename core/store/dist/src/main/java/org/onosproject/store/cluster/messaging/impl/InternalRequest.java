@@ -17,6 +17,7 @@ package org.onosproject.store.cluster.messaging.impl;
 
 import com.google.common.base.MoreObjects;
 
+import io.netty.buffer.ByteBuf;
 import org.onlab.util.ByteArraySizeHashPrinter;
 import org.onosproject.core.HybridLogicalTime;
 import org.onosproject.store.cluster.messaging.Endpoint;
@@ -39,6 +40,18 @@ public final class InternalRequest extends InternalMessage {
         this.subject = subject;
     }
 
+    public InternalRequest(int preamble,
+                           HybridLogicalTime time,
+                           long id,
+                           Endpoint sender,
+                           String subject,
+                           ByteBuf payloadBuffer,
+                           boolean compressed) {
+        super(preamble, time, id, payloadBuffer, compressed);
+        this.sender = sender;
+        this.subject = subject;
+    }
+
     @Override
     public Type type() {
         return Type.REQUEST;
@@ -59,7 +72,8 @@ public final class InternalRequest extends InternalMessage {
                 .add("id", id())
                 .add("subject", subject)
                 .add("sender", sender)
-                .add("payload", ByteArraySizeHashPrinter.of(payload()))
+                .add("payload", payloadBuffer() != null
+                        ? payloadBuffer() : ByteArraySizeHashPrinter.of(payload()))
                 .toString();
     }
 }
\ No newline at end of file
@@ -18,6 +18,7 @@ package org.onosproject.store.cluster.messaging.impl;
 import com.google.common.base.Charsets;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ReplayingDecoder;
 
@@ -29,33 +30,61 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
+import java.util.function.Predicate;
 
 import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Decoder for inbound messages.
+ * <p>
+ * Uncompressed request payloads whose subject is handled from buffers are
+ * handed on as a retained slice of the inbound buffer rather than copied into
+ * an array; whoever consumes the request releases the slice.
  */
 public class MessageDecoder extends ReplayingDecoder<DecoderState> {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    private final int maxFrameSize;
+    private final Predicate<String> bufferHandled;
+
     private Version ipVersion;
     private IpAddress senderIp;
     private int senderPort;
 
     private InternalMessage.Type type;
+    private boolean compressed;
     private int preamble;
     private long logicalTime;
     private long logicalCounter;
     private long messageId;
     private int contentLength;
     private byte[] content;
+    private ByteBuf contentBuffer;
     private int subjectLength;
     private String subject;
     private InternalReply.Status status;
 
-    public MessageDecoder() {
+    /**
+     * Creates a decoder rejecting payloads larger than the given size.
+     *
+     * @param maxFrameSize maximum payload size in bytes, after decompression
+     */
+    public MessageDecoder(int maxFrameSize) {
+        this(maxFrameSize, subject -> false);
+    }
+
+    /**
+     * Creates a decoder rejecting payloads larger than the given size and
+     * keeping the payload of requests in the inbound buffer for the given subjects.
+     *
+     * @param maxFrameSize  maximum payload size in bytes, after decompression
+     * @param bufferHandled returns whether requests of a subject are handled from buffers
+     */
+    public MessageDecoder(int maxFrameSize, Predicate<String> bufferHandled) {
         super(DecoderState.READ_SENDER_IP_VERSION);
+        this.maxFrameSize = maxFrameSize;
+        this.bufferHandled = bufferHandled;
     }
 
     @Override
@@ -78,7 +107,9 @@ public class MessageDecoder extends ReplayingDecoder<DecoderState> {
                 senderPort = buffer.readInt();
                 checkpoint(DecoderState.READ_TYPE);
             case READ_TYPE:
-                type = InternalMessage.Type.forId(buffer.readByte());
+                int typeId = buffer.readUnsignedByte();
+                compressed = (typeId & PayloadCompressor.COMPRESSED_FLAG) != 0;
+                type = InternalMessage.Type.forId(typeId & ~PayloadCompressor.COMPRESSED_FLAG);
                 checkpoint(DecoderState.READ_PREAMBLE);
             case READ_PREAMBLE:
                 preamble = buffer.readInt();
@@ -94,10 +125,16 @@ public class MessageDecoder extends ReplayingDecoder<DecoderState> {
                 checkpoint(DecoderState.READ_CONTENT_LENGTH);
             case READ_CONTENT_LENGTH:
                 contentLength = buffer.readInt();
+                checkState(contentLength <= maxFrameSize, "Payload of %s bytes exceeds maximum frame size",
+                           contentLength);
                 checkpoint(DecoderState.READ_CONTENT);
             case READ_CONTENT:
-                if (contentLength > 0) {
-                    //TODO Perform a sanity check on the size before allocating
+                if (contentLength > 0 && compressed) {
+                    content = PayloadCompressor.decompress(buffer.readSlice(contentLength), maxFrameSize);
+                } else if (contentLength > 0 && type == InternalMessage.Type.REQUEST) {
+                    // whether the payload is copied depends on the subject, which follows it
+                    contentBuffer = buffer.readRetainedSlice(contentLength);
+                } else if (contentLength > 0) {
                     content = new byte[contentLength];
                     buffer.readBytes(content);
                 } else {
@@ -129,12 +166,28 @@ public class MessageDecoder extends ReplayingDecoder<DecoderState> {
                         byte[] messageTypeBytes = new byte[subjectLength];
                         buffer.readBytes(messageTypeBytes);
                         subject = new String(messageTypeBytes, Charsets.UTF_8);
-                        InternalRequest message = new InternalRequest(preamble,
-                                new HybridLogicalTime(logicalTime, logicalCounter),
-                                messageId,
-                                new Endpoint(senderIp, senderPort),
-                                subject,
-                                content);
+                        InternalRequest message;
+                        if (contentBuffer != null && bufferHandled.test(subject)) {
+                            message = new InternalRequest(preamble,
+                                    new HybridLogicalTime(logicalTime, logicalCounter),
+                                    messageId,
+                                    new Endpoint(senderIp, senderPort),
+                                    subject,
+                                    contentBuffer,
+                                    false);
+                        } else {
+                            if (contentBuffer != null) {
+                                content = ByteBufUtil.getBytes(contentBuffer);
+                                contentBuffer.release();
+                            }
+                            message = new InternalRequest(preamble,
+                                    new HybridLogicalTime(logicalTime, logicalCounter),
+                                    messageId,
+                                    new Endpoint(senderIp, senderPort),
+                                    subject,
+                                    content);
+                        }
+                        contentBuffer = null;
                         out.add(message);
                         checkpoint(DecoderState.READ_TYPE);
                         break;
@@ -163,6 +216,15 @@ public class MessageDecoder extends ReplayingDecoder<DecoderState> {
         }
     }
 
+    @Override
+    protected void handlerRemoved0(ChannelHandlerContext context) throws Exception {
+        // release the payload of a request whose subject never arrived
+        if (contentBuffer != null) {
+            contentBuffer.release();
+            contentBuffer = null;
+        }
+    }
+
     @Override
     public void exceptionCaught(ChannelHandlerContext context, Throwable cause) {
         log.error("Exception inside channel handling pipeline.", cause);
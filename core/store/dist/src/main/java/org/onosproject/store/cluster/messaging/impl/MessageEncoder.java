@@ -16,11 +16,13 @@
 package org.onosproject.store.cluster.messaging.impl;
 
 import java.io.IOException;
+import java.util.List;
 
 import com.google.common.base.Charsets;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 import org.onlab.packet.IpAddress;
 import org.onlab.packet.IpAddress.Version;
 import org.onosproject.store.cluster.messaging.Endpoint;
@@ -29,13 +31,19 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Encode InternalMessage out into a byte buffer.
+ * <p>
+ * Messages whose payload is held in a {@link ByteBuf} are written as a composite
+ * of the header, the payload buffer itself and the trailer, so that the payload
+ * is never copied on its way to the transport.
  */
-public class MessageEncoder extends MessageToByteEncoder<Object> {
-// Effectively MessageToByteEncoder<InternalMessage>,
+public class MessageEncoder extends MessageToMessageEncoder<Object> {
+// Effectively MessageToMessageEncoder<InternalMessage>,
 // had to specify <Object> to avoid Class Loader not being able to find some classes.
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
+    private static final int TRAILER_SIZE_HINT = 64;
+
     private final Endpoint endpoint;
     private final int preamble;
     private boolean endpointWritten;
@@ -50,15 +58,33 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
     protected void encode(
             ChannelHandlerContext context,
             Object rawMessage,
-            ByteBuf out) throws Exception {
-        if (rawMessage instanceof InternalRequest) {
-            encodeRequest((InternalRequest) rawMessage, out);
-        } else if (rawMessage instanceof InternalReply) {
-            encodeReply((InternalReply) rawMessage, out);
+            List<Object> out) throws Exception {
+        InternalMessage message = (InternalMessage) rawMessage;
+        ByteBuf payloadBuffer = message.payloadBuffer();
+        ByteBuf header = context.alloc().ioBuffer();
+        try {
+            if (payloadBuffer == null) {
+                byte[] payload = message.payload();
+                encodeHeader(message, payload.length, header);
+                header.writeBytes(payload);
+                encodeTrailer(message, header);
+                out.add(header);
+            } else {
+                // Hand the payload buffer to the transport as is rather than copying it
+                encodeHeader(message, payloadBuffer.readableBytes(), header);
+                ByteBuf trailer = context.alloc().ioBuffer(TRAILER_SIZE_HINT);
+                encodeTrailer(message, trailer);
+                CompositeByteBuf composite = context.alloc().compositeBuffer(3);
+                composite.addComponents(true, header, payloadBuffer.retainedDuplicate(), trailer);
+                out.add(composite);
+            }
+        } catch (Exception e) {
+            header.release();
+            throw e;
         }
     }
 
-    private void encodeMessage(InternalMessage message, ByteBuf out) {
+    private void encodeHeader(InternalMessage message, int payloadLength, ByteBuf out) {
         // If the endpoint hasn't been written to the channel, write it.
         if (!endpointWritten) {
             IpAddress senderIp = endpoint.host();
@@ -75,7 +101,10 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
             endpointWritten = true;
         }
 
-        out.writeByte(message.type().id());
+        // flag compressed payloads in the type byte
+        out.writeByte(message.isCompressed()
+                ? message.type().id() | PayloadCompressor.COMPRESSED_FLAG
+                : message.type().id());
         out.writeInt(this.preamble);
 
         // write time
@@ -85,33 +114,23 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
         // write message id
         out.writeLong(message.id());
 
-        byte[] payload = message.payload();
-
         // write payload length
-        out.writeInt(payload.length);
-
-        // write payload.
-        out.writeBytes(payload);
+        out.writeInt(payloadLength);
     }
 
-    private void encodeRequest(InternalRequest request, ByteBuf out) {
-        encodeMessage(request, out);
-
-        byte[] messageTypeBytes = request.subject().getBytes(Charsets.UTF_8);
+    private void encodeTrailer(InternalMessage message, ByteBuf out) {
+        if (message instanceof InternalRequest) {
+            byte[] messageTypeBytes = ((InternalRequest) message).subject().getBytes(Charsets.UTF_8);
 
-        // write length of message type
-        out.writeShort(messageTypeBytes.length);
+            // write length of message type
+            out.writeShort(messageTypeBytes.length);
 
-        // write message type bytes
-        out.writeBytes(messageTypeBytes);
-
-    }
-
-    private void encodeReply(InternalReply reply, ByteBuf out) {
-        encodeMessage(reply, out);
-
-        // write message status value
-        out.writeByte(reply.status().id());
+            // write message type bytes
+            out.writeBytes(messageTypeBytes);
+        } else if (message instanceof InternalReply) {
+            // write message status value
+            out.writeByte(((InternalReply) message).status().id());
+        }
     }
 
     @Override
@@ -124,7 +143,7 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
         context.close();
     }
 
-    // Effectively same result as one generated by MessageToByteEncoder<InternalMessage>
+    // Effectively same result as one generated by MessageToMessageEncoder<InternalMessage>
     @Override
     public final boolean acceptOutboundMessage(Object msg) throws Exception {
         return msg instanceof InternalMessage;
@@ -23,6 +23,8 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.net.ConnectException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.security.Key;
 import java.security.KeyStore;
 import java.security.MessageDigest;
@@ -49,16 +51,29 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
-
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.google.common.base.Splitter;
+import com.google.common.base.Throwables;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.primitives.Bytes;
 import com.google.common.util.concurrent.MoreExecutors;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
@@ -76,6 +91,7 @@ import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.ReferenceCountUtil;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.apache.commons.math3.stat.descriptive.SynchronizedDescriptiveStatistics;
 import org.apache.felix.scr.annotations.Activate;
@@ -84,6 +100,10 @@ import org.apache.felix.scr.annotations.Deactivate;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
+import org.onlab.util.Tools;
 import org.onosproject.cluster.ClusterMetadataService;
 import org.onosproject.cluster.ControllerNode;
 import org.onosproject.core.HybridLogicalClockService;
@@ -112,8 +132,17 @@ public class NettyMessagingManager implements MessagingService {
     private static final long MIN_TIMEOUT_MILLIS = 100;
     private static final long MAX_TIMEOUT_MILLIS = 15000;
     private static final int CHANNEL_POOL_SIZE = 8;
+    private static final long DEFAULT_WRITE_COALESCING_WINDOW_MICROS = 100;
+    private static final int DEFAULT_WRITE_COALESCING_MAX_BYTES = 64 * 1024;
+    private static final int DEFAULT_COMPRESSION_THRESHOLD = 8 * 1024;
+    private static final int DEFAULT_MAX_FRAME_SIZE = 128 * 1024 * 1024;
+    private static final String DEFAULT_COMPRESSED_MESSAGE_TYPES =
+            "peer-flow-table-(delta-)?backup,ecm-.+-anti-entropy,partition-.+-install";
+    private static final int MAX_COMPRESSIBLE_TYPES = 1000;
+    private static final String COMPRESSION_NEGOTIATION_TYPE = "onos-messaging-compression-codecs";
 
     private static final byte[] EMPTY_PAYLOAD = new byte[0];
+    private static final int INITIAL_PAYLOAD_CAPACITY = 4096;
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
@@ -154,13 +183,35 @@ public class NettyMessagingManager implements MessagingService {
     protected TrustManagerFactory trustManager;
     protected KeyManagerFactory keyManager;
 
+    protected boolean enableWriteCoalescing = false;
+    protected long writeCoalescingWindowMicros = DEFAULT_WRITE_COALESCING_WINDOW_MICROS;
+    protected int writeCoalescingMaxBytes = DEFAULT_WRITE_COALESCING_MAX_BYTES;
+    private Histogram batchMessages;
+    private Histogram batchBytes;
+
+    protected int maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+
+    protected boolean enableCompression = false;
+    protected int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+    protected String compressedMessageTypes = DEFAULT_COMPRESSED_MESSAGE_TYPES;
+    private List<Pattern> compressedTypePatterns = ImmutableList.of();
+    private final Cache<String, Boolean> compressibleTypes =
+            CacheBuilder.newBuilder().maximumSize(MAX_COMPRESSIBLE_TYPES).build();
+    private final Map<Endpoint, CompletableFuture<Boolean>> peerCompressionSupport = Maps.newConcurrentMap();
+
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected ClusterMetadataService clusterMetadataService;
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY)
+    protected MetricsService metricsService;
+
     @Activate
     public void activate() throws Exception {
         ControllerNode localNode = clusterMetadataService.getLocalNode();
         getTlsParameters();
+        getWriteCoalescingParameters();
+        getCompressionParameters();
+        getFrameParameters();
 
         if (started.get()) {
             log.warn("Already running at local endpoint: {}", localEndpoint);
@@ -174,6 +225,10 @@ public class NettyMessagingManager implements MessagingService {
                 groupedThreads("NettyMessagingEvt", "timeout", log));
         timeoutFuture = timeoutExecutor.scheduleAtFixedRate(
                 this::timeoutAllCallbacks, TIMEOUT_INTERVAL, TIMEOUT_INTERVAL, TimeUnit.MILLISECONDS);
+        // payloads are always accepted compressed; peers send them only once they learn so
+        registerHandler(COMPRESSION_NEGOTIATION_TYPE,
+                (BiFunction<Endpoint, byte[], byte[]>) (ep, payload) -> PayloadCompressor.SUPPORTED_CODECS,
+                MoreExecutors.directExecutor());
         started.set(true);
         log.info("Started");
     }
@@ -199,6 +254,87 @@ public class NettyMessagingManager implements MessagingService {
         }
     }
 
+    private void getWriteCoalescingParameters() {
+        // write coalescing is opt-in; it trades a bounded delay for fewer flushes under load
+        enableWriteCoalescing = Boolean.parseBoolean(
+                System.getProperty("enableNettyWriteCoalescing", Boolean.toString(enableWriteCoalescing)));
+        try {
+            writeCoalescingWindowMicros = Long.parseLong(System.getProperty(
+                    "nettyWriteCoalescingWindowMicros", Long.toString(writeCoalescingWindowMicros)));
+            writeCoalescingMaxBytes = Integer.parseInt(System.getProperty(
+                    "nettyWriteCoalescingMaxBytes", Integer.toString(writeCoalescingMaxBytes)));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid write coalescing parameters; using defaults", e);
+            writeCoalescingWindowMicros = DEFAULT_WRITE_COALESCING_WINDOW_MICROS;
+            writeCoalescingMaxBytes = DEFAULT_WRITE_COALESCING_MAX_BYTES;
+        }
+
+        if (metricsService != null) {
+            MetricsComponent component = metricsService.registerComponent("NettyMessaging");
+            MetricsFeature feature = component.registerFeature("writeCoalescing");
+            batchMessages = metricsService.createHistogram(component, feature, "batchMessages");
+            batchBytes = metricsService.createHistogram(component, feature, "batchBytes");
+        } else {
+            batchMessages = new Histogram(new ExponentiallyDecayingReservoir());
+            batchBytes = new Histogram(new ExponentiallyDecayingReservoir());
+        }
+        if (enableWriteCoalescing) {
+            log.info("Coalescing writes within {}us or {} bytes",
+                     writeCoalescingWindowMicros, writeCoalescingMaxBytes);
+        }
+    }
+
+    private void getCompressionParameters() {
+        // compression is opt-in; it trades CPU for bandwidth on large payloads
+        enableCompression = Boolean.parseBoolean(
+                System.getProperty("enableNettyCompression", Boolean.toString(enableCompression)));
+        compressedMessageTypes = System.getProperty("nettyCompressedMessageTypes", compressedMessageTypes);
+        try {
+            compressionThreshold = Integer.parseInt(System.getProperty(
+                    "nettyCompressionThreshold", Integer.toString(compressionThreshold)));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid compression threshold; using default", e);
+            compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+        }
+        try {
+            compressedTypePatterns = Splitter.on(',').trimResults().omitEmptyStrings()
+                    .splitToList(compressedMessageTypes).stream()
+                    .map(Pattern::compile)
+                    .collect(Collectors.toList());
+        } catch (PatternSyntaxException e) {
+            log.warn("Invalid compressed message types; disabling compression", e);
+            enableCompression = false;
+        }
+        compressibleTypes.invalidateAll();
+        if (enableCompression) {
+            log.info("Compressing payloads of {} bytes or more for message types {}",
+                     compressionThreshold, compressedMessageTypes);
+        }
+    }
+
+    private void getFrameParameters() {
+        // bounds inbound allocations, including the advertised length of compressed payloads
+        try {
+            maxFrameSize = Integer.parseInt(System.getProperty(
+                    "nettyMaxFrameSize", Integer.toString(maxFrameSize)));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid maximum frame size; using default", e);
+            maxFrameSize = DEFAULT_MAX_FRAME_SIZE;
+        }
+    }
+
+    /**
+     * Adds the write coalescing handler to the given channel if enabled.
+     *
+     * @param channel the channel being initialized
+     */
+    private void addWriteCoalescing(SocketChannel channel) {
+        if (enableWriteCoalescing) {
+            channel.pipeline().addBefore("encoder", "coalescer", new WriteCoalescingHandler(
+                    writeCoalescingWindowMicros, writeCoalescingMaxBytes, batchMessages, batchBytes));
+        }
+    }
+
     private boolean loadKeyStores() {
         // Maintain a local copy of the trust and key managers in case anything goes wrong
         TrustManagerFactory tmf;
@@ -297,6 +433,9 @@ public class NettyMessagingManager implements MessagingService {
     @Override
     public CompletableFuture<Void> sendAsync(Endpoint ep, String type, byte[] payload) {
         checkPermission(CLUSTER_WRITE);
+        if (shouldCompress(ep, type, payload.length)) {
+            return sendAsync(ep, type, Unpooled.wrappedBuffer(payload), true);
+        }
         InternalRequest message = new InternalRequest(preamble,
                 clockService.timeNow(),
                 messageIdGenerator.incrementAndGet(),
@@ -306,6 +445,70 @@ public class NettyMessagingManager implements MessagingService {
         return executeOnPooledConnection(ep, type, c -> c.sendAsync(message), MoreExecutors.directExecutor());
     }
 
+    @Override
+    public CompletableFuture<Void> sendAsync(Endpoint ep, String type, Consumer<ByteBuffer> payloadWriter) {
+        checkPermission(CLUSTER_WRITE);
+        ByteBuf payload;
+        try {
+            payload = writePayload(payloadWriter);
+        } catch (Exception e) {
+            return Tools.exceptionalFuture(e);
+        }
+        if (ep.equals(localEndpoint)) {
+            // local handlers run after the send completes and consume arrays
+            try {
+                return sendAsync(ep, type, ByteBufUtil.getBytes(payload));
+            } finally {
+                payload.release();
+            }
+        }
+        return sendAsync(ep, type, payload, shouldCompress(ep, type, payload.readableBytes()));
+    }
+
+    /**
+     * Has a payload written into a pooled direct buffer, retrying with a
+     * buffer twice as large as long as the payload does not fit.
+     *
+     * @param payloadWriter writer of the payload
+     * @return buffer holding the payload, owned by the caller
+     */
+    private ByteBuf writePayload(Consumer<ByteBuffer> payloadWriter) {
+        int capacity = Math.min(INITIAL_PAYLOAD_CAPACITY, maxFrameSize);
+        while (true) {
+            ByteBuf buffer = PooledByteBufAllocator.DEFAULT.directBuffer(capacity, capacity);
+            try {
+                ByteBuffer view = buffer.nioBuffer(0, capacity);
+                payloadWriter.accept(view);
+                return buffer.writerIndex(view.position());
+            } catch (BufferOverflowException e) {
+                buffer.release();
+                if (capacity >= maxFrameSize) {
+                    throw new IllegalStateException("Payload exceeds maximum frame size", e);
+                }
+                capacity = (int) Math.min((long) capacity * 2, maxFrameSize);
+            } catch (RuntimeException e) {
+                buffer.release();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Sends a message whose payload is held in a buffer, taking ownership of
+     * the buffer. The buffer is released once the write completes.
+     *
+     * @param ep       end point to send the message to
+     * @param type     type of message
+     * @param payload  message payload
+     * @param compress whether to attempt compressing the payload
+     * @return future that is completed when the message is sent
+     */
+    private CompletableFuture<Void> sendAsync(Endpoint ep, String type, ByteBuf payload, boolean compress) {
+        InternalRequest message = newRequest(messageIdGenerator.incrementAndGet(), type, payload, compress);
+        return executeOnPooledConnection(ep, type, c -> c.sendAsync(message), MoreExecutors.directExecutor())
+                .whenComplete((result, error) -> message.payloadBuffer().release());
+    }
+
     @Override
     public CompletableFuture<byte[]> sendAndReceive(Endpoint ep, String type, byte[] payload) {
         checkPermission(CLUSTER_WRITE);
@@ -316,6 +519,11 @@ public class NettyMessagingManager implements MessagingService {
     public CompletableFuture<byte[]> sendAndReceive(Endpoint ep, String type, byte[] payload, Executor executor) {
         checkPermission(CLUSTER_WRITE);
         long messageId = messageIdGenerator.incrementAndGet();
+        if (shouldCompress(ep, type, payload.length)) {
+            InternalRequest message = newRequest(messageId, type, Unpooled.wrappedBuffer(payload), true);
+            return executeOnPooledConnection(ep, type, c -> c.sendAndReceive(message), executor)
+                    .whenComplete((result, error) -> message.payloadBuffer().release());
+        }
         InternalRequest message = new InternalRequest(preamble,
                 clockService.timeNow(),
                 messageId,
@@ -325,6 +533,93 @@ public class NettyMessagingManager implements MessagingService {
         return executeOnPooledConnection(ep, type, c -> c.sendAndReceive(message), executor);
     }
 
+    /**
+     * Creates a request whose payload is held in a buffer, taking ownership of
+     * the buffer.
+     *
+     * @param messageId message identifier
+     * @param type      type of message
+     * @param payload   message payload
+     * @param compress  whether to attempt compressing the payload
+     * @return request, with a compressed payload if compression made it smaller
+     */
+    private InternalRequest newRequest(long messageId, String type, ByteBuf payload, boolean compress) {
+        ByteBuf compressed = compress ? PayloadCompressor.compress(payload, PooledByteBufAllocator.DEFAULT) : null;
+        if (compressed != null) {
+            payload.release();
+            return new InternalRequest(preamble, clockService.timeNow(), messageId,
+                    localEndpoint, type, compressed, true);
+        }
+        return new InternalRequest(preamble, clockService.timeNow(), messageId,
+                localEndpoint, type, payload, false);
+    }
+
+    /**
+     * Returns whether a payload should be compressed before being sent.
+     *
+     * @param ep     end point the message is sent to
+     * @param type   type of message
+     * @param length payload length
+     * @return true if compression is enabled for the message type and supported by the peer
+     */
+    private boolean shouldCompress(Endpoint ep, String type, int length) {
+        return enableCompression
+                && length >= compressionThreshold
+                && !ep.equals(localEndpoint)
+                && isCompressible(type)
+                && peerSupportsCompression(ep);
+    }
+
+    /**
+     * Returns whether requests of the given type are handed to their handler as
+     * buffers, in which case their payload is kept in the inbound buffer.
+     *
+     * @param type type of message
+     * @return true if a buffer handler is registered for the type
+     */
+    private boolean isBufferHandled(String type) {
+        return handlers.get(type) instanceof BufferHandler;
+    }
+
+    private boolean isCompressible(String type) {
+        return compressibleTypes.asMap().computeIfAbsent(type,
+                t -> compressedTypePatterns.stream().anyMatch(pattern -> pattern.matcher(t).matches()));
+    }
+
+    /**
+     * Returns whether the given peer is known to accept compressed payloads,
+     * starting a negotiation with the peer if it is not known yet.
+     *
+     * @param ep peer end point
+     * @return true if the peer accepts compressed payloads
+     */
+    private boolean peerSupportsCompression(Endpoint ep) {
+        CompletableFuture<Boolean> support = peerCompressionSupport.get(ep);
+        if (support == null) {
+            CompletableFuture<Boolean> negotiation = new CompletableFuture<>();
+            if (peerCompressionSupport.putIfAbsent(ep, negotiation) == null) {
+                negotiateCompression(ep, negotiation);
+            }
+            return false;
+        }
+        return support.getNow(false);
+    }
+
+    private void negotiateCompression(Endpoint ep, CompletableFuture<Boolean> negotiation) {
+        sendAndReceive(ep, COMPRESSION_NEGOTIATION_TYPE, EMPTY_PAYLOAD).whenComplete((codecs, error) -> {
+            if (error == null) {
+                negotiation.complete(Bytes.contains(codecs, PayloadCompressor.SNAPPY));
+            } else if (Throwables.getRootCause(error) instanceof MessagingException.NoRemoteHandler) {
+                // the peer predates payload compression
+                negotiation.complete(false);
+            } else {
+                // try again with the next message
+                peerCompressionSupport.remove(ep, negotiation);
+                negotiation.complete(false);
+            }
+        });
+    }
+
     private List<CompletableFuture<Channel>> getChannelPool(Endpoint endpoint) {
         return channels.computeIfAbsent(endpoint, e -> {
             List<CompletableFuture<Channel>> defaultList = new ArrayList<>(CHANNEL_POOL_SIZE);
@@ -348,6 +643,8 @@ public class NettyMessagingManager implements MessagingService {
             synchronized (channelPool) {
                 channelFuture = channelPool.get(offset);
                 if (channelFuture == null || channelFuture.isCompletedExceptionally()) {
+                    // the peer may have been restarted with a different version
+                    peerCompressionSupport.remove(endpoint);
                     channelFuture = openChannel(endpoint);
                     channelPool.set(offset, channelFuture);
                 }
@@ -473,6 +770,12 @@ public class NettyMessagingManager implements MessagingService {
         });
     }
 
+    @Override
+    public void registerBufferHandler(String type, BiConsumer<Endpoint, ByteBuffer> handler, Executor executor) {
+        checkPermission(CLUSTER_WRITE);
+        handlers.put(type, new BufferHandler(handler, executor));
+    }
+
     @Override
     public void unregisterHandler(String type) {
         checkPermission(CLUSTER_WRITE);
@@ -565,8 +868,9 @@ public class NettyMessagingManager implements MessagingService {
 
             channel.pipeline().addLast("ssl", new io.netty.handler.ssl.SslHandler(serverSslEngine))
                     .addLast("encoder", new MessageEncoder(localEndpoint, preamble))
-                    .addLast("decoder", new MessageDecoder())
+                    .addLast("decoder", new MessageDecoder(maxFrameSize, NettyMessagingManager.this::isBufferHandled))
                     .addLast("handler", dispatcher);
+            addWriteCoalescing(channel);
         }
     }
 
@@ -590,8 +894,9 @@ public class NettyMessagingManager implements MessagingService {
 
             channel.pipeline().addLast("ssl", new io.netty.handler.ssl.SslHandler(clientSslEngine))
                     .addLast("encoder", new MessageEncoder(localEndpoint, preamble))
-                    .addLast("decoder", new MessageDecoder())
+                    .addLast("decoder", new MessageDecoder(maxFrameSize, NettyMessagingManager.this::isBufferHandled))
                     .addLast("handler", dispatcher);
+            addWriteCoalescing(channel);
         }
     }
 
@@ -605,8 +910,9 @@ public class NettyMessagingManager implements MessagingService {
         protected void initChannel(SocketChannel channel) throws Exception {
             channel.pipeline()
                     .addLast("encoder", new MessageEncoder(localEndpoint, preamble))
-                    .addLast("decoder", new MessageDecoder())
+                    .addLast("decoder", new MessageDecoder(maxFrameSize, NettyMessagingManager.this::isBufferHandled))
                     .addLast("handler", dispatcher);
+            addWriteCoalescing(channel);
         }
     }
 
@@ -806,6 +1112,39 @@ public class NettyMessagingManager implements MessagingService {
         }
     }
 
+    /**
+     * Handler which is handed request payloads as buffers. Remote requests
+     * for its message type keep their payload in the inbound buffer, which the
+     * handler releases once it has run.
+     */
+    private static final class BufferHandler implements BiConsumer<InternalRequest, ServerConnection> {
+        private final BiConsumer<Endpoint, ByteBuffer> handler;
+        private final Executor executor;
+
+        BufferHandler(BiConsumer<Endpoint, ByteBuffer> handler, Executor executor) {
+            this.handler = handler;
+            this.executor = executor;
+        }
+
+        @Override
+        public void accept(InternalRequest message, ServerConnection connection) {
+            ByteBuf buffer = message.payloadBuffer();
+            try {
+                executor.execute(() -> {
+                    try {
+                        handler.accept(message.sender(),
+                                buffer != null ? buffer.nioBuffer() : ByteBuffer.wrap(message.payload()));
+                    } finally {
+                        ReferenceCountUtil.release(buffer);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                ReferenceCountUtil.release(buffer);
+                throw e;
+            }
+        }
+    }
+
     /**
      * Local connection implementation.
      */
@@ -952,6 +1291,7 @@ public class NettyMessagingManager implements MessagingService {
         private void dispatch(InternalRequest message) {
             if (message.preamble() != preamble) {
                 log.debug("Received {} with invalid preamble from {}", message.type(), message.sender());
+                ReferenceCountUtil.release(message.payloadBuffer());
                 reply(message, InternalReply.Status.PROTOCOL_EXCEPTION, Optional.empty());
                 return;
             }
@@ -959,11 +1299,24 @@ public class NettyMessagingManager implements MessagingService {
             clockService.recordEventTime(message.time());
 
             BiConsumer<InternalRequest, ServerConnection> handler = handlers.get(message.subject());
-            if (handler != null) {
-                handler.accept(message, this);
-            } else {
+            if (handler == null) {
                 log.debug("No handler for message type {} from {}", message.type(), message.sender());
+                ReferenceCountUtil.release(message.payloadBuffer());
                 reply(message, InternalReply.Status.ERROR_NO_HANDLER, Optional.empty());
+            } else if (message.payloadBuffer() != null && !(handler instanceof BufferHandler)) {
+                // the handler was replaced by an array handler since the message was decoded
+                handler.accept(copyPayload(message), this);
+            } else {
+                handler.accept(message, this);
+            }
+        }
+
+        private InternalRequest copyPayload(InternalRequest message) {
+            try {
+                return new InternalRequest(message.preamble(), message.time(), message.id(),
+                        message.sender(), message.subject(), ByteBufUtil.getBytes(message.payloadBuffer()));
+            } finally {
+                message.payloadBuffer().release();
             }
         }
 
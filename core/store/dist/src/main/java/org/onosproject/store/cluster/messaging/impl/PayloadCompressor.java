@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.cluster.messaging.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.compression.Snappy;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Compression of internal message payloads.
+ * <p>
+ * A compressed message has {@link #COMPRESSED_FLAG} set in its type byte. Its
+ * payload starts with the codec identifier and the uncompressed length, followed
+ * by length-prefixed chunks of compressed data. Chunks are bounded because the
+ * Snappy block encoder only addresses offsets up to {@link Short#MAX_VALUE}.
+ */
+final class PayloadCompressor {
+
+    /**
+     * Flag set in the message type byte of a message with a compressed payload.
+     */
+    static final int COMPRESSED_FLAG = 0x80;
+
+    /**
+     * Identifier of the Snappy codec.
+     */
+    static final byte SNAPPY = 1;
+
+    /**
+     * Codecs this node is able to decompress, advertised to peers.
+     */
+    static final byte[] SUPPORTED_CODECS = {SNAPPY};
+
+    private static final int MAX_CHUNK_LENGTH = Short.MAX_VALUE;
+    private static final int HEADER_LENGTH = 5;
+
+    private PayloadCompressor() {
+    }
+
+    /**
+     * Compresses the readable bytes of the given payload.
+     *
+     * @param payload   payload to compress; its reader index is left unchanged
+     * @param allocator allocator for the compressed buffer
+     * @return compressed payload, or null if compression does not make it smaller
+     */
+    static ByteBuf compress(ByteBuf payload, ByteBufAllocator allocator) {
+        int length = payload.readableBytes();
+        ByteBuf out = allocator.directBuffer(length);
+        try {
+            out.writeByte(SNAPPY);
+            out.writeInt(length);
+            Snappy snappy = new Snappy();
+            int index = payload.readerIndex();
+            int end = index + length;
+            while (index < end) {
+                int chunkLength = Math.min(MAX_CHUNK_LENGTH, end - index);
+                int lengthIndex = out.writerIndex();
+                out.writeInt(0);
+                snappy.encode(payload.slice(index, chunkLength), out, chunkLength);
+                out.setInt(lengthIndex, out.writerIndex() - lengthIndex - 4);
+                index += chunkLength;
+                if (out.readableBytes() >= length) {
+                    out.release();
+                    return null;
+                }
+            }
+            return out;
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Decompresses the readable bytes of the given compressed payload.
+     *
+     * @param payload   compressed payload
+     * @param maxLength maximum uncompressed length accepted
+     * @return uncompressed payload
+     * @throws IllegalStateException if the payload is malformed or too large
+     */
+    static byte[] decompress(ByteBuf payload, int maxLength) {
+        checkState(payload.readableBytes() >= HEADER_LENGTH, "Truncated compressed payload");
+        byte codec = payload.readByte();
+        checkState(codec == SNAPPY, "Unsupported compression codec %s", codec);
+        int length = payload.readInt();
+        checkState(length >= 0 && length <= maxLength, "Invalid uncompressed length %s", length);
+
+        byte[] bytes = new byte[length];
+        // decompress straight into the array; it cannot grow past the advertised length
+        ByteBuf out = Unpooled.wrappedBuffer(bytes);
+        out.writerIndex(0);
+        Snappy snappy = new Snappy();
+        while (payload.isReadable()) {
+            int chunkLength = payload.readInt();
+            snappy.decode(payload.readSlice(chunkLength), out);
+            snappy.reset();
+        }
+        checkState(out.writerIndex() == length, "Compressed payload length mismatch");
+        return bytes;
+    }
+}
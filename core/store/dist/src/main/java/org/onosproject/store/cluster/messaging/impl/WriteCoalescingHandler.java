@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.cluster.messaging.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Histogram;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.concurrent.ScheduledFuture;
+
+/**
+ * Outbound handler that coalesces flushes of encoded messages.
+ * <p>
+ * Sits between the {@link MessageEncoder} and the transport. A flush requested
+ * by a writer is deferred until either the coalescing window elapses or the
+ * pending bytes exceed the budget, so that messages written within the window
+ * reach the socket in a single syscall. All state is confined to the channel
+ * event loop.
+ */
+final class WriteCoalescingHandler extends ChannelOutboundHandlerAdapter {
+
+    private final long windowMicros;
+    private final int maxBytes;
+    private final Histogram batchMessages;
+    private final Histogram batchBytes;
+
+    private int pendingMessages;
+    private int pendingBytes;
+    private ScheduledFuture<?> flushFuture;
+
+    /**
+     * Creates a new write coalescing handler.
+     *
+     * @param windowMicros  maximum time a flush is deferred, in microseconds
+     * @param maxBytes      pending bytes above which a flush is not deferred
+     * @param batchMessages histogram of the number of messages per flush
+     * @param batchBytes    histogram of the number of bytes per flush
+     */
+    WriteCoalescingHandler(long windowMicros, int maxBytes, Histogram batchMessages, Histogram batchBytes) {
+        this.windowMicros = windowMicros;
+        this.maxBytes = maxBytes;
+        this.batchMessages = batchMessages;
+        this.batchBytes = batchBytes;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext context, Object message, ChannelPromise promise) throws Exception {
+        if (message instanceof ByteBuf) {
+            pendingBytes += ((ByteBuf) message).readableBytes();
+        }
+        pendingMessages++;
+        context.write(message, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext context) throws Exception {
+        if (pendingMessages == 0 || pendingBytes >= maxBytes) {
+            flushNow(context);
+        } else if (flushFuture == null) {
+            flushFuture = context.executor().schedule(() -> {
+                flushFuture = null;
+                flushNow(context);
+            }, windowMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    @Override
+    public void close(ChannelHandlerContext context, ChannelPromise promise) throws Exception {
+        flushNow(context);
+        context.close(promise);
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext context) throws Exception {
+        cancelScheduledFlush();
+    }
+
+    private void flushNow(ChannelHandlerContext context) {
+        cancelScheduledFlush();
+        if (pendingMessages > 0) {
+            batchMessages.update(pendingMessages);
+            batchBytes.update(pendingBytes);
+            pendingMessages = 0;
+            pendingBytes = 0;
+        }
+        context.flush();
+    }
+
+    private void cancelScheduledFlush() {
+        if (flushFuture != null) {
+            flushFuture.cancel(false);
+            flushFuture = null;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Maps;
+import org.onosproject.net.flow.FlowId;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Tracks the flow buckets of a device flow table changed since a given sequence.
+ * <p>
+ * At most {@code maxChanges} flow buckets are tracked. Past that limit, e.g. when
+ * a device has no backup node or backups are never acknowledged, the tracked
+ * changes are dropped and every backup node falls back to a full sync.
+ */
+final class DirtyFlowTracker {
+
+    static final int DEFAULT_MAX_CHANGES = 10000;
+
+    private final int maxChanges;
+    private final Map<FlowId, Long> changes = Maps.newHashMap();
+    private long sequence;
+    private long prunedSequence;
+
+    /**
+     * Creates a tracker holding at most the default number of changes.
+     */
+    DirtyFlowTracker() {
+        this(DEFAULT_MAX_CHANGES);
+    }
+
+    /**
+     * Creates a tracker holding at most the given number of changes.
+     *
+     * @param maxChanges maximum number of tracked flow buckets
+     */
+    DirtyFlowTracker(int maxChanges) {
+        checkArgument(maxChanges > 0, "maxChanges must be positive");
+        this.maxChanges = maxChanges;
+    }
+
+    /**
+     * Records a change to the given flow bucket.
+     *
+     * @param flowId flow identifier
+     */
+    synchronized void markDirty(FlowId flowId) {
+        changes.put(flowId, ++sequence);
+        if (changes.size() > maxChanges) {
+            // too many changes to send as a delta; require a full sync instead
+            changes.clear();
+            prunedSequence = sequence;
+        }
+    }
+
+    /**
+     * Returns the sequence of the latest change.
+     *
+     * @return current sequence
+     */
+    synchronized long sequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns the number of tracked flow buckets.
+     *
+     * @return tracked flow bucket count
+     */
+    synchronized int size() {
+        return changes.size();
+    }
+
+    /**
+     * Returns the flow buckets changed after the given sequence.
+     *
+     * @param since sequence already known to the backup node
+     * @return changed flow identifiers, or null if the changes are no longer tracked
+     */
+    synchronized Set<FlowId> changesSince(long since) {
+        if (since < prunedSequence || since > sequence) {
+            return null;
+        }
+        return changes.entrySet().stream()
+                .filter(e -> e.getValue() > since)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Forgets the changes all backup nodes have acknowledged.
+     *
+     * @param acknowledged lowest sequence acknowledged by the backup nodes
+     */
+    synchronized void prune(long acknowledged) {
+        if (acknowledged <= prunedSequence) {
+            return;
+        }
+        changes.values().removeIf(s -> s <= acknowledged);
+        prunedSequence = acknowledged;
+    }
+}
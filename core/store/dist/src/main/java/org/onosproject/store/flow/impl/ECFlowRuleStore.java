@@ -30,6 +30,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+import com.codahale.metrics.Gauge;
 import com.google.common.collect.Streams;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
@@ -39,6 +40,9 @@ import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.KryoNamespace;
 import org.onlab.util.Tools;
 import org.onosproject.cfg.ComponentConfigService;
@@ -99,6 +103,7 @@ import static org.onosproject.net.flow.FlowRuleEvent.Type.RULE_REMOVED;
 import static org.onosproject.store.flow.ReplicaInfoEvent.Type.MASTER_CHANGED;
 import static org.onosproject.store.flow.impl.ECFlowRuleStoreMessageSubjects.APPLY_BATCH_FLOWS;
 import static org.onosproject.store.flow.impl.ECFlowRuleStoreMessageSubjects.FLOW_TABLE_BACKUP;
+import static org.onosproject.store.flow.impl.ECFlowRuleStoreMessageSubjects.FLOW_TABLE_DELTA_BACKUP;
 import static org.onosproject.store.flow.impl.ECFlowRuleStoreMessageSubjects.GET_DEVICE_FLOW_ENTRIES;
 import static org.onosproject.store.flow.impl.ECFlowRuleStoreMessageSubjects.GET_FLOW_ENTRY;
 import static org.onosproject.store.flow.impl.ECFlowRuleStoreMessageSubjects.REMOTE_APPLY_COMPLETED;
@@ -119,11 +124,15 @@ public class ECFlowRuleStore
     private static final int MESSAGE_HANDLER_THREAD_POOL_SIZE = 8;
     private static final int DEFAULT_MAX_BACKUP_COUNT = 2;
     private static final boolean DEFAULT_PERSISTENCE_ENABLED = false;
+    private static final boolean DEFAULT_DELTA_BACKUP_ENABLED = false;
     private static final int DEFAULT_BACKUP_PERIOD_MILLIS = 2000;
     private static final long FLOW_RULE_STORE_TIMEOUT_MILLIS = 5000;
     // number of devices whose flow entries will be backed up in one communication round
     private static final int FLOW_TABLE_BACKUP_BATCH_SIZE = 1;
 
+    private static final String METRICS_COMPONENT = "FlowRuleStore";
+    private static final String METRICS_FEATURE = "flowTable";
+
     @Property(name = "msgHandlerPoolSize", intValue = MESSAGE_HANDLER_THREAD_POOL_SIZE,
             label = "Number of threads in the message handler pool")
     private int msgHandlerPoolSize = MESSAGE_HANDLER_THREAD_POOL_SIZE;
@@ -139,6 +148,11 @@ public class ECFlowRuleStore
             label = "Max number of backup copies for each device")
     private volatile int backupCount = DEFAULT_MAX_BACKUP_COUNT;
 
+    @Property(name = "deltaBackupEnabled", boolValue = DEFAULT_DELTA_BACKUP_ENABLED,
+            label = "Indicates whether backups should only carry flow entries changed since the last backup")
+    private volatile boolean deltaBackupEnabled = DEFAULT_DELTA_BACKUP_ENABLED;
+
+    private final StripedFlowTable.Metrics flowTableMetrics = new StripedFlowTable.Metrics();
     private InternalFlowTable flowTable = new InternalFlowTable();
 
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
@@ -165,6 +179,9 @@ public class ECFlowRuleStore
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected PersistenceService persistenceService;
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY)
+    protected MetricsService metricsService;
+
     private Map<Long, NodeId> pendingResponses = Maps.newConcurrentMap();
     private ExecutorService messageHandlingExecutor;
     private ExecutorService eventHandler;
@@ -182,6 +199,8 @@ public class ECFlowRuleStore
 
     protected final Serializer serializer = Serializer.using(KryoNamespaces.API);
 
+    protected final Serializer backupSerializer = Serializer.using(KryoNamespaces.API, FlowTableBackup.class);
+
     protected final KryoNamespace.Builder serializerBuilder = KryoNamespace.newBuilder()
             .register(KryoNamespaces.API)
             .register(MastershipBasedTimestamp.class);
@@ -221,11 +240,14 @@ public class ECFlowRuleStore
                 .build();
         deviceTableStats.addListener(tableStatsListener);
 
+        registerMetrics();
+
         logConfig("Started");
     }
 
     @Deactivate
     public void deactivate(ComponentContext context) {
+        unregisterMetrics();
         replicaInfoManager.removeListener(flowTable);
         backupTask.cancel(true);
         configService.unregisterProperties(getClass(), false);
@@ -250,6 +272,7 @@ public class ECFlowRuleStore
         int newPoolSize;
         int newBackupPeriod;
         int newBackupCount;
+        boolean newDeltaBackupEnabled;
         try {
             String s = get(properties, "msgHandlerPoolSize");
             newPoolSize = isNullOrEmpty(s) ? msgHandlerPoolSize : Integer.parseInt(s.trim());
@@ -259,10 +282,14 @@ public class ECFlowRuleStore
 
             s = get(properties, "backupCount");
             newBackupCount = isNullOrEmpty(s) ? backupCount : Integer.parseInt(s.trim());
+
+            s = get(properties, "deltaBackupEnabled");
+            newDeltaBackupEnabled = isNullOrEmpty(s) ? deltaBackupEnabled : Boolean.parseBoolean(s.trim());
         } catch (NumberFormatException | ClassCastException e) {
             newPoolSize = MESSAGE_HANDLER_THREAD_POOL_SIZE;
             newBackupPeriod = DEFAULT_BACKUP_PERIOD_MILLIS;
             newBackupCount = DEFAULT_MAX_BACKUP_COUNT;
+            newDeltaBackupEnabled = DEFAULT_DELTA_BACKUP_ENABLED;
         }
 
         boolean restartBackupTask = false;
@@ -295,6 +322,11 @@ public class ECFlowRuleStore
         if (backupCount != newBackupCount) {
             backupCount = newBackupCount;
         }
+        if (deltaBackupEnabled != newDeltaBackupEnabled) {
+            deltaBackupEnabled = newDeltaBackupEnabled;
+            // change tracking restarts from scratch; the next backup of each device is a full sync
+            flowTable.resetDeltaBackups();
+        }
         logConfig("Reconfigured");
     }
 
@@ -311,6 +343,9 @@ public class ECFlowRuleStore
                 REMOVE_FLOW_ENTRY, serializer::decode, this::removeFlowRuleInternal, serializer::encode, executor);
         clusterCommunicator.addSubscriber(
                 FLOW_TABLE_BACKUP, serializer::decode, flowTable::onBackupReceipt, serializer::encode, executor);
+        clusterCommunicator.addSubscriber(
+                FLOW_TABLE_DELTA_BACKUP, backupSerializer::decode, flowTable::onDeltaBackupReceipt,
+                backupSerializer::encode, executor);
     }
 
     private void unregisterMessageHandlers() {
@@ -320,11 +355,43 @@ public class ECFlowRuleStore
         clusterCommunicator.removeSubscriber(APPLY_BATCH_FLOWS);
         clusterCommunicator.removeSubscriber(REMOTE_APPLY_COMPLETED);
         clusterCommunicator.removeSubscriber(FLOW_TABLE_BACKUP);
+        clusterCommunicator.removeSubscriber(FLOW_TABLE_DELTA_BACKUP);
+    }
+
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+        metricsService.registerMetric(component, feature, "reads",
+                                      (Gauge<Long>) flowTableMetrics::reads);
+        metricsService.registerMetric(component, feature, "contendedReads",
+                                      (Gauge<Long>) flowTableMetrics::contendedReads);
+        metricsService.registerMetric(component, feature, "writes",
+                                      (Gauge<Long>) flowTableMetrics::writes);
+        metricsService.registerMetric(component, feature, "contendedWrites",
+                                      (Gauge<Long>) flowTableMetrics::contendedWrites);
+        metricsService.registerMetric(component, feature, "writeWaitNanos",
+                                      (Gauge<Long>) flowTableMetrics::writeWaitNanos);
+    }
+
+    private void unregisterMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+        metricsService.removeMetric(component, feature, "reads");
+        metricsService.removeMetric(component, feature, "contendedReads");
+        metricsService.removeMetric(component, feature, "writes");
+        metricsService.removeMetric(component, feature, "contendedWrites");
+        metricsService.removeMetric(component, feature, "writeWaitNanos");
     }
 
     private void logConfig(String prefix) {
-        log.info("{} with msgHandlerPoolSize = {}; backupPeriod = {}, backupCount = {}",
-                 prefix, msgHandlerPoolSize, backupPeriod, backupCount);
+        log.info("{} with msgHandlerPoolSize = {}; backupPeriod = {}, backupCount = {}, deltaBackupEnabled = {}",
+                 prefix, msgHandlerPoolSize, backupPeriod, backupCount, deltaBackupEnabled);
     }
 
     // This is not a efficient operation on a distributed sharded
@@ -483,6 +550,7 @@ public class ECFlowRuleStore
                             if (entry != null) {
                                 //FIXME modification of "stored" flow entry outside of flow table
                                 entry.setState(FlowEntryState.PENDING_REMOVE);
+                                flowTable.updated(entry, true);
                                 log.debug("Setting state of rule to pending remove: {}", entry);
                                 return op;
                             }
@@ -512,6 +580,7 @@ public class ECFlowRuleStore
             if (stored != null &&
                     stored.state() != FlowEntryState.PENDING_ADD) {
                 stored.setState(FlowEntryState.PENDING_ADD);
+                flowTable.updated(stored, true);
                 return new FlowRuleEvent(Type.RULE_UPDATED, rule);
             }
         }
@@ -542,8 +611,10 @@ public class ECFlowRuleStore
             stored.setLastSeen();
             if (stored.state() == FlowEntryState.PENDING_ADD) {
                 stored.setState(FlowEntryState.ADDED);
+                flowTable.updated(stored, true);
                 return new FlowRuleEvent(Type.RULE_ADDED, rule);
             }
+            flowTable.updated(stored, false);
             return new FlowRuleEvent(Type.RULE_UPDATED, rule);
         }
 
@@ -665,6 +736,19 @@ public class ECFlowRuleStore
         }
     }
 
+    /**
+     * Sequence of the last backup applied on a backup node.
+     */
+    private static final class AppliedBackup {
+        private final NodeId master;
+        private final long sequence;
+
+        AppliedBackup(NodeId master, long sequence) {
+            this.master = master;
+            this.sequence = sequence;
+        }
+    }
+
     private class InternalFlowTable implements ReplicaInfoEventListener {
 
         //TODO replace the Map<V,V> with ExtendedSet
@@ -674,6 +758,14 @@ public class ECFlowRuleStore
         private final Map<BackupOperation, Long> lastBackupTimes = Maps.newConcurrentMap();
         private final Map<DeviceId, Long> lastUpdateTimes = Maps.newConcurrentMap();
 
+        // delta backup state on the master side
+        private final Map<DeviceId, DirtyFlowTracker> dirtyFlows = Maps.newConcurrentMap();
+        private final Map<BackupOperation, Long> lastBackupSequences = Maps.newConcurrentMap();
+        private final Set<BackupOperation> inFlightBackups = Sets.newConcurrentHashSet();
+
+        // delta backup state on the backup side
+        private final Map<DeviceId, AppliedBackup> appliedBackups = Maps.newConcurrentMap();
+
         @Override
         public void event(ReplicaInfoEvent event) {
             eventHandler.execute(() -> handleEvent(event));
@@ -686,11 +778,17 @@ public class ECFlowRuleStore
             }
             if (event.type() == MASTER_CHANGED) {
                 lastUpdateTimes.put(deviceId, System.currentTimeMillis());
+                // backup nodes may hold a table from another master; start over with a full sync
+                lastBackupSequences.keySet().removeIf(op -> op.deviceId.equals(deviceId));
             }
             backupSenderExecutor.schedule(this::backup, 0, TimeUnit.SECONDS);
         }
 
         private void sendBackups(NodeId nodeId, Set<DeviceId> deviceIds) {
+            if (deltaBackupEnabled) {
+                deviceIds.forEach(deviceId -> backupFlowTable(nodeId, deviceId));
+                return;
+            }
             // split up the devices into smaller batches and send them separately.
             Iterables.partition(deviceIds, FLOW_TABLE_BACKUP_BATCH_SIZE)
                      .forEach(ids -> backupFlowEntries(nodeId, Sets.newHashSet(ids)));
@@ -729,6 +827,82 @@ public class ECFlowRuleStore
                     });
         }
 
+        private void backupFlowTable(NodeId nodeId, DeviceId deviceId) {
+            BackupOperation operation = new BackupOperation(nodeId, deviceId);
+            if (!inFlightBackups.add(operation)) {
+                // previous backup has not been acknowledged yet
+                return;
+            }
+            long backupTime = System.currentTimeMillis();
+            FlowTableBackup backup = buildBackup(deviceId, lastBackupSequences.get(operation));
+            log.debug("Sending {} to {}", backup, nodeId);
+            clusterCommunicator.<FlowTableBackup, Boolean>sendAndReceive(backup,
+                                                                         FLOW_TABLE_DELTA_BACKUP,
+                                                                         backupSerializer::encode,
+                                                                         backupSerializer::decode,
+                                                                         nodeId)
+                    .whenComplete((applied, error) -> {
+                        inFlightBackups.remove(operation);
+                        if (error != null || !Boolean.TRUE.equals(applied)) {
+                            if (error != null) {
+                                log.warn("Failed to backup device: {}. Reason: {}, Node: {}",
+                                         deviceId, error.getMessage(), nodeId);
+                            } else {
+                                log.debug("Backup of device {} rejected by {}; falling back to full sync",
+                                          deviceId, nodeId);
+                            }
+                            lastBackupSequences.remove(operation);
+                            return;
+                        }
+                        lastBackupSequences.put(operation, backup.sequence());
+                        lastBackupTimes.put(operation, backupTime);
+                        pruneDirtyFlows(deviceId);
+                    });
+        }
+
+        private FlowTableBackup buildBackup(DeviceId deviceId, Long lastSequence) {
+            DirtyFlowTracker tracker = getDirtyFlowTracker(deviceId);
+            // read the sequence before the table so that concurrent changes are sent again next round
+            long sequence = tracker.sequence();
+            Set<FlowId> changed = lastSequence == null ? null : tracker.changesSince(lastSequence);
+            Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> table = getFlowTable(deviceId);
+            if (changed == null || changed.size() >= table.size()) {
+                return FlowTableBackup.fullSync(local, deviceId, sequence, table);
+            }
+            return FlowTableBackup.delta(local, deviceId, lastSequence, sequence, changed, table);
+        }
+
+        private DirtyFlowTracker getDirtyFlowTracker(DeviceId deviceId) {
+            return dirtyFlows.computeIfAbsent(deviceId, id -> new DirtyFlowTracker());
+        }
+
+        private void markDirty(DeviceId deviceId, FlowId flowId) {
+            if (deltaBackupEnabled) {
+                getDirtyFlowTracker(deviceId).markDirty(flowId);
+            }
+        }
+
+        private void pruneDirtyFlows(DeviceId deviceId) {
+            long acknowledged = Long.MAX_VALUE;
+            for (NodeId backupNode : getBackupNodes(deviceId)) {
+                Long sequence = lastBackupSequences.get(new BackupOperation(backupNode, deviceId));
+                if (sequence == null) {
+                    // some backup node still needs a full sync
+                    return;
+                }
+                acknowledged = Math.min(acknowledged, sequence);
+            }
+            if (acknowledged != Long.MAX_VALUE) {
+                getDirtyFlowTracker(deviceId).prune(acknowledged);
+            }
+        }
+
+        private void resetDeltaBackups() {
+            dirtyFlows.clear();
+            lastBackupSequences.clear();
+            appliedBackups.clear();
+        }
+
         /**
          * Returns the flow table for specified device.
          *
@@ -758,7 +932,7 @@ public class ECFlowRuleStore
                         })
                         .build());
             } else {
-                return flowEntries.computeIfAbsent(deviceId, id -> Maps.newConcurrentMap());
+                return flowEntries.computeIfAbsent(deviceId, id -> new StripedFlowTable(flowTableMetrics));
             }
         }
 
@@ -786,7 +960,7 @@ public class ECFlowRuleStore
                         })
                         .build());
             } else {
-                flowEntries.computeIfAbsent(deviceId, id -> Maps.newConcurrentMap()).forEach((k, v) -> {
+                getFlowTable(deviceId).forEach((k, v) -> {
                     copy.put(k, Maps.newHashMap(v));
                 });
                 return copy;
@@ -798,13 +972,15 @@ public class ECFlowRuleStore
         }
 
         private StoredFlowEntry getFlowEntryInternal(FlowRule rule) {
-            return getFlowEntriesInternal(rule.deviceId(), rule.id()).get(rule);
+            // plain lookup; do not create an empty bucket for a flow we do not know about
+            Map<StoredFlowEntry, StoredFlowEntry> flowEntries = getFlowTable(rule.deviceId()).get(rule.id());
+            return flowEntries != null ? flowEntries.get(rule) : null;
         }
 
         private Set<FlowEntry> getFlowEntriesInternal(DeviceId deviceId) {
-            return getFlowTable(deviceId).values().stream()
-                        .flatMap(m -> m.values().stream())
-                        .collect(Collectors.toSet());
+            Set<FlowEntry> entries = Sets.newHashSet();
+            getFlowTable(deviceId).forEach((flowId, flowEntries) -> entries.addAll(flowEntries.values()));
+            return entries;
         }
 
         public StoredFlowEntry getFlowEntry(FlowRule rule) {
@@ -822,9 +998,25 @@ public class ECFlowRuleStore
                         //TODO the key is not updated
                         return (StoredFlowEntry) rule;
                     });
+            markDirty(rule.deviceId(), rule.id());
             lastUpdateTimes.put(rule.deviceId(), System.currentTimeMillis());
         }
 
+        /**
+         * Records an in-place update of a stored flow entry, so that the next
+         * delta backup of its device carries it. Statistics refreshes do not
+         * trigger a backup by themselves and are sent along with the next one.
+         *
+         * @param rule         updated flow entry
+         * @param stateChanged whether the state of the entry changed
+         */
+        public void updated(FlowEntry rule, boolean stateChanged) {
+            markDirty(rule.deviceId(), rule.id());
+            if (stateChanged) {
+                lastUpdateTimes.put(rule.deviceId(), System.currentTimeMillis());
+            }
+        }
+
         public FlowEntry remove(DeviceId deviceId, FlowEntry rule) {
             final AtomicReference<FlowEntry> removedRule = new AtomicReference<>();
             final Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> flowTable = getFlowTable(deviceId);
@@ -849,6 +1041,7 @@ public class ECFlowRuleStore
             });
 
             if (removedRule.get() != null) {
+                markDirty(deviceId, rule.id());
                 lastUpdateTimes.put(deviceId, System.currentTimeMillis());
                 return removedRule.get();
             } else {
@@ -858,10 +1051,14 @@ public class ECFlowRuleStore
 
         public void purgeFlowRule(DeviceId deviceId) {
             flowEntries.remove(deviceId);
+            dirtyFlows.remove(deviceId);
+            appliedBackups.remove(deviceId);
+            lastBackupSequences.keySet().removeIf(op -> op.deviceId.equals(deviceId));
         }
 
         public void purgeFlowRules() {
             flowEntries.clear();
+            resetDeltaBackups();
         }
 
         private List<NodeId> getBackupNodes(DeviceId deviceId) {
@@ -912,6 +1109,30 @@ public class ECFlowRuleStore
             }
             return backedupDevices;
         }
+
+        private Boolean onDeltaBackupReceipt(FlowTableBackup backup) {
+            log.debug("Received {} to backup", backup);
+            DeviceId deviceId = backup.deviceId();
+            try {
+                // Only process those devices are that not managed by the local node.
+                if (Objects.equals(local, mastershipService.getMasterFor(deviceId))) {
+                    return false;
+                }
+                AppliedBackup applied = appliedBackups.get(deviceId);
+                if (!backup.follows(applied == null ? null : applied.master,
+                                    applied == null ? FlowTableBackup.FULL_SYNC : applied.sequence)) {
+                    log.debug("Gap in backups of device {}; requesting full sync", deviceId);
+                    return false;
+                }
+                backup.applyTo(getFlowTable(deviceId));
+                appliedBackups.put(deviceId, new AppliedBackup(backup.master(), backup.sequence()));
+                return true;
+            } catch (Exception e) {
+                log.warn("Failure processing backup request", e);
+                appliedBackups.remove(deviceId);
+                return false;
+            }
+        }
     }
 
     @Override
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import org.onosproject.cluster.NodeId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.net.flow.StoredFlowEntry;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Sequenced backup of a single device flow table, sent by the master to a backup node.
+ * <p>
+ * A backup is either a full copy of the flow table or a delta holding only the
+ * flow buckets which changed since {@link #baseSequence()}. A backup node applies
+ * a delta only if it last applied the base sequence from the same master; otherwise
+ * it rejects it and the master falls back to a full sync.
+ */
+final class FlowTableBackup {
+
+    static final long FULL_SYNC = -1;
+
+    private final NodeId master;
+    private final DeviceId deviceId;
+    private final long baseSequence;
+    private final long sequence;
+    private final Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> flowTable;
+    private final Set<FlowId> removedFlowIds;
+
+    /**
+     * Creates a new flow table backup.
+     *
+     * @param master         node sending the backup
+     * @param deviceId       device whose flow table is backed up
+     * @param baseSequence   sequence the delta applies on top of, or {@link #FULL_SYNC}
+     * @param sequence       sequence of the flow table once the backup is applied
+     * @param flowTable      flow buckets to store
+     * @param removedFlowIds flow buckets to remove
+     */
+    FlowTableBackup(NodeId master,
+                    DeviceId deviceId,
+                    long baseSequence,
+                    long sequence,
+                    Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> flowTable,
+                    Set<FlowId> removedFlowIds) {
+        this.master = checkNotNull(master);
+        this.deviceId = checkNotNull(deviceId);
+        this.baseSequence = baseSequence;
+        this.sequence = sequence;
+        this.flowTable = checkNotNull(flowTable);
+        this.removedFlowIds = checkNotNull(removedFlowIds);
+    }
+
+    /**
+     * Creates a full copy of the given flow table.
+     *
+     * @param master   node sending the backup
+     * @param deviceId device whose flow table is backed up
+     * @param sequence sequence of the flow table
+     * @param table    flow table to copy
+     * @return full flow table backup
+     */
+    static FlowTableBackup fullSync(NodeId master,
+                                    DeviceId deviceId,
+                                    long sequence,
+                                    Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> table) {
+        Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> copy = Maps.newHashMap();
+        table.forEach((flowId, bucket) -> copy.put(flowId, Maps.newHashMap(bucket)));
+        return new FlowTableBackup(master, deviceId, FULL_SYNC, sequence, copy, Collections.emptySet());
+    }
+
+    /**
+     * Creates a delta holding only the given flow buckets of the flow table.
+     * <p>
+     * Changed buckets which are missing or empty in the table are sent as removed.
+     *
+     * @param master       node sending the backup
+     * @param deviceId     device whose flow table is backed up
+     * @param baseSequence sequence already known to the backup node
+     * @param sequence     sequence of the flow table
+     * @param changed      flow buckets changed since the base sequence
+     * @param table        flow table to copy the changed buckets from
+     * @return delta flow table backup
+     */
+    static FlowTableBackup delta(NodeId master,
+                                 DeviceId deviceId,
+                                 long baseSequence,
+                                 long sequence,
+                                 Set<FlowId> changed,
+                                 Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> table) {
+        Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> updated = Maps.newHashMap();
+        Set<FlowId> removed = Sets.newHashSet();
+        changed.forEach(flowId -> {
+            Map<StoredFlowEntry, StoredFlowEntry> bucket = table.get(flowId);
+            if (bucket == null || bucket.isEmpty()) {
+                removed.add(flowId);
+            } else {
+                updated.put(flowId, Maps.newHashMap(bucket));
+            }
+        });
+        return new FlowTableBackup(master, deviceId, baseSequence, sequence, updated, removed);
+    }
+
+    /**
+     * Returns the node which sent the backup.
+     *
+     * @return master node identifier
+     */
+    NodeId master() {
+        return master;
+    }
+
+    /**
+     * Returns the device whose flow table is backed up.
+     *
+     * @return device identifier
+     */
+    DeviceId deviceId() {
+        return deviceId;
+    }
+
+    /**
+     * Returns the sequence this backup applies on top of.
+     *
+     * @return base sequence, or {@link #FULL_SYNC} for a full copy
+     */
+    long baseSequence() {
+        return baseSequence;
+    }
+
+    /**
+     * Returns the sequence of the flow table once this backup is applied.
+     *
+     * @return flow table sequence
+     */
+    long sequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns whether this backup is a full copy of the flow table.
+     *
+     * @return true for a full copy; false for a delta
+     */
+    boolean isFullSync() {
+        return baseSequence == FULL_SYNC;
+    }
+
+    /**
+     * Returns the flow buckets carried by this backup.
+     *
+     * @return flow buckets keyed by flow identifier
+     */
+    Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> flowTable() {
+        return flowTable;
+    }
+
+    /**
+     * Returns the identifiers of the flow buckets removed since the base sequence.
+     *
+     * @return removed flow identifiers
+     */
+    Set<FlowId> removedFlowIds() {
+        return removedFlowIds;
+    }
+
+    /**
+     * Returns whether this backup can be applied on top of the given backup state.
+     *
+     * @param appliedMaster   master of the last backup applied, or null if none
+     * @param appliedSequence sequence of the last backup applied
+     * @return true for a full copy or a delta following the applied sequence
+     */
+    boolean follows(NodeId appliedMaster, long appliedSequence) {
+        return isFullSync() || (Objects.equals(master, appliedMaster) && baseSequence == appliedSequence);
+    }
+
+    /**
+     * Applies this backup to the given flow table.
+     *
+     * @param table backup flow table to update
+     */
+    void applyTo(Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> table) {
+        if (isFullSync()) {
+            table.clear();
+        }
+        table.putAll(flowTable);
+        removedFlowIds.forEach(table::remove);
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("master", master)
+                .add("deviceId", deviceId)
+                .add("baseSequence", baseSequence)
+                .add("sequence", sequence)
+                .add("flowBuckets", flowTable.size())
+                .add("removedFlowIds", removedFlowIds.size())
+                .toString();
+    }
+}
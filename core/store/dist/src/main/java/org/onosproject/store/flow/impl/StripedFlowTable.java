@@ -0,0 +1,637 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.net.flow.StoredFlowEntry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Flow table of a single device, striped by flow identifier.
+ * <p>
+ * Flow buckets are spread over a fixed number of stripes, each an open
+ * addressing hash table keyed by the primitive flow identifier and guarded by
+ * its own {@link StampedLock}. Lookups are optimistic and do not block unless a
+ * writer is active on the same stripe; writers only contend with writers on the
+ * same stripe. Iteration is weakly consistent and walks one stripe at a time.
+ * <p>
+ * As with {@link java.util.concurrent.ConcurrentHashMap}, mapping functions are
+ * invoked while holding the stripe lock and must not modify this table.
+ */
+final class StripedFlowTable
+        extends AbstractMap<FlowId, Map<StoredFlowEntry, StoredFlowEntry>>
+        implements ConcurrentMap<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> {
+
+    static final int DEFAULT_STRIPES = 16;
+
+    private static final int INITIAL_STRIPE_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private final Metrics metrics;
+
+    /**
+     * Creates a new flow table with the default number of stripes.
+     *
+     * @param metrics contention metrics to update
+     */
+    StripedFlowTable(Metrics metrics) {
+        this(DEFAULT_STRIPES, metrics);
+    }
+
+    /**
+     * Creates a new flow table.
+     *
+     * @param stripeCount number of stripes; must be a power of two
+     * @param metrics     contention metrics to update
+     */
+    StripedFlowTable(int stripeCount, Metrics metrics) {
+        checkArgument(stripeCount > 0 && Integer.bitCount(stripeCount) == 1,
+                      "stripeCount must be a power of two");
+        this.metrics = checkNotNull(metrics);
+        this.stripes = new Stripe[stripeCount];
+        this.stripeShift = Integer.SIZE - Integer.numberOfTrailingZeros(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public Map<StoredFlowEntry, StoredFlowEntry> get(Object key) {
+        if (!(key instanceof FlowId)) {
+            return null;
+        }
+        long id = ((FlowId) key).value();
+        return cast(read(stripe(id), id));
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Map<StoredFlowEntry, StoredFlowEntry> put(FlowId key, Map<StoredFlowEntry, StoredFlowEntry> value) {
+        checkNotNull(value);
+        long id = key.value();
+        Stripe stripe = stripe(id);
+        long stamp = writeLock(stripe);
+        try {
+            return cast(stripe.put(id, value));
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Map<StoredFlowEntry, StoredFlowEntry> putIfAbsent(FlowId key,
+                                                             Map<StoredFlowEntry, StoredFlowEntry> value) {
+        checkNotNull(value);
+        long id = key.value();
+        Stripe stripe = stripe(id);
+        long stamp = writeLock(stripe);
+        try {
+            Object existing = stripe.find(id);
+            if (existing == null) {
+                stripe.put(id, value);
+            }
+            return cast(existing);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Map<StoredFlowEntry, StoredFlowEntry> remove(Object key) {
+        if (!(key instanceof FlowId)) {
+            return null;
+        }
+        long id = ((FlowId) key).value();
+        Stripe stripe = stripe(id);
+        long stamp = writeLock(stripe);
+        try {
+            return cast(stripe.remove(id));
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (!(key instanceof FlowId) || value == null) {
+            return false;
+        }
+        long id = ((FlowId) key).value();
+        Stripe stripe = stripe(id);
+        long stamp = writeLock(stripe);
+        try {
+            if (value.equals(stripe.find(id))) {
+                stripe.remove(id);
+                return true;
+            }
+            return false;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean replace(FlowId key,
+                           Map<StoredFlowEntry, StoredFlowEntry> oldValue,
+                           Map<StoredFlowEntry, StoredFlowEntry> newValue) {
+        checkNotNull(newValue);
+        long id = key.value();
+        Stripe stripe = stripe(id);
+        long stamp = writeLock(stripe);
+        try {
+            Object existing = stripe.find(id);
+            if (existing != null && existing.equals(oldValue)) {
+                stripe.put(id, newValue);
+                return true;
+            }
+            return false;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Map<StoredFlowEntry, StoredFlowEntry> replace(FlowId key, Map<StoredFlowEntry, StoredFlowEntry> value) {
+        checkNotNull(value);
+        long id = key.value();
+        Stripe stripe = stripe(id);
+        long stamp = writeLock(stripe);
+        try {
+            Object existing = stripe.find(id);
+            if (existing != null) {
+                stripe.put(id, value);
+            }
+            return cast(existing);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Map<StoredFlowEntry, StoredFlowEntry> computeIfAbsent(
+            FlowId key,
+            Function<? super FlowId, ? extends Map<StoredFlowEntry, StoredFlowEntry>> mappingFunction) {
+        long id = key.value();
+        Stripe stripe = stripe(id);
+        // fast path: most lookups hit an existing bucket
+        Object existing = read(stripe, id);
+        if (existing != null) {
+            return cast(existing);
+        }
+        long stamp = writeLock(stripe);
+        try {
+            existing = stripe.find(id);
+            if (existing != null) {
+                return cast(existing);
+            }
+            Map<StoredFlowEntry, StoredFlowEntry> value = mappingFunction.apply(key);
+            if (value != null) {
+                stripe.put(id, value);
+            }
+            return value;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Map<StoredFlowEntry, StoredFlowEntry> computeIfPresent(
+            FlowId key,
+            BiFunction<? super FlowId, ? super Map<StoredFlowEntry, StoredFlowEntry>,
+                    ? extends Map<StoredFlowEntry, StoredFlowEntry>> remappingFunction) {
+        long id = key.value();
+        Stripe stripe = stripe(id);
+        long stamp = writeLock(stripe);
+        try {
+            Map<StoredFlowEntry, StoredFlowEntry> existing = cast(stripe.find(id));
+            if (existing == null) {
+                return null;
+            }
+            Map<StoredFlowEntry, StoredFlowEntry> value = remappingFunction.apply(key, existing);
+            if (value == null) {
+                stripe.remove(id);
+            } else {
+                stripe.put(id, value);
+            }
+            return value;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Map<StoredFlowEntry, StoredFlowEntry> compute(
+            FlowId key,
+            BiFunction<? super FlowId, ? super Map<StoredFlowEntry, StoredFlowEntry>,
+                    ? extends Map<StoredFlowEntry, StoredFlowEntry>> remappingFunction) {
+        long id = key.value();
+        Stripe stripe = stripe(id);
+        long stamp = writeLock(stripe);
+        try {
+            Map<StoredFlowEntry, StoredFlowEntry> value = remappingFunction.apply(key, cast(stripe.find(id)));
+            if (value == null) {
+                stripe.remove(id);
+            } else {
+                stripe.put(id, value);
+            }
+            return value;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                size += stripe.size;
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            long stamp = writeLock(stripe);
+            try {
+                stripe.clear();
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Performs the given action on each flow bucket, one stripe at a time.
+     * <p>
+     * The stripe read lock is held while the action runs; the action must not
+     * modify this table.
+     *
+     * @param action action to perform
+     */
+    @Override
+    public void forEach(BiConsumer<? super FlowId, ? super Map<StoredFlowEntry, StoredFlowEntry>> action) {
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                long[] keys = stripe.keys;
+                Object[] values = stripe.values;
+                for (int i = 0; i < values.length; i++) {
+                    if (values[i] != null) {
+                        action.accept(FlowId.valueOf(keys[i]), cast(values[i]));
+                    }
+                }
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    @Override
+    public Set<Entry<FlowId, Map<StoredFlowEntry, StoredFlowEntry>>> entrySet() {
+        return new EntrySet();
+    }
+
+    private Stripe stripe(long id) {
+        // high bits of the spread hash select the stripe; low bits select the slot
+        return stripes[(spread(id) >>> stripeShift) & (stripes.length - 1)];
+    }
+
+    private Object read(Stripe stripe, long id) {
+        metrics.reads.increment();
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Object value = stripe.find(id);
+            if (stripe.lock.validate(stamp)) {
+                return value;
+            }
+        }
+        metrics.contendedReads.increment();
+        stamp = stripe.lock.readLock();
+        try {
+            return stripe.find(id);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    private long writeLock(Stripe stripe) {
+        metrics.writes.increment();
+        long stamp = stripe.lock.tryWriteLock();
+        if (stamp == 0) {
+            metrics.contendedWrites.increment();
+            long start = System.nanoTime();
+            stamp = stripe.lock.writeLock();
+            metrics.writeWaitNanos.add(System.nanoTime() - start);
+        }
+        return stamp;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<StoredFlowEntry, StoredFlowEntry> cast(Object value) {
+        return (Map<StoredFlowEntry, StoredFlowEntry>) value;
+    }
+
+    private static int spread(long id) {
+        // murmur3 finalizer; flow identifiers are often sequential or share high bits
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * Open addressing hash table with linear probing, keyed by primitive long.
+     * <p>
+     * Mutators require the write lock. {@link #find(long)} tolerates racing
+     * writers; callers validate the optimistic stamp before trusting its result.
+     */
+    private static final class Stripe {
+        private final StampedLock lock = new StampedLock();
+        private long[] keys = new long[INITIAL_STRIPE_CAPACITY];
+        private Object[] values = new Object[INITIAL_STRIPE_CAPACITY];
+        private int size;
+
+        private Object find(long key) {
+            long[] k = keys;
+            Object[] v = values;
+            if (k.length != v.length) {
+                // torn read during a resize
+                return null;
+            }
+            int mask = k.length - 1;
+            int i = home(key, mask);
+            for (int probes = 0; probes <= mask; probes++) {
+                Object value = v[i];
+                if (value == null) {
+                    return null;
+                }
+                if (k[i] == key) {
+                    return value;
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        private Object put(long key, Object value) {
+            int mask = keys.length - 1;
+            int i = home(key, mask);
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    Object old = values[i];
+                    values[i] = value;
+                    return old;
+                }
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            values[i] = value;
+            if (++size > keys.length * LOAD_FACTOR) {
+                resize(keys.length << 1);
+            }
+            return null;
+        }
+
+        private Object remove(long key) {
+            int mask = keys.length - 1;
+            int i = home(key, mask);
+            while (values[i] != null) {
+                if (keys[i] == key) {
+                    Object old = values[i];
+                    shiftBack(i, mask);
+                    size--;
+                    return old;
+                }
+                i = (i + 1) & mask;
+            }
+            return null;
+        }
+
+        private void clear() {
+            keys = new long[INITIAL_STRIPE_CAPACITY];
+            values = new Object[INITIAL_STRIPE_CAPACITY];
+            size = 0;
+        }
+
+        // Fills the hole left by a removal so that probe sequences stay unbroken.
+        private void shiftBack(int hole, int mask) {
+            int i = hole;
+            while (true) {
+                i = (i + 1) & mask;
+                Object value = values[i];
+                if (value == null) {
+                    break;
+                }
+                int home = home(keys[i], mask);
+                boolean movable = hole <= i ? (home <= hole || home > i) : (home <= hole && home > i);
+                if (movable) {
+                    keys[hole] = keys[i];
+                    values[hole] = value;
+                    hole = i;
+                }
+            }
+            values[hole] = null;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            long[] newKeys = new long[capacity];
+            Object[] newValues = new Object[capacity];
+            int mask = capacity - 1;
+            for (int j = 0; j < oldValues.length; j++) {
+                if (oldValues[j] != null) {
+                    int i = home(oldKeys[j], mask);
+                    while (newValues[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    newKeys[i] = oldKeys[j];
+                    newValues[i] = oldValues[j];
+                }
+            }
+            keys = newKeys;
+            values = newValues;
+        }
+
+        private static int home(long key, int mask) {
+            return spread(key) & mask;
+        }
+    }
+
+    /**
+     * Weakly consistent view of the flow buckets; snapshots one stripe at a time.
+     */
+    private final class EntrySet extends AbstractSet<Entry<FlowId, Map<StoredFlowEntry, StoredFlowEntry>>> {
+        @Override
+        public Iterator<Entry<FlowId, Map<StoredFlowEntry, StoredFlowEntry>>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return StripedFlowTable.this.size();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<FlowId, Map<StoredFlowEntry, StoredFlowEntry>>> {
+        private int nextStripe;
+        private long[] keys = new long[0];
+        private Object[] values = new Object[0];
+        private int index;
+        private FlowId lastKey;
+
+        @Override
+        public boolean hasNext() {
+            while (index == keys.length) {
+                if (nextStripe == stripes.length) {
+                    return false;
+                }
+                snapshot(stripes[nextStripe++]);
+            }
+            return true;
+        }
+
+        @Override
+        public Entry<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastKey = FlowId.valueOf(keys[index]);
+            Map<StoredFlowEntry, StoredFlowEntry> value = cast(values[index]);
+            index++;
+            return new SimpleImmutableEntry<>(lastKey, value);
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) {
+                throw new IllegalStateException();
+            }
+            StripedFlowTable.this.remove(lastKey);
+            lastKey = null;
+        }
+
+        private void snapshot(Stripe stripe) {
+            long stamp = stripe.lock.readLock();
+            try {
+                keys = new long[stripe.size];
+                values = new Object[stripe.size];
+                int j = 0;
+                for (int i = 0; i < stripe.values.length; i++) {
+                    if (stripe.values[i] != null) {
+                        keys[j] = stripe.keys[i];
+                        values[j] = stripe.values[i];
+                        j++;
+                    }
+                }
+                index = 0;
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    /**
+     * Lock contention counters, shared by the flow tables of a store.
+     */
+    static final class Metrics {
+        private final LongAdder reads = new LongAdder();
+        private final LongAdder contendedReads = new LongAdder();
+        private final LongAdder writes = new LongAdder();
+        private final LongAdder contendedWrites = new LongAdder();
+        private final LongAdder writeWaitNanos = new LongAdder();
+
+        /**
+         * Returns the number of bucket lookups.
+         *
+         * @return lookup count
+         */
+        long reads() {
+            return reads.sum();
+        }
+
+        /**
+         * Returns the number of lookups which raced with a writer and fell back to the read lock.
+         *
+         * @return contended lookup count
+         */
+        long contendedReads() {
+            return contendedReads.sum();
+        }
+
+        /**
+         * Returns the number of write lock acquisitions.
+         *
+         * @return write count
+         */
+        long writes() {
+            return writes.sum();
+        }
+
+        /**
+         * Returns the number of write lock acquisitions which had to wait.
+         *
+         * @return contended write count
+         */
+        long contendedWrites() {
+            return contendedWrites.sum();
+        }
+
+        /**
+         * Returns the total time writers spent waiting for a stripe lock.
+         *
+         * @return wait time in nanoseconds
+         */
+        long writeWaitNanos() {
+            return writeWaitNanos.sum();
+        }
+    }
+}
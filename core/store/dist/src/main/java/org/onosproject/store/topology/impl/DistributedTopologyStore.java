@@ -15,6 +15,8 @@
  */
 package org.onosproject.store.topology.impl;
 
+import com.codahale.metrics.Gauge;
+import com.google.common.base.Strings;
 import org.apache.felix.scr.annotations.Activate;
 import org.apache.felix.scr.annotations.Component;
 import org.apache.felix.scr.annotations.Deactivate;
@@ -24,6 +26,9 @@ import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
 import org.onlab.graph.GraphPathSearch;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onlab.util.KryoNamespace;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.common.DefaultTopology;
@@ -93,7 +98,9 @@ public class DistributedTopologyStore
 
     private final Logger log = getLogger(getClass());
 
-    private static final String FORMAT = "Settings: linkWeightFunction={}";
+    private static final String FORMAT = "Settings: linkWeightFunction={}, pathCacheSize={}";
+    private static final String METRICS_COMPONENT = "TopologyStore";
+    private static final String METRICS_FEATURE = "pathCache";
 
     private volatile DefaultTopology current =
             new DefaultTopology(ProviderId.NONE,
@@ -116,6 +123,9 @@ public class DistributedTopologyStore
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected DeviceService deviceService;
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY)
+    protected MetricsService metricsService;
+
     private static final String HOP_COUNT = "hopCount";
     private static final String LINK_METRIC = "linkMetric";
     private static final String GEO_DISTANCE = "geoDistance";
@@ -125,6 +135,12 @@ public class DistributedTopologyStore
             label = "Default link-weight function: hopCount, linkMetric, geoDistance")
     private String linkWeightFunction = DEFAULT_LINK_WEIGHT_FUNCTION;
 
+    private static final int DEFAULT_PATH_CACHE_SIZE = 50000;
+    @Property(name = "pathCacheSize", intValue = DEFAULT_PATH_CACHE_SIZE,
+            label = "Maximum number of device pairs whose shortest paths are " +
+                    "cached per topology; 0 disables the cache")
+    private int pathCacheSize = DEFAULT_PATH_CACHE_SIZE;
+
     // Cluster root to broadcast points bindings to allow convergence to
     // a shared broadcast tree; node that is the master of the cluster root
     // is the primary.
@@ -146,12 +162,14 @@ public class DistributedTopologyStore
                 .withTimestampProvider((k, v) -> clockService.getTimestamp())
                 .build();
         broadcastPoints.addListener(listener);
+        registerMetrics();
         log.info("Started");
     }
 
     @Deactivate
     protected void deactivate() {
         configService.unregisterProperties(getClass(), false);
+        unregisterMetrics();
         broadcastPoints.removeListener(listener);
         broadcastPoints.destroy();
         log.info("Stopped");
@@ -171,7 +189,41 @@ public class DistributedTopologyStore
                             new GeoDistanceLinkWeight(deviceService) : null;
             setDefaultLinkWeight(weight);
         }
-        log.info(FORMAT, linkWeightFunction);
+
+        int newPathCacheSize;
+        try {
+            String s = get(properties, "pathCacheSize");
+            newPathCacheSize = Strings.isNullOrEmpty(s) ? pathCacheSize : Integer.parseInt(s.trim());
+        } catch (NumberFormatException | ClassCastException e) {
+            newPathCacheSize = DEFAULT_PATH_CACHE_SIZE;
+        }
+        if (newPathCacheSize >= 0) {
+            pathCacheSize = newPathCacheSize;
+        }
+        DefaultTopology.setPathCacheSize(pathCacheSize);
+        log.info(FORMAT, linkWeightFunction, pathCacheSize);
+    }
+
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+        metricsService.registerMetric(component, feature, "hits",
+                                      (Gauge<Long>) DefaultTopology::pathCacheHitCount);
+        metricsService.registerMetric(component, feature, "misses",
+                                      (Gauge<Long>) DefaultTopology::pathCacheMissCount);
+    }
+
+    private void unregisterMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+        metricsService.removeMetric(component, feature, "hits");
+        metricsService.removeMetric(component, feature, "misses");
     }
 
     @Override
@@ -309,9 +361,10 @@ public class DistributedTopologyStore
     public TopologyEvent updateTopology(ProviderId providerId,
                                         GraphDescription graphDescription,
                                         List<Event> reasons) {
-        // Have the default topology construct self from the description data.
+        // Have the default topology construct self from the description data,
+        // deriving whatever it can from the current topology.
         DefaultTopology newTopology =
-                new DefaultTopology(providerId, graphDescription, this::isBroadcastPoint);
+                new DefaultTopology(providerId, graphDescription, this::isBroadcastPoint, current);
         updateBroadcastPoints(newTopology);
 
         // Promote the new topology to current and return a ready-to-send event.
@@ -332,12 +385,15 @@ public class DistributedTopologyStore
                 .filter(mastershipService::isLocalMaster)
                 .collect(Collectors.toSet());
 
-        // Update the broadcast trees rooted by devices for which we are master.
+        // Update the broadcast trees rooted by devices for which we are master,
+        // unless they are unchanged.
         topology.getClusters().forEach(c -> {
             toRemove.remove(c.root().deviceId());
             if (mastershipService.isLocalMaster(c.root().deviceId())) {
-                broadcastPoints.put(c.root().deviceId(),
-                                    topology.broadcastPoints(c.id()));
+                Set<ConnectPoint> points = topology.broadcastPoints(c.id());
+                if (!points.equals(broadcastPoints.get(c.root().deviceId()))) {
+                    broadcastPoints.put(c.root().deviceId(), points);
+                }
             }
         });
 
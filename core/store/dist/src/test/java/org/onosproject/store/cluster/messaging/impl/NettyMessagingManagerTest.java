@@ -15,6 +15,7 @@
  */
 package org.onosproject.store.cluster.messaging.impl;
 
+import com.codahale.metrics.Histogram;
 import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Uninterruptibles;
@@ -41,12 +42,15 @@ import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.stream.LongStream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -54,6 +58,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.onlab.junit.TestTools.findAvailablePort;
+import static org.onlab.junit.TestUtils.getField;
 
 /**
  * Unit tests for NettyMessaging.
@@ -240,6 +245,126 @@ public class NettyMessagingManagerTest {
         assertEquals("handler-thread", handlerThreadName.get());
     }
 
+    /**
+     * Verifies that messages are all delivered when writes are coalesced and
+     * that they share fewer flushes than there are messages.
+     */
+    @Test
+    public void testSendAsyncWithWriteCoalescing() throws Exception {
+        Endpoint ep3 = new Endpoint(IpAddress.valueOf(IP_STRING), findAvailablePort(5005));
+        NettyMessagingManager netty3 = new NettyMessagingManager();
+        netty3.clusterMetadataService = dummyMetadataService(DUMMY_NAME, IP_STRING, ep3);
+        netty3.clockService = testClockService;
+        netty3.enableWriteCoalescing = true;
+        netty3.writeCoalescingWindowMicros = TimeUnit.MILLISECONDS.toMicros(100);
+        netty3.activate();
+        try {
+            String subject = nextSubject();
+            int messageCount = 100;
+            byte[] payload = "hello world".getBytes();
+            CountDownLatch latch = new CountDownLatch(messageCount);
+            BiConsumer<Endpoint, byte[]> handler = (ep, bytes) -> latch.countDown();
+            netty2.registerHandler(subject, handler, MoreExecutors.directExecutor());
+            for (int i = 0; i < messageCount; i++) {
+                netty3.sendAsync(ep2, subject, payload);
+            }
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+            Histogram batchMessages = getField(netty3, "batchMessages");
+            Histogram batchBytes = getField(netty3, "batchBytes");
+            assertTrue(batchMessages.getCount() > 0);
+            assertTrue(batchMessages.getCount() < messageCount);
+            assertEquals(batchMessages.getCount(), batchBytes.getCount());
+            assertEquals(messageCount, LongStream.of(batchMessages.getSnapshot().getValues()).sum());
+            assertTrue(LongStream.of(batchBytes.getSnapshot().getValues()).sum() >= messageCount * payload.length);
+        } finally {
+            netty3.deactivate();
+        }
+    }
+
+    /**
+     * Tests sending a payload written straight into the transport buffer and
+     * handing it to a buffer handler without copying it out of the inbound buffer.
+     */
+    @Test
+    public void testSendAsyncBuffer() throws Exception {
+        String subject = nextSubject();
+        // larger than the initial payload buffer, so the writer is retried
+        byte[] payload = new byte[10000];
+        Arrays.fill(payload, (byte) 7);
+        AtomicInteger writes = new AtomicInteger();
+        AtomicBoolean direct = new AtomicBoolean();
+        AtomicReference<byte[]> received = new AtomicReference<>();
+        CountDownLatch latch = new CountDownLatch(1);
+        netty2.registerBufferHandler(subject, (ep, buffer) -> {
+            direct.set(buffer.isDirect());
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            received.set(bytes);
+            latch.countDown();
+        }, MoreExecutors.directExecutor());
+
+        netty1.sendAsync(ep2, subject, buffer -> {
+            writes.incrementAndGet();
+            buffer.put(payload);
+        }).join();
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(Arrays.equals(payload, received.get()));
+        assertTrue(direct.get());
+        assertTrue(writes.get() > 1);
+
+        CompletableFuture<Void> response = netty1.sendAsync(invalidEndPoint, subject, buffer -> buffer.put(payload));
+        try {
+            response.join();
+            fail();
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof ConnectException);
+        }
+    }
+
+    /**
+     * Tests that large payloads reach the peer intact once compression is negotiated.
+     */
+    @Test
+    public void testSendWithCompression() throws Exception {
+        Endpoint ep3 = new Endpoint(IpAddress.valueOf(IP_STRING), findAvailablePort(5006));
+        NettyMessagingManager netty3 = new NettyMessagingManager();
+        netty3.clusterMetadataService = dummyMetadataService(DUMMY_NAME, IP_STRING, ep3);
+        netty3.clockService = testClockService;
+        netty3.enableCompression = true;
+        netty3.compressionThreshold = 1024;
+        netty3.compressedMessageTypes = ".*";
+        netty3.activate();
+        try {
+            String subject = nextSubject();
+            byte[] payload = new byte[64 * 1024];
+            Arrays.fill(payload, (byte) 42);
+            int messageCount = 10;
+            CountDownLatch latch = new CountDownLatch(messageCount);
+            AtomicInteger mismatches = new AtomicInteger();
+            BiConsumer<Endpoint, byte[]> handler = (ep, received) -> {
+                if (!Arrays.equals(payload, received)) {
+                    mismatches.incrementAndGet();
+                }
+                latch.countDown();
+            };
+            netty2.registerHandler(subject, handler, MoreExecutors.directExecutor());
+            for (int i = 0; i < messageCount; i++) {
+                // the first messages go out uncompressed while the peer is queried
+                netty3.sendAsync(ep2, subject, payload).join();
+                Thread.sleep(10);
+            }
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            assertEquals(0, mismatches.get());
+
+            netty2.registerHandler(subject, (ep, received) -> received, MoreExecutors.directExecutor());
+            assertTrue(Arrays.equals(payload, netty3.sendAndReceive(ep2, subject, payload).join()));
+        } finally {
+            netty3.deactivate();
+        }
+    }
+
     private ClusterMetadataService dummyMetadataService(String name, String ipAddress, Endpoint ep) {
         return new ClusterMetadataService() {
             @Override
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.cluster.messaging.impl;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.onlab.packet.IpAddress;
+import org.onosproject.core.HybridLogicalTime;
+import org.onosproject.store.cluster.messaging.Endpoint;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for payload compression.
+ */
+public class PayloadCompressorTest {
+
+    private static final int MAX_FRAME_SIZE = 1024 * 1024;
+    private static final int PREAMBLE = 42;
+    private static final Endpoint SENDER = new Endpoint(IpAddress.valueOf("127.0.0.1"), 5001);
+
+    // type byte and payload length offsets in the first message written to a channel:
+    // ip version, IPv4 address and port precede the type; preamble, time and id precede the length
+    private static final int TYPE_OFFSET = 1 + 4 + 4;
+    private static final int LENGTH_OFFSET = TYPE_OFFSET + 1 + 4 + 8 + 8 + 8;
+
+    private static byte[] compressiblePayload() {
+        byte[] payload = new byte[200 * 1024];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) (i % 251 < 64 ? i % 7 : 'a');
+        }
+        return payload;
+    }
+
+    /**
+     * Tests that a compressible payload spanning several chunks survives a round trip.
+     */
+    @Test
+    public void testRoundTrip() {
+        byte[] payload = compressiblePayload();
+        ByteBuf in = Unpooled.wrappedBuffer(payload);
+        ByteBuf compressed = PayloadCompressor.compress(in, PooledByteBufAllocator.DEFAULT);
+        try {
+            assertThat(compressed, notNullValue());
+            assertThat(compressed.readableBytes(), lessThan(payload.length));
+            assertThat(in.readableBytes(), is(payload.length));
+            assertThat(PayloadCompressor.decompress(compressed, MAX_FRAME_SIZE), is(payload));
+        } finally {
+            compressed.release();
+        }
+    }
+
+    /**
+     * Tests that a compressed request is flagged and shrunk on the wire and decoded intact.
+     */
+    @Test
+    public void testWireRoundTrip() {
+        byte[] payload = compressiblePayload();
+        ByteBuf compressed = PayloadCompressor.compress(Unpooled.wrappedBuffer(payload),
+                                                        PooledByteBufAllocator.DEFAULT);
+        InternalRequest request = new InternalRequest(PREAMBLE, new HybridLogicalTime(1, 0), 1,
+                                                      SENDER, "subject", compressed, true);
+
+        EmbeddedChannel encoder = new EmbeddedChannel(new MessageEncoder(SENDER, PREAMBLE));
+        assertThat(encoder.writeOutbound(request), is(true));
+        compressed.release();
+        ByteBuf wire = Unpooled.buffer();
+        for (ByteBuf frame = encoder.readOutbound(); frame != null; frame = encoder.readOutbound()) {
+            wire.writeBytes(frame);
+            frame.release();
+        }
+
+        int typeId = wire.getUnsignedByte(TYPE_OFFSET);
+        assertThat(typeId & PayloadCompressor.COMPRESSED_FLAG, is(PayloadCompressor.COMPRESSED_FLAG));
+        assertThat(typeId & ~PayloadCompressor.COMPRESSED_FLAG, is(InternalMessage.Type.REQUEST.id()));
+        assertThat(wire.getInt(LENGTH_OFFSET), lessThan(payload.length / 2));
+
+        EmbeddedChannel decoder = new EmbeddedChannel(new MessageDecoder(MAX_FRAME_SIZE));
+        decoder.writeInbound(wire);
+        Object decoded = decoder.readInbound();
+        assertThat(decoded, instanceOf(InternalRequest.class));
+        assertThat(((InternalRequest) decoded).payload(), is(payload));
+    }
+
+    /**
+     * Tests that a payload advertising more than the maximum frame size is rejected.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testMaxLength() {
+        byte[] payload = new byte[4096];
+        ByteBuf compressed = PayloadCompressor.compress(Unpooled.wrappedBuffer(payload),
+                                                        PooledByteBufAllocator.DEFAULT);
+        try {
+            PayloadCompressor.decompress(compressed, payload.length - 1);
+        } finally {
+            compressed.release();
+        }
+    }
+
+    /**
+     * Tests that an incompressible payload is left alone.
+     */
+    @Test
+    public void testIncompressible() {
+        byte[] payload = new byte[16 * 1024];
+        new Random(0).nextBytes(payload);
+        assertThat(PayloadCompressor.compress(Unpooled.wrappedBuffer(payload), PooledByteBufAllocator.DEFAULT),
+                   nullValue());
+    }
+
+    /**
+     * Tests that a payload whose length does not match its header is rejected.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testLengthMismatch() {
+        byte[] payload = new byte[4096];
+        ByteBuf compressed = PayloadCompressor.compress(Unpooled.wrappedBuffer(payload),
+                                                        PooledByteBufAllocator.DEFAULT);
+        try {
+            compressed.setInt(1, payload.length + 1);
+            PayloadCompressor.decompress(compressed, MAX_FRAME_SIZE);
+        } finally {
+            compressed.release();
+        }
+    }
+}
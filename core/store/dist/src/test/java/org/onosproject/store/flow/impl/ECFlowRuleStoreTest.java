@@ -16,11 +16,15 @@
 package org.onosproject.store.flow.impl;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import org.onlab.junit.TestUtils;
+
 import org.onosproject.cfg.ComponentConfigAdapter;
 import org.onosproject.cluster.NodeId;
 import org.onosproject.cluster.ClusterService;
@@ -35,6 +39,7 @@ import org.onosproject.net.flow.FlowRule;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchEntry;
 import org.onosproject.net.flow.DefaultFlowEntry;
 import org.onosproject.net.flow.FlowEntry;
+import org.onosproject.net.flow.FlowEntry.FlowEntryState;
 import org.onosproject.net.flow.DefaultFlowRule;
 import org.onosproject.net.flow.oldbatch.FlowRuleBatchOperation;
 import org.onosproject.net.intent.IntentTestsMocks;
@@ -54,6 +59,7 @@ import static org.hamcrest.Matchers.emptyIterable;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.onosproject.net.NetTestTools.APP_ID;
 import static org.onosproject.net.NetTestTools.did;
 
@@ -262,4 +268,46 @@ public class ECFlowRuleStoreTest {
         }
         assertThat(sum3, is(0));
     }
+
+    /**
+     * Tests that in-place state changes of stored flow entries are carried by
+     * the next delta backup.
+     */
+    @Test
+    public void testStateChangesInDeltaBackup() {
+        TestUtils.setField(flowStoreImpl, "deltaBackupEnabled", true);
+        Object flowTable = TestUtils.getField(flowStoreImpl, "flowTable");
+        flowStoreImpl.storeBatch(new FlowRuleBatchOperation(ImmutableList.of(
+                new FlowRuleBatchEntry(FlowRuleBatchEntry.FlowRuleOperation.ADD, flowRule),
+                new FlowRuleBatchEntry(FlowRuleBatchEntry.FlowRuleOperation.ADD, flowRule1)),
+                deviceId, 1));
+        long sequence = backup(flowTable, null).sequence();
+
+        // PENDING_ADD to ADDED
+        flowStoreImpl.addOrUpdateFlowRule(new DefaultFlowEntry(flowRule));
+        FlowTableBackup delta = backup(flowTable, sequence);
+        assertFalse(delta.isFullSync());
+        assertEquals(ImmutableSet.of(flowRule.id()), delta.flowTable().keySet());
+        sequence = delta.sequence();
+
+        // ADDED to PENDING_REMOVE
+        flowStoreImpl.storeBatch(new FlowRuleBatchOperation(ImmutableList.of(
+                new FlowRuleBatchEntry(FlowRuleBatchEntry.FlowRuleOperation.REMOVE, flowRule)),
+                deviceId, 2));
+        delta = backup(flowTable, sequence);
+        assertEquals(ImmutableSet.of(flowRule.id()), delta.flowTable().keySet());
+        assertEquals(FlowEntryState.PENDING_REMOVE,
+                     delta.flowTable().get(flowRule.id()).values().iterator().next().state());
+        sequence = delta.sequence();
+
+        // back to PENDING_ADD
+        flowStoreImpl.pendingFlowRule(new DefaultFlowEntry(flowRule));
+        delta = backup(flowTable, sequence);
+        assertEquals(ImmutableSet.of(flowRule.id()), delta.flowTable().keySet());
+    }
+
+    private FlowTableBackup backup(Object flowTable, Long lastSequence) {
+        return TestUtils.callMethod(flowTable, "buildBackup",
+                                    new Class<?>[] {DeviceId.class, Long.class}, deviceId, lastSequence);
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.net.DeviceId;
+import org.onosproject.net.flow.DefaultFlowEntry;
+import org.onosproject.net.flow.DefaultFlowRule;
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.net.flow.FlowRule;
+import org.onosproject.net.flow.StoredFlowEntry;
+import org.onosproject.net.intent.IntentTestsMocks;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.onosproject.net.NetTestTools.APP_ID;
+import static org.onosproject.net.NetTestTools.did;
+
+/**
+ * Tests the delta flow table backups exchanged between master and backup nodes.
+ */
+public class FlowTableBackupTest {
+
+    private static final NodeId MASTER = new NodeId("1");
+    private static final NodeId OTHER_MASTER = new NodeId("2");
+    private static final DeviceId DEVICE_ID = did("device1");
+    private static final int FLOWS = 10;
+
+    private final Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> masterTable = Maps.newHashMap();
+    private final Map<FlowId, Map<StoredFlowEntry, StoredFlowEntry>> backupTable = Maps.newHashMap();
+    private final FlowId[] flowIds = new FlowId[FLOWS];
+    private DirtyFlowTracker tracker;
+
+    @Before
+    public void setUp() {
+        tracker = new DirtyFlowTracker();
+        for (int i = 0; i < FLOWS; i++) {
+            flowIds[i] = addFlow(i);
+        }
+    }
+
+    private FlowId addFlow(int priority) {
+        FlowRule rule = DefaultFlowRule.builder()
+                .forDevice(DEVICE_ID)
+                .withSelector(new IntentTestsMocks.MockSelector())
+                .withTreatment(new IntentTestsMocks.MockTreatment())
+                .withPriority(priority)
+                .makePermanent()
+                .fromApp(APP_ID)
+                .build();
+        StoredFlowEntry entry = new DefaultFlowEntry(rule);
+        Map<StoredFlowEntry, StoredFlowEntry> bucket = Maps.newHashMap();
+        bucket.put(entry, entry);
+        masterTable.put(rule.id(), bucket);
+        tracker.markDirty(rule.id());
+        return rule.id();
+    }
+
+    private FlowTableBackup backup(Long lastSequence) {
+        long sequence = tracker.sequence();
+        Set<FlowId> changed = lastSequence == null ? null : tracker.changesSince(lastSequence);
+        if (changed == null) {
+            return FlowTableBackup.fullSync(MASTER, DEVICE_ID, sequence, masterTable);
+        }
+        return FlowTableBackup.delta(MASTER, DEVICE_ID, lastSequence, sequence, changed, masterTable);
+    }
+
+    /**
+     * Tests that a delta carries only the flow buckets changed since the last backup.
+     */
+    @Test
+    public void testDeltaCarriesChangedBuckets() {
+        FlowTableBackup full = backup(null);
+        assertTrue(full.isFullSync());
+        assertEquals(FLOWS, full.flowTable().size());
+        assertTrue(full.follows(null, FlowTableBackup.FULL_SYNC));
+        full.applyTo(backupTable);
+        tracker.prune(full.sequence());
+        assertThat(tracker.size(), is(0));
+
+        tracker.markDirty(flowIds[3]);
+        masterTable.remove(flowIds[7]);
+        tracker.markDirty(flowIds[7]);
+
+        FlowTableBackup delta = backup(full.sequence());
+        assertFalse(delta.isFullSync());
+        assertEquals(full.sequence(), delta.baseSequence());
+        assertEquals(ImmutableSet.of(flowIds[3]), delta.flowTable().keySet());
+        assertEquals(ImmutableSet.of(flowIds[7]), delta.removedFlowIds());
+
+        assertTrue(delta.follows(MASTER, full.sequence()));
+        delta.applyTo(backupTable);
+        assertEquals(masterTable.keySet(), backupTable.keySet());
+    }
+
+    /**
+     * Tests that a delta which does not follow the applied sequence is rejected.
+     */
+    @Test
+    public void testGapDetection() {
+        FlowTableBackup full = backup(null);
+        tracker.markDirty(flowIds[1]);
+        FlowTableBackup first = backup(full.sequence());
+        tracker.markDirty(flowIds[2]);
+        FlowTableBackup second = backup(first.sequence());
+
+        // first delta was lost; the backup node only applied the full sync
+        assertFalse(second.follows(MASTER, full.sequence()));
+        // delta from a master the backup node never synced with
+        assertFalse(first.follows(OTHER_MASTER, full.sequence()));
+        // nothing applied yet
+        assertFalse(first.follows(null, FlowTableBackup.FULL_SYNC));
+
+        assertTrue(first.follows(MASTER, full.sequence()));
+        assertTrue(second.follows(MASTER, first.sequence()));
+    }
+
+    /**
+     * Tests the fallback to a full sync once changes are no longer tracked.
+     */
+    @Test
+    public void testFullSyncFallback() {
+        FlowTableBackup full = backup(null);
+        long stale = full.sequence();
+        tracker.markDirty(flowIds[0]);
+        tracker.prune(tracker.sequence());
+
+        // changes after the stale sequence have been pruned
+        assertThat(tracker.changesSince(stale), nullValue());
+        FlowTableBackup fallback = backup(stale);
+        assertTrue(fallback.isFullSync());
+        assertTrue(fallback.follows(MASTER, stale - 1));
+
+        // unknown sequence, e.g. from a previous master term
+        assertThat(tracker.changesSince(tracker.sequence() + 1), nullValue());
+        assertThat(tracker.changesSince(tracker.sequence()), is(empty()));
+    }
+
+    /**
+     * Tests that the tracker stops growing once it exceeds its capacity.
+     */
+    @Test
+    public void testTrackerCapacity() {
+        DirtyFlowTracker capped = new DirtyFlowTracker(FLOWS / 2);
+        for (int i = 0; i < FLOWS / 2; i++) {
+            capped.markDirty(flowIds[i]);
+        }
+        assertThat(capped.size(), is(FLOWS / 2));
+        assertThat(capped.changesSince(0).size(), is(FLOWS / 2));
+
+        capped.markDirty(flowIds[FLOWS / 2]);
+        assertThat(capped.size(), is(0));
+        assertThat(capped.changesSince(0), nullValue());
+        assertThat(capped.changesSince(capped.sequence()), is(empty()));
+
+        capped.markDirty(flowIds[0]);
+        assertThat(capped.changesSince(capped.sequence() - 1), is(ImmutableSet.of(flowIds[0])));
+    }
+}
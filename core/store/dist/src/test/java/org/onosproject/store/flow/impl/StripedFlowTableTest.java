@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.flow.impl;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.net.flow.FlowId;
+import org.onosproject.net.flow.StoredFlowEntry;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import static org.easymock.EasyMock.createMock;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the striped flow table.
+ */
+public class StripedFlowTableTest {
+
+    private static final int FLOW_COUNT = 10000;
+
+    private StripedFlowTable.Metrics metrics;
+    private StripedFlowTable table;
+
+    @Before
+    public void setUp() {
+        metrics = new StripedFlowTable.Metrics();
+        table = new StripedFlowTable(4, metrics);
+    }
+
+    private static Map<StoredFlowEntry, StoredFlowEntry> bucket() {
+        return Maps.newConcurrentMap();
+    }
+
+    /**
+     * Tests basic put, get and remove, including growth of the stripes.
+     */
+    @Test
+    public void testPutGetRemove() {
+        for (long i = 0; i < FLOW_COUNT; i++) {
+            assertThat(table.put(FlowId.valueOf(i * 31), bucket()), nullValue());
+        }
+        assertThat(table.size(), is(FLOW_COUNT));
+
+        for (long i = 0; i < FLOW_COUNT; i++) {
+            assertThat(table.get(FlowId.valueOf(i * 31)), notNullValue());
+        }
+        assertThat(table.get(FlowId.valueOf(1)), nullValue());
+
+        // remove every other bucket; the remaining ones must stay reachable
+        for (long i = 0; i < FLOW_COUNT; i += 2) {
+            assertThat(table.remove(FlowId.valueOf(i * 31)), notNullValue());
+        }
+        assertThat(table.size(), is(FLOW_COUNT / 2));
+        for (long i = 0; i < FLOW_COUNT; i++) {
+            assertThat(table.containsKey(FlowId.valueOf(i * 31)), is(i % 2 == 1));
+        }
+
+        table.clear();
+        assertThat(table.isEmpty(), is(true));
+    }
+
+    /**
+     * Tests the atomic compute operations.
+     */
+    @Test
+    public void testCompute() {
+        FlowId flowId = FlowId.valueOf(42);
+        Map<StoredFlowEntry, StoredFlowEntry> first = table.computeIfAbsent(flowId, id -> bucket());
+        assertThat(table.computeIfAbsent(flowId, id -> bucket()), sameInstance(first));
+
+        Map<StoredFlowEntry, StoredFlowEntry> second = bucket();
+        assertThat(table.computeIfPresent(flowId, (id, b) -> second), sameInstance(second));
+        assertThat(table.get(flowId), sameInstance(second));
+
+        assertThat(table.computeIfPresent(flowId, (id, b) -> null), nullValue());
+        assertThat(table.containsKey(flowId), is(false));
+        assertThat(table.computeIfPresent(flowId, (id, b) -> bucket()), nullValue());
+
+        assertThat(table.compute(flowId, (id, b) -> b == null ? first : null), sameInstance(first));
+        // buckets are compared by value, so the mismatched bucket must not be empty
+        StoredFlowEntry entry = createMock(StoredFlowEntry.class);
+        second.put(entry, entry);
+        assertThat(table.putIfAbsent(flowId, second), sameInstance(first));
+        assertThat(table.remove(flowId, second), is(false));
+        assertThat(table.remove(flowId, first), is(true));
+        assertThat(table.isEmpty(), is(true));
+    }
+
+    /**
+     * Tests that iteration visits every bucket exactly once.
+     */
+    @Test
+    public void testIteration() {
+        Set<FlowId> expected = Sets.newHashSet();
+        for (long i = -500; i < 500; i++) {
+            FlowId flowId = FlowId.valueOf(i << 40);
+            expected.add(flowId);
+            table.put(flowId, bucket());
+        }
+
+        Set<FlowId> visited = Sets.newHashSet();
+        table.forEach((flowId, b) -> assertThat(visited.add(flowId), is(true)));
+        assertThat(visited, is(expected));
+
+        assertThat(Sets.newHashSet(table.keySet()), is(expected));
+        table.keySet().removeIf(flowId -> flowId.value() < 0);
+        assertThat(table.size(), is(500));
+    }
+
+    /**
+     * Tests that the contention metrics count reads and writes.
+     */
+    @Test
+    public void testMetrics() {
+        FlowId flowId = FlowId.valueOf(7);
+        table.put(flowId, bucket());
+        table.get(flowId);
+        table.get(flowId);
+
+        assertThat(metrics.writes(), is(1L));
+        assertThat(metrics.reads(), is(2L));
+        assertThat(metrics.contendedWrites(), is(0L));
+        assertThat(metrics.contendedReads(), is(0L));
+    }
+}
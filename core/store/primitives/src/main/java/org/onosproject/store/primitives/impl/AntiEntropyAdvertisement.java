@@ -17,10 +17,12 @@ package org.onosproject.store.primitives.impl;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 
 import org.onosproject.cluster.NodeId;
 
 import java.util.Map;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -31,17 +33,38 @@ public class AntiEntropyAdvertisement<K> {
 
     private final NodeId sender;
     private final Map<K, MapValue.Digest> digest;
+    private final int bucketCount;
+    private final Set<Integer> buckets;
 
     /**
-     * Creates a new anti entropy advertisement message.
+     * Creates a new anti entropy advertisement message covering all map entries.
      *
      * @param sender the sender's node ID
      * @param digest for map entries
      */
     public AntiEntropyAdvertisement(NodeId sender,
                                     Map<K, MapValue.Digest> digest) {
+        this(sender, digest, 0, ImmutableSet.of());
+    }
+
+    /**
+     * Creates a new anti entropy advertisement message covering the map
+     * entries in the given buckets.
+     *
+     * @param sender      the sender's node ID
+     * @param digest      for map entries in the given buckets
+     * @param bucketCount number of buckets the entries are spread over, or 0
+     *                    if the advertisement covers all map entries
+     * @param buckets     buckets covered by the advertisement
+     */
+    public AntiEntropyAdvertisement(NodeId sender,
+                                    Map<K, MapValue.Digest> digest,
+                                    int bucketCount,
+                                    Set<Integer> buckets) {
         this.sender = checkNotNull(sender);
         this.digest = ImmutableMap.copyOf(checkNotNull(digest));
+        this.bucketCount = bucketCount;
+        this.buckets = ImmutableSet.copyOf(checkNotNull(buckets));
     }
 
     /**
@@ -62,11 +85,39 @@ public class AntiEntropyAdvertisement<K> {
         return digest;
     }
 
+    /**
+     * Returns whether the advertisement only covers some buckets of entries.
+     *
+     * @return true if the advertisement covers a subset of the map entries
+     */
+    public boolean isPartial() {
+        return bucketCount > 0;
+    }
+
+    /**
+     * Returns the number of buckets the map entries are spread over.
+     *
+     * @return number of buckets, or 0 if the advertisement covers all entries
+     */
+    public int bucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * Returns the buckets covered by a partial advertisement.
+     *
+     * @return covered buckets
+     */
+    public Set<Integer> buckets() {
+        return buckets;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(getClass())
                 .add("sender", sender)
                 .add("totalEntries", digest.size())
+                .add("buckets", buckets.size())
                 .toString();
     }
 }
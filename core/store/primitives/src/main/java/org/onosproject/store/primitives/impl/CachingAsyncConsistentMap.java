@@ -17,20 +17,29 @@ package org.onosproject.store.primitives.impl;
 
 import static org.slf4j.LoggerFactory.getLogger;
 
-import java.util.Objects;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.store.service.AsyncConsistentMap;
+import org.onosproject.store.service.MapEvent;
 import org.onosproject.store.service.MapEventListener;
 import org.onosproject.store.service.Versioned;
 import org.slf4j.Logger;
 
+import com.codahale.metrics.Gauge;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Maps;
 
 import static org.onosproject.store.service.DistributedPrimitive.Status.INACTIVE;
 import static org.onosproject.store.service.DistributedPrimitive.Status.SUSPENDED;
@@ -38,8 +47,11 @@ import static org.onosproject.store.service.DistributedPrimitive.Status.SUSPENDE
 /**
  * {@code AsyncConsistentMap} that caches entries on read.
  * <p>
- * The cache entries are automatically invalidated when updates are detected either locally or
- * remotely.
+ * The cache is kept up to date by applying the values carried by the map events, local or remote,
+ * to the cached entries. Updates are ordered by the {@link Versioned#version() version} of the
+ * values so that an event delivered late never replaces a newer cached value. Keys that are not
+ * cached are not populated from events; only reads bring new keys into the cache, which is bounded
+ * by entry count.
  * <p> This implementation only attempts to serve cached entries for {@link AsyncConsistentMap#get get}
  * {@link AsyncConsistentMap#getOrDefault(Object, Object) getOrDefault}, and
  * {@link AsyncConsistentMap#containsKey(Object) containsKey} calls. All other calls skip the cache
@@ -50,12 +62,24 @@ import static org.onosproject.store.service.DistributedPrimitive.Status.SUSPENDE
  */
 public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMap<K, V> {
     private static final int DEFAULT_CACHE_SIZE = 10000;
+    // version of an absent key whose removal was not observed
+    private static final long UNKNOWN_VERSION = -1;
+    private static final String PRIMITIVE_NAME = "consistentMapCache";
+    private static final String HITS = "hits";
+    private static final String MISSES = "misses";
+    // caching maps publishing metrics, by map name; their counts add up in the gauges of the name.
+    // Delegating maps are equal when their backing maps are, so the maps are told apart by identity.
+    private static final Map<String, List<CachingAsyncConsistentMap<?, ?>>> METERED_MAPS =
+            Maps.newConcurrentMap();
     private final Logger log = getLogger(getClass());
 
-    private final LoadingCache<K, CompletableFuture<Versioned<V>>> cache;
-    private final AsyncConsistentMap<K, V> backingMap;
+    private final Cache<K, CacheEntry<V>> cache;
+    private final ConcurrentMap<K, CacheEntry<V>> entries;
     private final MapEventListener<K, V> cacheUpdater;
     private final Consumer<Status> statusListener;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile MetricsService metricsService;
 
     /**
      * Default constructor.
@@ -74,18 +98,9 @@ public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
      */
     public CachingAsyncConsistentMap(AsyncConsistentMap<K, V> backingMap, int cacheSize) {
         super(backingMap);
-        this.backingMap = backingMap;
-        cache = CacheBuilder.newBuilder()
-                            .maximumSize(cacheSize)
-                            .build(CacheLoader.from(CachingAsyncConsistentMap.super::get));
-        cacheUpdater = event -> {
-            Versioned<V> newValue = event.newValue();
-            if (newValue == null) {
-                cache.invalidate(event.key());
-            } else {
-                cache.put(event.key(), CompletableFuture.completedFuture(newValue));
-            }
-        };
+        cache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+        entries = cache.asMap();
+        cacheUpdater = this::applyEvent;
         statusListener = status -> {
             log.debug("{} status changed to {}", this.name(), status);
             // If the status of the underlying map is SUSPENDED or INACTIVE
@@ -98,45 +113,128 @@ public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
         super.addStatusChangeListener(statusListener);
     }
 
+    /**
+     * Returns the number of reads served from the cache.
+     *
+     * @return cache hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of reads that went to the backing map.
+     *
+     * @return cache miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Publishes the cache hit and miss counts as gauges of the metrics service,
+     * until the map is destroyed. Caching maps of the same name share the gauges.
+     *
+     * @param metricsService metrics service
+     */
+    void registerMetrics(MetricsService metricsService) {
+        this.metricsService = metricsService;
+        METERED_MAPS.compute(name(), (name, maps) -> {
+            if (maps == null) {
+                List<CachingAsyncConsistentMap<?, ?>> meteredMaps = new CopyOnWriteArrayList<>();
+                MetricsComponent component = metricsService.registerComponent(PRIMITIVE_NAME);
+                MetricsFeature feature = component.registerFeature(name);
+                metricsService.registerMetric(component, feature, HITS, (Gauge<Long>) () ->
+                        meteredMaps.stream().mapToLong(CachingAsyncConsistentMap::hitCount).sum());
+                metricsService.registerMetric(component, feature, MISSES, (Gauge<Long>) () ->
+                        meteredMaps.stream().mapToLong(CachingAsyncConsistentMap::missCount).sum());
+                maps = meteredMaps;
+            }
+            maps.add(this);
+            return maps;
+        });
+    }
+
+    private void unregisterMetrics() {
+        METERED_MAPS.computeIfPresent(name(), (name, maps) -> {
+            if (maps.removeIf(map -> map == this) && maps.isEmpty()) {
+                MetricsComponent component = metricsService.registerComponent(PRIMITIVE_NAME);
+                MetricsFeature feature = component.registerFeature(name);
+                metricsService.removeMetric(component, feature, HITS);
+                metricsService.removeMetric(component, feature, MISSES);
+                return null;
+            }
+            return maps;
+        });
+    }
+
     @Override
     public CompletableFuture<Void> destroy() {
+        if (metricsService != null) {
+            unregisterMetrics();
+        }
         super.removeStatusChangeListener(statusListener);
         return super.destroy().thenCompose(v -> removeListener(cacheUpdater));
     }
 
     @Override
     public CompletableFuture<Versioned<V>> get(K key) {
-        return cache.getUnchecked(key)
-                .whenComplete((r, e) -> {
-                    if (e != null) {
-                        cache.invalidate(key);
-                    }
-                });
+        CacheEntry<V> entry = entries.get(key);
+        if (entry != null && entry.isLoaded()) {
+            hits.increment();
+            return CompletableFuture.completedFuture(entry.value);
+        }
+        misses.increment();
+        if (entry != null) {
+            return entry.future;
+        }
+
+        CacheEntry<V> loading = new CacheEntry<>(new CompletableFuture<>());
+        entry = entries.putIfAbsent(key, loading);
+        if (entry != null) {
+            return entry.isLoaded() ? CompletableFuture.completedFuture(entry.value) : entry.future;
+        }
+        super.get(key).whenComplete((r, e) -> {
+            if (e == null) {
+                // an update applied while loading takes precedence over the loaded value
+                entries.replace(key, loading, new CacheEntry<>(r, r != null ? r.version() : UNKNOWN_VERSION));
+                loading.future.complete(r);
+            } else {
+                entries.remove(key, loading);
+                loading.future.completeExceptionally(e);
+            }
+        });
+        return loading.future;
     }
 
     @Override
     public CompletableFuture<Versioned<V>> getOrDefault(K key, V defaultValue) {
-        return cache.getUnchecked(key).thenCompose(r -> {
+        return get(key).thenCompose(r -> {
             if (r == null) {
-                CompletableFuture<Versioned<V>> versioned = backingMap.getOrDefault(key, defaultValue);
-                cache.put(key, versioned);
-                return versioned;
+                return super.getOrDefault(key, defaultValue);
             } else {
                 return CompletableFuture.completedFuture(r);
             }
-        }).whenComplete((r, e) -> {
-            if (e != null) {
-                cache.invalidate(key);
-            }
         });
     }
 
+    @Override
+    public CompletableFuture<Boolean> containsKey(K key) {
+        return get(key).thenApply(r -> r != null);
+    }
+
     @Override
     public CompletableFuture<Versioned<V>> computeIf(K key,
             Predicate<? super V> condition,
             BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
         return super.computeIf(key, condition, remappingFunction)
-                .whenComplete((r, e) -> cache.invalidate(key));
+                .whenComplete((r, e) -> {
+                    if (e == null && r != null) {
+                        update(key, new CacheEntry<>(r, r.version()));
+                    } else {
+                        cache.invalidate(key);
+                    }
+                });
     }
 
     @Override
@@ -148,7 +246,13 @@ public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
     @Override
     public CompletableFuture<Versioned<V>> putAndGet(K key, V value) {
         return super.putAndGet(key, value)
-                .whenComplete((r, e) -> cache.invalidate(key));
+                .whenComplete((r, e) -> {
+                    if (e == null && r != null) {
+                        update(key, new CacheEntry<>(r, r.version()));
+                    } else {
+                        cache.invalidate(key);
+                    }
+                });
     }
 
     @Override
@@ -160,14 +264,10 @@ public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
     @Override
     public CompletableFuture<Versioned<V>> remove(K key) {
         return super.remove(key)
-                .whenComplete((r, e) -> cache.invalidate(key));
-    }
-
-    @Override
-    public CompletableFuture<Boolean> containsKey(K key) {
-        return cache.getUnchecked(key).thenApply(Objects::nonNull)
                 .whenComplete((r, e) -> {
-                    if (e != null) {
+                    if (e == null && r != null) {
+                        update(key, removed(r));
+                    } else {
                         cache.invalidate(key);
                     }
                 });
@@ -183,7 +283,7 @@ public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
     public CompletableFuture<Boolean> remove(K key, V value) {
         return super.remove(key, value)
                 .whenComplete((r, e) -> {
-                    if (r) {
+                    if (e != null || r) {
                         cache.invalidate(key);
                     }
                 });
@@ -193,7 +293,7 @@ public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
     public CompletableFuture<Boolean> remove(K key, long version) {
         return super.remove(key, version)
                 .whenComplete((r, e) -> {
-                    if (r) {
+                    if (e != null || r) {
                         cache.invalidate(key);
                     }
                 });
@@ -209,7 +309,7 @@ public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
     public CompletableFuture<Boolean> replace(K key, V oldValue, V newValue) {
         return super.replace(key, oldValue, newValue)
                 .whenComplete((r, e) -> {
-                    if (r) {
+                    if (e != null || r) {
                         cache.invalidate(key);
                     }
                 });
@@ -219,9 +319,81 @@ public class CachingAsyncConsistentMap<K, V> extends DelegatingAsyncConsistentMa
     public CompletableFuture<Boolean> replace(K key, long oldVersion, V newValue) {
         return super.replace(key, oldVersion, newValue)
                 .whenComplete((r, e) -> {
-                    if (r) {
+                    if (e != null || r) {
                         cache.invalidate(key);
                     }
                 });
     }
+
+    /**
+     * Applies the value carried by a map event to the cached entry of its key.
+     *
+     * @param event map event
+     */
+    private void applyEvent(MapEvent<K, V> event) {
+        Versioned<V> newValue = event.newValue();
+        if (newValue != null) {
+            update(event.key(), new CacheEntry<>(newValue, newValue.version()));
+        } else if (event.oldValue() != null) {
+            update(event.key(), removed(event.oldValue()));
+        } else {
+            cache.invalidate(event.key());
+        }
+    }
+
+    /**
+     * Returns the cache entry of a key whose given value was removed.
+     * <p>
+     * The removal is committed after the removed value, so its version is
+     * greater than the removed one and lower than the one of any later value.
+     *
+     * @param removedValue removed value
+     * @return absent key entry
+     */
+    private CacheEntry<V> removed(Versioned<V> removedValue) {
+        return new CacheEntry<>(null, removedValue.version() + 1);
+    }
+
+    /**
+     * Replaces the cached entry of a key if the update is newer.
+     * <p>
+     * Keys that are not cached are left uncached.
+     *
+     * @param key key
+     * @param update updated entry
+     */
+    private void update(K key, CacheEntry<V> update) {
+        CacheEntry<V> current = entries.get(key);
+        while (current != null && (!current.isLoaded() || update.version > current.version)) {
+            if (entries.replace(key, current, update)) {
+                return;
+            }
+            current = entries.get(key);
+        }
+    }
+
+    /**
+     * Cached value of a key, or a pending read of the backing map.
+     */
+    private static final class CacheEntry<V> {
+        private final Versioned<V> value;
+        private final long version;
+        private final CompletableFuture<Versioned<V>> future;
+
+        private CacheEntry(Versioned<V> value, long version) {
+            this.value = value;
+            this.version = version;
+            this.future = null;
+        }
+
+        private CacheEntry(CompletableFuture<Versioned<V>> future) {
+            this.value = null;
+            this.version = UNKNOWN_VERSION;
+            this.future = future;
+        }
+
+        private boolean isLoaded() {
+            return future == null;
+        }
+    }
 }
@@ -203,7 +203,7 @@ public class CoordinationManager implements CoordinationService {
     @Override
     public <E> WorkQueue<E> getWorkQueue(String name, Serializer serializer) {
         checkPermission(STORAGE_WRITE);
-        return primitiveCreator.newWorkQueue(name, serializer);
+        return DistributedPrimitives.newMeteredWorkQueue(primitiveCreator.newWorkQueue(name, serializer));
     }
 
     @Override
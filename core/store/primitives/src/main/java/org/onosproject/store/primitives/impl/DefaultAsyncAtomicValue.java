@@ -85,6 +85,7 @@ public class DefaultAsyncAtomicValue<V> implements AsyncAtomicValue<V> {
         final MeteringAgent.Context newTimer = monitor.startTimer(DESTROY);
         return backingMap.remove(name)
                          .whenComplete((r, e) -> newTimer.stop(e))
+                         .whenComplete((r, e) -> monitor.deregister())
                          .thenApply(v -> null);
     }
 
@@ -71,6 +71,12 @@ public class DefaultAsyncDistributedSet<E> implements AsyncDistributedSet<E> {
         return name;
     }
 
+    @Override
+    public CompletableFuture<Void> destroy() {
+        monitor.deregister();
+        return AsyncDistributedSet.super.destroy();
+    }
+
     @Override
     public CompletableFuture<Integer> size() {
         final MeteringAgent.Context timer = monitor.startTimer(SIZE);
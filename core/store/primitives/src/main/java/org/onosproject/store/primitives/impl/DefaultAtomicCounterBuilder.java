@@ -32,6 +32,7 @@ public class DefaultAtomicCounterBuilder extends AtomicCounterBuilder {
 
     @Override
     public AsyncAtomicCounter build() {
-        return primitiveCreator.newAsyncCounter(name());
+        AsyncAtomicCounter counter = primitiveCreator.newAsyncCounter(name());
+        return meteringEnabled() ? DistributedPrimitives.newMeteredCounter(counter) : counter;
     }
 }
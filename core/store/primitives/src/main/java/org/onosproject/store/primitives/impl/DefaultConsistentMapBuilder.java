@@ -43,7 +43,10 @@ public class DefaultConsistentMapBuilder<K, V> extends ConsistentMapBuilder<K, V
     public AsyncConsistentMap<K, V> buildAsyncMap() {
         AsyncConsistentMap<K, V> map = primitiveCreator.newAsyncConsistentMap(name(), serializer());
         map = nullValues() ? map : DistributedPrimitives.newNotNullMap(map);
-        map = relaxedReadConsistency() ? DistributedPrimitives.newCachingMap(map) : map;
+        if (relaxedReadConsistency()) {
+            map = meteringEnabled() ? DistributedPrimitives.newMeteredCachingMap(map)
+                    : DistributedPrimitives.newCachingMap(map);
+        }
         map = readOnly() ? DistributedPrimitives.newUnmodifiableMap(map) : map;
         return meteringEnabled() ? DistributedPrimitives.newMeteredMap(map) : map;
     }
@@ -36,7 +36,9 @@ public class DefaultConsistentMultimapBuilder<K, V>
 
     @Override
     public AsyncConsistentMultimap<K, V> buildMultimap() {
-        return primitiveCreator.newAsyncConsistentSetMultimap(name(), serializer());
+        AsyncConsistentMultimap<K, V> multimap =
+                primitiveCreator.newAsyncConsistentSetMultimap(name(), serializer());
+        return meteringEnabled() ? DistributedPrimitives.newMeteredMultimap(multimap) : multimap;
     }
 
     @Override
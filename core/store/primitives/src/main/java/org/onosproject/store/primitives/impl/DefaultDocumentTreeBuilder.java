@@ -34,7 +34,8 @@ public class DefaultDocumentTreeBuilder<V> extends DocumentTreeBuilder<V> {
 
     @Override
     public AsyncDocumentTree<V> buildDocumentTree() {
-        return primitiveCreator.newAsyncDocumentTree(name(), serializer(), ordering());
+        AsyncDocumentTree<V> tree = primitiveCreator.newAsyncDocumentTree(name(), serializer(), ordering());
+        return meteringEnabled() ? DistributedPrimitives.newMeteredDocumentTree(tree) : tree;
     }
 
     //TODO
@@ -49,6 +50,6 @@ public class DefaultDocumentTreeBuilder<V> extends DocumentTreeBuilder<V> {
     public AsyncDocumentTree<V> build() {
         AsyncDocumentTree<V> tree = primitiveCreator.newAsyncDocumentTree(name(), serializer(), ordering());
         tree = relaxedReadConsistency() ? DistributedPrimitives.newCachingDocumentTree(tree) : tree;
-        return tree;
+        return meteringEnabled() ? DistributedPrimitives.newMeteredDocumentTree(tree) : tree;
     }
 }
\ No newline at end of file
@@ -15,12 +15,17 @@
  */
 package org.onosproject.store.primitives.impl;
 
+import org.onlab.metrics.MetricsService;
+import org.onlab.osgi.DefaultServiceDirectory;
+import org.onosproject.store.service.AsyncAtomicCounter;
 import org.onosproject.store.service.AsyncAtomicCounterMap;
 import org.onosproject.store.service.AsyncConsistentMap;
 import org.onosproject.store.service.AsyncConsistentMultimap;
 import org.onosproject.store.service.AsyncConsistentTreeMap;
 import org.onosproject.store.service.AsyncDistributedSet;
 import org.onosproject.store.service.AsyncDocumentTree;
+import org.onosproject.store.service.AsyncLeaderElector;
+import org.onosproject.store.service.WorkQueue;
 
 import java.util.function.Function;
 
@@ -54,6 +59,60 @@ public final class DistributedPrimitives {
         return new MeteredAsyncConsistentMap<>(map);
     }
 
+    /**
+     * Creates an instance of {@code AsyncConsistentMultimap} that records metrics for all its operations.
+     *
+     * @param multimap multimap whose operations are to be metered
+     * @return metered multimap
+     * @param <K> multimap key type
+     * @param <V> multimap value type
+     */
+    public static <K, V> AsyncConsistentMultimap<K, V> newMeteredMultimap(AsyncConsistentMultimap<K, V> multimap) {
+        return new MeteredAsyncConsistentMultimap<>(multimap);
+    }
+
+    /**
+     * Creates an instance of {@code AsyncDocumentTree} that records metrics for all its operations.
+     *
+     * @param tree document tree whose operations are to be metered
+     * @return metered document tree
+     * @param <V> tree node value type
+     */
+    public static <V> AsyncDocumentTree<V> newMeteredDocumentTree(AsyncDocumentTree<V> tree) {
+        return new MeteredAsyncDocumentTree<>(tree);
+    }
+
+    /**
+     * Creates an instance of {@code AsyncAtomicCounter} that records metrics for all its operations.
+     *
+     * @param counter counter whose operations are to be metered
+     * @return metered counter
+     */
+    public static AsyncAtomicCounter newMeteredCounter(AsyncAtomicCounter counter) {
+        return new MeteredAsyncAtomicCounter(counter);
+    }
+
+    /**
+     * Creates an instance of {@code AsyncLeaderElector} that records metrics for all its operations.
+     *
+     * @param elector leader elector whose operations are to be metered
+     * @return metered leader elector
+     */
+    public static AsyncLeaderElector newMeteredLeaderElector(AsyncLeaderElector elector) {
+        return new MeteredAsyncLeaderElector(elector);
+    }
+
+    /**
+     * Creates an instance of {@code WorkQueue} that records metrics for all its operations.
+     *
+     * @param queue work queue whose operations are to be metered
+     * @return metered work queue
+     * @param <E> task payload type
+     */
+    public static <E> WorkQueue<E> newMeteredWorkQueue(WorkQueue<E> queue) {
+        return new MeteredWorkQueue<>(queue);
+    }
+
     /**
      * Creates an instance of {@code AsyncConsistentMap} that caches entries on get.
      *
@@ -66,6 +125,21 @@ public final class DistributedPrimitives {
         return new CachingAsyncConsistentMap<>(map);
     }
 
+    /**
+     * Creates an instance of {@code AsyncConsistentMap} that caches entries on get
+     * and publishes its cache hit and miss counts to the metrics service.
+     *
+     * @param map backing map
+     * @return metered caching map
+     * @param <K> map key type
+     * @param <V> map value type
+     */
+    public static <K, V> AsyncConsistentMap<K, V> newMeteredCachingMap(AsyncConsistentMap<K, V> map) {
+        CachingAsyncConsistentMap<K, V> cachingMap = new CachingAsyncConsistentMap<>(map);
+        cachingMap.registerMetrics(DefaultServiceDirectory.getService(MetricsService.class));
+        return cachingMap;
+    }
+
     /**
      * Creates an instance of {@code AsyncConsistentMap} that disallows updates.
      *
@@ -21,6 +21,7 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.onlab.util.AbstractAccumulator;
@@ -62,6 +63,7 @@ import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -89,8 +91,13 @@ public class EventuallyConsistentMapImpl<K, V>
     private static final int WINDOW_SIZE = 5;
     private static final int HIGH_LOAD_THRESHOLD = 2;
     private static final int LOAD_WINDOW = 2;
+    private static final int ANTI_ENTROPY_BUCKET_ENTRIES = 64;
+    private static final int MAX_ANTI_ENTROPY_BUCKETS = 4096;
+    private static final int OFF_HEAP_HOT_VALUES = 1024;
 
     private final Map<K, MapValue<V>> items;
+    // hashes of the serialized keys, needed for every entry in every anti-entropy round
+    private final Map<K, Long> keyHashes = Maps.newConcurrentMap();
     private final ClusterCommunicationService clusterCommunicator;
     private final Serializer serializer;
     private final PersistenceService persistenceService;
@@ -99,6 +106,7 @@ public class EventuallyConsistentMapImpl<K, V>
     private final MessageSubject initializeMessageSubject;
     private final MessageSubject updateMessageSubject;
     private final MessageSubject antiEntropyAdvertisementSubject;
+    private final MessageSubject antiEntropyBucketsSubject;
     private final MessageSubject updateRequestSubject;
     private final Set<EventuallyConsistentMapListener<K, V>> listeners
             = Sets.newCopyOnWriteArraySet();
@@ -112,6 +120,7 @@ public class EventuallyConsistentMapImpl<K, V>
     private final String destroyedMessage;
     private final long initialDelaySec = 5;
     private final boolean lightweightAntiEntropy;
+    private final boolean bucketedAntiEntropy;
     private final boolean tombstonesDisabled;
     private final boolean persistent;
     private final Supplier<List<NodeId>> peersSupplier;
@@ -142,6 +151,8 @@ public class EventuallyConsistentMapImpl<K, V>
      * @param antiEntropyPeriod      period that the anti-entropy task should run
      * @param antiEntropyTimeUnit    time unit for anti-entropy period
      * @param convergeFaster         make anti-entropy try to converge faster
+     * @param bucketedAntiEntropy    make anti-entropy exchange bucket hashes first
+     * @param offHeapStorage         keep serialized values in off-heap memory
      * @param persistent             persist data to disk
      * @param persistenceService     persistence service
      * @param peersSupplier          supplier for peers
@@ -162,6 +173,8 @@ public class EventuallyConsistentMapImpl<K, V>
             long antiEntropyPeriod,
             TimeUnit antiEntropyTimeUnit,
             boolean convergeFaster,
+            boolean bucketedAntiEntropy,
+            boolean offHeapStorage,
             boolean persistent,
             PersistenceService persistenceService,
             Supplier<List<NodeId>> peersSupplier,
@@ -179,6 +192,8 @@ public class EventuallyConsistentMapImpl<K, V>
                     .withName(mapName)
                     .withSerializer(this.serializer)
                     .build();
+        } else if (offHeapStorage) {
+            items = new OffHeapValueMap<>(this.serializer, OFF_HEAP_HOT_VALUES);
         } else {
             items = Maps.newConcurrentMap();
         }
@@ -259,7 +274,7 @@ public class EventuallyConsistentMapImpl<K, V>
         updateMessageSubject = new MessageSubject("ecm-" + mapName + "-update");
         clusterCommunicator.addSubscriber(
                 updateMessageSubject,
-                serializer::decode,
+                serializer,
                 this::processUpdates,
                 this.executor
         );
@@ -273,6 +288,18 @@ public class EventuallyConsistentMapImpl<K, V>
                 this.backgroundExecutor
         );
 
+        antiEntropyBucketsSubject = new MessageSubject("ecm-" + mapName + "-anti-entropy-buckets");
+        this.bucketedAntiEntropy = bucketedAntiEntropy;
+        if (bucketedAntiEntropy) {
+            clusterCommunicator.addSubscriber(
+                    antiEntropyBucketsSubject,
+                    serializer::decode,
+                    this::handleAntiEntropyBucketAdvertisement,
+                    serializer::encode,
+                    this.backgroundExecutor
+            );
+        }
+
         updateRequestSubject = new MessageSubject("ecm-" + mapName + "-update-request");
         clusterCommunicator.addSubscriber(
                 updateRequestSubject,
@@ -313,6 +340,7 @@ public class EventuallyConsistentMapImpl<K, V>
                 .register(MapValue.class)
                 .register(MapValue.Digest.class)
                 .register(UpdateRequest.class)
+                .register(AntiEntropyBucketAdvertisement.class)
                 .build(name() + "-ecmap"));
     }
 
@@ -324,6 +352,9 @@ public class EventuallyConsistentMapImpl<K, V>
     @Override
     public int size() {
         checkState(!destroyed, destroyedMessage);
+        if (items instanceof OffHeapValueMap) {
+            return ((OffHeapValueMap<K, V>) items).liveSize();
+        }
         // TODO: Maintain a separate counter for tracking live elements in map.
         return Maps.filterValues(items, MapValue::isAlive).size();
     }
@@ -569,6 +600,9 @@ public class EventuallyConsistentMapImpl<K, V>
         clusterCommunicator.removeSubscriber(updateMessageSubject);
         clusterCommunicator.removeSubscriber(updateRequestSubject);
         clusterCommunicator.removeSubscriber(antiEntropyAdvertisementSubject);
+        if (bucketedAntiEntropy) {
+            clusterCommunicator.removeSubscriber(antiEntropyBucketsSubject);
+        }
         return CompletableFuture.completedFuture(null);
     }
 
@@ -613,8 +647,14 @@ public class EventuallyConsistentMapImpl<K, V>
     }
 
     private void sendAdvertisementToPeer(NodeId peer) {
-        long adCreationTime = System.currentTimeMillis();
-        AntiEntropyAdvertisement<K> ad = createAdvertisement();
+        if (bucketedAntiEntropy) {
+            sendBucketAdvertisementToPeer(peer);
+        } else {
+            sendAdvertisementToPeer(peer, System.currentTimeMillis(), createAdvertisement());
+        }
+    }
+
+    private void sendAdvertisementToPeer(NodeId peer, long adCreationTime, AntiEntropyAdvertisement<K> ad) {
         clusterCommunicator.sendAndReceive(ad,
                 antiEntropyAdvertisementSubject,
                 serializer::encode,
@@ -630,6 +670,35 @@ public class EventuallyConsistentMapImpl<K, V>
                 });
     }
 
+    /**
+     * Sends the hashes of the buckets of local entries to the peer, which
+     * replies with the buckets that differ from its own. The digests of the
+     * entries in those buckets are then advertised as usual.
+     */
+    private void sendBucketAdvertisementToPeer(NodeId peer) {
+        // tombstones created after this time are not covered by the bucket hashes
+        long adCreationTime = System.currentTimeMillis();
+        int bucketCount = antiEntropyBucketCount();
+        AntiEntropyBucketAdvertisement ad = new AntiEntropyBucketAdvertisement(localNodeId,
+                bucketHashes(bucketCount));
+        clusterCommunicator.<AntiEntropyBucketAdvertisement, Set<Integer>>sendAndReceive(ad,
+                antiEntropyBucketsSubject,
+                serializer::encode,
+                serializer::decode,
+                peer)
+                .whenCompleteAsync((buckets, error) -> {
+                    if (error != null) {
+                        log.debug("Failed to send anti-entropy bucket advertisement to {}: {}",
+                                peer, error.getMessage());
+                    } else if (buckets != null && buckets.isEmpty()) {
+                        // the peer holds the same entries, including our tombstones
+                        antiEntropyTimes.put(peer, adCreationTime);
+                    } else if (buckets != null && !destroyed) {
+                        sendAdvertisementToPeer(peer, adCreationTime, createAdvertisement(bucketCount, buckets));
+                    }
+                }, backgroundExecutor);
+    }
+
     private void sendUpdateRequestToPeer(NodeId peer, Set<K> keys) {
         UpdateRequest<K> request = new UpdateRequest<>(localNodeId, keys);
         clusterCommunicator.unicast(request,
@@ -644,9 +713,111 @@ public class EventuallyConsistentMapImpl<K, V>
                 });
     }
 
+    /**
+     * Performs the given action on the digest of each entry. Off-heap values
+     * are not deserialized for this.
+     */
+    private void forEachDigest(BiConsumer<K, MapValue.Digest> action) {
+        if (items instanceof OffHeapValueMap) {
+            ((OffHeapValueMap<K, V>) items).forEachDigest(action);
+        } else {
+            items.forEach((key, value) -> action.accept(key, value.digest()));
+        }
+    }
+
     private AntiEntropyAdvertisement<K> createAdvertisement() {
-        return new AntiEntropyAdvertisement<>(localNodeId,
-                ImmutableMap.copyOf(Maps.transformValues(items, MapValue::digest)));
+        ImmutableMap.Builder<K, MapValue.Digest> digest = ImmutableMap.builder();
+        forEachDigest(digest::put);
+        return new AntiEntropyAdvertisement<>(localNodeId, digest.build());
+    }
+
+    private AntiEntropyAdvertisement<K> createAdvertisement(int bucketCount, Set<Integer> buckets) {
+        Map<K, MapValue.Digest> digest = Maps.newHashMap();
+        forEachDigest((key, valueDigest) -> {
+            if (buckets.contains(bucketOf(keyHash(key), bucketCount))) {
+                digest.put(key, valueDigest);
+            }
+        });
+        return new AntiEntropyAdvertisement<>(localNodeId, digest, bucketCount, buckets);
+    }
+
+    /**
+     * Returns the number of buckets to spread entries over for anti-entropy.
+     * The count grows with the map so that a bucket holds a bounded number of
+     * entries, up to a maximum that bounds the size of bucket advertisements.
+     */
+    private int antiEntropyBucketCount() {
+        int bucketCount = Integer.highestOneBit(Math.max(1, items.size() / ANTI_ENTROPY_BUCKET_ENTRIES));
+        return Math.min(bucketCount, MAX_ANTI_ENTROPY_BUCKETS);
+    }
+
+    /**
+     * Computes the hash of each bucket of entries. A bucket hash is the XOR of
+     * the hashes of its entries, which makes it independent of iteration order.
+     */
+    private long[] bucketHashes(int bucketCount) {
+        if (keyHashes.size() > 2 * items.size()) {
+            // drop the hashes of keys purged since they were cached
+            keyHashes.keySet().removeIf(key -> !items.containsKey(key));
+        }
+        long[] hashes = new long[bucketCount];
+        forEachDigest((key, digest) -> {
+            long keyHash = keyHash(key);
+            hashes[bucketOf(keyHash, bucketCount)] ^= entryHash(keyHash, digest);
+        });
+        return hashes;
+    }
+
+    /**
+     * Returns the hash of a key, computed over its serialized form so that
+     * all peers agree on it. Hashes are cached, as a key keeps its hash.
+     */
+    private long keyHash(K key) {
+        Long hash = keyHashes.get(key);
+        if (hash == null) {
+            hash = Hashing.murmur3_128().hashBytes(serializer.encode(key)).asLong();
+            keyHashes.put(key, hash);
+        }
+        return hash;
+    }
+
+    private static int bucketOf(long keyHash, int bucketCount) {
+        return Math.floorMod((int) keyHash, bucketCount);
+    }
+
+    private long entryHash(long keyHash, MapValue.Digest digest) {
+        return Hashing.murmur3_128().newHasher()
+                .putLong(keyHash)
+                .putBytes(serializer.encode(digest.timestamp()))
+                .putBoolean(digest.isTombstone())
+                .hash()
+                .asLong();
+    }
+
+    /**
+     * Compares the bucket hashes advertised by a peer with those of the local
+     * entries.
+     *
+     * @param ad bucket advertisement
+     * @return buckets whose hashes differ, or null if the advertisement was ignored
+     */
+    private Set<Integer> handleAntiEntropyBucketAdvertisement(AntiEntropyBucketAdvertisement ad) {
+        if (destroyed || underHighLoad()) {
+            return null;
+        }
+        long[] remoteHashes = ad.bucketHashes();
+        long[] localHashes = bucketHashes(remoteHashes.length);
+        Set<Integer> buckets = new HashSet<>();
+        for (int bucket = 0; bucket < remoteHashes.length; bucket++) {
+            if (localHashes[bucket] != remoteHashes[bucket]) {
+                buckets.add(bucket);
+            }
+        }
+        if (log.isTraceEnabled()) {
+            log.trace("Received anti-entropy bucket advertisement from {} for {} with {} of {} buckets differing",
+                    ad.sender(), mapName, buckets.size(), remoteHashes.length);
+        }
+        return buckets;
     }
 
     private AntiEntropyResponse handleAntiEntropyAdvertisement(AntiEntropyAdvertisement<K> ad) {
@@ -671,6 +842,7 @@ public class EventuallyConsistentMapImpl<K, V>
      * 1. If peer has an old entry, updates peer.
      * 2. If peer indicates an entry is removed and has a more recent
      * timestamp than the local entry, update local state.
+     * A partial ad only covers the local entries in its buckets.
      */
     private List<EventuallyConsistentMapEvent<K, V>> antiEntropyCheckLocalItems(
             AntiEntropyAdvertisement<K> ad) {
@@ -680,13 +852,19 @@ public class EventuallyConsistentMapImpl<K, V>
         Set<K> staleOrMissing = new HashSet<>();
         Set<K> locallyUnknown = new HashSet<>(ad.digest().keySet());
 
-        items.forEach((key, localValue) -> {
+        forEachDigest((key, localDigest) -> {
+            if (ad.isPartial() && !ad.buckets().contains(bucketOf(keyHash(key), ad.bucketCount()))) {
+                return;
+            }
             locallyUnknown.remove(key);
             MapValue.Digest remoteValueDigest = ad.digest().get(key);
-            if (remoteValueDigest == null || localValue.isNewerThan(remoteValueDigest.timestamp())) {
+            if (remoteValueDigest == null || localDigest.isNewerThan(remoteValueDigest)) {
                 // local value is more recent, push to sender
-                queueUpdate(new UpdateEntry<>(key, localValue), peers);
-            } else if (remoteValueDigest.isNewerThan(localValue.digest()) && remoteValueDigest.isTombstone()) {
+                MapValue<V> localValue = items.get(key);
+                if (localValue != null) {
+                    queueUpdate(new UpdateEntry<>(key, localValue), peers);
+                }
+            } else if (remoteValueDigest.isNewerThan(localDigest) && remoteValueDigest.isTombstone()) {
                 // remote value is more recent and a tombstone: update local value
                 MapValue<V> tombstone = MapValue.tombstone(remoteValueDigest.timestamp());
                 MapValue<V> previousValue = removeInternal(key,
@@ -695,7 +873,7 @@ public class EventuallyConsistentMapImpl<K, V>
                 if (previousValue != null && previousValue.isAlive()) {
                     externalEvents.add(new EventuallyConsistentMapEvent<>(mapName, REMOVE, key, previousValue.get()));
                 }
-            } else if (remoteValueDigest.isNewerThan(localValue.digest())) {
+            } else if (remoteValueDigest.isNewerThan(localDigest)) {
                 // Not a tombstone and remote is newer
                 staleOrMissing.add(key);
             }
@@ -732,12 +910,17 @@ public class EventuallyConsistentMapImpl<K, V>
         if (currentSafeTombstonePurgeTime == previousTombstonePurgeTime) {
             return;
         }
+        previousTombstonePurgeTime = currentSafeTombstonePurgeTime;
+        if (items instanceof OffHeapValueMap) {
+            // tombstones are found from the on-heap index without deserializing values
+            ((OffHeapValueMap<K, V>) items).purgeTombstones(currentSafeTombstonePurgeTime);
+            return;
+        }
         List<Map.Entry<K, MapValue<V>>> tombStonesToDelete = items.entrySet()
                 .stream()
                 .filter(e -> e.getValue().isTombstone())
                 .filter(e -> e.getValue().creationTime() <= currentSafeTombstonePurgeTime)
                 .collect(Collectors.toList());
-        previousTombstonePurgeTime = currentSafeTombstonePurgeTime;
         tombStonesToDelete.forEach(entry -> items.remove(entry.getKey(), entry.getValue()));
     }
 
@@ -914,7 +1097,7 @@ public class EventuallyConsistentMapImpl<K, V>
                 try {
                     clusterCommunicator.unicast(ImmutableList.copyOf(map.values()),
                             updateMessageSubject,
-                            serializer::encode,
+                            serializer,
                             peer)
                             .whenComplete((result, error) -> {
                                 if (error != null) {
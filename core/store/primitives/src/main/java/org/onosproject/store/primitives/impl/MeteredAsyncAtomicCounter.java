@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.onosproject.store.service.AsyncAtomicCounter;
+import org.onosproject.utils.MeteringAgent;
+
+/**
+ * {@link AsyncAtomicCounter} that meters all its operations.
+ */
+public class MeteredAsyncAtomicCounter extends DelegatingDistributedPrimitive implements AsyncAtomicCounter {
+
+    private static final String PRIMITIVE_NAME = "atomicCounter";
+    private static final String INCREMENT_AND_GET = "incrementAndGet";
+    private static final String GET_AND_INCREMENT = "getAndIncrement";
+    private static final String GET_AND_ADD = "getAndAdd";
+    private static final String ADD_AND_GET = "addAndGet";
+    private static final String GET = "get";
+    private static final String SET = "set";
+    private static final String COMPARE_AND_SET = "compareAndSet";
+
+    private final AsyncAtomicCounter delegateCounter;
+    private final MeteringAgent monitor;
+
+    public MeteredAsyncAtomicCounter(AsyncAtomicCounter backingCounter) {
+        super(backingCounter);
+        this.delegateCounter = backingCounter;
+        this.monitor = new MeteringAgent(PRIMITIVE_NAME, backingCounter.name(), true);
+    }
+
+    @Override
+    public CompletableFuture<Long> incrementAndGet() {
+        final MeteringAgent.Context timer = monitor.startTimer(INCREMENT_AND_GET);
+        return delegateCounter.incrementAndGet()
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Long> getAndIncrement() {
+        final MeteringAgent.Context timer = monitor.startTimer(GET_AND_INCREMENT);
+        return delegateCounter.getAndIncrement()
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Long> getAndAdd(long delta) {
+        final MeteringAgent.Context timer = monitor.startTimer(GET_AND_ADD);
+        return delegateCounter.getAndAdd(delta)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Long> addAndGet(long delta) {
+        final MeteringAgent.Context timer = monitor.startTimer(ADD_AND_GET);
+        return delegateCounter.addAndGet(delta)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Long> get() {
+        final MeteringAgent.Context timer = monitor.startTimer(GET);
+        return delegateCounter.get()
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Void> set(long value) {
+        final MeteringAgent.Context timer = monitor.startTimer(SET);
+        return delegateCounter.set(value)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> compareAndSet(long expectedValue, long updateValue) {
+        final MeteringAgent.Context timer = monitor.startTimer(COMPARE_AND_SET);
+        return delegateCounter.compareAndSet(expectedValue, updateValue)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Void> destroy() {
+        return super.destroy().whenComplete((r, e) -> monitor.deregister());
+    }
+}
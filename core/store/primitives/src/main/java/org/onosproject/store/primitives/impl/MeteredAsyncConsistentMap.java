@@ -294,6 +294,11 @@ public class MeteredAsyncConsistentMap<K, V>  extends DelegatingAsyncConsistentM
                 .whenComplete((r, e) -> timer.stop(e));
     }
 
+    @Override
+    public CompletableFuture<Void> destroy() {
+        return super.destroy().whenComplete((r, e) -> monitor.deregister());
+    }
+
     private class InternalMeteredMapEventListener implements MapEventListener<K, V> {
 
         private final MapEventListener<K, V> listener;
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import org.onosproject.cluster.Leadership;
+import org.onosproject.cluster.NodeId;
+import org.onosproject.event.Change;
+import org.onosproject.store.service.AsyncLeaderElector;
+import org.onosproject.utils.MeteringAgent;
+
+/**
+ * {@link AsyncLeaderElector} that meters all its operations.
+ */
+public class MeteredAsyncLeaderElector extends DelegatingDistributedPrimitive implements AsyncLeaderElector {
+
+    private static final String PRIMITIVE_NAME = "leaderElector";
+    private static final String RUN = "run";
+    private static final String WITHDRAW = "withdraw";
+    private static final String ANOINT = "anoint";
+    private static final String EVICT = "evict";
+    private static final String PROMOTE = "promote";
+    private static final String GET_LEADERSHIP = "getLeadership";
+    private static final String GET_LEADERSHIPS = "getLeaderships";
+    private static final String ADD_CHANGE_LISTENER = "addChangeListener";
+    private static final String REMOVE_CHANGE_LISTENER = "removeChangeListener";
+
+    private final AsyncLeaderElector delegateElector;
+    private final MeteringAgent monitor;
+
+    public MeteredAsyncLeaderElector(AsyncLeaderElector backingElector) {
+        super(backingElector);
+        this.delegateElector = backingElector;
+        this.monitor = new MeteringAgent(PRIMITIVE_NAME, backingElector.name(), true);
+    }
+
+    @Override
+    public CompletableFuture<Leadership> run(String topic, NodeId nodeId) {
+        final MeteringAgent.Context timer = monitor.startTimer(RUN);
+        return delegateElector.run(topic, nodeId)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Void> withdraw(String topic) {
+        final MeteringAgent.Context timer = monitor.startTimer(WITHDRAW);
+        return delegateElector.withdraw(topic)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> anoint(String topic, NodeId nodeId) {
+        final MeteringAgent.Context timer = monitor.startTimer(ANOINT);
+        return delegateElector.anoint(topic, nodeId)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Void> evict(NodeId nodeId) {
+        final MeteringAgent.Context timer = monitor.startTimer(EVICT);
+        return delegateElector.evict(nodeId)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Boolean> promote(String topic, NodeId nodeId) {
+        final MeteringAgent.Context timer = monitor.startTimer(PROMOTE);
+        return delegateElector.promote(topic, nodeId)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Leadership> getLeadership(String topic) {
+        final MeteringAgent.Context timer = monitor.startTimer(GET_LEADERSHIP);
+        return delegateElector.getLeadership(topic)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Map<String, Leadership>> getLeaderships() {
+        final MeteringAgent.Context timer = monitor.startTimer(GET_LEADERSHIPS);
+        return delegateElector.getLeaderships()
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Void> addChangeListener(Consumer<Change<Leadership>> consumer) {
+        final MeteringAgent.Context timer = monitor.startTimer(ADD_CHANGE_LISTENER);
+        return delegateElector.addChangeListener(consumer)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Void> removeChangeListener(Consumer<Change<Leadership>> consumer) {
+        final MeteringAgent.Context timer = monitor.startTimer(REMOVE_CHANGE_LISTENER);
+        return delegateElector.removeChangeListener(consumer)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Void> destroy() {
+        return super.destroy().whenComplete((r, e) -> monitor.deregister());
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import org.onosproject.store.service.Task;
+import org.onosproject.store.service.WorkQueue;
+import org.onosproject.store.service.WorkQueueStats;
+import org.onosproject.utils.MeteringAgent;
+
+/**
+ * {@link WorkQueue} that meters all its operations.
+ *
+ * @param <E> task payload type
+ */
+public class MeteredWorkQueue<E> extends DelegatingDistributedPrimitive implements WorkQueue<E> {
+
+    private static final String PRIMITIVE_NAME = "workQueue";
+    private static final String ADD_MULTIPLE = "addMultiple";
+    private static final String TAKE = "take";
+    private static final String COMPLETE = "complete";
+    private static final String REGISTER_TASK_PROCESSOR = "registerTaskProcessor";
+    private static final String STOP_PROCESSING = "stopProcessing";
+    private static final String STATS = "stats";
+
+    private final WorkQueue<E> delegateQueue;
+    private final MeteringAgent monitor;
+
+    public MeteredWorkQueue(WorkQueue<E> backingQueue) {
+        super(backingQueue);
+        this.delegateQueue = backingQueue;
+        this.monitor = new MeteringAgent(PRIMITIVE_NAME, backingQueue.name(), true);
+    }
+
+    @Override
+    public CompletableFuture<Void> addMultiple(Collection<E> items) {
+        final MeteringAgent.Context timer = monitor.startTimer(ADD_MULTIPLE);
+        return delegateQueue.addMultiple(items)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Collection<Task<E>>> take(int maxItems) {
+        final MeteringAgent.Context timer = monitor.startTimer(TAKE);
+        return delegateQueue.take(maxItems)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Void> complete(Collection<String> taskIds) {
+        final MeteringAgent.Context timer = monitor.startTimer(COMPLETE);
+        return delegateQueue.complete(taskIds)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Void> registerTaskProcessor(Consumer<E> taskProcessor,
+                                                         int parallelism,
+                                                         Executor executor) {
+        final MeteringAgent.Context timer = monitor.startTimer(REGISTER_TASK_PROCESSOR);
+        return delegateQueue.registerTaskProcessor(taskProcessor, parallelism, executor)
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Void> stopProcessing() {
+        final MeteringAgent.Context timer = monitor.startTimer(STOP_PROCESSING);
+        return delegateQueue.stopProcessing()
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<WorkQueueStats> stats() {
+        final MeteringAgent.Context timer = monitor.startTimer(STATS);
+        return delegateQueue.stats()
+                .whenComplete((r, e) -> timer.stop(e));
+    }
+
+    @Override
+    public CompletableFuture<Void> destroy() {
+        return super.destroy().whenComplete((r, e) -> monitor.deregister());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Allocator of blocks of off-heap memory.
+ * <p>
+ * Memory is reserved in slabs of direct buffers, each split into blocks of a
+ * single power of two size. Freed blocks are recycled for allocations of the
+ * same size class. Data larger than the largest size class gets a dedicated
+ * direct buffer, which is released by the garbage collector.
+ * <p>
+ * The arena does not track readers: a block must only be freed once no new
+ * reader can reach it, and readers of a block that may have been freed must
+ * check that it is still in use before trusting the data they read.
+ */
+final class OffHeapArena {
+
+    private static final int MIN_BLOCK_SHIFT = 5;
+    private static final int MAX_BLOCK_SHIFT = 16;
+    private static final int SLAB_SIZE = 1 << 18;
+    private static final int INITIAL_FREE_BLOCKS = 16;
+
+    private final SizeClass[] sizeClasses = new SizeClass[MAX_BLOCK_SHIFT - MIN_BLOCK_SHIFT + 1];
+
+    /**
+     * Creates a new empty arena.
+     */
+    OffHeapArena() {
+        for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = new SizeClass(1 << (MIN_BLOCK_SHIFT + i));
+        }
+    }
+
+    /**
+     * Allocates a block and copies the given bytes into it.
+     *
+     * @param bytes data to store
+     * @return block holding the data
+     */
+    Block allocate(byte[] bytes) {
+        Block block;
+        if (bytes.length > 1 << MAX_BLOCK_SHIFT) {
+            block = new Block(ByteBuffer.allocateDirect(bytes.length), 0, bytes.length, -1, null);
+        } else {
+            block = sizeClassOf(bytes.length).allocate(bytes.length);
+        }
+        ByteBuffer buffer = block.buffer.duplicate();
+        buffer.position(block.offset);
+        buffer.put(bytes);
+        return block;
+    }
+
+    /**
+     * Copies the data of a block onto the heap.
+     *
+     * @param block block to read
+     * @return copy of the block data
+     */
+    byte[] read(Block block) {
+        byte[] bytes = new byte[block.length];
+        ByteBuffer buffer = block.buffer.duplicate();
+        buffer.position(block.offset);
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Frees a block, making its memory available to later allocations.
+     *
+     * @param block block to free
+     */
+    void free(Block block) {
+        if (block.sizeClass != null) {
+            block.sizeClass.free(block.index);
+        }
+    }
+
+    /**
+     * Returns the amount of off-heap memory reserved in slabs.
+     *
+     * @return reserved bytes
+     */
+    long reservedBytes() {
+        return Arrays.stream(sizeClasses).mapToLong(SizeClass::reservedBytes).sum();
+    }
+
+    private SizeClass sizeClassOf(int length) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(length, 1) - 1);
+        return sizeClasses[Math.max(shift, MIN_BLOCK_SHIFT) - MIN_BLOCK_SHIFT];
+    }
+
+    /**
+     * Block of off-heap memory holding data of a given length.
+     */
+    static final class Block {
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int length;
+        private final int index;
+        private final SizeClass sizeClass;
+
+        private Block(ByteBuffer buffer, int offset, int length, int index, SizeClass sizeClass) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+            this.index = index;
+            this.sizeClass = sizeClass;
+        }
+    }
+
+    /**
+     * Slabs of blocks of a single size.
+     */
+    private static final class SizeClass {
+        private final int blockSize;
+        private final int blocksPerSlab;
+        private final List<ByteBuffer> slabs = Lists.newArrayList();
+        private int[] freeBlocks = new int[INITIAL_FREE_BLOCKS];
+        private int freeCount;
+        private int nextBlock;
+
+        private SizeClass(int blockSize) {
+            this.blockSize = blockSize;
+            this.blocksPerSlab = SLAB_SIZE / blockSize;
+        }
+
+        private synchronized Block allocate(int length) {
+            int index;
+            if (freeCount > 0) {
+                index = freeBlocks[--freeCount];
+            } else {
+                index = nextBlock++;
+                if (index / blocksPerSlab == slabs.size()) {
+                    slabs.add(ByteBuffer.allocateDirect(SLAB_SIZE));
+                }
+            }
+            return new Block(slabs.get(index / blocksPerSlab), (index % blocksPerSlab) * blockSize,
+                    length, index, this);
+        }
+
+        private synchronized void free(int index) {
+            if (freeCount == freeBlocks.length) {
+                freeBlocks = Arrays.copyOf(freeBlocks, freeCount * 2);
+            }
+            freeBlocks[freeCount++] = index;
+        }
+
+        private synchronized long reservedBytes() {
+            return (long) slabs.size() * SLAB_SIZE;
+        }
+    }
+}
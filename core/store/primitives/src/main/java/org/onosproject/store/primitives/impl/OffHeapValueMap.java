@@ -0,0 +1,311 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Maps;
+import org.onosproject.store.Timestamp;
+import org.onosproject.store.service.Serializer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Map of eventually consistent map entries whose values are kept serialized
+ * in off-heap memory.
+ * <p>
+ * Keys and the metadata of values (timestamps, tombstones and creation times)
+ * stay on heap, so anti-entropy can compare entries without deserializing
+ * values. Values are deserialized on access, and a bounded cache holds the
+ * most recently accessed ones.
+ * <p>
+ * Updates must go through {@link #compute}, {@link #put} or the remove methods,
+ * which are atomic per key.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+final class OffHeapValueMap<K, V> extends AbstractMap<K, MapValue<V>> {
+
+    private final Serializer serializer;
+    private final OffHeapArena arena = new OffHeapArena();
+    private final Map<K, Slot> index = Maps.newConcurrentMap();
+    private final Cache<Slot, MapValue<V>> hotValues;
+    private final AtomicInteger liveCount = new AtomicInteger();
+    private final Set<Entry<K, MapValue<V>>> entrySet = new EntrySet();
+
+    /**
+     * Creates a new off-heap value map.
+     *
+     * @param serializer        serializer for values
+     * @param hotValueCacheSize maximum number of deserialized values to cache
+     */
+    OffHeapValueMap(Serializer serializer, int hotValueCacheSize) {
+        this.serializer = checkNotNull(serializer);
+        // slots are replaced on every update, so entries never go stale
+        this.hotValues = CacheBuilder.newBuilder()
+                .maximumSize(hotValueCacheSize)
+                .build();
+    }
+
+    /**
+     * Returns the number of entries that are not tombstones.
+     *
+     * @return number of live entries
+     */
+    int liveSize() {
+        return liveCount.get();
+    }
+
+    /**
+     * Returns the amount of off-heap memory reserved for values.
+     *
+     * @return reserved bytes
+     */
+    long reservedBytes() {
+        return arena.reservedBytes();
+    }
+
+    /**
+     * Performs the given action on the digest of each entry, without
+     * deserializing values.
+     *
+     * @param action action to perform
+     */
+    void forEachDigest(BiConsumer<K, MapValue.Digest> action) {
+        index.forEach((key, slot) -> action.accept(key, new MapValue.Digest(slot.timestamp, slot.block == null)));
+    }
+
+    /**
+     * Removes the tombstones created at or before the given time, without
+     * deserializing values.
+     *
+     * @param safePurgeTime latest creation time of the tombstones to remove
+     * @return number of tombstones removed
+     */
+    int purgeTombstones(long safePurgeTime) {
+        int purged = 0;
+        for (Entry<K, Slot> entry : index.entrySet()) {
+            Slot slot = entry.getValue();
+            // a concurrent update replaces the slot, in which case it is kept
+            if (slot.block == null && slot.creationTime <= safePurgeTime
+                    && index.remove(entry.getKey(), slot)) {
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return index.containsKey(key);
+    }
+
+    @Override
+    public MapValue<V> get(Object key) {
+        return read(key, index.get(key));
+    }
+
+    @Override
+    public MapValue<V> put(K key, MapValue<V> value) {
+        checkNotNull(value);
+        AtomicReference<MapValue<V>> previous = new AtomicReference<>();
+        compute(key, (k, existing) -> {
+            previous.set(existing);
+            return value;
+        });
+        return previous.get();
+    }
+
+    @Override
+    public MapValue<V> compute(K key,
+            BiFunction<? super K, ? super MapValue<V>, ? extends MapValue<V>> remappingFunction) {
+        AtomicReference<Slot> replaced = new AtomicReference<>();
+        AtomicReference<MapValue<V>> result = new AtomicReference<>();
+        index.compute(key, (k, slot) -> {
+            MapValue<V> existing = read(k, slot);
+            MapValue<V> computed = remappingFunction.apply(k, existing);
+            result.set(computed);
+            if (computed == existing) {
+                return slot;
+            }
+            Slot newSlot = computed == null ? null : store(computed);
+            replaced.set(slot);
+            liveCount.addAndGet(liveness(newSlot) - liveness(slot));
+            return newSlot;
+        });
+        // the replaced block may only be reused once readers can no longer reach it
+        release(replaced.get());
+        return result.get();
+    }
+
+    @Override
+    public MapValue<V> remove(Object key) {
+        Slot slot = index.remove(key);
+        if (slot == null) {
+            return null;
+        }
+        liveCount.addAndGet(-liveness(slot));
+        MapValue<V> value = read(slot);
+        release(slot);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(Object key, Object value) {
+        AtomicReference<Slot> removed = new AtomicReference<>();
+        index.computeIfPresent((K) key, (k, slot) -> {
+            if (Objects.equals(read(k, slot), value)) {
+                removed.set(slot);
+                liveCount.addAndGet(-liveness(slot));
+                return null;
+            }
+            return slot;
+        });
+        release(removed.get());
+        return removed.get() != null;
+    }
+
+    @Override
+    public void clear() {
+        index.keySet().forEach(this::remove);
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super MapValue<V>> action) {
+        index.forEach((key, slot) -> {
+            MapValue<V> value = read(key, slot);
+            if (value != null) {
+                action.accept(key, value);
+            }
+        });
+    }
+
+    @Override
+    public Set<Entry<K, MapValue<V>>> entrySet() {
+        return entrySet;
+    }
+
+    private Slot store(MapValue<V> value) {
+        OffHeapArena.Block block = value.isAlive() ? arena.allocate(serializer.encode(value.get())) : null;
+        return new Slot(value.timestamp(), value.creationTime(), block);
+    }
+
+    private void release(Slot slot) {
+        if (slot != null && slot.block != null) {
+            hotValues.invalidate(slot);
+            arena.free(slot.block);
+        }
+    }
+
+    private static int liveness(Slot slot) {
+        return slot != null && slot.block != null ? 1 : 0;
+    }
+
+    /**
+     * Reads the value of a slot the caller knows to be unreachable by writers.
+     */
+    private MapValue<V> read(Slot slot) {
+        if (slot.block == null) {
+            return new MapValue<>(null, slot.timestamp, slot.creationTime);
+        }
+        return new MapValue<>(serializer.decode(arena.read(slot.block)), slot.timestamp, slot.creationTime);
+    }
+
+    /**
+     * Reads the value of a slot looked up for the given key. If the slot is
+     * replaced while its block is read, the block may have been reused, so
+     * the value is read again from the current slot.
+     */
+    private MapValue<V> read(Object key, Slot slot) {
+        while (slot != null) {
+            if (slot.block == null) {
+                return new MapValue<>(null, slot.timestamp, slot.creationTime);
+            }
+            MapValue<V> value = hotValues.getIfPresent(slot);
+            if (value != null) {
+                return value;
+            }
+            byte[] bytes = arena.read(slot.block);
+            Slot current = index.get(key);
+            if (current == slot) {
+                value = new MapValue<>(serializer.decode(bytes), slot.timestamp, slot.creationTime);
+                hotValues.put(slot, value);
+                return value;
+            }
+            slot = current;
+        }
+        return null;
+    }
+
+    /**
+     * Immutable location and metadata of a value.
+     */
+    private static final class Slot {
+        private final Timestamp timestamp;
+        private final long creationTime;
+        private final OffHeapArena.Block block;
+
+        private Slot(Timestamp timestamp, long creationTime, OffHeapArena.Block block) {
+            this.timestamp = timestamp;
+            this.creationTime = creationTime;
+            this.block = block;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, MapValue<V>>> {
+        @Override
+        public Iterator<Entry<K, MapValue<V>>> iterator() {
+            Iterator<Entry<K, Slot>> slots = index.entrySet().iterator();
+            return new AbstractIterator<Entry<K, MapValue<V>>>() {
+                @Override
+                protected Entry<K, MapValue<V>> computeNext() {
+                    while (slots.hasNext()) {
+                        Entry<K, Slot> entry = slots.next();
+                        MapValue<V> value = read(entry.getKey(), entry.getValue());
+                        if (value != null) {
+                            return Maps.immutableEntry(entry.getKey(), value);
+                        }
+                    }
+                    return endOfData();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return index.size();
+        }
+    }
+}
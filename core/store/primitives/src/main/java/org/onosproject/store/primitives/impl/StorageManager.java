@@ -53,6 +53,7 @@ import org.onosproject.store.service.EventuallyConsistentMapBuilder;
 import org.onosproject.store.service.LeaderElectorBuilder;
 import org.onosproject.store.service.MapInfo;
 import org.onosproject.store.service.PartitionInfo;
+import org.onosproject.store.service.PrimitiveLatencyInfo;
 import org.onosproject.store.service.Serializer;
 import org.onosproject.store.service.StorageAdminService;
 import org.onosproject.store.service.StorageService;
@@ -60,6 +61,7 @@ import org.onosproject.store.service.Topic;
 import org.onosproject.store.service.TransactionContextBuilder;
 import org.onosproject.store.service.WorkQueue;
 import org.onosproject.store.service.WorkQueueStats;
+import org.onosproject.utils.MeteringAgent;
 import org.slf4j.Logger;
 
 import java.util.Collection;
@@ -244,7 +246,7 @@ public class StorageManager implements StorageService, StorageAdminService {
     @Override
     public <E> WorkQueue<E> getWorkQueue(String name, Serializer serializer) {
         checkPermission(STORAGE_WRITE);
-        return federatedPrimitiveCreator.newWorkQueue(name, serializer);
+        return DistributedPrimitives.newMeteredWorkQueue(federatedPrimitiveCreator.newWorkQueue(name, serializer));
     }
 
     @Override
@@ -305,6 +307,17 @@ public class StorageManager implements StorageService, StorageAdminService {
         return transactionManager.getPendingTransactions();
     }
 
+    @Override
+    public List<PrimitiveLatencyInfo> getPrimitiveLatencies() {
+        return MeteringAgent.latencyHistograms().entrySet()
+                .stream()
+                .flatMap(type -> type.getValue().entrySet()
+                        .stream()
+                        .map(object -> new PrimitiveLatencyInfo(type.getKey(), object.getKey(),
+                                                                object.getValue().snapshot())))
+                .collect(Collectors.toList());
+    }
+
     private List<MapInfo> listMapInfo(DistributedPrimitiveCreator creator) {
         Serializer serializer = Serializer.using(KryoNamespaces.BASIC);
         return creator.getAsyncConsistentMapNames()
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricFilter;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.onlab.metrics.MetricsManager;
+import org.onosproject.store.service.AsyncConsistentMapAdapter;
+import org.onosproject.store.service.MapEvent;
+import org.onosproject.store.service.MapEventListener;
+import org.onosproject.store.service.Versioned;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the caching consistent map.
+ */
+public class CachingAsyncConsistentMapTest {
+
+    private static final String NAME = "test";
+    private static final String KEY1 = "key1";
+    private static final String KEY2 = "key2";
+
+    private VersionedMap backingMap;
+    private CachingAsyncConsistentMap<String, String> cachingMap;
+
+    @Before
+    public void setUp() {
+        backingMap = new VersionedMap();
+        cachingMap = new CachingAsyncConsistentMap<>(backingMap);
+    }
+
+    /**
+     * Tests that reads are served from the cache once loaded.
+     */
+    @Test
+    public void testReadThrough() {
+        backingMap.write(KEY1, "a");
+        assertThat(cachingMap.get(KEY1).join().value(), is("a"));
+        assertThat(cachingMap.get(KEY1).join().value(), is("a"));
+        assertThat(cachingMap.containsKey(KEY1).join(), is(true));
+        assertThat(cachingMap.get(KEY2).join(), nullValue());
+        assertThat(cachingMap.containsKey(KEY2).join(), is(false));
+
+        assertThat(backingMap.reads, is(2));
+        assertThat(cachingMap.missCount(), is(2L));
+        assertThat(cachingMap.hitCount(), is(3L));
+    }
+
+    /**
+     * Tests that event values update cached entries in version order.
+     */
+    @Test
+    public void testEventUpdates() {
+        backingMap.write(KEY1, "a");
+        cachingMap.get(KEY1).join();
+
+        Versioned<String> first = backingMap.write(KEY1, "b");
+        Versioned<String> second = backingMap.write(KEY1, "c");
+        backingMap.notify(KEY1, second, first);
+        assertThat(cachingMap.get(KEY1).join().value(), is("c"));
+
+        // a late event must not roll the cached entry back
+        backingMap.notify(KEY1, first, null);
+        assertThat(cachingMap.get(KEY1).join().value(), is("c"));
+        assertThat(cachingMap.get(KEY1).join().version(), is(second.version()));
+
+        backingMap.remove(KEY1).join();
+        backingMap.notify(KEY1, null, second);
+        assertThat(cachingMap.get(KEY1).join(), nullValue());
+        backingMap.notify(KEY1, second, first);
+        assertThat(cachingMap.get(KEY1).join(), nullValue());
+
+        assertThat(backingMap.reads, is(1));
+    }
+
+    /**
+     * Tests that events do not bring uncached keys into the cache.
+     */
+    @Test
+    public void testUncachedEvents() {
+        Versioned<String> value = backingMap.write(KEY1, "a");
+        backingMap.notify(KEY1, value, null);
+        assertThat(cachingMap.get(KEY1).join().value(), is("a"));
+        assertThat(backingMap.reads, is(1));
+    }
+
+    /**
+     * Tests that local updates are visible to subsequent reads.
+     */
+    @Test
+    public void testLocalUpdates() {
+        cachingMap.get(KEY1).join();
+        cachingMap.put(KEY1, "a").join();
+        assertThat(cachingMap.get(KEY1).join().value(), is("a"));
+        assertThat(backingMap.reads, is(2));
+
+        cachingMap.putAndGet(KEY1, "b").join();
+        assertThat(cachingMap.get(KEY1).join().value(), is("b"));
+        assertThat(backingMap.reads, is(2));
+
+        cachingMap.remove(KEY1).join();
+        assertThat(cachingMap.get(KEY1).join(), nullValue());
+        assertThat(backingMap.reads, is(2));
+    }
+
+    /**
+     * Tests that the hit and miss counts of the maps of a name are published as gauges.
+     */
+    @Test
+    public void testMetrics() {
+        MetricsManager metricsService = new MetricsManager();
+        CachingAsyncConsistentMap<String, String> otherMap = new CachingAsyncConsistentMap<>(backingMap);
+        cachingMap.registerMetrics(metricsService);
+        otherMap.registerMetrics(metricsService);
+
+        backingMap.write(KEY1, "a");
+        cachingMap.get(KEY1).join();
+        cachingMap.get(KEY1).join();
+        otherMap.get(KEY1).join();
+
+        Map<String, Gauge> gauges = metricsService.getGauges(MetricFilter.ALL);
+        assertThat(gauges.size(), is(2));
+        assertThat(gauges.get("consistentMapCache.test.hits").getValue(), is(1L));
+        assertThat(gauges.get("consistentMapCache.test.misses").getValue(), is(2L));
+
+        // the gauges outlive a destroyed map, without its counts
+        otherMap.destroy().join();
+        assertThat(gauges.get("consistentMapCache.test.misses").getValue(), is(1L));
+        assertThat(metricsService.getGauges(MetricFilter.ALL).size(), is(2));
+        cachingMap.destroy().join();
+        assertThat(metricsService.getGauges(MetricFilter.ALL).isEmpty(), is(true));
+    }
+
+    /**
+     * Versioned map counting reads and delivering events on demand.
+     */
+    private static class VersionedMap extends AsyncConsistentMapAdapter<String, String> {
+        private final Map<String, Versioned<String>> entries = Maps.newHashMap();
+        private final List<MapEventListener<String, String>> listeners = Lists.newArrayList();
+        private long version;
+        private int reads;
+
+        Versioned<String> write(String key, String value) {
+            Versioned<String> versioned = new Versioned<>(value, ++version);
+            entries.put(key, versioned);
+            return versioned;
+        }
+
+        void notify(String key, Versioned<String> newValue, Versioned<String> oldValue) {
+            MapEvent<String, String> event = new MapEvent<>(NAME, key, newValue, oldValue);
+            listeners.forEach(listener -> listener.event(event));
+        }
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> get(String key) {
+            reads++;
+            return CompletableFuture.completedFuture(entries.get(key));
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> put(String key, String value) {
+            Versioned<String> previous = entries.get(key);
+            write(key, value);
+            return CompletableFuture.completedFuture(previous);
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> putAndGet(String key, String value) {
+            return CompletableFuture.completedFuture(write(key, value));
+        }
+
+        @Override
+        public CompletableFuture<Versioned<String>> remove(String key) {
+            version++;
+            return CompletableFuture.completedFuture(entries.remove(key));
+        }
+
+        @Override
+        public CompletableFuture<Void> clear() {
+            entries.clear();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> addListener(MapEventListener<String, String> listener, Executor executor) {
+            listeners.add(listener);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> removeListener(MapEventListener<String, String> listener) {
+            listeners.remove(listener);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package org.onosproject.store.primitives.impl;
 import static com.google.common.base.Preconditions.checkArgument;
 import static junit.framework.TestCase.assertFalse;
 import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.capture;
 import static org.easymock.EasyMock.createMock;
 import static org.easymock.EasyMock.eq;
 import static org.easymock.EasyMock.expect;
@@ -49,6 +50,9 @@ import java.util.function.Supplier;
 
 import com.google.common.collect.ComparisonChain;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.easymock.Capture;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -68,6 +72,7 @@ import org.onosproject.store.serializers.KryoNamespaces;
 import org.onosproject.store.service.EventuallyConsistentMap;
 import org.onosproject.store.service.EventuallyConsistentMapEvent;
 import org.onosproject.store.service.EventuallyConsistentMapListener;
+import org.onosproject.store.service.Serializer;
 import com.google.common.util.concurrent.MoreExecutors;
 
 /**
@@ -92,6 +97,8 @@ public class EventuallyConsistentMapImplTest {
             = new MessageSubject("ecm-" + MAP_NAME + "-anti-entropy");
     private static final MessageSubject UPDATE_REQUEST_SUBJECT
             = new MessageSubject("ecm-" + MAP_NAME + "-update-request");
+    private static final MessageSubject ANTI_ENTROPY_BUCKETS_SUBJECT
+            = new MessageSubject("ecm-" + MAP_NAME + "-anti-entropy-buckets");
 
     private static final String KEY1 = "one";
     private static final String KEY2 = "two";
@@ -104,6 +111,7 @@ public class EventuallyConsistentMapImplTest {
     private Consumer<Collection<UpdateEntry<String, String>>> updateHandler;
     private Consumer<Collection<UpdateRequest<String>>> requestHandler;
     private Function<AntiEntropyAdvertisement<String>, AntiEntropyResponse> antiEntropyHandler;
+    private Function<AntiEntropyBucketAdvertisement, Set<Integer>> antiEntropyBucketHandler;
     private Supplier<List<NodeId>> peersHandler = ArrayList::new;
 
     @Before
@@ -127,7 +135,7 @@ public class EventuallyConsistentMapImplTest {
                 anyObject(Executor.class));
         expectLastCall().andDelegateTo(new TestClusterCommunicationService()).times(1);
         clusterCommunicator.<Object>addSubscriber(anyObject(MessageSubject.class),
-                anyObject(Function.class), anyObject(Consumer.class), anyObject(Executor.class));
+                anyObject(Serializer.class), anyObject(Consumer.class), anyObject(Executor.class));
         expectLastCall().andDelegateTo(new TestClusterCommunicationService()).times(1);
         clusterCommunicator.<Object, Object>addSubscriber(anyObject(MessageSubject.class),
                                                           anyObject(Function.class),
@@ -677,6 +685,75 @@ public class EventuallyConsistentMapImplTest {
         }
     }
 
+    @Test
+    public void testBucketedAntiEntropy() throws Exception {
+        ClusterCommunicationService communicator = createMock(ClusterCommunicationService.class);
+        communicator.<Object, Object>addSubscriber(anyObject(MessageSubject.class),
+                anyObject(Function.class),
+                anyObject(Function.class),
+                anyObject(Function.class));
+        expectLastCall().andDelegateTo(new TestClusterCommunicationService()).times(1);
+        communicator.<Object, Object>addSubscriber(anyObject(MessageSubject.class),
+                anyObject(Function.class),
+                anyObject(Function.class),
+                anyObject(Function.class),
+                anyObject(Executor.class));
+        expectLastCall().andDelegateTo(new TestClusterCommunicationService()).times(3);
+        communicator.<Object>addSubscriber(anyObject(MessageSubject.class),
+                anyObject(Function.class), anyObject(Consumer.class), anyObject(Executor.class));
+        expectLastCall().andDelegateTo(new TestClusterCommunicationService()).times(1);
+        communicator.<Object>addSubscriber(anyObject(MessageSubject.class),
+                anyObject(Serializer.class), anyObject(Consumer.class), anyObject(Executor.class));
+        expectLastCall().andDelegateTo(new TestClusterCommunicationService()).times(1);
+        replay(communicator);
+
+        EventuallyConsistentMap<String, String> map = new EventuallyConsistentMapBuilderImpl<String, String>(
+                NodeId.nodeId("0"),
+                communicator,
+                persistenceService,
+                peersHandler,
+                peersHandler
+                )
+                .withName(MAP_NAME)
+                .withSerializer(KryoNamespace.newBuilder()
+                        .register(KryoNamespaces.API)
+                        .register(TestTimestamp.class))
+                .withTimestampProvider((k, v) -> clockService.getTimestamp(k, v))
+                .withCommunicationExecutor(MoreExecutors.newDirectExecutorService())
+                .withBucketedAntiEntropy()
+                .build();
+        verify(communicator);
+
+        NodeId peer = NodeId.nodeId("peer");
+        // an empty map has a single bucket whose hash is zero
+        AntiEntropyBucketAdvertisement inSync = new AntiEntropyBucketAdvertisement(peer, new long[] {0L});
+        assertTrue(antiEntropyBucketHandler.apply(inSync).isEmpty());
+
+        Timestamp timestamp1 = clockService.peekAtNextTimestamp();
+        map.put(KEY1, VALUE1);
+        assertEquals(ImmutableSet.of(0), antiEntropyBucketHandler.apply(inSync));
+
+        // a partial advertisement of the differing bucket requests the missing entry
+        reset(communicator);
+        Capture<UpdateRequest<String>> request = new Capture<>();
+        expect(communicator.<UpdateRequest<String>>unicast(capture(request),
+                eq(UPDATE_REQUEST_SUBJECT),
+                anyObject(Function.class),
+                eq(peer)))
+                .andReturn(CompletableFuture.completedFuture(null));
+        replay(communicator);
+        AntiEntropyAdvertisement<String> ad = new AntiEntropyAdvertisement<>(peer,
+                ImmutableMap.of(KEY1, new MapValue.Digest(timestamp1, false),
+                                KEY2, new MapValue.Digest(clockService.peekAtNextTimestamp(), false)),
+                1, ImmutableSet.of(0));
+        assertEquals(AntiEntropyResponse.PROCESSED, antiEntropyHandler.apply(ad));
+        assertEquals(ImmutableSet.of(KEY2), request.getValue().keys());
+        verify(communicator);
+
+        reset(communicator);
+        map.destroy();
+    }
+
     private UpdateEntry<String, String> generatePutMessage(String key, String value, Timestamp timestamp) {
         return new UpdateEntry<>(key, new MapValue<>(value, timestamp));
     }
@@ -765,6 +842,13 @@ public class EventuallyConsistentMapImplTest {
                     anyObject(NodeId.class)))
                 .andReturn(CompletableFuture.completedFuture(null))
                 .anyTimes();
+        expect(clusterCommunicator.<T>unicast(
+                    anyObject(),
+                    anyObject(MessageSubject.class),
+                    anyObject(Serializer.class),
+                    anyObject(NodeId.class)))
+                .andReturn(CompletableFuture.completedFuture(null))
+                .anyTimes();
         replay(clusterCommunicator);
     }
 
@@ -797,11 +881,20 @@ public class EventuallyConsistentMapImplTest {
 
         @Override
         public <M> void addSubscriber(MessageSubject subject,
-                Function<byte[], M> decoder, Consumer<M> handler,
+                Serializer serializer, Consumer<M> handler,
                 Executor executor) {
             if (subject.equals(UPDATE_MESSAGE_SUBJECT)) {
                 updateHandler = (Consumer<Collection<UpdateEntry<String, String>>>) handler;
-            } else if (subject.equals(UPDATE_REQUEST_SUBJECT)) {
+            } else {
+                throw new RuntimeException("Unexpected message subject " + subject.toString());
+            }
+        }
+
+        @Override
+        public <M> void addSubscriber(MessageSubject subject,
+                Function<byte[], M> decoder, Consumer<M> handler,
+                Executor executor) {
+            if (subject.equals(UPDATE_REQUEST_SUBJECT)) {
                 requestHandler = (Consumer<Collection<UpdateRequest<String>>>) handler;
             } else {
                 throw new RuntimeException("Unexpected message subject " + subject.toString());
@@ -813,6 +906,8 @@ public class EventuallyConsistentMapImplTest {
                 Function<byte[], M> decoder, Function<M, R> handler, Function<R, byte[]> encoder, Executor executor) {
             if (subject.equals(ANTI_ENTROPY_MESSAGE_SUBJECT)) {
                 antiEntropyHandler = (Function<AntiEntropyAdvertisement<String>, AntiEntropyResponse>) handler;
+            } else if (subject.equals(ANTI_ENTROPY_BUCKETS_SUBJECT)) {
+                antiEntropyBucketHandler = (Function<AntiEntropyBucketAdvertisement, Set<Integer>>) handler;
             } else if (!subject.equals(INITIALIZE_MESSAGE_SUBJECT)) {
                 throw new RuntimeException("Unexpected message subject " + subject.toString());
             }
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.store.primitives.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.onosproject.store.LogicalTimestamp;
+import org.onosproject.store.serializers.KryoNamespaces;
+import org.onosproject.store.service.Serializer;
+
+/**
+ * Unit tests for OffHeapValueMap.
+ */
+public class OffHeapValueMapTest {
+
+    private OffHeapValueMap<String, String> map;
+
+    @Before
+    public void setUp() {
+        map = new OffHeapValueMap<>(Serializer.using(KryoNamespaces.API), 4);
+    }
+
+    @Test
+    public void testPutGetRemove() {
+        for (int i = 0; i < 100; i++) {
+            assertNull(map.put("key" + i, new MapValue<>("value" + i, new LogicalTimestamp(i))));
+        }
+        assertEquals(100, map.size());
+        assertEquals(100, map.liveSize());
+        for (int i = 0; i < 100; i++) {
+            MapValue<String> value = map.get("key" + i);
+            assertEquals("value" + i, value.get());
+            assertEquals(new LogicalTimestamp(i), value.timestamp());
+        }
+
+        MapValue<String> previous = map.put("key0", MapValue.tombstone(new LogicalTimestamp(100)));
+        assertEquals("value0", previous.get());
+        assertTrue(map.get("key0").isTombstone());
+        assertEquals(100, map.size());
+        assertEquals(99, map.liveSize());
+
+        assertEquals("value1", map.remove("key1").get());
+        assertNull(map.get("key1"));
+        assertFalse(map.remove("key2", new MapValue<>("other", new LogicalTimestamp(2))));
+        assertTrue(map.remove("key2", map.get("key2")));
+        assertEquals(98, map.size());
+        assertEquals(97, map.liveSize());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, map.liveSize());
+    }
+
+    @Test
+    public void testCompute() {
+        MapValue<String> first = new MapValue<>("first", new LogicalTimestamp(1));
+        assertEquals(first, map.compute("key", (k, v) -> v == null ? first : v));
+
+        // returning the existing value leaves the entry untouched
+        MapValue<String> existing = map.get("key");
+        assertEquals(existing, map.compute("key", (k, v) -> v));
+        assertEquals(first, map.get("key"));
+
+        MapValue<String> second = new MapValue<>("second", new LogicalTimestamp(2));
+        assertEquals(second, map.compute("key", (k, v) -> second));
+        assertEquals(second, map.get("key"));
+
+        assertNull(map.compute("key", (k, v) -> null));
+        assertFalse(map.containsKey("key"));
+    }
+
+    @Test
+    public void testIteration() {
+        Map<String, MapValue<String>> expected = Maps.newHashMap();
+        for (int i = 0; i < 10; i++) {
+            MapValue<String> value = new MapValue<>("value" + i, new LogicalTimestamp(i));
+            map.put("key" + i, value);
+            expected.put("key" + i, value);
+        }
+        MapValue<String> tombstone = MapValue.tombstone(new LogicalTimestamp(10));
+        map.put("removed", tombstone);
+        expected.put("removed", tombstone);
+
+        Map<String, MapValue<String>> actual = Maps.newHashMap();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+        assertEquals(expected.entrySet(), map.entrySet());
+
+        Map<String, MapValue.Digest> digests = Maps.newHashMap();
+        map.forEachDigest(digests::put);
+        assertEquals(Maps.transformValues(expected, MapValue::digest), digests);
+    }
+
+    @Test
+    public void testMemoryReuse() {
+        for (int i = 0; i < 1000; i++) {
+            map.put("key" + i, new MapValue<>(Strings.repeat("x", 100), new LogicalTimestamp(i)));
+        }
+        long reservedBytes = map.reservedBytes();
+        for (int round = 1; round <= 10; round++) {
+            for (int i = 0; i < 1000; i++) {
+                map.put("key" + i, new MapValue<>(Strings.repeat("y", 100), new LogicalTimestamp(round * 1000 + i)));
+            }
+        }
+        // replaced values free their blocks for the next ones
+        assertEquals(reservedBytes, map.reservedBytes());
+        assertEquals(Strings.repeat("y", 100), map.get("key0").get());
+    }
+
+    @Test
+    public void testLargeValue() {
+        String large = Strings.repeat("z", 100000);
+        map.put("key", new MapValue<>(large, new LogicalTimestamp(1)));
+        assertEquals(large, map.get("key").get());
+    }
+
+    @Test
+    public void testPurgeTombstones() {
+        AtomicInteger decodes = new AtomicInteger();
+        Serializer serializer = Serializer.using(KryoNamespaces.API);
+        OffHeapValueMap<String, String> countingMap = new OffHeapValueMap<>(new Serializer() {
+            @Override
+            public <T> byte[] encode(T object) {
+                return serializer.encode(object);
+            }
+
+            @Override
+            public <T> T decode(byte[] bytes) {
+                decodes.incrementAndGet();
+                return serializer.decode(bytes);
+            }
+
+            @Override
+            public <T> T copy(T object) {
+                return serializer.copy(object);
+            }
+        }, 4);
+        for (int i = 0; i < 10; i++) {
+            countingMap.put("key" + i, new MapValue<>("value" + i, new LogicalTimestamp(i), 0));
+        }
+        countingMap.put("old", new MapValue<>(null, new LogicalTimestamp(10), 100));
+        countingMap.put("new", new MapValue<>(null, new LogicalTimestamp(11), 300));
+        decodes.set(0);
+
+        assertEquals(1, countingMap.purgeTombstones(200));
+        assertFalse(countingMap.containsKey("old"));
+        assertTrue(countingMap.containsKey("new"));
+        assertEquals(11, countingMap.size());
+        assertEquals(10, countingMap.liveSize());
+        // tombstones are found from the index alone
+        assertEquals(0, decodes.get());
+    }
+}
@@ -45,6 +45,7 @@ public interface StoreSerializer extends Serializer {
      * @param obj object to be serialized
      * @param buffer to write serialized bytes
      */
+    @Override
     void encode(final Object obj, ByteBuffer buffer);
 
     /**
@@ -72,6 +73,7 @@ public interface StoreSerializer extends Serializer {
      * @return deserialized object
      * @param <T> decoded type
      */
+    @Override
     <T> T decode(final ByteBuffer buffer);
 
     /**
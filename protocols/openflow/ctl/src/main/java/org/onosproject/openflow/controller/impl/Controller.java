@@ -18,6 +18,9 @@ package org.onosproject.openflow.controller.impl;
 
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.ChannelOption;
@@ -53,10 +56,16 @@ import java.io.FileInputStream;
 import java.lang.management.ManagementFactory;
 import java.lang.management.RuntimeMXBean;
 import java.security.KeyStore;
+import java.util.Collection;
 import java.util.Dictionary;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -94,6 +103,8 @@ public class Controller {
     // Configuration options
     protected List<Integer> openFlowPorts = ImmutableList.of(6633, 6653);
     protected int workerThreads = 0;
+    protected boolean classifiedDispatch = false;
+    protected int dispatchThreads = 4;
 
     // Start time of the controller
     protected long systemStartTime;
@@ -115,6 +126,13 @@ public class Controller {
     private DriverService driverService;
     private boolean enableOfTls = TLS_DISABLED;
 
+    // Worker pools of the message classes, in classified dispatch mode
+    private volatile Map<OFDispatchClass, ExecutorService> dispatchPools = ImmutableMap.of();
+    // Dispatch queues of the connected switches, and the messages dropped
+    // by the queues of the switches since disconnected
+    private final Set<OFDispatchQueue> dispatchQueues = Sets.newConcurrentHashSet();
+    private final Map<OFDispatchClass, LongAdder> closedQueueDrops = newDropCounters();
+
     // ***************
     // Getters/Setters
     // ***************
@@ -222,6 +240,88 @@ public class Controller {
             this.workerThreads = Integer.parseInt(threads);
         }
         log.debug("Number of worker threads set to {}", this.workerThreads);
+
+        String classified = get(properties, "classifiedDispatch");
+        if (!Strings.isNullOrEmpty(classified)) {
+            this.classifiedDispatch = Boolean.parseBoolean(classified);
+        }
+        log.debug("Classified dispatch set to {}", this.classifiedDispatch);
+
+        String dispatch = get(properties, "dispatchThreads");
+        if (!Strings.isNullOrEmpty(dispatch)) {
+            this.dispatchThreads = Math.max(1, Integer.parseInt(dispatch));
+        }
+        log.debug("Number of dispatch threads per message class set to {}", this.dispatchThreads);
+    }
+
+    /**
+     * Returns the worker pool handling the inbound messages of the given
+     * class, when classified dispatch is enabled.
+     *
+     * @param dispatchClass message class
+     * @return worker pool, or null if messages go through a single queue per switch
+     */
+    ExecutorService dispatchPool(OFDispatchClass dispatchClass) {
+        return dispatchPools.get(dispatchClass);
+    }
+
+    /**
+     * Accounts for the dispatch queues of a newly connected switch.
+     *
+     * @param queues dispatch queues of the switch
+     */
+    void addDispatchQueues(Collection<OFDispatchQueue> queues) {
+        dispatchQueues.addAll(queues);
+    }
+
+    /**
+     * Stops accounting for the dispatch queues of a disconnected switch,
+     * keeping track of the messages they dropped.
+     *
+     * @param queues dispatch queues of the switch
+     */
+    void removeDispatchQueues(Collection<OFDispatchQueue> queues) {
+        for (OFDispatchQueue queue : queues) {
+            if (dispatchQueues.remove(queue)) {
+                closedQueueDrops.get(queue.dispatchClass()).add(queue.dropped());
+            }
+        }
+    }
+
+    private static Map<OFDispatchClass, LongAdder> newDropCounters() {
+        EnumMap<OFDispatchClass, LongAdder> counters = new EnumMap<>(OFDispatchClass.class);
+        for (OFDispatchClass dispatchClass : OFDispatchClass.values()) {
+            counters.put(dispatchClass, new LongAdder());
+        }
+        return Maps.immutableEnumMap(counters);
+    }
+
+    /**
+     * Returns the number of inbound messages of the given class dropped
+     * because the dispatch queue of their switch was full.
+     *
+     * @param dispatchClass message class
+     * @return number of dropped messages
+     */
+    long droppedMessages(OFDispatchClass dispatchClass) {
+        return closedQueueDrops.get(dispatchClass).sum() + dispatchQueues.stream()
+                .filter(queue -> queue.dispatchClass() == dispatchClass)
+                .mapToLong(OFDispatchQueue::dropped)
+                .sum();
+    }
+
+    /**
+     * Returns the number of inbound messages of the given class waiting in
+     * the dispatch queues of the connected switches.
+     *
+     * @param dispatchClass message class
+     * @return number of queued messages
+     */
+    long queuedMessages(OFDispatchClass dispatchClass) {
+        return dispatchQueues.stream()
+                .filter(queue -> queue.dispatchClass() == dispatchClass)
+                .mapToLong(OFDispatchQueue::size)
+                .sum();
     }
 
     /**
@@ -358,6 +458,14 @@ public class Controller {
         this.agent = ag;
         this.driverService = driverService;
         this.init();
+        if (classifiedDispatch) {
+            EnumMap<OFDispatchClass, ExecutorService> pools = new EnumMap<>(OFDispatchClass.class);
+            for (OFDispatchClass dispatchClass : OFDispatchClass.values()) {
+                pools.put(dispatchClass, Executors.newFixedThreadPool(dispatchThreads, groupedThreads(
+                        "onos/of", "dispatch-" + dispatchClass.label() + "-%d", log)));
+            }
+            dispatchPools = Maps.immutableEnumMap(pools);
+        }
         this.run();
     }
 
@@ -366,6 +474,9 @@ public class Controller {
         log.info("Stopping OpenFlow IO");
         cg.close();
 
+        dispatchPools.values().forEach(ExecutorService::shutdownNow);
+        dispatchPools = ImmutableMap.of();
+
         // Shut down all event loops to terminate all threads.
         bossGroup.shutdownGracefully();
         workerGroup.shutdownGracefully();
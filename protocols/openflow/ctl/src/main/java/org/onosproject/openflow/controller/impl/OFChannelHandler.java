@@ -26,7 +26,9 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
@@ -36,6 +38,8 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import org.onlab.packet.IpAddress;
 import org.onosproject.openflow.controller.Dpid;
 import org.onosproject.openflow.controller.OpenFlowSession;
@@ -167,7 +171,8 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
     /**
      * Single thread executor for OFMessage dispatching.
      *
-     * Gets initialized on channelActive, shutdown on channelInactive.
+     * Gets initialized on channelActive, unless classified dispatch is
+     * enabled, shutdown on channelInactive.
      */
     private ExecutorService dispatcher;
 
@@ -185,6 +190,14 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
      */
     private final Deque<OFMessage> dispatchBacklog = new ArrayDeque<>();
 
+    /**
+     * Per message class dispatch queues, used instead of the dispatch queue
+     * when the controller runs in classified dispatch mode.
+     *
+     * Gets initialized on channelActive, closed on channelInactive.
+     */
+    private Map<OFDispatchClass, OFDispatchQueue> classifiedQueues = ImmutableMap.of();
+
     /**
      * Create a new unconnected OFChannelHandler.
      * @param controller parent controller
@@ -1253,7 +1266,11 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
             channelId = channel.toString();
         }
 
-        dispatcher = Executors.newSingleThreadExecutor(groupedThreads("onos/of/dispatcher", channelId, log));
+        classifiedQueues = createClassifiedQueues();
+        controller.addDispatchQueues(classifiedQueues.values());
+        if (classifiedQueues.isEmpty()) {
+            dispatcher = Executors.newSingleThreadExecutor(groupedThreads("onos/of/dispatcher", channelId, log));
+        }
 
         /*
             hack to wait for the switch to tell us what it's
@@ -1275,6 +1292,8 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
             dispatcher.shutdownNow();
             dispatcher = null;
         }
+        classifiedQueues.values().forEach(OFDispatchQueue::close);
+        controller.removeDispatchQueues(classifiedQueues.values());
 
          if (thisdpid != 0) {
              if (!duplicateDpidFound) {
@@ -1417,8 +1436,35 @@ class OFChannelHandler extends ChannelInboundHandlerAdapter
         return this.state.isHandshakeComplete();
     }
 
+    private Map<OFDispatchClass, OFDispatchQueue> createClassifiedQueues() {
+        EnumMap<OFDispatchClass, OFDispatchQueue> queues = new EnumMap<>(OFDispatchClass.class);
+        OFReadThrottle throttle = new OFReadThrottle(
+                () -> channel.config().setAutoRead(false),
+                () -> {
+                    if (!channel.config().isAutoRead()) {
+                        channel.config().setAutoRead(true);
+                    }
+                });
+        for (OFDispatchClass dispatchClass : OFDispatchClass.values()) {
+            ExecutorService pool = controller.dispatchPool(dispatchClass);
+            if (pool == null) {
+                return ImmutableMap.of();
+            }
+            queues.put(dispatchClass, new OFDispatchQueue(
+                    dispatchClass, channelId, MSG_READ_BUFFER, pool,
+                    msg -> sw.handleMessage(msg),
+                    throttle));
+        }
+        return Maps.immutableEnumMap(queues);
+    }
+
     private void dispatchMessage(OFMessage m) {
 
+        if (!classifiedQueues.isEmpty()) {
+            classifiedQueues.get(OFDispatchClass.of(m)).add(m);
+            return;
+        }
+
         if (dispatchBacklog.isEmpty()) {
             if (!dispatchQueue.offer(m)) {
                 // queue full
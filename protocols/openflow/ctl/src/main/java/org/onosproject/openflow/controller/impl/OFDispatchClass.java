@@ -0,0 +1,84 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller.impl;
+
+import org.projectfloodlight.openflow.protocol.OFMessage;
+
+/**
+ * Classes of inbound messages, each dispatched through its own queue and
+ * worker pool when classified dispatch is enabled.
+ */
+enum OFDispatchClass {
+
+    /**
+     * Packet-in messages; dropped when their queue is full.
+     */
+    PACKET_IN("packet-in", true),
+
+    /**
+     * Statistics (multipart) replies.
+     */
+    STATS("stats", false),
+
+    /**
+     * Any other message, such as flow removed, barrier replies and errors.
+     */
+    CONTROL("control", false);
+
+    private final String label;
+    private final boolean droppable;
+
+    OFDispatchClass(String label, boolean droppable) {
+        this.label = label;
+        this.droppable = droppable;
+    }
+
+    /**
+     * Returns the label of this class, used in thread names and logs.
+     *
+     * @return label
+     */
+    String label() {
+        return label;
+    }
+
+    /**
+     * Returns whether messages of this class are dropped, rather than
+     * throttling the channel, when their queue is full.
+     *
+     * @return true if messages may be dropped
+     */
+    boolean droppable() {
+        return droppable;
+    }
+
+    /**
+     * Returns the dispatch class of the given message.
+     *
+     * @param message inbound message
+     * @return dispatch class
+     */
+    static OFDispatchClass of(OFMessage message) {
+        switch (message.getType()) {
+            case PACKET_IN:
+                return PACKET_IN;
+            case STATS_REPLY:
+                return STATS;
+            default:
+                return CONTROL;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded queue of inbound messages of one class from one switch.
+ * <p>
+ * Messages are added from the channel I/O thread and handled by a worker
+ * pool shared by the queues of the same class of all switches. At most one
+ * worker drains a given queue at a time, so the messages of a class are
+ * handled in the order the switch sent them, and a worker handles at most
+ * {@link #DISPATCH_BATCH} messages before yielding to the other switches.
+ * <p>
+ * When the queue is full, droppable messages are counted and dropped; other
+ * messages are held in a backlog while reading from the channel is paused,
+ * as done in the single queue dispatch mode. The worker moves the backlog
+ * into the queue as it makes room, and reading resumes once the backlogs of
+ * all the queues of the switch are empty.
+ */
+final class OFDispatchQueue implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(OFDispatchQueue.class);
+
+    static final int DISPATCH_BATCH = 64;
+    private static final long DROP_LOG_INTERVAL = 1000;
+
+    private final OFDispatchClass dispatchClass;
+    private final String owner;
+    private final Executor executor;
+    private final Consumer<OFMessage> handler;
+    private final OFReadThrottle throttle;
+    private final BlockingQueue<OFMessage> queue;
+
+    /**
+     * Messages waiting for room in the queue.
+     * <p>
+     * Guarded by itself
+     */
+    private final Deque<OFMessage> backlog = new ArrayDeque<>();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Creates a new dispatch queue.
+     *
+     * @param dispatchClass class of the messages of the queue
+     * @param owner         description of the switch, used in logs
+     * @param capacity      capacity of the queue
+     * @param executor      worker pool handling the messages
+     * @param handler       handler of the messages
+     * @param throttle      read throttle of the channel, shared by the
+     *                      queues of the switch
+     */
+    OFDispatchQueue(OFDispatchClass dispatchClass, String owner, int capacity,
+                    Executor executor, Consumer<OFMessage> handler,
+                    OFReadThrottle throttle) {
+        this.dispatchClass = dispatchClass;
+        this.owner = owner;
+        this.executor = executor;
+        this.handler = handler;
+        this.throttle = throttle;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Adds an inbound message to the queue.
+     * <p>
+     * Should only be called from the Channel I/O thread
+     *
+     * @param message inbound message
+     */
+    void add(OFMessage message) {
+        if (dispatchClass.droppable()) {
+            if (!queue.offer(message)) {
+                long count = dropped.incrementAndGet();
+                if (count % DROP_LOG_INTERVAL == 1) {
+                    log.warn("Dropped {} {} messages from {}: queue full",
+                             count, dispatchClass.label(), owner);
+                }
+            }
+        } else {
+            synchronized (backlog) {
+                backlog.addLast(message);
+                if (!moveBacklog()) {
+                    throttle.pause(dispatchClass);
+                }
+            }
+        }
+        schedule();
+    }
+
+    /**
+     * Discards the pending messages and stops handling new ones.
+     */
+    void close() {
+        closed = true;
+        queue.clear();
+        synchronized (backlog) {
+            backlog.clear();
+        }
+    }
+
+    /**
+     * Returns the class of the messages of the queue.
+     *
+     * @return message class
+     */
+    OFDispatchClass dispatchClass() {
+        return dispatchClass;
+    }
+
+    /**
+     * Returns the number of messages dropped because the queue was full.
+     *
+     * @return number of dropped messages
+     */
+    long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of messages waiting in the queue.
+     *
+     * @return queue length
+     */
+    int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void run() {
+        if (closed) {
+            return;
+        }
+        List<OFMessage> messages = new ArrayList<>(DISPATCH_BATCH);
+        if (queue.drainTo(messages, DISPATCH_BATCH) > 0 && !dispatchClass.droppable()) {
+            synchronized (backlog) {
+                if (moveBacklog()) {
+                    throttle.resume(dispatchClass);
+                }
+            }
+        }
+        for (OFMessage message : messages) {
+            try {
+                handler.accept(message);
+            } catch (RuntimeException e) {
+                log.warn("Error while handling {} message from {}", dispatchClass.label(), owner, e);
+            }
+        }
+        if (queue.isEmpty()) {
+            scheduled.set(false);
+            // a message may have been added since the queue was found empty
+            if (queue.isEmpty() || !scheduled.compareAndSet(false, true)) {
+                return;
+            }
+        }
+        // keep draining, after the queues of the other switches had their turn
+        submit();
+    }
+
+    /**
+     * Moves backlogged messages to the queue as far as there is room.
+     * <p>
+     * Should only be called while holding the backlog
+     *
+     * @return true if the backlog is now empty
+     */
+    private boolean moveBacklog() {
+        while (!backlog.isEmpty()) {
+            if (!queue.offer(backlog.peekFirst())) {
+                return false;
+            }
+            backlog.removeFirst();
+        }
+        return true;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            submit();
+        }
+    }
+
+    private void submit() {
+        try {
+            executor.execute(this);
+        } catch (RejectedExecutionException e) {
+            // the controller is shutting down
+            scheduled.set(false);
+            log.debug("Could not dispatch {} messages from {}", dispatchClass.label(), owner);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller.impl;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Pauses reading from a switch channel while any of its dispatch queues
+ * holds back messages, and resumes it only once none of them does.
+ */
+final class OFReadThrottle {
+
+    private final Set<OFDispatchClass> pausedBy = EnumSet.noneOf(OFDispatchClass.class);
+    private final Runnable pauseReading;
+    private final Runnable resumeReading;
+
+    /**
+     * Creates a new read throttle.
+     *
+     * @param pauseReading  pauses reading from the channel
+     * @param resumeReading resumes reading from the channel
+     */
+    OFReadThrottle(Runnable pauseReading, Runnable resumeReading) {
+        this.pauseReading = pauseReading;
+        this.resumeReading = resumeReading;
+    }
+
+    /**
+     * Pauses reading on behalf of the queue of the given class.
+     *
+     * @param dispatchClass class of the queue holding back messages
+     */
+    synchronized void pause(OFDispatchClass dispatchClass) {
+        pausedBy.add(dispatchClass);
+        pauseReading.run();
+    }
+
+    /**
+     * Withdraws the pause requested by the queue of the given class, resuming
+     * reading if no other queue still holds back messages.
+     *
+     * @param dispatchClass class of the queue no longer holding back messages
+     */
+    synchronized void resume(OFDispatchClass dispatchClass) {
+        if (pausedBy.remove(dispatchClass) && pausedBy.isEmpty()) {
+            resumeReading.run();
+        }
+    }
+
+    /**
+     * Returns whether reading is paused by any queue.
+     *
+     * @return true if reading is paused
+     */
+    synchronized boolean isPaused() {
+        return !pausedBy.isEmpty();
+    }
+}
@@ -15,6 +15,7 @@
  */
 package org.onosproject.openflow.controller.impl;
 
+import com.codahale.metrics.Gauge;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
@@ -26,6 +27,9 @@ import org.apache.felix.scr.annotations.Property;
 import org.apache.felix.scr.annotations.Reference;
 import org.apache.felix.scr.annotations.ReferenceCardinality;
 import org.apache.felix.scr.annotations.Service;
+import org.onlab.metrics.MetricsComponent;
+import org.onlab.metrics.MetricsFeature;
+import org.onlab.metrics.MetricsService;
 import org.onosproject.cfg.ComponentConfigService;
 import org.onosproject.core.CoreService;
 import org.onosproject.net.device.DeviceEvent;
@@ -100,7 +104,11 @@ public class OpenFlowControllerImpl implements OpenFlowController {
     private static final String APP_ID = "org.onosproject.openflow-base";
     private static final String DEFAULT_OFPORT = "6633,6653";
     private static final int DEFAULT_WORKER_THREADS = 0;
+    private static final boolean DEFAULT_CLASSIFIED_DISPATCH = false;
+    private static final int DEFAULT_DISPATCH_THREADS = 4;
     protected static final String SCHEME = "of";
+    private static final String METRICS_COMPONENT = "OpenFlowController";
+    private static final String METRICS_FEATURE = "dispatch";
 
     private static final Logger log =
             LoggerFactory.getLogger(OpenFlowControllerImpl.class);
@@ -117,6 +125,9 @@ public class OpenFlowControllerImpl implements OpenFlowController {
     @Reference(cardinality = ReferenceCardinality.MANDATORY_UNARY)
     protected DeviceService deviceService;
 
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL_UNARY)
+    protected MetricsService metricsService;
+
 
     @Property(name = "openflowPorts", value = DEFAULT_OFPORT,
             label = "Port numbers (comma separated) used by OpenFlow protocol; default is 6633,6653")
@@ -126,6 +137,15 @@ public class OpenFlowControllerImpl implements OpenFlowController {
             label = "Number of controller worker threads")
     private int workerThreads = DEFAULT_WORKER_THREADS;
 
+    @Property(name = "classifiedDispatch", boolValue = DEFAULT_CLASSIFIED_DISPATCH,
+            label = "Dispatch packet-ins, stats replies and control messages of a switch " +
+                    "through separate queues; packet-ins are dropped when their queue is full")
+    private boolean classifiedDispatch = DEFAULT_CLASSIFIED_DISPATCH;
+
+    @Property(name = "dispatchThreads", intValue = DEFAULT_DISPATCH_THREADS,
+            label = "Number of dispatch threads per message class, when classified dispatch is enabled")
+    private int dispatchThreads = DEFAULT_DISPATCH_THREADS;
+
     protected ExecutorService executorMsgs =
         Executors.newFixedThreadPool(32, groupedThreads("onos/of", "event-stats-%d", log));
 
@@ -194,6 +214,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
         deviceService.addListener(listener);
         ctrl.setConfigParams(context.getProperties());
         ctrl.start(agent, driverService);
+        registerMetrics();
     }
 
     private void cleanup() {
@@ -208,6 +229,7 @@ public class OpenFlowControllerImpl implements OpenFlowController {
 
     @Deactivate
     public void deactivate() {
+        unregisterMetrics();
         deviceService.removeListener(listener);
         cleanup();
         cfgService.unregisterProperties(getClass(), false);
@@ -220,6 +242,34 @@ public class OpenFlowControllerImpl implements OpenFlowController {
         ctrl.start(agent, driverService);
     }
 
+    // Publishes the dropped and queued inbound messages of each class, in
+    // classified dispatch mode.
+    private void registerMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+        for (OFDispatchClass dispatchClass : OFDispatchClass.values()) {
+            metricsService.registerMetric(component, feature, dispatchClass.label() + "-dropped",
+                                          (Gauge<Long>) () -> ctrl.droppedMessages(dispatchClass));
+            metricsService.registerMetric(component, feature, dispatchClass.label() + "-queued",
+                                          (Gauge<Long>) () -> ctrl.queuedMessages(dispatchClass));
+        }
+    }
+
+    private void unregisterMetrics() {
+        if (metricsService == null) {
+            return;
+        }
+        MetricsComponent component = metricsService.registerComponent(METRICS_COMPONENT);
+        MetricsFeature feature = component.registerFeature(METRICS_FEATURE);
+        for (OFDispatchClass dispatchClass : OFDispatchClass.values()) {
+            metricsService.removeMetric(component, feature, dispatchClass.label() + "-dropped");
+            metricsService.removeMetric(component, feature, dispatchClass.label() + "-queued");
+        }
+    }
+
     @Override
     public Iterable<OpenFlowSwitch> getSwitches() {
         return connectedSwitches.values();
@@ -22,6 +22,7 @@ import java.util.Hashtable;
 import java.util.Map;
 import java.util.stream.IntStream;
 
+import com.google.common.collect.ImmutableList;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
@@ -38,6 +39,12 @@ import org.onosproject.openflow.OFDescStatsReplyAdapter;
 import org.onosproject.openflow.OpenflowSwitchDriverAdapter;
 import org.onosproject.openflow.controller.driver.OpenFlowSwitchDriver;
 import org.projectfloodlight.openflow.protocol.OFDescStatsReply;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFPacketInReason;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.types.OFBufferId;
+import org.projectfloodlight.openflow.types.OFPort;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -178,11 +185,35 @@ public class ControllerTest {
         Dictionary<String, String> properties = new Hashtable<>();
         properties.put("openflowPorts", "1,2,3,4,5");
         properties.put("workerThreads", "5");
+        properties.put("classifiedDispatch", "true");
+        properties.put("dispatchThreads", "3");
 
         controller.setConfigParams(properties);
         IntStream.rangeClosed(1, 5)
                 .forEach(i -> assertThat(controller.openFlowPorts, hasItem(i)));
         assertThat(controller.workerThreads, is(5));
+        assertThat(controller.classifiedDispatch, is(true));
+        assertThat(controller.dispatchThreads, is(3));
+    }
+
+    /**
+     * Tests that the dispatch pools only exist while the controller runs in
+     * classified dispatch mode.
+     */
+    @Test
+    public void testClassifiedDispatchPools() {
+        assertThat(controller.dispatchPool(OFDispatchClass.PACKET_IN), nullValue());
+
+        Dictionary<String, String> properties = new Hashtable<>();
+        properties.put("classifiedDispatch", "true");
+        controller.setConfigParams(properties);
+        controller.start(null, new MockDriverService());
+        for (OFDispatchClass dispatchClass : OFDispatchClass.values()) {
+            assertThat(controller.dispatchPool(dispatchClass), notNullValue());
+        }
+
+        controller.stop();
+        assertThat(controller.dispatchPool(OFDispatchClass.PACKET_IN), nullValue());
     }
 
     /**
@@ -231,4 +262,38 @@ public class ControllerTest {
         long upTime = controller.getSystemUptime();
         assertThat(upTime, lessThan(30L * 1000));
     }
+
+    /**
+     * Tests the accounting of the dropped and queued messages of the
+     * dispatch queues.
+     */
+    @Test
+    public void testDispatchQueueStats() {
+        OFFactory factory = OFFactories.getFactory(OFVersion.OF_10);
+        OFReadThrottle throttle = new OFReadThrottle(() -> { }, () -> { });
+        OFDispatchQueue packetIns = new OFDispatchQueue(OFDispatchClass.PACKET_IN, "test", 2,
+                                                        task -> { }, msg -> { }, throttle);
+        OFDispatchQueue control = new OFDispatchQueue(OFDispatchClass.CONTROL, "test", 2,
+                                                      task -> { }, msg -> { }, throttle);
+        controller.addDispatchQueues(ImmutableList.of(packetIns, control));
+        IntStream.range(0, 5).forEach(xid -> packetIns.add(factory.buildPacketIn()
+                .setXid(xid)
+                .setBufferId(OFBufferId.NO_BUFFER)
+                .setReason(OFPacketInReason.NO_MATCH)
+                .setInPort(OFPort.of(1))
+                .build()));
+        control.add(factory.buildEchoRequest().build());
+
+        assertThat(controller.droppedMessages(OFDispatchClass.PACKET_IN), is(3L));
+        assertThat(controller.queuedMessages(OFDispatchClass.PACKET_IN), is(2L));
+        assertThat(controller.droppedMessages(OFDispatchClass.CONTROL), is(0L));
+        assertThat(controller.queuedMessages(OFDispatchClass.CONTROL), is(1L));
+
+        // the drops of a disconnected switch are kept
+        packetIns.close();
+        control.close();
+        controller.removeDispatchQueues(ImmutableList.of(packetIns, control));
+        assertThat(controller.droppedMessages(OFDispatchClass.PACKET_IN), is(3L));
+        assertThat(controller.queuedMessages(OFDispatchClass.PACKET_IN), is(0L));
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onosproject.openflow.controller.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.projectfloodlight.openflow.protocol.OFFactories;
+import org.projectfloodlight.openflow.protocol.OFFactory;
+import org.projectfloodlight.openflow.protocol.OFMessage;
+import org.projectfloodlight.openflow.protocol.OFPacketInReason;
+import org.projectfloodlight.openflow.protocol.OFVersion;
+import org.projectfloodlight.openflow.types.OFBufferId;
+import org.projectfloodlight.openflow.types.OFPort;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Unit tests for the per message class dispatch queue.
+ */
+public class OFDispatchQueueTest {
+
+    private static final int CAPACITY = 10;
+    private static final OFFactory FACTORY = OFFactories.getFactory(OFVersion.OF_10);
+
+    private final Deque<Runnable> tasks = new ArrayDeque<>();
+    private final Executor executor = tasks::add;
+    private final List<OFMessage> handled = new ArrayList<>();
+    private boolean reading;
+    private OFReadThrottle throttle;
+
+    @Before
+    public void setUp() {
+        reading = true;
+        throttle = new OFReadThrottle(() -> reading = false, () -> reading = true);
+    }
+
+    private OFDispatchQueue queue(OFDispatchClass dispatchClass) {
+        return queue(dispatchClass, executor);
+    }
+
+    private OFDispatchQueue queue(OFDispatchClass dispatchClass, Executor executor) {
+        return new OFDispatchQueue(dispatchClass, "test", CAPACITY, executor, handled::add, throttle);
+    }
+
+    private static List<OFMessage> messages(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(xid -> FACTORY.buildEchoRequest().setXid(xid).build())
+                .collect(Collectors.toList());
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+    }
+
+    /**
+     * Tests the classification of inbound messages.
+     */
+    @Test
+    public void classify() {
+        OFMessage packetIn = FACTORY.buildPacketIn()
+                .setBufferId(OFBufferId.NO_BUFFER)
+                .setInPort(OFPort.of(1))
+                .setReason(OFPacketInReason.NO_MATCH)
+                .build();
+        OFMessage statsReply = FACTORY.buildFlowStatsReply()
+                .setEntries(ImmutableList.of())
+                .build();
+        OFMessage barrierReply = FACTORY.buildBarrierReply().build();
+
+        assertThat(OFDispatchClass.of(packetIn), is(OFDispatchClass.PACKET_IN));
+        assertThat(OFDispatchClass.of(statsReply), is(OFDispatchClass.STATS));
+        assertThat(OFDispatchClass.of(barrierReply), is(OFDispatchClass.CONTROL));
+    }
+
+    /**
+     * Tests that a queue is drained by a single task at a time, in order.
+     */
+    @Test
+    public void inOrderSingleDrainer() {
+        OFDispatchQueue queue = queue(OFDispatchClass.CONTROL);
+        List<OFMessage> messages = messages(5);
+        messages.forEach(queue::add);
+
+        assertThat(tasks.size(), is(1));
+        runTasks();
+        assertThat(handled, is(messages));
+        assertThat(queue.size(), is(0));
+    }
+
+    /**
+     * Tests that a worker yields after a batch of messages.
+     */
+    @Test
+    public void yieldsAfterBatch() {
+        OFDispatchQueue queue = new OFDispatchQueue(OFDispatchClass.CONTROL, "test",
+                                                    2 * OFDispatchQueue.DISPATCH_BATCH, executor,
+                                                    handled::add, throttle);
+        messages(OFDispatchQueue.DISPATCH_BATCH + 1).forEach(queue::add);
+
+        tasks.poll().run();
+        assertThat(handled.size(), is(OFDispatchQueue.DISPATCH_BATCH));
+        assertThat(tasks.size(), is(1));
+        runTasks();
+        assertThat(handled.size(), is(OFDispatchQueue.DISPATCH_BATCH + 1));
+        assertThat(tasks.isEmpty(), is(true));
+    }
+
+    /**
+     * Tests that droppable messages are counted and dropped when the queue is full.
+     */
+    @Test
+    public void dropsWhenFull() {
+        OFDispatchQueue queue = queue(OFDispatchClass.PACKET_IN);
+        List<OFMessage> messages = messages(CAPACITY + 3);
+        messages.forEach(queue::add);
+
+        assertThat(queue.dropped(), is(3L));
+        assertThat(reading, is(true));
+        runTasks();
+        assertThat(handled, is(messages.subList(0, CAPACITY)));
+    }
+
+    /**
+     * Tests that other messages pause reading from the channel, rather than
+     * being dropped, when the queue is full.
+     */
+    @Test
+    public void throttlesWhenFull() {
+        OFDispatchQueue queue = queue(OFDispatchClass.STATS);
+        List<OFMessage> messages = messages(CAPACITY + 3);
+        messages.forEach(queue::add);
+
+        assertThat(queue.dropped(), is(0L));
+        assertThat(reading, is(false));
+        assertThat(queue.size(), is(CAPACITY));
+
+        runTasks();
+        assertThat(reading, is(true));
+        assertThat(handled, is(messages));
+    }
+
+    /**
+     * Tests that a queue draining its messages does not resume reading while
+     * the queue of another class still holds back messages.
+     */
+    @Test
+    public void stalledClassKeepsReadingPaused() {
+        Deque<Runnable> statsTasks = new ArrayDeque<>();
+        OFDispatchQueue stats = queue(OFDispatchClass.STATS, statsTasks::add);
+        OFDispatchQueue control = queue(OFDispatchClass.CONTROL);
+        OFDispatchQueue packetIns = queue(OFDispatchClass.PACKET_IN);
+
+        messages(CAPACITY + 3).forEach(stats::add);
+        assertThat(reading, is(false));
+
+        // the other classes keep draining while the stats worker is stalled
+        messages(3).forEach(control::add);
+        messages(3).forEach(packetIns::add);
+        runTasks();
+        assertThat(handled.size(), is(6));
+        assertThat(reading, is(false));
+        assertThat(throttle.isPaused(), is(true));
+
+        // the stats worker makes room for its backlog
+        statsTasks.poll().run();
+        assertThat(reading, is(true));
+        assertThat(throttle.isPaused(), is(false));
+    }
+
+    /**
+     * Tests that a closed queue discards its messages.
+     */
+    @Test
+    public void closeDiscards() {
+        OFDispatchQueue queue = queue(OFDispatchClass.CONTROL);
+        messages(3).forEach(queue::add);
+        queue.close();
+        runTasks();
+        assertThat(handled.isEmpty(), is(true));
+    }
+}
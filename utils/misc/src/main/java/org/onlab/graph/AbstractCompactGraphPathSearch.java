@@ -0,0 +1,322 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.math.DoubleMath;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Basis for graph path search algorithm implementations operating on the
+ * {@link CompactGraph} form of the searched graph.
+ * <p>
+ * Edge weights must be {@link ScalarWeight}s. The searches keep their state in
+ * primitive arrays reused by the calling thread, so they allocate only the
+ * results. When a destination is given, the costs and parents of the result
+ * cover only the vertexes of the found paths.
+ * </p>
+ *
+ * @param <V> vertex type
+ * @param <E> edge type
+ */
+public abstract class AbstractCompactGraphPathSearch<V extends Vertex, E extends Edge<V>>
+        implements GraphPathSearch<V, E> {
+
+    @Override
+    public Result<V, E> search(Graph<V, E> graph, V src, V dst,
+                               EdgeWeigher<V, E> weigher, int maxPaths) {
+        checkNotNull(graph, "Graph cannot be null");
+        checkNotNull(src, "Source cannot be null");
+        CompactGraph<V, E> compact = CompactGraph.of(graph);
+        int s = compact.index(src);
+        checkArgument(s >= 0, "Source not in the graph");
+        int d = dst == null ? -1 : compact.index(dst);
+        checkArgument(dst == null || d >= 0, "Destination not in graph");
+
+        EdgeWeigher<V, E> ew = weigher != null ? weigher : new DefaultEdgeWeigher<>();
+        CompactSearchScratch scratch = CompactSearchScratch.get(compact);
+        scratch.clearBans();
+        compact.weigh(ew, scratch.weights);
+        return internalSearch(compact, scratch, s, d,
+                              CompactGraph.value(ew.getInitialWeight()), maxPaths);
+    }
+
+    /**
+     * Searches the compact graph using the edge weights already stored in
+     * the scratch space.
+     *
+     * @param graph       compact graph
+     * @param scratch     scratch space of the calling thread
+     * @param src         source vertex identifier
+     * @param dst         destination vertex identifier; -1 if none
+     * @param initialCost cost of reaching the source
+     * @param maxPaths    limit on the number of paths;
+     *                    {@link GraphPathSearch#ALL_PATHS} if no limit
+     * @return search result
+     */
+    abstract Result<V, E> internalSearch(CompactGraph<V, E> graph, CompactSearchScratch scratch,
+                                         int src, int dst, double initialCost, int maxPaths);
+
+    /**
+     * Runs Dijkstra's algorithm from the source over the viable, non-negative
+     * and not banned edges, until the destination, if any, is settled.
+     *
+     * @param graph       compact graph
+     * @param scratch     scratch space of the calling thread
+     * @param weights     edge weights
+     * @param src         source vertex identifier
+     * @param dst         destination vertex identifier; -1 if none
+     * @param initialCost cost of reaching the source
+     * @param maxParents  limit on the number of equally short parent edges
+     *                    kept per vertex; {@link GraphPathSearch#ALL_PATHS}
+     *                    if no limit
+     */
+    static void dijkstra(CompactGraph<?, ?> graph, CompactSearchScratch scratch, double[] weights,
+                         int src, int dst, double initialCost, int maxParents) {
+        scratch.begin();
+        if (scratch.isVertexBanned(src)) {
+            return;
+        }
+        scratch.reach(src, initialCost);
+        while (!scratch.isQueueEmpty()) {
+            int u = scratch.poll();
+            if (u == dst) {
+                break;
+            }
+            double cost = scratch.costs[u];
+            for (int i = graph.outStart(u), end = graph.outStart(u + 1); i < end; i++) {
+                int e = graph.outEdge(i);
+                double weight = weights[e];
+                if (weight < 0 || weight == Double.POSITIVE_INFINITY || scratch.isEdgeBanned(e)) {
+                    continue;
+                }
+                int v = graph.dst(e);
+                if (!scratch.isVertexBanned(v)) {
+                    relax(scratch, v, e, cost + weight, maxParents);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the edge as parent of the vertex if it reaches the vertex at a
+     * lower or equal cost.
+     *
+     * @param scratch    scratch space of the calling thread
+     * @param v          vertex identifier
+     * @param e          edge identifier
+     * @param cost       cost of reaching the vertex through the edge
+     * @param maxParents limit on the number of equally short parent edges
+     */
+    static void relax(CompactSearchScratch scratch, int v, int e, double cost, int maxParents) {
+        if (!scratch.isReached(v)) {
+            scratch.reach(v, cost);
+            scratch.addParent(v, e);
+            return;
+        }
+        int compare = DoubleMath.fuzzyCompare(cost, scratch.costs[v], ScalarWeight.samenessThreshold());
+        if (compare < 0) {
+            scratch.lower(v, cost);
+            scratch.addParent(v, e);
+        } else if (compare == 0 && (maxParents == ALL_PATHS || scratch.parentCount[v] < maxParents)) {
+            scratch.addParent(v, e);
+        }
+    }
+
+    /**
+     * Builds the paths from the source to the destination by walking the
+     * parent edges back from the destination, skipping looping paths. A
+     * negative parent edge identifier {@code ~e} stands for edge {@code e}
+     * traversed in reverse.
+     *
+     * @param graph    compact graph
+     * @param scratch  scratch space holding the parent edges
+     * @param src      source vertex identifier
+     * @param dst      destination vertex identifier
+     * @param maxPaths limit on the number of paths in the list;
+     *                 {@link GraphPathSearch#ALL_PATHS} if no limit
+     * @param paths    list of paths, as arrays of edge identifiers, to add to
+     */
+    static void buildPaths(CompactGraph<?, ?> graph, CompactSearchScratch scratch,
+                           int src, int dst, int maxPaths, List<int[]> paths) {
+        if (src == dst || !scratch.isReached(dst)) {
+            return;
+        }
+        int[] vertexes = scratch.stackVertex;
+        int[] cursors = scratch.stackCursor;
+        int[] edges = scratch.stackEdge;
+        int[] onPath = scratch.pathPosition;
+
+        int depth = 0;
+        vertexes[0] = dst;
+        cursors[0] = scratch.parentHead[dst];
+        onPath[dst] = 1;
+        while (depth >= 0 && (maxPaths == ALL_PATHS || paths.size() < maxPaths)) {
+            int cursor = cursors[depth];
+            if (cursor < 0) {
+                onPath[vertexes[depth--]] = 0;
+                continue;
+            }
+            cursors[depth] = scratch.parentNext[cursor];
+            int e = scratch.parentEdge[cursor];
+            int u = e >= 0 ? graph.src(e) : graph.dst(~e);
+            if (onPath[u] != 0) {
+                continue;
+            }
+            edges[depth] = e;
+            if (u == src) {
+                int[] path = new int[depth + 1];
+                for (int i = 0; i <= depth; i++) {
+                    path[i] = edges[depth - i];
+                }
+                paths.add(path);
+            } else {
+                vertexes[++depth] = u;
+                cursors[depth] = scratch.parentHead[u];
+                onPath[u] = 1;
+            }
+        }
+        for (; depth >= 0; depth--) {
+            onPath[vertexes[depth]] = 0;
+        }
+    }
+
+    /**
+     * Creates a path from the given edge identifiers.
+     *
+     * @param graph compact graph
+     * @param edges edge identifiers, from source to destination
+     * @param cost  path cost
+     * @return path
+     */
+    Path<V, E> path(CompactGraph<V, E> graph, int[] edges, double cost) {
+        List<E> list = new ArrayList<>(edges.length);
+        for (int e : edges) {
+            list.add(graph.edge(e));
+        }
+        return new DefaultPath<>(list, new ScalarWeight(cost));
+    }
+
+    /**
+     * Creates the result of a search from the costs and parent edges held by
+     * the scratch space.
+     *
+     * @param graph    compact graph
+     * @param scratch  scratch space of the calling thread
+     * @param src      source vertex identifier
+     * @param dst      destination vertex identifier; -1 if none
+     * @param maxPaths limit on the number of paths;
+     *                 {@link GraphPathSearch#ALL_PATHS} if no limit
+     * @return search result
+     */
+    CompactResult result(CompactGraph<V, E> graph, CompactSearchScratch scratch,
+                         int src, int dst, int maxPaths) {
+        CompactResult result = new CompactResult(graph.vertex(src), dst < 0 ? null : graph.vertex(dst));
+        List<int[]> paths = new ArrayList<>();
+        if (dst >= 0) {
+            buildPaths(graph, scratch, src, dst, maxPaths, paths);
+            result.record(graph, scratch, src);
+            for (int[] path : paths) {
+                for (int e : path) {
+                    result.record(graph, scratch, graph.dst(e));
+                }
+            }
+        } else {
+            for (int v = 0; v < graph.vertexCount(); v++) {
+                if (scratch.isReached(v)) {
+                    result.record(graph, scratch, v);
+                    if (maxPaths == ALL_PATHS || paths.size() < maxPaths) {
+                        buildPaths(graph, scratch, src, v, maxPaths, paths);
+                    }
+                }
+            }
+        }
+        for (int[] path : paths) {
+            result.paths.add(path(graph, path, scratch.costs[graph.dst(path[path.length - 1])]));
+        }
+        return result;
+    }
+
+    /**
+     * Result of a compact graph search.
+     */
+    final class CompactResult implements Result<V, E> {
+
+        private final V src;
+        private final V dst;
+        final Set<Path<V, E>> paths = new LinkedHashSet<>();
+        private final Map<V, Weight> costs = new HashMap<>();
+        private final Map<V, Set<E>> parents = new HashMap<>();
+
+        /**
+         * Creates an empty result.
+         *
+         * @param src path source
+         * @param dst optional path destination
+         */
+        CompactResult(V src, V dst) {
+            this.src = src;
+            this.dst = dst;
+        }
+
+        // Records the cost and parent edges of the vertex held by the scratch space.
+        void record(CompactGraph<V, E> graph, CompactSearchScratch scratch, int v) {
+            V vertex = graph.vertex(v);
+            costs.put(vertex, new ScalarWeight(scratch.costs[v]));
+            if (scratch.parentHead[v] >= 0) {
+                Set<E> edges = new HashSet<>();
+                for (int i = scratch.parentHead[v]; i >= 0; i = scratch.parentNext[i]) {
+                    edges.add(graph.edge(scratch.parentEdge[i]));
+                }
+                parents.put(vertex, edges);
+            }
+        }
+
+        @Override
+        public V src() {
+            return src;
+        }
+
+        @Override
+        public V dst() {
+            return dst;
+        }
+
+        @Override
+        public Set<Path<V, E>> paths() {
+            return paths;
+        }
+
+        @Override
+        public Map<V, Weight> costs() {
+            return costs;
+        }
+
+        @Override
+        public Map<V, Set<E>> parents() {
+            return parents;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+/**
+ * Implementation of the BFS algorithm operating on the {@link CompactGraph}
+ * form of the searched graph.
+ */
+public class CompactBreadthFirstSearch<V extends Vertex, E extends Edge<V>>
+        extends AbstractCompactGraphPathSearch<V, E> {
+
+    @Override
+    Result<V, E> internalSearch(CompactGraph<V, E> graph, CompactSearchScratch scratch,
+                                int src, int dst, double initialCost, int maxPaths) {
+        double[] weights = scratch.weights;
+        // The vertex stack serves as the queue; every vertex enters it once.
+        int[] queue = scratch.stackVertex;
+        int head = 0;
+        int tail = 0;
+
+        scratch.begin();
+        scratch.visit(src, initialCost);
+        queue[tail++] = src;
+        boolean reachedEnd = false;
+        while (!reachedEnd && head < tail) {
+            int u = queue[head++];
+            double cost = scratch.costs[u];
+            for (int i = graph.outStart(u), end = graph.outStart(u + 1); i < end; i++) {
+                int e = graph.outEdge(i);
+                int v = graph.dst(e);
+                if (!scratch.isReached(v)) {
+                    scratch.visit(v, cost + weights[e]);
+                    scratch.addParent(v, e);
+                    // If we have reached our intended destination, bail.
+                    if (v == dst) {
+                        reachedEnd = true;
+                        break;
+                    }
+                    queue[tail++] = v;
+                }
+            }
+        }
+
+        return result(graph, scratch, src, dst, maxPaths);
+    }
+}
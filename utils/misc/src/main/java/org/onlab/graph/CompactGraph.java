@@ -0,0 +1,265 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable compressed sparse row representation of a graph, in which
+ * vertexes and edges are identified by consecutive integers and adjacencies
+ * are held in primitive arrays.
+ * <p>
+ * Vertexes are numbered from 0 to {@link #vertexCount()} - 1 and edges from
+ * 0 to {@link #edgeCount()} - 1. The egress edges of vertex {@code v} are
+ * {@code outEdge(i)} for {@code i} ranging from {@code outStart(v)} to
+ * {@code outStart(v + 1) - 1}, and likewise for the ingress edges.
+ *
+ * @param <V> vertex type
+ * @param <E> edge type
+ */
+public final class CompactGraph<V extends Vertex, E extends Edge<V>> {
+
+    // Compact forms of immutable graphs, held for as long as the graphs are
+    private static final Cache<Graph<?, ?>, CompactGraph<?, ?>> COMPACT_GRAPHS =
+            CacheBuilder.newBuilder().weakKeys().build();
+
+    private final Object[] vertexes;
+    private final Object[] edges;
+    private final Map<V, Integer> indexes;
+
+    private final int[] edgeSrc;
+    private final int[] edgeDst;
+    private final int[] outStart;
+    private final int[] outEdges;
+    private final int[] inStart;
+    private final int[] inEdges;
+
+    private CompactGraph(Graph<V, E> graph) {
+        vertexes = graph.getVertexes().toArray();
+        edges = graph.getEdges().toArray();
+        indexes = new HashMap<>(vertexes.length * 2);
+        for (int v = 0; v < vertexes.length; v++) {
+            indexes.put(vertex(v), v);
+        }
+
+        edgeSrc = new int[edges.length];
+        edgeDst = new int[edges.length];
+        outStart = new int[vertexes.length + 1];
+        inStart = new int[vertexes.length + 1];
+        for (int e = 0; e < edges.length; e++) {
+            edgeSrc[e] = indexes.get(edge(e).src());
+            edgeDst[e] = indexes.get(edge(e).dst());
+            outStart[edgeSrc[e] + 1]++;
+            inStart[edgeDst[e] + 1]++;
+        }
+        for (int v = 0; v < vertexes.length; v++) {
+            outStart[v + 1] += outStart[v];
+            inStart[v + 1] += inStart[v];
+        }
+
+        // Fill the adjacencies using the row starts as cursors.
+        outEdges = new int[edges.length];
+        inEdges = new int[edges.length];
+        int[] outNext = outStart.clone();
+        int[] inNext = inStart.clone();
+        for (int e = 0; e < edges.length; e++) {
+            outEdges[outNext[edgeSrc[e]]++] = e;
+            inEdges[inNext[edgeDst[e]]++] = e;
+        }
+    }
+
+    /**
+     * Returns the compact form of the specified graph. The compact forms of
+     * immutable {@link AdjacencyListsGraph adjacency lists graphs} are built
+     * once and shared.
+     *
+     * @param graph graph
+     * @param <V>   vertex type
+     * @param <E>   edge type
+     * @return compact graph
+     */
+    @SuppressWarnings("unchecked")
+    public static <V extends Vertex, E extends Edge<V>> CompactGraph<V, E> of(Graph<V, E> graph) {
+        checkNotNull(graph, "Graph cannot be null");
+        if (!(graph instanceof AdjacencyListsGraph)) {
+            return new CompactGraph<>(graph);
+        }
+        CompactGraph<?, ?> compact = COMPACT_GRAPHS.getIfPresent(graph);
+        if (compact == null) {
+            compact = new CompactGraph<>(graph);
+            COMPACT_GRAPHS.put(graph, compact);
+        }
+        return (CompactGraph<V, E>) compact;
+    }
+
+    /**
+     * Returns the number of vertexes.
+     *
+     * @return vertex count
+     */
+    public int vertexCount() {
+        return vertexes.length;
+    }
+
+    /**
+     * Returns the number of edges.
+     *
+     * @return edge count
+     */
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    /**
+     * Returns the identifier of the specified vertex.
+     *
+     * @param vertex vertex
+     * @return vertex identifier; -1 if the vertex is not in the graph
+     */
+    public int index(V vertex) {
+        Integer index = indexes.get(vertex);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Returns the vertex with the specified identifier.
+     *
+     * @param v vertex identifier
+     * @return vertex
+     */
+    @SuppressWarnings("unchecked")
+    public V vertex(int v) {
+        return (V) vertexes[v];
+    }
+
+    /**
+     * Returns the edge with the specified identifier.
+     *
+     * @param e edge identifier
+     * @return edge
+     */
+    @SuppressWarnings("unchecked")
+    public E edge(int e) {
+        return (E) edges[e];
+    }
+
+    /**
+     * Returns the identifier of the source vertex of the specified edge.
+     *
+     * @param e edge identifier
+     * @return source vertex identifier
+     */
+    public int src(int e) {
+        return edgeSrc[e];
+    }
+
+    /**
+     * Returns the identifier of the destination vertex of the specified edge.
+     *
+     * @param e edge identifier
+     * @return destination vertex identifier
+     */
+    public int dst(int e) {
+        return edgeDst[e];
+    }
+
+    /**
+     * Returns the position of the first egress edge of the specified vertex;
+     * the position of the first egress edge of the next vertex bounds them.
+     *
+     * @param v vertex identifier, up to and including the vertex count
+     * @return position of the first egress edge
+     */
+    public int outStart(int v) {
+        return outStart[v];
+    }
+
+    /**
+     * Returns the egress edge at the specified position.
+     *
+     * @param i egress edge position
+     * @return edge identifier
+     */
+    public int outEdge(int i) {
+        return outEdges[i];
+    }
+
+    /**
+     * Returns the position of the first ingress edge of the specified vertex;
+     * the position of the first ingress edge of the next vertex bounds them.
+     *
+     * @param v vertex identifier, up to and including the vertex count
+     * @return position of the first ingress edge
+     */
+    public int inStart(int v) {
+        return inStart[v];
+    }
+
+    /**
+     * Returns the ingress edge at the specified position.
+     *
+     * @param i ingress edge position
+     * @return edge identifier
+     */
+    public int inEdge(int i) {
+        return inEdges[i];
+    }
+
+    /**
+     * Weighs every edge of the graph into the given array, indexed by edge
+     * identifier. Non-viable edges are weighed as positive infinity.
+     *
+     * @param weigher edge weigher producing {@link ScalarWeight scalar weights}
+     * @param weights array of at least {@link #edgeCount()} weights
+     * @return the weights array
+     * @throws IllegalArgumentException if the weigher produces non-scalar weights
+     */
+    public double[] weigh(EdgeWeigher<V, E> weigher, double[] weights) {
+        for (int e = 0; e < edges.length; e++) {
+            weights[e] = value(weigher.weight(edge(e)));
+        }
+        return weights;
+    }
+
+    /**
+     * Returns the value of the specified scalar weight.
+     *
+     * @param weight scalar weight
+     * @return weight value; positive infinity if the weight is not viable
+     * @throws IllegalArgumentException if the weight is not scalar
+     */
+    static double value(Weight weight) {
+        checkArgument(weight instanceof ScalarWeight,
+                      "Compact graph searches require scalar weights");
+        return weight.isViable() ? ((ScalarWeight) weight).value() : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("vertexes", vertexes.length)
+                .add("edges", edges.length)
+                .toString();
+    }
+}
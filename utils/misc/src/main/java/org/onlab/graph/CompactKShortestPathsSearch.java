@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Runs Yen's K shortest paths algorithm on the {@link CompactGraph} form of
+ * the searched graph. Iteration through the returned paths yields them in
+ * ascending order of cost.
+ */
+public class CompactKShortestPathsSearch<V extends Vertex, E extends Edge<V>>
+        extends AbstractCompactGraphPathSearch<V, E> {
+
+    @Override
+    Result<V, E> internalSearch(CompactGraph<V, E> graph, CompactSearchScratch scratch,
+                                int src, int dst, double initialCost, int maxPaths) {
+        checkArgument(maxPaths != ALL_PATHS, "KShortestPath search cannot be used with ALL_PATHS.");
+        checkArgument(maxPaths > 0, "The max number of paths must be greater than 0");
+        checkArgument(dst >= 0, "KShortestPath search requires a destination");
+        double[] weights = scratch.weights;
+        CompactResult result = new CompactResult(graph.vertex(src), graph.vertex(dst));
+
+        List<int[]> spurPaths = new ArrayList<>(1);
+        dijkstra(graph, scratch, weights, src, dst, initialCost, 1);
+        buildPaths(graph, scratch, src, dst, 1, spurPaths);
+        if (spurPaths.isEmpty()) {
+            return result;
+        }
+
+        List<Candidate> found = new ArrayList<>(maxPaths);
+        found.add(new Candidate(spurPaths.get(0), scratch.costs[dst]));
+        List<Candidate> candidates = new ArrayList<>();
+        Set<Candidate> known = new HashSet<>(found);
+
+        for (int k = 1; k < maxPaths; k++) {
+            int[] last = found.get(k - 1).edges;
+            double rootCost = initialCost;
+            for (int i = 0; i < last.length; i++) {
+                // Ban the next edge of every path found with the same root,
+                // as well as the root vertexes, then search from the spur.
+                scratch.clearBans();
+                for (Candidate path : found) {
+                    if (path.edges.length > i && sameRoot(path.edges, last, i)) {
+                        scratch.banEdge(path.edges[i]);
+                    }
+                }
+                for (int j = 0; j < i; j++) {
+                    scratch.banVertex(graph.src(last[j]));
+                }
+
+                spurPaths.clear();
+                int spur = graph.src(last[i]);
+                dijkstra(graph, scratch, weights, spur, dst, rootCost, 1);
+                buildPaths(graph, scratch, spur, dst, 1, spurPaths);
+                if (!spurPaths.isEmpty()) {
+                    int[] spurPath = spurPaths.get(0);
+                    int[] edges = Arrays.copyOf(last, i + spurPath.length);
+                    System.arraycopy(spurPath, 0, edges, i, spurPath.length);
+                    Candidate candidate = new Candidate(edges, scratch.costs[dst]);
+                    if (known.add(candidate)) {
+                        candidates.add(candidate);
+                    }
+                }
+                rootCost += weights[last[i]];
+            }
+            scratch.clearBans();
+
+            if (candidates.isEmpty()) {
+                break;
+            }
+            found.add(candidates.remove(cheapest(candidates)));
+        }
+
+        for (Candidate path : found) {
+            result.paths.add(path(graph, path.edges, path.cost));
+        }
+        return result;
+    }
+
+    // Indicates whether the two paths share the first edges.
+    private static boolean sameRoot(int[] one, int[] two, int length) {
+        for (int i = 0; i < length; i++) {
+            if (one[i] != two[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Returns the index of the first cheapest candidate.
+    private static int cheapest(List<Candidate> candidates) {
+        int best = 0;
+        for (int i = 1; i < candidates.size(); i++) {
+            if (candidates.get(i).cost < candidates.get(best).cost) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // Candidate path as edge identifiers from source to destination.
+    private static final class Candidate {
+        private final int[] edges;
+        private final double cost;
+
+        private Candidate(int[] edges, double cost) {
+            this.edges = edges;
+            this.cost = cost;
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(edges);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Candidate && Arrays.equals(edges, ((Candidate) obj).edges);
+        }
+    }
+}
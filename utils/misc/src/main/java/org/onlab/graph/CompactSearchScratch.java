@@ -0,0 +1,324 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import java.util.Arrays;
+
+/**
+ * Per-thread scratch space of the compact graph searches. The arrays grow to
+ * the largest graph searched by the thread and are reused from one search to
+ * the next; stamping entries with the current search epoch spares clearing
+ * them.
+ */
+final class CompactSearchScratch {
+
+    private static final ThreadLocal<CompactSearchScratch> SCRATCH =
+            ThreadLocal.withInitial(CompactSearchScratch::new);
+
+    // Edge weights of the current search
+    double[] weights = new double[0];
+
+    // Per-vertex search state; valid only if stamped with the current epoch
+    private int epoch;
+    private int[] reached = new int[0];
+    double[] costs = new double[0];
+    int[] parentHead = new int[0];
+    int[] parentCount = new int[0];
+
+    // Linked lists of parent edges, indexed from parentHead
+    int[] parentEdge = new int[16];
+    int[] parentNext = new int[16];
+    private int parentSize;
+
+    // Binary min-heap of reached but not yet settled vertexes
+    private int[] heap = new int[0];
+    private int[] heapPosition = new int[0];
+    private int heapSize;
+
+    // Banned vertexes and edges; banned if stamped with the current ban epoch
+    private int banEpoch = 1;
+    private int[] bannedVertexes = new int[0];
+    private int[] bannedEdges = new int[0];
+
+    // Marks of the vertexes on the path being built; 0 if not on it
+    int[] pathPosition = new int[0];
+
+    // Stack of the path being built, also used as the breadth-first queue
+    int[] stackVertex = new int[0];
+    int[] stackCursor = new int[0];
+    int[] stackEdge = new int[0];
+
+    // Disjoint path search state: vertex potentials, reversible edge ending at
+    // each vertex or -1, and weights of the edges of the path union or +inf
+    double[] potentials = new double[0];
+    int[] reverseEdge = new int[0];
+    double[] unionWeights = new double[0];
+
+    private CompactSearchScratch() {
+    }
+
+    /**
+     * Returns the scratch space of the calling thread, sized for the
+     * specified graph.
+     *
+     * @param graph graph to be searched
+     * @return scratch space
+     */
+    static CompactSearchScratch get(CompactGraph<?, ?> graph) {
+        CompactSearchScratch scratch = SCRATCH.get();
+        scratch.ensureCapacity(graph.vertexCount(), graph.edgeCount());
+        return scratch;
+    }
+
+    private void ensureCapacity(int vertexCount, int edgeCount) {
+        boolean grown = false;
+        if (reached.length < vertexCount) {
+            int size = Math.max(vertexCount, reached.length * 2);
+            reached = new int[size];
+            costs = new double[size];
+            parentHead = new int[size];
+            parentCount = new int[size];
+            heap = new int[size];
+            heapPosition = new int[size];
+            bannedVertexes = new int[size];
+            pathPosition = new int[size];
+            stackVertex = new int[size];
+            stackCursor = new int[size];
+            stackEdge = new int[size];
+            potentials = new double[size];
+            reverseEdge = new int[size];
+            Arrays.fill(reverseEdge, -1);
+            epoch = 0;
+            grown = true;
+        }
+        if (weights.length < edgeCount) {
+            int size = Math.max(edgeCount, weights.length * 2);
+            weights = new double[size];
+            bannedEdges = new int[size];
+            unionWeights = new double[size];
+            Arrays.fill(unionWeights, Double.POSITIVE_INFINITY);
+            grown = true;
+        }
+        if (grown) {
+            Arrays.fill(bannedVertexes, 0);
+            Arrays.fill(bannedEdges, 0);
+            banEpoch = 1;
+        }
+    }
+
+    /**
+     * Starts a new search, forgetting all vertexes reached so far.
+     */
+    void begin() {
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(reached, 0);
+            epoch = 1;
+        }
+        heapSize = 0;
+        parentSize = 0;
+    }
+
+    /**
+     * Indicates whether the vertex has been reached by the current search.
+     *
+     * @param v vertex identifier
+     * @return true if reached
+     */
+    boolean isReached(int v) {
+        return reached[v] == epoch;
+    }
+
+    /**
+     * Records the first cost of reaching the vertex, without queueing it.
+     *
+     * @param v    vertex identifier
+     * @param cost cost of reaching the vertex
+     */
+    void visit(int v, double cost) {
+        reached[v] = epoch;
+        costs[v] = cost;
+        parentHead[v] = -1;
+        parentCount[v] = 0;
+        heapPosition[v] = -1;
+    }
+
+    /**
+     * Records the first cost of reaching the vertex and queues it.
+     *
+     * @param v    vertex identifier
+     * @param cost cost of reaching the vertex
+     */
+    void reach(int v, double cost) {
+        visit(v, cost);
+        heap[heapSize] = v;
+        heapPosition[v] = heapSize;
+        siftUp(heapSize++);
+    }
+
+    /**
+     * Lowers the cost of reaching an already reached vertex, dropping its
+     * parent edges.
+     *
+     * @param v    vertex identifier
+     * @param cost new lower cost
+     */
+    void lower(int v, double cost) {
+        costs[v] = cost;
+        parentHead[v] = -1;
+        parentCount[v] = 0;
+        if (heapPosition[v] >= 0) {
+            siftUp(heapPosition[v]);
+        }
+    }
+
+    /**
+     * Adds a parent edge through which the vertex is reached at its cost.
+     *
+     * @param v vertex identifier
+     * @param e edge identifier
+     */
+    void addParent(int v, int e) {
+        if (parentSize == parentEdge.length) {
+            parentEdge = Arrays.copyOf(parentEdge, parentSize * 2);
+            parentNext = Arrays.copyOf(parentNext, parentSize * 2);
+        }
+        parentEdge[parentSize] = e;
+        parentNext[parentSize] = parentHead[v];
+        parentHead[v] = parentSize++;
+        parentCount[v]++;
+    }
+
+    /**
+     * Indicates whether there are queued vertexes left.
+     *
+     * @return true if the queue is empty
+     */
+    boolean isQueueEmpty() {
+        return heapSize == 0;
+    }
+
+    /**
+     * Removes and returns the queued vertex with the lowest cost, which is
+     * thereby settled.
+     *
+     * @return vertex identifier
+     */
+    int poll() {
+        int v = heap[0];
+        heapPosition[v] = -1;
+        if (--heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapPosition[heap[0]] = 0;
+            siftDown(0);
+        }
+        return v;
+    }
+
+    /**
+     * Indicates whether the vertex has been settled by the current search.
+     *
+     * @param v vertex identifier
+     * @return true if settled
+     */
+    boolean isSettled(int v) {
+        return isReached(v) && heapPosition[v] < 0;
+    }
+
+    private void siftUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (costs[heap[parent]] <= costs[v]) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heapPosition[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        heapPosition[v] = i;
+    }
+
+    private void siftDown(int i) {
+        int v = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && costs[heap[child + 1]] < costs[heap[child]]) {
+                child++;
+            }
+            if (costs[v] <= costs[heap[child]]) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapPosition[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        heapPosition[v] = i;
+    }
+
+    /**
+     * Lifts all vertex and edge bans.
+     */
+    void clearBans() {
+        if (++banEpoch == Integer.MAX_VALUE) {
+            Arrays.fill(bannedVertexes, 0);
+            Arrays.fill(bannedEdges, 0);
+            banEpoch = 1;
+        }
+    }
+
+    /**
+     * Bans the vertex from the searches until the bans are cleared.
+     *
+     * @param v vertex identifier
+     */
+    void banVertex(int v) {
+        bannedVertexes[v] = banEpoch;
+    }
+
+    /**
+     * Bans the edge from the searches until the bans are cleared.
+     *
+     * @param e edge identifier
+     */
+    void banEdge(int e) {
+        bannedEdges[e] = banEpoch;
+    }
+
+    /**
+     * Indicates whether the vertex is banned.
+     *
+     * @param v vertex identifier
+     * @return true if banned
+     */
+    boolean isVertexBanned(int v) {
+        return bannedVertexes[v] == banEpoch;
+    }
+
+    /**
+     * Indicates whether the edge is banned.
+     *
+     * @param e edge identifier
+     * @return true if banned
+     */
+    boolean isEdgeBanned(int e) {
+        return bannedEdges[e] == banEpoch;
+    }
+}
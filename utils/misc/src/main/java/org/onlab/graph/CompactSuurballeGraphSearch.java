@@ -0,0 +1,205 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Suurballe shortest-path graph search algorithm capable of finding both
+ * a shortest path, as well as a backup shortest path, between a source and a
+ * destination such that the sum of the path lengths is minimized, operating
+ * on the {@link CompactGraph} form of the searched graph.
+ * <p>
+ * The residual graph is not materialized: reversed shortest path edges are
+ * traversed through their originals and removed edges are banned.
+ * </p>
+ */
+public class CompactSuurballeGraphSearch<V extends Vertex, E extends Edge<V>>
+        extends AbstractCompactGraphPathSearch<V, E> {
+
+    private static final double INFINITE = Double.POSITIVE_INFINITY;
+
+    @Override
+    Result<V, E> internalSearch(CompactGraph<V, E> graph, CompactSearchScratch scratch,
+                                int src, int dst, double initialCost, int maxPaths) {
+        checkArgument(dst >= 0, "Suurballe search requires a destination");
+        double[] weights = scratch.weights;
+        double[] potentials = scratch.potentials;
+        CompactResult result = new CompactResult(graph.vertex(src), graph.vertex(dst));
+
+        // Shortest path costs from the source serve as vertex potentials.
+        dijkstra(graph, scratch, weights, src, -1, initialCost, ALL_PATHS);
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            if (scratch.isReached(v)) {
+                result.record(graph, scratch, v);
+                potentials[v] = scratch.costs[v];
+            } else {
+                potentials[v] = INFINITE;
+            }
+        }
+        List<int[]> shortPaths = new ArrayList<>();
+        buildPaths(graph, scratch, src, dst, ALL_PATHS, shortPaths);
+
+        List<DisjointPathPair<V, E>> pairs = new ArrayList<>();
+        List<int[]> residualPaths = new ArrayList<>();
+        for (int[] shortPath : shortPaths) {
+            // Remove the edges into the source and reverse the shortest path.
+            scratch.clearBans();
+            for (int i = graph.inStart(src), end = graph.inStart(src + 1); i < end; i++) {
+                scratch.banEdge(graph.inEdge(i));
+            }
+            for (int e : shortPath) {
+                scratch.banEdge(e);
+                scratch.reverseEdge[graph.dst(e)] = e;
+            }
+            residualPaths.clear();
+            residualSearch(graph, scratch, src, dst, initialCost);
+            buildPaths(graph, scratch, src, dst, ALL_PATHS, residualPaths);
+            for (int e : shortPath) {
+                scratch.reverseEdge[graph.dst(e)] = -1;
+            }
+            scratch.clearBans();
+
+            if (residualPaths.isEmpty()) {
+                pairs.add(new DisjointPathPair<>(path(graph, shortPath, potentials[dst]), null));
+                continue;
+            }
+            for (int[] residualPath : residualPaths) {
+                DisjointPathPair<V, E> pair = pair(graph, scratch, src, dst, initialCost,
+                                                   shortPath, residualPath);
+                if (pair != null) {
+                    pairs.add(pair);
+                }
+            }
+        }
+
+        for (int i = pairs.size() - 1; i > 0; i--) {
+            if (pairs.get(i).size() <= 1) {
+                pairs.remove(i);
+            }
+        }
+        for (DisjointPathPair<V, E> pair : pairs) {
+            if (maxPaths != ALL_PATHS && result.paths.size() == maxPaths) {
+                break;
+            }
+            result.paths.add(pair);
+        }
+        return result;
+    }
+
+    // Runs Dijkstra's algorithm over the residual graph using the reduced
+    // edge weights; reversed edges weigh nothing.
+    private void residualSearch(CompactGraph<V, E> graph, CompactSearchScratch scratch,
+                                int src, int dst, double initialCost) {
+        double[] weights = scratch.weights;
+        double[] potentials = scratch.potentials;
+        scratch.begin();
+        scratch.reach(src, initialCost);
+        while (!scratch.isQueueEmpty()) {
+            int u = scratch.poll();
+            if (u == dst) {
+                break;
+            }
+            double cost = scratch.costs[u];
+            for (int i = graph.outStart(u), end = graph.outStart(u + 1); i < end; i++) {
+                int e = graph.outEdge(i);
+                double weight = weights[e];
+                int v = graph.dst(e);
+                if (weight < 0 || weight == INFINITE || scratch.isEdgeBanned(e) ||
+                        potentials[v] == INFINITE) {
+                    continue;
+                }
+                double reduced = Math.max(0, weight + potentials[u] - potentials[v]);
+                relax(scratch, v, e, cost + reduced, ALL_PATHS);
+            }
+            int reverse = scratch.reverseEdge[u];
+            if (reverse >= 0) {
+                relax(scratch, graph.src(reverse), ~reverse, cost, ALL_PATHS);
+            }
+        }
+    }
+
+    // Combines the shortest and residual paths, cancelling the reversed
+    // edges, and splits the union into the shortest path and the shortest
+    // vertex-disjoint backup; returns null if there is no such backup.
+    private DisjointPathPair<V, E> pair(CompactGraph<V, E> graph, CompactSearchScratch scratch,
+                                        int src, int dst, double initialCost,
+                                        int[] shortPath, int[] residualPath) {
+        double[] weights = scratch.weights;
+        double[] unionWeights = scratch.unionWeights;
+        for (int e : shortPath) {
+            unionWeights[e] = weights[e];
+        }
+        for (int e : residualPath) {
+            if (e >= 0) {
+                unionWeights[e] = weights[e];
+            } else {
+                unionWeights[~e] = INFINITE;
+            }
+        }
+
+        DisjointPathPair<V, E> pair = null;
+        List<int[]> paths = new ArrayList<>();
+        dijkstra(graph, scratch, unionWeights, src, dst, initialCost, ALL_PATHS);
+        buildPaths(graph, scratch, src, dst, 1, paths);
+        if (!paths.isEmpty()) {
+            int[] primary = paths.get(0);
+            Path<V, E> primaryPath = path(graph, primary, scratch.costs[dst]);
+            for (int e : primary) {
+                unionWeights[e] = INFINITE;
+            }
+            paths.clear();
+            dijkstra(graph, scratch, unionWeights, src, dst, initialCost, ALL_PATHS);
+            buildPaths(graph, scratch, src, dst, ALL_PATHS, paths);
+
+            // Find first backup path that does not share any nodes with the primary
+            int[] marks = scratch.pathPosition;
+            for (int i = 1; i < primary.length; i++) {
+                marks[graph.src(primary[i])] = 1;
+            }
+            for (int[] backup : paths) {
+                if (isDisjoint(graph, marks, backup)) {
+                    pair = new DisjointPathPair<>(primaryPath, path(graph, backup, scratch.costs[dst]));
+                    break;
+                }
+            }
+            for (int i = 1; i < primary.length; i++) {
+                marks[graph.src(primary[i])] = 0;
+            }
+        }
+
+        for (int e : shortPath) {
+            unionWeights[e] = INFINITE;
+        }
+        for (int e : residualPath) {
+            unionWeights[e >= 0 ? e : ~e] = INFINITE;
+        }
+        return pair;
+    }
+
+    // Indicates whether none of the path's inner vertexes is marked.
+    private static boolean isDisjoint(CompactGraph<?, ?> graph, int[] marks, int[] path) {
+        for (int i = 1; i < path.length; i++) {
+            if (marks[graph.src(path[i])] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
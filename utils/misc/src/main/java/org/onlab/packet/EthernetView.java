@@ -0,0 +1,431 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.packet;
+
+import org.slf4j.Logger;
+
+import java.nio.ByteBuffer;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static org.onlab.packet.Ethernet.DATALAYER_ADDRESS_LENGTH;
+import static org.onlab.packet.Ethernet.ETHERNET_HEADER_LENGTH;
+import static org.onlab.packet.Ethernet.TYPE_ARP;
+import static org.onlab.packet.Ethernet.TYPE_IPV4;
+import static org.onlab.packet.Ethernet.TYPE_IPV6;
+import static org.onlab.packet.Ethernet.TYPE_QINQ;
+import static org.onlab.packet.Ethernet.TYPE_VLAN;
+import static org.onlab.packet.Ethernet.VLAN_HEADER_LENGTH;
+import static org.onlab.packet.Ethernet.VLAN_UNTAGGED;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Read-only view of an Ethernet frame held in a byte buffer.
+ * <p>
+ * Header fields are read from the buffer when they are requested, without
+ * copying the frame and without building the packet object tree; the frame
+ * is only fully deserialized when {@link #ethernet()} is called. Accessors of
+ * a layer the frame does not carry, or that is truncated, return
+ * {@link #NONE} or null. The view reads the buffer with absolute accesses
+ * only, so it is not affected by the buffer position after it is created,
+ * but the content of the buffer must not change.
+ */
+public final class EthernetView {
+
+    /**
+     * Value returned by the numeric accessors when the frame does not carry the field.
+     */
+    public static final int NONE = -1;
+
+    private static final int IPV4_MIN_HEADER_LENGTH = 20;
+    private static final int IPV6_HEADER_LENGTH = 40;
+    private static final int ARP_IPV4_LENGTH = 28;
+    private static final int PORTS_LENGTH = 4;
+    private static final long BROADCAST_MAC = 0xffffffffffffL;
+
+    private static final Logger log = getLogger(EthernetView.class);
+
+    private final ByteBuffer data;
+    private final int offset;
+    private final int length;
+
+    private final short etherType;
+    private final short vlanId;
+    private final short qinqVid;
+    private final int payloadOffset;
+
+    private volatile boolean decoded;
+    private volatile Ethernet ethernet;
+
+    private EthernetView(ByteBuffer data) {
+        this.data = data;
+        this.offset = data.position();
+        this.length = data.remaining();
+
+        short type = 0;
+        short vid = VLAN_UNTAGGED;
+        short outerVid = VLAN_UNTAGGED;
+        int index = ETHERNET_HEADER_LENGTH - Short.BYTES;
+        if (length >= ETHERNET_HEADER_LENGTH) {
+            type = getShort(index);
+            index += Short.BYTES;
+            if (type == TYPE_QINQ && has(index, VLAN_HEADER_LENGTH)) {
+                outerVid = vid(index);
+                type = getShort(index + Short.BYTES);
+                index += VLAN_HEADER_LENGTH;
+            }
+            if (type == TYPE_VLAN && has(index, VLAN_HEADER_LENGTH)) {
+                vid = vid(index);
+                type = getShort(index + Short.BYTES);
+                index += VLAN_HEADER_LENGTH;
+                if (type == TYPE_VLAN && has(index, VLAN_HEADER_LENGTH)) {
+                    // double tagged with 802.1Q tags; the first one is the outer tag
+                    outerVid = vid;
+                    vid = vid(index);
+                    type = getShort(index + Short.BYTES);
+                    index += VLAN_HEADER_LENGTH;
+                }
+            }
+        }
+        this.etherType = type;
+        this.vlanId = vid;
+        this.qinqVid = outerVid;
+        this.payloadOffset = index;
+    }
+
+    /**
+     * Creates a view of the Ethernet frame between the position and the
+     * limit of the given buffer. The buffer is neither copied nor modified.
+     *
+     * @param data buffer holding the frame
+     * @return view of the frame
+     */
+    public static EthernetView of(ByteBuffer data) {
+        return new EthernetView(data);
+    }
+
+    /**
+     * Creates a view of the Ethernet frame held in the given array.
+     *
+     * @param data frame bytes
+     * @return view of the frame
+     */
+    public static EthernetView of(byte[] data) {
+        return new EthernetView(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Returns whether the frame holds a complete Ethernet header.
+     *
+     * @return true if the header is complete
+     */
+    public boolean isValid() {
+        return length >= ETHERNET_HEADER_LENGTH;
+    }
+
+    /**
+     * Returns the number of bytes of the frame.
+     *
+     * @return frame length
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the destination MAC address.
+     *
+     * @return destination MAC address; null if the header is incomplete
+     */
+    public MacAddress destinationMac() {
+        return isValid() ? MacAddress.valueOf(getMac(0)) : null;
+    }
+
+    /**
+     * Returns the source MAC address.
+     *
+     * @return source MAC address; null if the header is incomplete
+     */
+    public MacAddress sourceMac() {
+        return isValid() ? MacAddress.valueOf(getMac(DATALAYER_ADDRESS_LENGTH)) : null;
+    }
+
+    /**
+     * Returns whether the destination MAC address is the broadcast address.
+     *
+     * @return true if the frame is broadcast
+     */
+    public boolean isBroadcast() {
+        return isValid() && getMac(0) == BROADCAST_MAC;
+    }
+
+    /**
+     * Returns whether the destination MAC address is a multicast address;
+     * the broadcast address is not considered multicast.
+     *
+     * @return true if the frame is multicast
+     */
+    public boolean isMulticast() {
+        return isValid() && !isBroadcast() && (getByte(0) & 0x01) != 0;
+    }
+
+    /**
+     * Returns the ethertype of the payload, past any VLAN tags.
+     *
+     * @return ethertype; 0 if the header is incomplete
+     */
+    public short etherType() {
+        return etherType;
+    }
+
+    /**
+     * Returns the VLAN identifier of the frame; for a double tagged frame
+     * this is the inner VLAN identifier.
+     *
+     * @return VLAN identifier; {@link Ethernet#VLAN_UNTAGGED} if untagged
+     */
+    public short vlanId() {
+        return vlanId;
+    }
+
+    /**
+     * Returns the outer VLAN identifier of a double tagged frame.
+     *
+     * @return outer VLAN identifier; {@link Ethernet#VLAN_UNTAGGED} if not double tagged
+     */
+    public short qinqVid() {
+        return qinqVid;
+    }
+
+    /**
+     * Returns a read-only buffer over the Ethernet payload, sharing the
+     * content of the frame buffer.
+     *
+     * @return payload buffer
+     */
+    public ByteBuffer payload() {
+        ByteBuffer payload = data.asReadOnlyBuffer();
+        int start = Math.min(offset + payloadOffset, offset + length);
+        payload.limit(offset + length).position(start);
+        return payload.slice();
+    }
+
+    /**
+     * Returns the protocol of the IPv4 payload, or the next header of the
+     * IPv6 payload.
+     *
+     * @return IP protocol number; {@link #NONE} if the frame is not IP
+     */
+    public int ipProtocol() {
+        if (isIpv4()) {
+            return getByte(payloadOffset + 9) & 0xff;
+        } else if (isIpv6()) {
+            return getByte(payloadOffset + 6) & 0xff;
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns the source address of the IP payload.
+     *
+     * @return source IPv4 or IPv6 address; null if the frame is not IP
+     */
+    public IpAddress sourceIp() {
+        if (isIpv4()) {
+            return Ip4Address.valueOf(data.getInt(offset + payloadOffset + 12));
+        } else if (isIpv6()) {
+            return Ip6Address.valueOf(getBytes(payloadOffset + 8, Ip6Address.BYTE_LENGTH));
+        }
+        return null;
+    }
+
+    /**
+     * Returns the destination address of the IP payload.
+     *
+     * @return destination IPv4 or IPv6 address; null if the frame is not IP
+     */
+    public IpAddress destinationIp() {
+        if (isIpv4()) {
+            return Ip4Address.valueOf(data.getInt(offset + payloadOffset + 16));
+        } else if (isIpv6()) {
+            return Ip6Address.valueOf(getBytes(payloadOffset + 24, Ip6Address.BYTE_LENGTH));
+        }
+        return null;
+    }
+
+    /**
+     * Returns the source port of the TCP or UDP segment carried over IP.
+     *
+     * @return source port; {@link #NONE} if the frame carries no TCP or UDP header
+     */
+    public int sourcePort() {
+        int transport = portsOffset();
+        return transport == NONE ? NONE : getShort(transport) & 0xffff;
+    }
+
+    /**
+     * Returns the destination port of the TCP or UDP segment carried over IP.
+     *
+     * @return destination port; {@link #NONE} if the frame carries no TCP or UDP header
+     */
+    public int destinationPort() {
+        int transport = portsOffset();
+        return transport == NONE ? NONE : getShort(transport + Short.BYTES) & 0xffff;
+    }
+
+    /**
+     * Returns the type of the ICMP or ICMPv6 message carried over IP.
+     *
+     * @return ICMP type; {@link #NONE} if the frame carries no ICMP message
+     */
+    public int icmpType() {
+        int protocol = ipProtocol();
+        boolean icmp = (isIpv4() && protocol == IPv4.PROTOCOL_ICMP) ||
+                (isIpv6() && protocol == IPv6.PROTOCOL_ICMP6);
+        int transport = icmp ? transportOffset() : NONE;
+        return transport == NONE || !has(transport, 1) ? NONE : getByte(transport) & 0xff;
+    }
+
+    /**
+     * Returns the operation code of the ARP payload.
+     *
+     * @return ARP operation code; {@link #NONE} if the frame is not an IPv4 ARP
+     */
+    public int arpOpCode() {
+        return isArp() ? getShort(payloadOffset + 6) & 0xffff : NONE;
+    }
+
+    /**
+     * Returns the sender protocol address of the ARP payload.
+     *
+     * @return sender IPv4 address; null if the frame is not an IPv4 ARP
+     */
+    public Ip4Address arpSenderAddress() {
+        return isArp() ? Ip4Address.valueOf(data.getInt(offset + payloadOffset + 14)) : null;
+    }
+
+    /**
+     * Returns the target protocol address of the ARP payload.
+     *
+     * @return target IPv4 address; null if the frame is not an IPv4 ARP
+     */
+    public Ip4Address arpTargetAddress() {
+        return isArp() ? Ip4Address.valueOf(data.getInt(offset + payloadOffset + 24)) : null;
+    }
+
+    /**
+     * Returns the fully deserialized frame. The frame is deserialized on the
+     * first call only.
+     *
+     * @return deserialized frame; null if the frame cannot be deserialized
+     */
+    public Ethernet ethernet() {
+        if (!decoded) {
+            synchronized (this) {
+                if (!decoded) {
+                    ethernet = deserialize();
+                    decoded = true;
+                }
+            }
+        }
+        return ethernet;
+    }
+
+    private Ethernet deserialize() {
+        try {
+            if (data.hasArray()) {
+                return Ethernet.deserializer().deserialize(data.array(), data.arrayOffset() + offset, length);
+            }
+            return Ethernet.deserializer().deserialize(getBytes(0, length), 0, length);
+        } catch (DeserializationException | RuntimeException e) {
+            log.debug("Unable to deserialize Ethernet frame", e);
+            return null;
+        }
+    }
+
+    private boolean isIpv4() {
+        return etherType == TYPE_IPV4 && has(payloadOffset, IPV4_MIN_HEADER_LENGTH);
+    }
+
+    private boolean isIpv6() {
+        return etherType == TYPE_IPV6 && has(payloadOffset, IPV6_HEADER_LENGTH);
+    }
+
+    private boolean isArp() {
+        return etherType == TYPE_ARP && has(payloadOffset, ARP_IPV4_LENGTH) &&
+                getByte(payloadOffset + 4) == DATALAYER_ADDRESS_LENGTH &&
+                getByte(payloadOffset + 5) == Ip4Address.BYTE_LENGTH;
+    }
+
+    // Offset of the IP payload; NONE for non-initial IPv4 fragments
+    private int transportOffset() {
+        if (isIpv4()) {
+            if ((getShort(payloadOffset + 6) & 0x1fff) != 0) {
+                return NONE;
+            }
+            return payloadOffset + (getByte(payloadOffset) & 0x0f) * 4;
+        } else if (isIpv6()) {
+            return payloadOffset + IPV6_HEADER_LENGTH;
+        }
+        return NONE;
+    }
+
+    private int portsOffset() {
+        int protocol = ipProtocol();
+        if (protocol != IPv4.PROTOCOL_TCP && protocol != IPv4.PROTOCOL_UDP) {
+            return NONE;
+        }
+        int transport = transportOffset();
+        return transport != NONE && has(transport, PORTS_LENGTH) ? transport : NONE;
+    }
+
+    private boolean has(int index, int count) {
+        return index >= 0 && index + count <= length;
+    }
+
+    private byte getByte(int index) {
+        return data.get(offset + index);
+    }
+
+    private short getShort(int index) {
+        return data.getShort(offset + index);
+    }
+
+    private short vid(int index) {
+        return (short) (getShort(index) & 0x0fff);
+    }
+
+    private long getMac(int index) {
+        return ((getShort(index) & 0xffffL) << Integer.SIZE) |
+                (data.getInt(offset + index + Short.BYTES) & 0xffffffffL);
+    }
+
+    private byte[] getBytes(int index, int count) {
+        byte[] bytes = new byte[count];
+        for (int i = 0; i < count; i++) {
+            bytes[i] = getByte(index + i);
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return toStringHelper(this)
+                .add("length", length)
+                .add("etherType", String.format("0x%04x", etherType & 0xffff))
+                .add("vlanId", vlanId)
+                .toString();
+    }
+}
@@ -16,6 +16,7 @@
 package org.onlab.util;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.Registration;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.ByteBufferInput;
@@ -37,6 +38,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -319,13 +321,22 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
      *
      * @param obj Object to serialize
      * @param buffer to write to
+     * @throws BufferOverflowException if the object does not fit in the buffer;
+     *         the buffer position is then undefined
      */
     public void serialize(final Object obj, final ByteBuffer buffer) {
-        ByteBufferOutput out = new ByteBufferOutput(buffer);
+        FixedByteBufferOutput out = new FixedByteBufferOutput(buffer);
         Kryo kryo = borrow();
         try {
             kryo.writeClassAndObject(out, obj);
             out.flush();
+        } catch (KryoException e) {
+            if (out.overflowed) {
+                BufferOverflowException overflow = new BufferOverflowException();
+                overflow.initCause(e);
+                throw overflow;
+            }
+            throw e;
         } finally {
             release(kryo);
         }
@@ -595,4 +606,25 @@ public final class KryoNamespace implements KryoFactory, KryoPool {
             return false;
         }
     }
+
+    /**
+     * Output over a fixed buffer which remembers whether it ran out of room,
+     * since Kryo reports an overflow as a generic exception, possibly wrapped
+     * in serialization traces.
+     */
+    private static final class FixedByteBufferOutput extends ByteBufferOutput {
+        private boolean overflowed;
+
+        FixedByteBufferOutput(ByteBuffer buffer) {
+            super(buffer);
+        }
+
+        @Override
+        protected boolean require(int required) {
+            if (required > capacity - position) {
+                overflowed = true;
+            }
+            return super.require(required);
+        }
+    }
 }
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.ImmutableSet;
+import org.junit.Test;
+
+import static com.google.common.collect.ImmutableSet.of;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the compact graph searches against their object graph counterparts.
+ */
+public class CompactGraphSearchTest extends GraphTest {
+
+    private static final ScalarWeight S1 = new ScalarWeight(1);
+    private static final ScalarWeight S2 = new ScalarWeight(2);
+    private static final ScalarWeight S3 = new ScalarWeight(3);
+    private static final ScalarWeight S4 = new ScalarWeight(4);
+    private static final ScalarWeight S5 = new ScalarWeight(5);
+
+    private final EdgeWeigher<TestVertex, TestEdge> scalarWeigher =
+            new EdgeWeigher<TestVertex, TestEdge>() {
+                @Override
+                public Weight weight(TestEdge edge) {
+                    return edge.weight();
+                }
+
+                @Override
+                public Weight getInitialWeight() {
+                    return new ScalarWeight(0);
+                }
+
+                @Override
+                public Weight getNonViableWeight() {
+                    return ScalarWeight.NON_VIABLE_WEIGHT;
+                }
+            };
+
+    // Same graph as GraphTest edges(), with scalar weights.
+    private Set<TestEdge> scalarEdges() {
+        return of(new TestEdge(A, B, S1),
+                  new TestEdge(A, C, S3),
+                  new TestEdge(B, D, S2),
+                  new TestEdge(B, C, S1),
+                  new TestEdge(B, E, S4),
+                  new TestEdge(C, E, S1),
+                  new TestEdge(D, H, S5),
+                  new TestEdge(D, E, S1),
+                  new TestEdge(E, F, S1),
+                  new TestEdge(F, D, S1),
+                  new TestEdge(F, G, S1),
+                  new TestEdge(F, H, S1));
+    }
+
+    // Random graph with the given number of vertexes and edges.
+    private Graph<TestVertex, TestEdge> randomGraph(Random random, int vertexCount, int edgeCount) {
+        List<TestVertex> vertexes = new ArrayList<>();
+        for (int i = 0; i < vertexCount; i++) {
+            vertexes.add(new TestVertex("V" + i));
+        }
+        Set<TestEdge> edges = new HashSet<>();
+        while (edges.size() < edgeCount) {
+            TestVertex src = vertexes.get(random.nextInt(vertexCount));
+            TestVertex dst = vertexes.get(random.nextInt(vertexCount));
+            if (!src.equals(dst)) {
+                edges.add(new TestEdge(src, dst, new ScalarWeight(1 + random.nextInt(5))));
+            }
+        }
+        return new AdjacencyListsGraph<>(ImmutableSet.copyOf(vertexes), edges);
+    }
+
+    private Set<List<TestEdge>> edgeLists(Set<Path<TestVertex, TestEdge>> paths) {
+        return paths.stream().map(Path::edges).collect(Collectors.toSet());
+    }
+
+    private List<Weight> costs(Set<Path<TestVertex, TestEdge>> paths) {
+        return paths.stream().map(Path::cost).collect(Collectors.toList());
+    }
+
+    private void assertSameShortestPaths(Graph<TestVertex, TestEdge> graph,
+                                         EdgeWeigher<TestVertex, TestEdge> weigher) {
+        DijkstraGraphSearch<TestVertex, TestEdge> reference = new DijkstraGraphSearch<>();
+        CompactDijkstraGraphSearch<TestVertex, TestEdge> search = new CompactDijkstraGraphSearch<>();
+        for (TestVertex src : graph.getVertexes()) {
+            GraphPathSearch.Result<TestVertex, TestEdge> expected =
+                    reference.search(graph, src, null, weigher, GraphPathSearch.ALL_PATHS);
+            GraphPathSearch.Result<TestVertex, TestEdge> actual =
+                    search.search(graph, src, null, weigher, GraphPathSearch.ALL_PATHS);
+            assertEquals("incorrect costs", expected.costs(), actual.costs());
+            assertEquals("incorrect parents", expected.parents(), actual.parents());
+            assertEquals("incorrect paths", edgeLists(expected.paths()), edgeLists(actual.paths()));
+
+            for (TestVertex dst : graph.getVertexes()) {
+                expected = reference.search(graph, src, dst, weigher, GraphPathSearch.ALL_PATHS);
+                actual = search.search(graph, src, dst, weigher, GraphPathSearch.ALL_PATHS);
+                assertEquals("incorrect paths", edgeLists(expected.paths()), edgeLists(actual.paths()));
+                for (Path<TestVertex, TestEdge> path : actual.paths()) {
+                    assertEquals("incorrect cost", expected.costs().get(dst), path.cost());
+                    assertEquals("incorrect cost", expected.costs().get(dst), actual.costs().get(dst));
+                }
+
+                actual = search.search(graph, src, dst, weigher, 1);
+                assertEquals("incorrect path count", expected.paths().isEmpty() ? 0 : 1,
+                             actual.paths().size());
+            }
+        }
+    }
+
+    @Test
+    public void dijkstra() {
+        assertSameShortestPaths(new AdjacencyListsGraph<>(vertexes(), scalarEdges()), scalarWeigher);
+    }
+
+    @Test
+    public void dijkstraHopCount() {
+        assertSameShortestPaths(new AdjacencyListsGraph<>(vertexes(), scalarEdges()), null);
+    }
+
+    @Test
+    public void dijkstraRandom() {
+        Random random = new Random(42);
+        for (int i = 0; i < 5; i++) {
+            assertSameShortestPaths(randomGraph(random, 20, 60), scalarWeigher);
+        }
+    }
+
+    @Test
+    public void dijkstraNonViableEdge() {
+        Graph<TestVertex, TestEdge> graph =
+                new AdjacencyListsGraph<>(of(A, B, C),
+                                          of(new TestEdge(A, B, ScalarWeight.NON_VIABLE_WEIGHT),
+                                             new TestEdge(A, C, S1),
+                                             new TestEdge(C, B, S2)));
+        Set<Path<TestVertex, TestEdge>> paths =
+                new CompactDijkstraGraphSearch<TestVertex, TestEdge>()
+                        .search(graph, A, B, scalarWeigher, GraphPathSearch.ALL_PATHS).paths();
+        assertEquals("incorrect path count", 1, paths.size());
+        assertEquals("incorrect path cost", S3, paths.iterator().next().cost());
+    }
+
+    @Test
+    public void breadthFirst() {
+        graph = new AdjacencyListsGraph<>(vertexes(), scalarEdges());
+        BreadthFirstSearch<TestVertex, TestEdge> reference = new BreadthFirstSearch<>();
+        CompactBreadthFirstSearch<TestVertex, TestEdge> search = new CompactBreadthFirstSearch<>();
+        for (TestVertex src : vertexes()) {
+            for (TestVertex dst : vertexes()) {
+                Set<Path<TestVertex, TestEdge>> expected =
+                        reference.search(graph, src, dst, null, 1).paths();
+                Set<Path<TestVertex, TestEdge>> actual =
+                        search.search(graph, src, dst, null, 1).paths();
+                assertEquals("incorrect path count", expected.size(), actual.size());
+                if (!actual.isEmpty()) {
+                    assertEquals("incorrect hop count", expected.iterator().next().edges().size(),
+                                 actual.iterator().next().edges().size());
+                    assertEquals("incorrect cost", expected.iterator().next().cost(),
+                                 actual.iterator().next().cost());
+                }
+            }
+        }
+    }
+
+    // Collects the costs of all loop-free paths from the vertex to the destination.
+    private void simplePathCosts(Graph<TestVertex, TestEdge> graph, TestVertex v, TestVertex dst,
+                                 Set<TestVertex> visited, double cost, List<Double> costs) {
+        if (v.equals(dst)) {
+            costs.add(cost);
+            return;
+        }
+        visited.add(v);
+        for (TestEdge edge : graph.getEdgesFrom(v)) {
+            if (!visited.contains(edge.dst())) {
+                simplePathCosts(graph, edge.dst(), dst, visited,
+                                cost + ((ScalarWeight) edge.weight()).value(), costs);
+            }
+        }
+        visited.remove(v);
+    }
+
+    @Test
+    public void kShortest() {
+        Random random = new Random(7);
+        for (int i = 0; i < 5; i++) {
+            Graph<TestVertex, TestEdge> graph = randomGraph(random, 10, 30);
+            CompactKShortestPathsSearch<TestVertex, TestEdge> search = new CompactKShortestPathsSearch<>();
+            for (TestVertex src : graph.getVertexes()) {
+                for (TestVertex dst : graph.getVertexes()) {
+                    if (src.equals(dst)) {
+                        continue;
+                    }
+                    List<Double> expected = new ArrayList<>();
+                    simplePathCosts(graph, src, dst, new HashSet<>(), 0, expected);
+                    expected.sort(null);
+                    Set<Path<TestVertex, TestEdge>> actual =
+                            search.search(graph, src, dst, scalarWeigher, 5).paths();
+                    assertEquals("incorrect costs", expected.subList(0, Math.min(5, expected.size())),
+                                 actual.stream().map(p -> ((ScalarWeight) p.cost()).value())
+                                         .collect(Collectors.toList()));
+                    assertEquals("paths should be distinct", actual.size(), edgeLists(actual).size());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void kShortestFixture() {
+        graph = new AdjacencyListsGraph<>(vertexes(), scalarEdges());
+        Set<Path<TestVertex, TestEdge>> expected = new KShortestPathsSearch<TestVertex, TestEdge>()
+                .search(graph, A, H, scalarWeigher, 5).paths();
+        Set<Path<TestVertex, TestEdge>> actual = new CompactKShortestPathsSearch<TestVertex, TestEdge>()
+                .search(graph, A, H, scalarWeigher, 5).paths();
+        assertEquals("incorrect costs", costs(expected), costs(actual));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void kShortestAllPaths() {
+        graph = new AdjacencyListsGraph<>(vertexes(), scalarEdges());
+        new CompactKShortestPathsSearch<TestVertex, TestEdge>()
+                .search(graph, A, H, scalarWeigher, GraphPathSearch.ALL_PATHS);
+    }
+
+    @Test
+    public void suurballe() {
+        Graph<TestVertex, TestEdge> graph =
+                new AdjacencyListsGraph<>(of(A, B, C, D, E),
+                                          of(new TestEdge(A, B, S1),
+                                             new TestEdge(B, C, S1),
+                                             new TestEdge(A, D, S1),
+                                             new TestEdge(D, C, S1),
+                                             new TestEdge(B, E, S2),
+                                             new TestEdge(C, E, S1)));
+        Set<Path<TestVertex, TestEdge>> paths =
+                new CompactSuurballeGraphSearch<TestVertex, TestEdge>()
+                        .search(graph, A, E, scalarWeigher, 1).paths();
+        assertEquals("incorrect path count", 1, paths.size());
+        DisjointPathPair<TestVertex, TestEdge> pair =
+                (DisjointPathPair<TestVertex, TestEdge>) paths.iterator().next();
+        assertTrue("backup expected", pair.hasBackup());
+        assertEquals("incorrect cost", new ScalarWeight(6), pair.cost());
+    }
+
+    @Test
+    public void suurballeNoBackup() {
+        Graph<TestVertex, TestEdge> graph =
+                new AdjacencyListsGraph<>(of(A, B, C),
+                                          of(new TestEdge(A, B, S1),
+                                             new TestEdge(B, C, S1)));
+        Set<Path<TestVertex, TestEdge>> paths =
+                new CompactSuurballeGraphSearch<TestVertex, TestEdge>()
+                        .search(graph, A, C, scalarWeigher, GraphPathSearch.ALL_PATHS).paths();
+        assertEquals("incorrect path count", 1, paths.size());
+        assertFalse("no backup expected",
+                    ((DisjointPathPair<TestVertex, TestEdge>) paths.iterator().next()).hasBackup());
+    }
+
+    @Test
+    public void suurballeRandom() {
+        Random random = new Random(11);
+        for (int i = 0; i < 5; i++) {
+            Graph<TestVertex, TestEdge> graph = randomGraph(random, 12, 40);
+            SuurballeGraphSearch<TestVertex, TestEdge> reference = new SuurballeGraphSearch<>();
+            CompactSuurballeGraphSearch<TestVertex, TestEdge> search = new CompactSuurballeGraphSearch<>();
+            for (TestVertex src : graph.getVertexes()) {
+                for (TestVertex dst : graph.getVertexes()) {
+                    if (src.equals(dst)) {
+                        continue;
+                    }
+                    Set<Path<TestVertex, TestEdge>> expected =
+                            reference.search(graph, src, dst, scalarWeigher, 1).paths();
+                    Set<Path<TestVertex, TestEdge>> actual =
+                            search.search(graph, src, dst, scalarWeigher, 1).paths();
+                    assertEquals("incorrect path count", expected.size(), actual.size());
+                    if (!actual.isEmpty()) {
+                        DisjointPathPair<TestVertex, TestEdge> pair =
+                                (DisjointPathPair<TestVertex, TestEdge>) actual.iterator().next();
+                        assertEquals("incorrect cost", expected.iterator().next().cost(), pair.cost());
+                        if (pair.hasBackup()) {
+                            Set<TestVertex> inner = pair.primary().edges().stream()
+                                    .map(Edge::dst).collect(Collectors.toSet());
+                            inner.remove(dst);
+                            pair.secondary().edges().forEach(e -> assertFalse("paths should be disjoint",
+                                                                             inner.contains(e.dst())));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void scratchReuse() {
+        Random random = new Random(3);
+        CompactDijkstraGraphSearch<TestVertex, TestEdge> search = new CompactDijkstraGraphSearch<>();
+        search.search(randomGraph(random, 200, 800), new TestVertex("V0"), null, scalarWeigher,
+                      GraphPathSearch.ALL_PATHS);
+        assertSameShortestPaths(new AdjacencyListsGraph<>(vertexes(), scalarEdges()), scalarWeigher);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noSuchSourceArgument() {
+        new CompactDijkstraGraphSearch<TestVertex, TestEdge>()
+                .search(new AdjacencyListsGraph<>(of(B, C), of(new TestEdge(B, C, S1))),
+                        A, H, scalarWeigher, 1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nullGraphArgument() {
+        new CompactDijkstraGraphSearch<TestVertex, TestEdge>().search(null, A, H, scalarWeigher, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonScalarWeigher() {
+        graph = new AdjacencyListsGraph<>(vertexes(), edges());
+        new CompactDijkstraGraphSearch<TestVertex, TestEdge>().search(graph, A, H, weigher, 1);
+    }
+}
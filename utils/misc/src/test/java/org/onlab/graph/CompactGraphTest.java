@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.graph;
+
+import org.junit.Test;
+
+import static com.google.common.collect.ImmutableSet.of;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Test of the compact graph representation.
+ */
+public class CompactGraphTest extends GraphTest {
+
+    @Test
+    public void basics() {
+        graph = new AdjacencyListsGraph<>(vertexes(), edges());
+        CompactGraph<TestVertex, TestEdge> compact = CompactGraph.of(graph);
+        assertEquals("incorrect vertex count", 8, compact.vertexCount());
+        assertEquals("incorrect edge count", 12, compact.edgeCount());
+        assertEquals("incorrect missing index", -1, compact.index(Z));
+
+        for (TestVertex v : vertexes()) {
+            int index = compact.index(v);
+            assertEquals("incorrect vertex", v, compact.vertex(index));
+            assertEquals("incorrect egress count", graph.getEdgesFrom(v).size(),
+                         compact.outStart(index + 1) - compact.outStart(index));
+            assertEquals("incorrect ingress count", graph.getEdgesTo(v).size(),
+                         compact.inStart(index + 1) - compact.inStart(index));
+            for (int i = compact.outStart(index); i < compact.outStart(index + 1); i++) {
+                int e = compact.outEdge(i);
+                assertEquals("incorrect edge source", index, compact.src(e));
+                assertEquals("incorrect edge", v, compact.edge(e).src());
+                assertEquals("incorrect edge destination",
+                             compact.edge(e).dst(), compact.vertex(compact.dst(e)));
+            }
+            for (int i = compact.inStart(index); i < compact.inStart(index + 1); i++) {
+                assertEquals("incorrect edge destination", index, compact.dst(compact.inEdge(i)));
+            }
+        }
+    }
+
+    @Test
+    public void cached() {
+        graph = new AdjacencyListsGraph<>(vertexes(), edges());
+        assertSame("compact form should be cached", CompactGraph.of(graph), CompactGraph.of(graph));
+    }
+
+    @Test
+    public void weigh() {
+        graph = new AdjacencyListsGraph<>(of(A, B, C),
+                                          of(new TestEdge(A, B, new ScalarWeight(2)),
+                                             new TestEdge(B, C, ScalarWeight.NON_VIABLE_WEIGHT)));
+        CompactGraph<TestVertex, TestEdge> compact = CompactGraph.of(graph);
+        double[] weights = compact.weigh(new EdgeWeigher<TestVertex, TestEdge>() {
+            @Override
+            public Weight weight(TestEdge edge) {
+                return edge.weight();
+            }
+
+            @Override
+            public Weight getInitialWeight() {
+                return new ScalarWeight(0);
+            }
+
+            @Override
+            public Weight getNonViableWeight() {
+                return ScalarWeight.NON_VIABLE_WEIGHT;
+            }
+        }, new double[2]);
+        int ab = compact.outEdge(compact.outStart(compact.index(A)));
+        double[] expected = new double[2];
+        expected[ab] = 2;
+        expected[1 - ab] = Double.POSITIVE_INFINITY;
+        assertArrayEquals("incorrect weights", expected, weights, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonScalarWeights() {
+        graph = new AdjacencyListsGraph<>(vertexes(), edges());
+        CompactGraph.of(graph).weigh(weigher, new double[12]);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.packet;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Unit tests for the EthernetView class.
+ */
+public class EthernetViewTest {
+
+    private static final MacAddress SRC_MAC = MacAddress.valueOf("00:00:00:00:00:01");
+    private static final MacAddress DST_MAC = MacAddress.valueOf("00:00:00:00:00:02");
+    private static final Ip4Address SRC_IP4 = Ip4Address.valueOf("10.0.0.1");
+    private static final Ip4Address DST_IP4 = Ip4Address.valueOf("10.0.0.2");
+    private static final Ip6Address SRC_IP6 = Ip6Address.valueOf("2001::1");
+    private static final Ip6Address DST_IP6 = Ip6Address.valueOf("ff02::1:ff00:2");
+
+    /**
+     * Tests the header fields of a VLAN tagged ARP request.
+     */
+    @Test
+    public void testArp() {
+        Ethernet eth = ARP.buildArpRequest(SRC_MAC.toBytes(), SRC_IP4.toOctets(),
+                                           DST_IP4.toOctets(), (short) 10);
+        EthernetView view = EthernetView.of(eth.serialize());
+
+        assertTrue(view.isValid());
+        assertTrue(view.isBroadcast());
+        assertFalse(view.isMulticast());
+        assertEquals(SRC_MAC, view.sourceMac());
+        assertEquals(MacAddress.BROADCAST, view.destinationMac());
+        assertEquals(Ethernet.TYPE_ARP, view.etherType());
+        assertEquals(10, view.vlanId());
+        assertEquals(Ethernet.VLAN_UNTAGGED, view.qinqVid());
+        assertEquals(ARP.OP_REQUEST, view.arpOpCode());
+        assertEquals(SRC_IP4, view.arpSenderAddress());
+        assertEquals(DST_IP4, view.arpTargetAddress());
+        assertEquals(EthernetView.NONE, view.ipProtocol());
+        assertNull(view.sourceIp());
+        assertEquals(EthernetView.NONE, view.sourcePort());
+    }
+
+    /**
+     * Tests the header fields of a double tagged UDP datagram.
+     */
+    @Test
+    public void testUdp() {
+        UDP udp = new UDP();
+        udp.setSourcePort(UDP.DHCP_CLIENT_PORT);
+        udp.setDestinationPort(UDP.DHCP_SERVER_PORT);
+        udp.setPayload(new Data(new byte[]{1, 2, 3, 4}));
+        IPv4 ipv4 = new IPv4();
+        ipv4.setSourceAddress(SRC_IP4.toInt());
+        ipv4.setDestinationAddress(DST_IP4.toInt());
+        ipv4.setProtocol(IPv4.PROTOCOL_UDP);
+        ipv4.setPayload(udp);
+        Ethernet eth = new Ethernet();
+        eth.setSourceMACAddress(SRC_MAC);
+        eth.setDestinationMACAddress(DST_MAC);
+        eth.setEtherType(Ethernet.TYPE_IPV4);
+        eth.setVlanID((short) 20);
+        eth.setQinQVID((short) 30);
+        eth.setPayload(ipv4);
+        EthernetView view = EthernetView.of(eth.serialize());
+
+        assertEquals(Ethernet.TYPE_IPV4, view.etherType());
+        assertEquals(20, view.vlanId());
+        assertEquals(30, view.qinqVid());
+        assertEquals(IPv4.PROTOCOL_UDP, view.ipProtocol());
+        assertEquals(SRC_IP4, view.sourceIp());
+        assertEquals(DST_IP4, view.destinationIp());
+        assertEquals(UDP.DHCP_CLIENT_PORT, view.sourcePort());
+        assertEquals(UDP.DHCP_SERVER_PORT, view.destinationPort());
+        assertEquals(EthernetView.NONE, view.icmpType());
+        assertEquals(EthernetView.NONE, view.arpOpCode());
+        assertEquals(ipv4.serialize().length, view.payload().remaining());
+    }
+
+    /**
+     * Tests the header fields of an IPv6 neighbor solicitation.
+     */
+    @Test
+    public void testIcmp6() {
+        ICMP6 icmp6 = new ICMP6();
+        icmp6.setIcmpType(ICMP6.NEIGHBOR_SOLICITATION);
+        icmp6.setIcmpCode((byte) 0);
+        IPv6 ipv6 = new IPv6();
+        ipv6.setSourceAddress(SRC_IP6.toOctets());
+        ipv6.setDestinationAddress(DST_IP6.toOctets());
+        ipv6.setNextHeader(IPv6.PROTOCOL_ICMP6);
+        ipv6.setPayload(icmp6);
+        Ethernet eth = new Ethernet();
+        eth.setSourceMACAddress(SRC_MAC);
+        eth.setDestinationMACAddress(MacAddress.valueOf("33:33:ff:00:00:02"));
+        eth.setEtherType(Ethernet.TYPE_IPV6);
+        eth.setPayload(ipv6);
+        EthernetView view = EthernetView.of(eth.serialize());
+
+        assertTrue(view.isMulticast());
+        assertEquals(Ethernet.VLAN_UNTAGGED, view.vlanId());
+        assertEquals(IPv6.PROTOCOL_ICMP6, view.ipProtocol());
+        assertEquals(SRC_IP6, view.sourceIp());
+        assertEquals(DST_IP6, view.destinationIp());
+        assertEquals(ICMP6.NEIGHBOR_SOLICITATION & 0xff, view.icmpType());
+        assertEquals(EthernetView.NONE, view.sourcePort());
+    }
+
+    /**
+     * Tests that the view covers the buffer from its position and that the
+     * full deserialization is only done once.
+     */
+    @Test
+    public void testBufferAndDeserialization() throws DeserializationException {
+        Ethernet eth = ARP.buildArpRequest(SRC_MAC.toBytes(), SRC_IP4.toOctets(),
+                                           DST_IP4.toOctets(), Ethernet.VLAN_UNTAGGED);
+        byte[] frame = eth.serialize();
+        ByteBuffer data = ByteBuffer.allocate(frame.length + 4);
+        data.putInt(0xdeadbeef).put(frame).position(4);
+        EthernetView view = EthernetView.of(data);
+        data.position(data.limit());
+
+        assertEquals(frame.length, view.length());
+        assertEquals(SRC_MAC, view.sourceMac());
+        Ethernet parsed = view.ethernet();
+        assertEquals(Ethernet.deserializer().deserialize(frame, 0, frame.length), parsed);
+        assertSame(parsed, view.ethernet());
+    }
+
+    /**
+     * Tests a truncated frame.
+     */
+    @Test
+    public void testTruncated() {
+        EthernetView view = EthernetView.of(new byte[]{1, 2, 3, 4});
+
+        assertFalse(view.isValid());
+        assertNull(view.sourceMac());
+        assertFalse(view.isBroadcast());
+        assertEquals(0, view.etherType());
+        assertEquals(EthernetView.NONE, view.ipProtocol());
+        assertEquals(0, view.payload().remaining());
+        assertNull(view.ethernet());
+    }
+}
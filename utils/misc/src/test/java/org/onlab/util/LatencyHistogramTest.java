@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.onlab.util;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Unit tests for the latency histogram.
+ */
+public class LatencyHistogramTest {
+
+    /**
+     * Tests the snapshot of an empty histogram.
+     */
+    @Test
+    public void testEmpty() {
+        LatencyHistogram.Snapshot snapshot = new LatencyHistogram().snapshot();
+        assertThat(snapshot.count(), is(0L));
+        assertThat(snapshot.max(), is(0L));
+        assertThat(snapshot.percentile(99), is(0L));
+        assertThat(snapshot.mean(), is(0.0));
+    }
+
+    /**
+     * Tests that small values are counted exactly.
+     */
+    @Test
+    public void testSmallValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count(), is(11L));
+        assertThat(snapshot.max(), is(10L));
+        assertThat(snapshot.percentile(0), is(0L));
+        assertThat(snapshot.percentile(50), is(5L));
+        assertThat(snapshot.percentile(100), is(10L));
+        assertThat(snapshot.mean(), is(5.0));
+    }
+
+    /**
+     * Tests that percentiles of a uniform distribution stay within the
+     * precision of the histogram.
+     */
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 100000; i++) {
+            histogram.record(i * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count(), is(100000L));
+        assertThat(snapshot.max(), is(100000000L));
+        assertWithin(snapshot.percentile(50), 50000000L);
+        assertWithin(snapshot.percentile(99), 99000000L);
+        assertWithin(snapshot.percentile(99.9), 99900000L);
+        assertThat(snapshot.percentile(100), is(100000000L));
+    }
+
+    /**
+     * Tests that values beyond the tracked range are still counted.
+     */
+    @Test
+    public void testOverflow() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(1L << 50);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count(), is(2L));
+        assertThat(snapshot.max(), is(Long.MAX_VALUE));
+        assertThat(snapshot.percentile(50), greaterThanOrEqualTo(1L << 40));
+    }
+
+    private static void assertWithin(long actual, long expected) {
+        long tolerance = expected / 16;
+        assertThat(actual, allOf(greaterThanOrEqualTo(expected - tolerance),
+                                 lessThanOrEqualTo(expected + tolerance)));
+    }
+}
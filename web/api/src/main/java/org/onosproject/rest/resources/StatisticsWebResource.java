@@ -41,6 +41,8 @@ import org.onosproject.net.device.PortStatistics;
 import org.onosproject.net.flow.FlowRuleService;
 import org.onosproject.net.flow.TableStatisticsEntry;
 import org.onosproject.net.link.LinkService;
+import org.onosproject.net.packet.PacketAdmissionInfo;
+import org.onosproject.net.packet.PacketService;
 import org.onosproject.net.statistic.Load;
 import org.onosproject.net.statistic.StatisticService;
 import org.onosproject.rest.AbstractWebResource;
@@ -355,4 +357,32 @@ public class StatisticsWebResource  extends AbstractWebResource {
 
         return ok(root).build();
     }
+
+    /**
+     * Gets packet admission statistics for all devices.
+     * The array is empty when packet admission control is disabled.
+     *
+     * @onos.rsModel StatisticsPacketsAdmission
+     * @return 200 OK with JSON encoded array of admission statistics per device
+     */
+    @GET
+    @Path("packets/admission")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPacketAdmissionStatistics() {
+        final PacketService service = get(PacketService.class);
+        final ObjectNode root = mapper().createObjectNode();
+        final ArrayNode rootArrayNode = root.putArray("statistics");
+        for (final PacketAdmissionInfo info : service.getAdmissionInfo()) {
+            final ObjectNode entry = mapper().createObjectNode();
+            entry.put("device", info.deviceId().toString());
+            entry.put("admitted", info.admitted());
+            entry.put("deviceRateDropped", info.deviceRateDropped());
+            entry.put("ethTypeRateDropped", info.ethTypeRateDropped());
+            entry.put("queueDropped", info.queueDropped());
+            entry.put("queueDepth", info.queueDepth());
+            rootArrayNode.add(entry);
+        }
+
+        return ok(root).build();
+    }
 }
@@ -27,7 +27,10 @@ import org.onlab.osgi.TestServiceDirectory;
 import org.onosproject.codec.CodecService;
 import org.onosproject.codec.impl.CodecManager;
 import org.onosproject.net.Link;
+import org.onosproject.net.DeviceId;
 import org.onosproject.net.link.LinkService;
+import org.onosproject.net.packet.PacketAdmissionInfo;
+import org.onosproject.net.packet.PacketService;
 import org.onosproject.net.statistic.DefaultLoad;
 import org.onosproject.net.statistic.StatisticService;
 
@@ -60,6 +63,7 @@ public class StatisticsResourceTest extends ResourceTest {
 
     LinkService mockLinkService;
     StatisticService mockStatisticService;
+    PacketService mockPacketService;
 
     /**
      * Initializes test mocks and environment.
@@ -80,7 +84,12 @@ public class StatisticsResourceTest extends ResourceTest {
         expect(mockStatisticService.load(link3))
                 .andReturn(new DefaultLoad(222, 111, 1));
 
-        replay(mockLinkService, mockStatisticService);
+        mockPacketService = createMock(PacketService.class);
+        expect(mockPacketService.getAdmissionInfo())
+                .andReturn(ImmutableList.of(new PacketAdmissionInfo(
+                        DeviceId.deviceId("of:0000000000000001"), 100, 1, 2, 3, 4)));
+
+        replay(mockLinkService, mockStatisticService, mockPacketService);
 
         // Register the services needed for the test
         CodecManager codecService = new CodecManager();
@@ -89,6 +98,7 @@ public class StatisticsResourceTest extends ResourceTest {
                 new TestServiceDirectory()
                         .add(LinkService.class, mockLinkService)
                         .add(StatisticService.class, mockStatisticService)
+                        .add(PacketService.class, mockPacketService)
                         .add(CodecService.class, codecService);
 
         setServiceDirectory(testDirectory);
@@ -178,4 +188,27 @@ public class StatisticsResourceTest extends ResourceTest {
         checkValues(load3, 111, 222, true, "src3");
 
     }
+
+    /**
+     * Tests GET of the packet admission statistics.
+     */
+    @Test
+    public void testPacketAdmissionGet() {
+        final WebTarget wt = target();
+        final String response = wt.path("statistics/packets/admission").request().get(String.class);
+
+        final JsonObject result = Json.parse(response).asObject();
+        assertThat(result, notNullValue());
+
+        final JsonArray statistics = result.get("statistics").asArray();
+        assertThat(statistics.size(), is(1));
+
+        final JsonObject entry = statistics.get(0).asObject();
+        assertThat(entry.get("device").asString(), is("of:0000000000000001"));
+        assertThat(entry.get("admitted").asLong(), is(100L));
+        assertThat(entry.get("deviceRateDropped").asLong(), is(1L));
+        assertThat(entry.get("ethTypeRateDropped").asLong(), is(2L));
+        assertThat(entry.get("queueDropped").asLong(), is(3L));
+        assertThat(entry.get("queueDepth").asInt(), is(4));
+    }
 }